@@ -1,12 +1,19 @@
 import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.nio.file.Path;
+import java.time.Duration;
 
 import controller.calendars.CalendarsControllerImpl;
+import controller.calendars.HeadlessBatch;
 import controller.gui.CalendarControllerGUIImpl;
 import model.calendars.CalendarsImpl;
+import model.calendars.CheckpointStats;
+import model.calendars.JournaledCalendars;
 import view.CalendarViewImpl;
 
 public class Main {
@@ -38,6 +45,22 @@ public class Main {
                 } catch (IOException i) {
                   throw new IllegalStateException(i.getMessage());
                 }
+              } else if (args[1].equals("batch")) {
+                BatchOptions options;
+                try {
+                  options = BatchOptions.parse(args, 3);
+                } catch (IllegalArgumentException e) {
+                  System.err.println(e.getMessage());
+                  System.exit(2);
+                  return;
+                }
+                runBatch(
+                        Path.of(args[2]),
+                        options.threads(),
+                        options.journal(),
+                        options.store(),
+                        options.checkpointEvery()
+                );
               }
             }
           }
@@ -50,4 +73,120 @@ public class Main {
       ).start();
     }
   }
+
+  private static void runBatch(
+          Path commands,
+          int threads,
+          Path journal,
+          Path store,
+          Duration checkpointEvery
+  ) {
+    long start = System.nanoTime();
+    long lines;
+    CheckpointStats checkpoints;
+    // with a journal or a store, the calendars of earlier runs are recovered from it first
+    try (JournaledCalendars journaled = openJournaled(journal, store)) {
+      if (store != null) {
+        journaled.checkpointEvery(checkpointEvery);
+      }
+      lines = HeadlessBatch.run(
+              commands,
+              new FileOutputStream(FileDescriptor.out),
+              (journaled != null) ? journaled : new CalendarsImpl(),
+              threads
+      );
+      checkpoints = (journaled != null) ? journaled.getCheckpointStats() : null;
+    } catch (IOException i) {
+      throw new IllegalStateException(i.getMessage());
+    }
+    double seconds = (System.nanoTime() - start) / 1e9;
+    System.err.printf("Ran %d lines in %.3f s (%.0f lines/s)%n", lines, seconds, lines / seconds);
+    if (checkpoints != null && checkpoints.checkpoints() > 0) {
+      System.err.printf(
+              "Took %d checkpoints in %.3f s, writing %d bytes%n",
+              checkpoints.checkpoints(),
+              checkpoints.totalDurationNanos() / 1e9,
+              checkpoints.totalBytesWritten()
+      );
+    }
+  }
+
+  private static JournaledCalendars openJournaled(Path journal, Path store)
+          throws IOException {
+    if (store != null) {
+      return JournaledCalendars.recover(store);
+    }
+    return (journal != null) ? JournaledCalendars.open(journal, new CalendarsImpl()) : null;
+  }
+
+  /**
+   * The options of a batch run, following the file of commands.
+   *
+   * @param threads         how many calendars to run commands on at once.
+   * @param journal         the file to journal changes to, or null for none.
+   * @param store           the directory to journal and checkpoint in, or null for none.
+   * @param checkpointEvery how often to checkpoint the store.
+   */
+  private record BatchOptions(int threads, Path journal, Path store, Duration checkpointEvery) {
+    private static final String USAGE = "Usage: --mode batch <commands> [--threads <n>] "
+            + "[--journal <file> | --store <directory> [--checkpoint-every <seconds>]]";
+
+    /**
+     * Parse the options of a batch run, rejecting any that are unknown, missing
+     * a value, malformed or in conflict with each other.
+     *
+     * @param args  the arguments of the program.
+     * @param first the index of the first option.
+     * @return the options parsed.
+     * @throws IllegalArgumentException if the options can't be run as given.
+     */
+    static BatchOptions parse(String[] args, int first) throws IllegalArgumentException {
+      int threads = 1;
+      Path journal = null;
+      Path store = null;
+      Duration checkpointEvery = null;
+      for (int i = first; i < args.length; i += 2) {
+        if (i + 1 == args.length) {
+          throw usage(args[i] + " needs a value.");
+        }
+        String value = args[i + 1];
+        switch (args[i]) {
+          case "--threads" -> threads = positive(args[i], value);
+          case "--journal" -> journal = Path.of(value);
+          case "--store" -> store = Path.of(value);
+          case "--checkpoint-every" ->
+                  checkpointEvery = Duration.ofSeconds(positive(args[i], value));
+          default -> throw usage("Unknown option " + args[i] + ".");
+        }
+      }
+      if (journal != null && store != null) {
+        throw usage("--journal and --store can't be used together.");
+      }
+      if (checkpointEvery != null && store == null) {
+        throw usage("--checkpoint-every needs --store.");
+      }
+      return new BatchOptions(
+              threads,
+              journal,
+              store,
+              (checkpointEvery != null) ? checkpointEvery : Duration.ofMinutes(1)
+      );
+    }
+
+    private static int positive(String option, String value) {
+      try {
+        int number = Integer.parseInt(value);
+        if (number > 0) {
+          return number;
+        }
+      } catch (NumberFormatException e) {
+        // reported below along with numbers out of range
+      }
+      throw usage(option + " needs a positive whole number, not " + value + ".");
+    }
+
+    private static IllegalArgumentException usage(String problem) {
+      return new IllegalArgumentException(problem + System.lineSeparator() + USAGE);
+    }
+  }
 }
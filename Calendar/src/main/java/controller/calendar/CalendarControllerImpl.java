@@ -1,13 +1,11 @@
 package controller.calendar;
 
 import java.io.IOException;
-import java.util.LinkedHashMap;
-import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Scanner;
 import java.util.function.Function;
 
 import model.calendar.RobustCalendar;
+import controller.commands.CommandRouter;
 import controller.commands.calendar.CreateRecurringAllDayEventsNTimes;
 import controller.commands.calendar.CreateRecurringAllDayEventsUntilDate;
 import controller.commands.calendar.CreateRecurringNormalEventsNTimes;
@@ -26,8 +24,7 @@ public class CalendarControllerImpl implements CalendarController {
   private final Scanner in;
   private final Appendable out;
   private final RobustCalendar m;
-  protected final Map<Function<String, Boolean>,
-          Function<String, Function<RobustCalendar, Function<Appendable, Void>>>> commands;
+  protected final CommandRouter<RobustCalendar> commands;
 
   public CalendarControllerImpl(
           Readable in,
@@ -41,137 +38,125 @@ public class CalendarControllerImpl implements CalendarController {
     commands = putCalCommands();
   }
 
-  protected Map<Function<String, Boolean>,
-          Function<String, Function<RobustCalendar, Function<Appendable, Void>>>> putCalCommands()
-  {
-    final Map<Function<String, Boolean>,
-            Function<String, Function<RobustCalendar, Function<Appendable, Void>>>> commands;
-    commands = new LinkedHashMap<>(
-            Map.of(
-                    "print menu"::equals, p -> r -> o ->
-                    {
-                      try {
-                        printMenu();
-                      } catch (IOException e) {
-                        throw new RuntimeException(e);
-                      }
-                      return null;
-                    },
-                    CreateSingleNormalEvent::matches, p -> r -> o ->
-                    {
-                      try {
-                        CreateSingleNormalEvent.perform(p, r, o);
-                      } catch (IOException i) {
-                        throw new IllegalArgumentException(i.getMessage());
-                      }
-                      return null;
-                    },
-                    CreateRecurringNormalEventsNTimes::matches, p -> r -> o ->
-                    {
-                      try {
-                        CreateRecurringNormalEventsNTimes.perform(p, r, o);
-                      } catch (IOException i) {
-                        throw new IllegalArgumentException(i.getMessage());
-                      }
-                      return null;
-                    },
-                    CreateRecurringNormalEventsUntilDate::matches, p -> r -> o ->
-                    {
-                      try {
-                        CreateRecurringNormalEventsUntilDate.perform(p, r, o);
-                      } catch (IOException i) {
-                        throw new IllegalArgumentException(i.getMessage());
-                      }
-                      return null;
-                    },
-                    CreateSingleAllDayEvent::matches, p -> r -> o ->
-                    {
-                      try {
-                        CreateSingleAllDayEvent.perform(p, r, o);
-                      } catch (IOException i) {
-                        throw new IllegalArgumentException(i.getMessage());
-                      }
-                      return null;
-                    },
-                    CreateRecurringAllDayEventsNTimes::matches, p -> r -> o ->
-                    {
-                      try {
-                        CreateRecurringAllDayEventsNTimes.perform(p, r, o);
-                      } catch (IOException i) {
-                        throw new IllegalArgumentException(i.getMessage());
-                      }
-                      return null;
-                    },
-                    CreateRecurringAllDayEventsUntilDate::matches, p -> r -> o ->
-                    {
-                      try {
-                        CreateRecurringAllDayEventsUntilDate.perform(p, r, o);
-                      } catch (IOException i) {
-                        throw new IllegalArgumentException(i.getMessage());
-                      }
-                      return null;
-                    },
-                    EditSingleEvent::matches, p -> r -> o ->
-                    {
-                      try {
-                        EditSingleEvent.perform(p, r, o);
-                      } catch (IOException i) {
-                        throw new IllegalArgumentException(i.getMessage());
-                      }
-                      return null;
-                    },
-                    EditEventAndMaybeOnward::matches, p -> r -> o ->
-                    {
-                      try {
-                        EditEventAndMaybeOnward.perform(p, r, o);
-                      } catch (IOException i) {
-                        throw new IllegalArgumentException(i.getMessage());
-                      }
-                      return null;
-                    },
-                    EditEventAndMaybeAll::matches, p -> r -> o ->
-                    {
-                      try {
-                        EditEventAndMaybeAll.perform(p, r, o);
-                      } catch (IOException i) {
-                        throw new IllegalArgumentException(i.getMessage());
-                      }
-                      return null;
-                    }
-            )
-    );
-    commands.putAll(
-            Map.of(
-                    PrintAllEventsOnDate::matches, p -> r -> o ->
-                    {
-                      try {
-                        PrintAllEventsOnDate.perform(p, r, o);
-                      } catch (IOException i) {
-                        throw new IllegalArgumentException(i.getMessage());
-                      }
-                      return null;
-                    },
-                    PrintAllEventsBetweenDates::matches, p -> r -> o ->
-                    {
-                      try {
-                        PrintAllEventsBetweenDates.perform(p, r, o);
-                      } catch (IOException i) {
-                        throw new IllegalArgumentException(i.getMessage());
-                      }
-                      return null;
-                    },
-                    ShowStatusOnDateAtTime::matches, p -> r -> o ->
-                    {
-                      try {
-                        ShowStatusOnDateAtTime.perform(p, r, o);
-                      } catch (IOException i) {
-                        throw new IllegalArgumentException(i.getMessage());
-                      }
-                      return null;
-                    }
-            )
-    );
-    return commands;
+  protected CommandRouter<RobustCalendar> putCalCommands() {
+    return new CommandRouter<RobustCalendar>()
+            .put("print menu", "print menu"::equals, p -> r -> o ->
+            {
+              try {
+                printMenu();
+              } catch (IOException e) {
+                throw new RuntimeException(e);
+              }
+              return null;
+            })
+            .put("create event", CreateSingleNormalEvent::matches, p -> r -> o ->
+            {
+              try {
+                CreateSingleNormalEvent.perform(p, r, o);
+              } catch (IOException i) {
+                throw new IllegalArgumentException(i.getMessage());
+              }
+              return null;
+            })
+            .put("create event", CreateRecurringNormalEventsNTimes::matches, p -> r -> o ->
+            {
+              try {
+                CreateRecurringNormalEventsNTimes.perform(p, r, o);
+              } catch (IOException i) {
+                throw new IllegalArgumentException(i.getMessage());
+              }
+              return null;
+            })
+            .put("create event", CreateRecurringNormalEventsUntilDate::matches, p -> r -> o ->
+            {
+              try {
+                CreateRecurringNormalEventsUntilDate.perform(p, r, o);
+              } catch (IOException i) {
+                throw new IllegalArgumentException(i.getMessage());
+              }
+              return null;
+            })
+            .put("create event", CreateSingleAllDayEvent::matches, p -> r -> o ->
+            {
+              try {
+                CreateSingleAllDayEvent.perform(p, r, o);
+              } catch (IOException i) {
+                throw new IllegalArgumentException(i.getMessage());
+              }
+              return null;
+            })
+            .put("create event", CreateRecurringAllDayEventsNTimes::matches, p -> r -> o ->
+            {
+              try {
+                CreateRecurringAllDayEventsNTimes.perform(p, r, o);
+              } catch (IOException i) {
+                throw new IllegalArgumentException(i.getMessage());
+              }
+              return null;
+            })
+            .put("create event", CreateRecurringAllDayEventsUntilDate::matches, p -> r -> o ->
+            {
+              try {
+                CreateRecurringAllDayEventsUntilDate.perform(p, r, o);
+              } catch (IOException i) {
+                throw new IllegalArgumentException(i.getMessage());
+              }
+              return null;
+            })
+            .put("edit event", EditSingleEvent::matches, p -> r -> o ->
+            {
+              try {
+                EditSingleEvent.perform(p, r, o);
+              } catch (IOException i) {
+                throw new IllegalArgumentException(i.getMessage());
+              }
+              return null;
+            })
+            .put("edit events", EditEventAndMaybeOnward::matches, p -> r -> o ->
+            {
+              try {
+                EditEventAndMaybeOnward.perform(p, r, o);
+              } catch (IOException i) {
+                throw new IllegalArgumentException(i.getMessage());
+              }
+              return null;
+            })
+            .put("edit series", EditEventAndMaybeAll::matches, p -> r -> o ->
+            {
+              try {
+                EditEventAndMaybeAll.perform(p, r, o);
+              } catch (IOException i) {
+                throw new IllegalArgumentException(i.getMessage());
+              }
+              return null;
+            })
+            .put("print events", PrintAllEventsOnDate::matches, p -> r -> o ->
+            {
+              try {
+                PrintAllEventsOnDate.perform(p, r, o);
+              } catch (IOException i) {
+                throw new IllegalArgumentException(i.getMessage());
+              }
+              return null;
+            })
+            .put("print events", PrintAllEventsBetweenDates::matches, p -> r -> o ->
+            {
+              try {
+                PrintAllEventsBetweenDates.perform(p, r, o);
+              } catch (IOException i) {
+                throw new IllegalArgumentException(i.getMessage());
+              }
+              return null;
+            })
+            .put("show status", ShowStatusOnDateAtTime::matches, p -> r -> o ->
+            {
+              try {
+                ShowStatusOnDateAtTime.perform(p, r, o);
+              } catch (IOException i) {
+                throw new IllegalArgumentException(i.getMessage());
+              }
+              return null;
+            });
   }
 
   @Override
@@ -200,21 +185,14 @@ public class CalendarControllerImpl implements CalendarController {
 
   @Override
   public boolean goOnce(String prompt) throws IOException {
-    boolean matched = false;
     if (prompt.equals("exit")) {
       return true;
-    } else {
-      for (Entry<Function<String, Boolean>,
-              Function<String, Function<RobustCalendar, Function<Appendable, Void>>>>
-              command : commands.entrySet()) {
-        if (command.getKey().apply(prompt)) {
-          command.getValue().apply(prompt).apply(m).apply(out);
-          matched = true;
-          break;
-        }
-      }
     }
-    if (!matched) {
+    Function<String, Function<RobustCalendar, Function<Appendable, Void>>> command =
+            commands.find(prompt);
+    if (command != null) {
+      command.apply(prompt).apply(m).apply(out);
+    } else {
       out.append("Unfortunately, no actions matched. Please try again.\n");
     }
     return false;
@@ -14,5 +14,15 @@ public interface CalendarsController {
    */
   void go() throws IOException;
 
+  /**
+   * Do a single command, as {@link #go()} does for each line it reads, but
+   * without asking for the next one afterwards.
+   *
+   * @param prompt the command to do.
+   * @return whether to terminate the program or not.
+   * @throws IOException if the target output is flawed.
+   */
+  boolean goOnce(String prompt) throws IOException;
+
   void printMenu() throws IOException;
 }
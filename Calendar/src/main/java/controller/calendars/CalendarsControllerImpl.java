@@ -1,15 +1,12 @@
 package controller.calendars;
 
 import java.io.IOException;
-import java.util.LinkedHashMap;
-import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Scanner;
-import java.util.Set;
 import java.util.function.Function;
 
 import controller.calendar.CalendarController;
 import controller.calendar.CalendarControllerImpl;
+import controller.commands.CommandRouter;
 import controller.commands.calendars.CopyAllEventsInBetweenDates;
 import controller.commands.calendars.CopyAllEventsOnDay;
 import controller.commands.calendars.CopySingleEvent;
@@ -17,6 +14,7 @@ import controller.commands.calendars.CreateCalendar;
 import controller.commands.calendars.EditCalendar;
 import controller.commands.calendars.UseCalendar;
 import model.calendar.CalendarImpl;
+import model.calendar.RobustCalendar;
 import model.calendars.RobustCalendars;
 
 public class CalendarsControllerImpl
@@ -25,9 +23,8 @@ public class CalendarsControllerImpl
   private final Appendable out;
   private final RobustCalendars m;
   private CalendarController c;
-  private final Set<Function<String, Boolean>> oldChecks;
-  private final Map<Function<String, Boolean>,
-          Function<String, Function<RobustCalendars, Function<Appendable, Void>>>> commands;
+  private final CommandRouter<RobustCalendar> oldCommands;
+  private final CommandRouter<RobustCalendars> commands;
 
   public CalendarsControllerImpl(
           Readable in,
@@ -39,65 +36,57 @@ public class CalendarsControllerImpl
     this.out = out;
     this.m = m;
     this.c = new CalendarControllerImpl(in, out, new CalendarImpl());
-    oldChecks = super.putCalCommands().keySet();
+    oldCommands = super.putCalCommands();
     commands = putCalsCommands();
   }
 
-  private Map<Function<String, Boolean>,
-          Function<String, Function<RobustCalendars, Function<Appendable, Void>>>> putCalsCommands() {
-    final Map<Function<String, Boolean>,
-            Function<String, Function<RobustCalendars, Function<Appendable, Void>>>> commands =
-            new LinkedHashMap<>();
-    commands.putAll(
-            Map.of(
-                    CreateCalendar::matches, p -> r -> o ->
-                    {
-                      try {
-                        CreateCalendar.perform(p, r, o);
-                      } catch (IOException i) {
-                        throw new IllegalArgumentException(i.getMessage());
-                      }
-                      return null;
-                    },
-                    EditCalendar::matches, p -> r -> o ->
-                    {
-                      try {
-                        EditCalendar.perform(p, r, o);
-                      } catch (IOException i) {
-                        throw new IllegalArgumentException(i.getMessage());
-                      }
-                      return null;
-                    },
-                    CopySingleEvent::matches, p -> r -> o ->
-                    {
-                      try {
-                        CopySingleEvent.perform(p, r, o);
-                      } catch (IOException i) {
-                        throw new IllegalArgumentException(i.getMessage());
-                      }
-                      return null;
-                    },
-                    CopyAllEventsOnDay::matches, p -> r -> o ->
-                    {
-                      try {
-                        CopyAllEventsOnDay.perform(p, r, o);
-                      } catch (IOException i) {
-                        throw new IllegalArgumentException(i.getMessage());
-                      }
-                      return null;
-                    },
-                    CopyAllEventsInBetweenDates::matches, p -> r -> o ->
-                    {
-                      try {
-                        CopyAllEventsInBetweenDates.perform(p, r, o);
-                      } catch (IOException i) {
-                        throw new IllegalArgumentException(i.getMessage());
-                      }
-                      return null;
-                    }
-            )
-    );
-    return commands;
+  private CommandRouter<RobustCalendars> putCalsCommands() {
+    return new CommandRouter<RobustCalendars>()
+            .put("create calendar", CreateCalendar::matches, p -> r -> o ->
+            {
+              try {
+                CreateCalendar.perform(p, r, o);
+              } catch (IOException i) {
+                throw new IllegalArgumentException(i.getMessage());
+              }
+              return null;
+            })
+            .put("edit calendar", EditCalendar::matches, p -> r -> o ->
+            {
+              try {
+                EditCalendar.perform(p, r, o);
+              } catch (IOException i) {
+                throw new IllegalArgumentException(i.getMessage());
+              }
+              return null;
+            })
+            .put("copy event", CopySingleEvent::matches, p -> r -> o ->
+            {
+              try {
+                CopySingleEvent.perform(p, r, o);
+              } catch (IOException i) {
+                throw new IllegalArgumentException(i.getMessage());
+              }
+              return null;
+            })
+            .put("copy events", CopyAllEventsOnDay::matches, p -> r -> o ->
+            {
+              try {
+                CopyAllEventsOnDay.perform(p, r, o);
+              } catch (IOException i) {
+                throw new IllegalArgumentException(i.getMessage());
+              }
+              return null;
+            })
+            .put("copy events", CopyAllEventsInBetweenDates::matches, p -> r -> o ->
+            {
+              try {
+                CopyAllEventsInBetweenDates.perform(p, r, o);
+              } catch (IOException i) {
+                throw new IllegalArgumentException(i.getMessage());
+              }
+              return null;
+            });
   }
 
   @Override
@@ -108,34 +97,11 @@ public class CalendarsControllerImpl
     while (in.hasNextLine()) {
       try {
         String prompt = in.nextLine().trim();
-        if (prompt.equals("exit")) {
+        if (goOnce(prompt)) {
           return;
-        } else if (prompt.equals("print menu")) {
-          printMenu();
-        } else if (UseCalendar.matches(prompt)) {
-          c = UseCalendar.perform(prompt, m, out, c);
-          out.append("Please enter your next choice: ");
-        } else {
-          if (oldChecks.stream().anyMatch((it) -> it.apply(prompt))) {
-            m.getActiveCal();
-            if (c.goOnce(prompt)) {
-              return;
-            }
-          } else {
-            boolean matched = false;
-            for (Entry<Function<String, Boolean>,
-                    Function<String, Function<RobustCalendars, Function<Appendable, Void>>>>
-                    command : commands.entrySet()) {
-              if (command.getKey().apply(prompt)) {
-                command.getValue().apply(prompt).apply(m).apply(out);
-                matched = true;
-                break;
-              }
-            }
-            if (!matched) {
-              out.append("Unfortunately, no actions matched. Please try again.\n");
-            }
-          }
+        }
+        // the menu already ends by asking for a choice
+        if (!prompt.equals("print menu")) {
           out.append("Please enter your next choice: ");
         }
       } catch (Exception e) {
@@ -145,6 +111,51 @@ public class CalendarsControllerImpl
     }
   }
 
+  @Override
+  public boolean goOnce(String prompt) throws IOException {
+    if (prompt.equals("exit")) {
+      return true;
+    } else if (prompt.equals("print menu")) {
+      printMenu();
+    } else if (UseCalendar.matches(prompt)) {
+      c = UseCalendar.perform(prompt, m, out, c);
+    } else {
+      Function<String, Function<RobustCalendars, Function<Appendable, Void>>> command =
+              commands.find(prompt);
+      if (command != null) {
+        command.apply(prompt).apply(m).apply(out);
+      } else if (oldCommands.find(prompt) != null) {
+        m.getActiveCal();
+        return c.goOnce(prompt);
+      } else {
+        out.append("Unfortunately, no actions matched. Please try again.\n");
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Find out whether a prompt is a command on the calendar in use alone, which
+   * can run alongside commands on other calendars.
+   *
+   * @param prompt the prompt in question.
+   * @return whether the prompt is a command on a single calendar.
+   */
+  boolean isSingleCalendarCommand(String prompt) {
+    return !prompt.equals("print menu") && oldCommands.find(prompt) != null;
+  }
+
+  /**
+   * Find out whether a prompt is a command that creates, changes, or copies
+   * between calendars, or ends the program, which nothing may run alongside.
+   *
+   * @param prompt the prompt in question.
+   * @return whether the prompt is a command across calendars.
+   */
+  boolean isMultiCalendarCommand(String prompt) {
+    return prompt.equals("exit") || commands.find(prompt) != null;
+  }
+
   @Override
   public void printMenu() throws IOException {
     out.append("Your choices are as ")
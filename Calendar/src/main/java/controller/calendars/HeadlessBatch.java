@@ -0,0 +1,159 @@
+package controller.calendars;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import model.calendars.RobustCalendars;
+
+/**
+ * A headless run of a file of commands meant for large scripts rather than
+ * people. The file is read through a file channel in large blocks and split
+ * into lines in place, commands are run without the welcome message, menu, or
+ * prompts for the next choice, and results go through a large buffered writer.
+ * Commands that fail print the same message as in {@link CalendarsController#go()}.
+ * With more than one thread, the commands on different calendars run
+ * alongside each other, as described in {@link PartitionedRun}.
+ */
+public final class HeadlessBatch {
+  static final int BUFFER_SIZE = 1 << 20;
+
+  private final CalendarsController controller;
+  private final PartitionedRun partitionedRun;
+  private final Writer out;
+  private final int bufferSize;
+  private long lines;
+
+  private HeadlessBatch(
+          RobustCalendars m,
+          Writer out,
+          ExecutorService workers,
+          int bufferSize
+  ) {
+    this.controller = (workers == null)
+            ? new CalendarsControllerImpl(Reader.nullReader(), out, m)
+            : null;
+    this.partitionedRun = (workers != null) ? new PartitionedRun(m, workers, out) : null;
+    this.out = out;
+    this.bufferSize = bufferSize;
+  }
+
+  /**
+   * Run every command in the given file on the given model, until the end of the
+   * file or an {@code exit} command.
+   *
+   * @param commandFile the file of commands, one per line, encoded in UTF-8.
+   * @param out         where to write the results of the commands to; it is
+   *                    flushed but not closed.
+   * @param m           the model to run the commands on.
+   * @return the number of lines run.
+   * @throws IOException if the file can't be read or the results can't be written.
+   */
+  public static long run(Path commandFile, OutputStream out, RobustCalendars m)
+          throws IOException {
+    return run(commandFile, out, m, 1, BUFFER_SIZE);
+  }
+
+  /**
+   * Run every command in the given file on the given model, as in
+   * {@link #run(Path, OutputStream, RobustCalendars)}, over the given number of
+   * threads.
+   *
+   * @param commandFile the file of commands, one per line, encoded in UTF-8.
+   * @param out         where to write the results of the commands to; it is
+   *                    flushed but not closed.
+   * @param m           the model to run the commands on.
+   * @param threads     how many threads to run commands on different calendars on.
+   * @return the number of lines run.
+   * @throws IOException if the file can't be read or the results can't be written.
+   */
+  public static long run(Path commandFile, OutputStream out, RobustCalendars m, int threads)
+          throws IOException {
+    return run(commandFile, out, m, threads, BUFFER_SIZE);
+  }
+
+  static long run(
+          Path commandFile,
+          OutputStream out,
+          RobustCalendars m,
+          int threads,
+          int bufferSize
+  ) throws IOException {
+    if (threads < 1) {
+      throw new IllegalArgumentException("At least one thread is needed!");
+    }
+    Writer writer = new BufferedWriter(
+            new OutputStreamWriter(out, StandardCharsets.UTF_8), bufferSize
+    );
+    ExecutorService workers = (threads > 1) ? Executors.newFixedThreadPool(threads) : null;
+    HeadlessBatch batch = new HeadlessBatch(m, writer, workers, bufferSize);
+    try (FileChannel channel = FileChannel.open(commandFile, StandardOpenOption.READ)) {
+      batch.readAll(channel);
+      if (batch.partitionedRun != null) {
+        batch.partitionedRun.finish();
+      }
+    } finally {
+      if (workers != null) {
+        workers.shutdownNow();
+      }
+      writer.flush();
+    }
+    return batch.lines;
+  }
+
+  private void readAll(FileChannel channel) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(bufferSize);
+    boolean isDone = false;
+    while (!isDone) {
+      boolean isAtEnd = channel.read(buffer) < 0;
+      buffer.flip();
+      byte[] bytes = buffer.array();
+      int lineStart = buffer.position();
+      for (int i = lineStart; i < buffer.limit() && !isDone; i++) {
+        if (bytes[i] == '\n') {
+          isDone = runLine(bytes, lineStart, i);
+          lineStart = i + 1;
+        }
+      }
+      buffer.position(lineStart);
+      if (isAtEnd) {
+        // the last line may not end with a line break
+        if (!isDone && buffer.hasRemaining()) {
+          runLine(bytes, lineStart, buffer.limit());
+        }
+        isDone = true;
+      } else if (lineStart == 0 && buffer.limit() == buffer.capacity()) {
+        // a line longer than the buffer, so make room for the rest of it
+        ByteBuffer larger = ByteBuffer.allocate(2 * buffer.capacity());
+        larger.put(buffer);
+        buffer = larger;
+      } else {
+        buffer.compact();
+      }
+    }
+  }
+
+  private boolean runLine(byte[] bytes, int from, int to) throws IOException {
+    lines++;
+    String prompt = new String(bytes, from, to - from, StandardCharsets.UTF_8).trim();
+    if (partitionedRun != null) {
+      return partitionedRun.accept(prompt);
+    }
+    try {
+      return controller.goOnce(prompt);
+    } catch (Exception e) {
+      out.append("ACTION FAILED: ").append(e.getMessage()).append(System.lineSeparator());
+      return false;
+    }
+  }
+}
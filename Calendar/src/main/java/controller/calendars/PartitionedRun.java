@@ -0,0 +1,232 @@
+package controller.calendars;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import controller.calendar.CalendarController;
+import controller.calendar.CalendarControllerImpl;
+import model.calendar.RobustCalendar;
+import model.calendars.RobustCalendars;
+
+/**
+ * The commands of a headless run spread over several threads by the calendar
+ * they act on. Commands on the calendar in use are held back in a lane per
+ * calendar; each lane runs its commands in order on a worker, alongside the
+ * lanes of other calendars. Commands across calendars (creating, editing, or
+ * copying between them) are barriers: every lane finishes before one runs.
+ * Switching calendars and other commands that touch no events run right away.
+ * The output of every command is kept apart and written in the order of the
+ * commands, so it is the same as running them one after another.
+ */
+final class PartitionedRun {
+  // past this many commands held back, the lanes are run to bound their output
+  private static final int MAX_PENDING = 1 << 16;
+
+  private final RobustCalendars m;
+  private final ExecutorService workers;
+  private final Appendable out;
+  private final Lane mainLane;
+  private final CalendarsControllerImpl controller;
+  // by the name of their calendar, as calendars handed out may be new wrappers every time
+  private final Map<String, Lane> lanes;
+  // the lane of each command whose output isn't written yet, and its index in the lane
+  private Lane[] pendingLanes;
+  private int[] pendingLines;
+  private int pending;
+
+  /**
+   * Construct a new partitioned run.
+   *
+   * @param m       the model to run the commands on.
+   * @param workers the threads to run the lanes on.
+   * @param out     where to write the results of the commands to, in order.
+   */
+  PartitionedRun(RobustCalendars m, ExecutorService workers, Appendable out) {
+    this.m = m;
+    this.workers = workers;
+    this.out = out;
+    this.mainLane = new Lane(null);
+    this.controller = new CalendarsControllerImpl(Reader.nullReader(), mainLane.output, m);
+    this.lanes = new HashMap<>();
+    this.pendingLanes = new Lane[64];
+    this.pendingLines = new int[64];
+  }
+
+  /**
+   * Take in the next command of the run, either running it right away or
+   * holding it back in the lane of its calendar.
+   *
+   * @param prompt the command.
+   * @return whether to terminate the run or not.
+   * @throws IOException if the results can't be written.
+   */
+  boolean accept(String prompt) throws IOException {
+    if (controller.isMultiCalendarCommand(prompt)) {
+      finish();
+      boolean isExit = runNow(prompt);
+      finish();
+      return isExit;
+    }
+    RobustCalendar calendar = controller.isSingleCalendarCommand(prompt) ? activeCal() : null;
+    // without a calendar in use, the command fails right away as it would otherwise
+    if (calendar == null) {
+      return runNow(prompt);
+    }
+    Lane lane = lanes.computeIfAbsent(calendar.getName(), (it) -> new Lane(calendar));
+    enqueue(lane, lane.hold(prompt));
+    if (pending >= MAX_PENDING) {
+      finish();
+    }
+    return false;
+  }
+
+  /**
+   * Run every command held back and write the results of all commands taken
+   * in so far, in order.
+   *
+   * @throws IOException if the results can't be written.
+   */
+  void finish() throws IOException {
+    runLanes();
+    for (int i = 0; i < pending; i++) {
+      Lane lane = pendingLanes[i];
+      int line = pendingLines[i];
+      out.append(lane.output, lane.startOf(line), lane.endOf(line));
+      pendingLanes[i] = null;
+    }
+    pending = 0;
+    lanes.clear();
+    mainLane.clear();
+  }
+
+  private RobustCalendar activeCal() {
+    try {
+      return m.getActiveCal();
+    } catch (NoSuchElementException e) {
+      return null;
+    }
+  }
+
+  private boolean runNow(String prompt) throws IOException {
+    boolean isExit = false;
+    try {
+      isExit = controller.goOnce(prompt);
+    } catch (Exception e) {
+      mainLane.fail(e);
+    }
+    enqueue(mainLane, mainLane.markEnd());
+    return isExit;
+  }
+
+  private void enqueue(Lane lane, int line) {
+    if (pending == pendingLanes.length) {
+      pendingLanes = Arrays.copyOf(pendingLanes, 2 * pending);
+      pendingLines = Arrays.copyOf(pendingLines, 2 * pending);
+    }
+    pendingLanes[pending] = lane;
+    pendingLines[pending] = line;
+    pending++;
+  }
+
+  private void runLanes() throws IOException {
+    if (lanes.size() == 1) {
+      lanes.values().iterator().next().run();
+      return;
+    }
+    List<Callable<Void>> tasks = new ArrayList<>(lanes.size());
+    for (Lane lane : lanes.values()) {
+      tasks.add(() -> {
+        lane.run();
+        return null;
+      });
+    }
+    try {
+      for (Future<Void> result : workers.invokeAll(tasks)) {
+        result.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException(e.getMessage());
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      } else if (e.getCause() instanceof Error error) {
+        throw error;
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  /**
+   * The commands held back for one calendar, along with their output, which is
+   * kept in one buffer and told apart by where each command's output ends.
+   */
+  private static final class Lane {
+    private final StringBuilder output;
+    private final CalendarController controller;
+    private final List<String> prompts;
+    private int[] ends;
+    private int count;
+
+    private Lane(RobustCalendar calendar) {
+      this.output = new StringBuilder();
+      this.controller = (calendar != null)
+              ? new CalendarControllerImpl(Reader.nullReader(), output, calendar)
+              : null;
+      this.prompts = new ArrayList<>();
+      this.ends = new int[16];
+    }
+
+    private int hold(String prompt) {
+      prompts.add(prompt);
+      return prompts.size() - 1;
+    }
+
+    private void run() {
+      for (String prompt : prompts) {
+        try {
+          controller.goOnce(prompt);
+        } catch (Exception e) {
+          fail(e);
+        }
+        markEnd();
+      }
+    }
+
+    private void fail(Exception e) {
+      output.append("ACTION FAILED: ").append(e.getMessage()).append(System.lineSeparator());
+    }
+
+    private int markEnd() {
+      if (count == ends.length) {
+        ends = Arrays.copyOf(ends, 2 * count);
+      }
+      ends[count] = output.length();
+      return count++;
+    }
+
+    private int startOf(int line) {
+      return (line == 0) ? 0 : ends[line - 1];
+    }
+
+    private int endOf(int line) {
+      return ends[line];
+    }
+
+    private void clear() {
+      output.setLength(0);
+      count = 0;
+    }
+  }
+}
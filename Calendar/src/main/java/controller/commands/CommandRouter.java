@@ -0,0 +1,83 @@
+package controller.commands;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A table of the commands a controller understands, grouped by the first two
+ * words they start with ("create event", "edit series", "print events", ...).
+ * Finding the command for a prompt looks up its first two words and only tries
+ * the few commands starting with them, rather than every command in turn.
+ *
+ * @param <M> the type of model the commands act on.
+ */
+public final class CommandRouter<M> {
+  private final Map<String, List<Route<M>>> routes;
+
+  /**
+   * Construct a new command router with no commands.
+   */
+  public CommandRouter() {
+    this.routes = new HashMap<>();
+  }
+
+  /**
+   * Add a command to this router. Commands starting with the same words are
+   * tried in the order they were added.
+   *
+   * @param keywords the first two words of the command, or the whole command if
+   *                 it is shorter.
+   * @param matches  whether a prompt starting with those words is this command.
+   * @param action   how to carry out the command for a matching prompt.
+   * @return this router.
+   */
+  public CommandRouter<M> put(
+          String keywords,
+          Function<String, Boolean> matches,
+          Function<String, Function<M, Function<Appendable, Void>>> action
+  ) {
+    routes.computeIfAbsent(keywords, (it) -> new ArrayList<>()).add(new Route<>(matches, action));
+    return this;
+  }
+
+  /**
+   * Find the command a prompt is, if any.
+   *
+   * @param prompt the prompt to find the command of.
+   * @return how to carry out the command, or null if the prompt is no command
+   *         of this router.
+   */
+  public Function<String, Function<M, Function<Appendable, Void>>> find(String prompt) {
+    List<Route<M>> candidates = routes.get(keywordsOf(prompt));
+    if (candidates != null) {
+      for (Route<M> route : candidates) {
+        if (route.matches().apply(prompt)) {
+          return route.action();
+        }
+      }
+    }
+    return null;
+  }
+
+  private static String keywordsOf(String prompt) {
+    int firstSpace = prompt.indexOf(' ');
+    int secondSpace = (firstSpace < 0) ? -1 : prompt.indexOf(' ', firstSpace + 1);
+    return (secondSpace < 0) ? prompt : prompt.substring(0, secondSpace);
+  }
+
+  /**
+   * A command along with when it applies.
+   *
+   * @param matches whether a prompt is the command.
+   * @param action  how to carry out the command.
+   * @param <M>     the type of model the command acts on.
+   */
+  private record Route<M>(
+          Function<String, Boolean> matches,
+          Function<String, Function<M, Function<Appendable, Void>>> action
+  ) {
+  }
+}
@@ -7,6 +7,10 @@ import java.util.regex.Pattern;
 import model.calendar.RobustCalendar;
 
 public class CreateRecurringAllDayEventsNTimes extends CalCommand {
+  private static final Pattern PATTERN = Pattern.compile(
+          "^create event (.*?) on (\\S+) repeats (\\S+) for (\\S+) times$"
+  );
+
   public CreateRecurringAllDayEventsNTimes(
           RobustCalendar m,
           String eventSubject,
@@ -22,10 +26,7 @@ public class CreateRecurringAllDayEventsNTimes extends CalCommand {
   }
 
   public static Matcher matcher(String prompt) {
-    Pattern allDaySeriesCreate = Pattern.compile(
-            "^create event (.*?) on (\\S+) repeats (\\S+) for (\\S+) times$"
-    );
-    return allDaySeriesCreate.matcher(prompt);
+    return PATTERN.matcher(prompt);
   }
 
   public static boolean matches(String prompt) {
@@ -7,6 +7,10 @@ import java.util.regex.Pattern;
 import model.calendar.RobustCalendar;
 
 public class CreateRecurringAllDayEventsUntilDate extends CalCommand {
+  private static final Pattern PATTERN = Pattern.compile(
+          "^create event (.*?) on (\\S+) repeats (\\S+) until (\\S+)$"
+  );
+
   public CreateRecurringAllDayEventsUntilDate(
           RobustCalendar m,
           String eventSubject,
@@ -22,10 +26,7 @@ public class CreateRecurringAllDayEventsUntilDate extends CalCommand {
   }
 
   public static Matcher matcher(String prompt) {
-    Pattern pattern = Pattern.compile(
-            "^create event (.*?) on (\\S+) repeats (\\S+) until (\\S+)$"
-    );
-    return pattern.matcher(prompt);
+    return PATTERN.matcher(prompt);
   }
 
   public static boolean matches(String prompt) {
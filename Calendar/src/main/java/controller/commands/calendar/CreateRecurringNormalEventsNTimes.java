@@ -7,6 +7,11 @@ import java.util.regex.Pattern;
 import model.calendar.RobustCalendar;
 
 public class CreateRecurringNormalEventsNTimes extends CalCommand {
+  private static final Pattern PATTERN = Pattern.compile(
+          "^create event (.*?) from (\\S+) to (\\S+) "
+                  + "repeats (\\S+) for (\\S+) times$"
+  );
+
   public CreateRecurringNormalEventsNTimes(
           RobustCalendar m,
           String eventSubject,
@@ -24,11 +29,7 @@ public class CreateRecurringNormalEventsNTimes extends CalCommand {
   }
 
   public static Matcher matcher(String prompt) {
-    Pattern pattern = Pattern.compile(
-            "^create event (.*?) from (\\S+) to (\\S+) "
-                    + "repeats (\\S+) for (\\S+) times$"
-    );
-    return pattern.matcher(prompt);
+    return PATTERN.matcher(prompt);
   }
 
   public static boolean matches(String prompt) {
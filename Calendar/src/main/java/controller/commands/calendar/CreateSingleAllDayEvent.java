@@ -7,6 +7,10 @@ import java.util.regex.Pattern;
 import model.calendar.RobustCalendar;
 
 public class CreateSingleAllDayEvent extends CalCommand {
+  private static final Pattern PATTERN = Pattern.compile(
+          "^create event (.*?) on (\\S+)$"
+  );
+
   public CreateSingleAllDayEvent(
           RobustCalendar m,
           String eventSubject,
@@ -18,10 +22,7 @@ public class CreateSingleAllDayEvent extends CalCommand {
   }
 
   public static Matcher matcher(String prompt) {
-    Pattern pattern = Pattern.compile(
-            "^create event (.*?) on (\\S+)$"
-    );
-    return pattern.matcher(prompt);
+    return PATTERN.matcher(prompt);
   }
 
   public static boolean matches(String prompt) {
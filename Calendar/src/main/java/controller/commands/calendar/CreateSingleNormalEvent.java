@@ -7,6 +7,10 @@ import java.util.regex.Pattern;
 import model.calendar.RobustCalendar;
 
 public class CreateSingleNormalEvent extends CalCommand {
+  private static final Pattern PATTERN = Pattern.compile(
+          "^create event (.*?) from (\\S+) to (\\S+)$"
+  );
+
   public CreateSingleNormalEvent(
           RobustCalendar m,
           String eventSubject,
@@ -20,10 +24,7 @@ public class CreateSingleNormalEvent extends CalCommand {
   }
 
   public static Matcher matcher(String prompt) {
-    Pattern pattern = Pattern.compile(
-            "^create event (.*?) from (\\S+) to (\\S+)$"
-    );
-    return pattern.matcher(prompt);
+    return PATTERN.matcher(prompt);
   }
 
   public static boolean matches(String prompt) {
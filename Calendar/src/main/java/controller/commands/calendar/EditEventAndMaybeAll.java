@@ -7,6 +7,10 @@ import java.util.regex.Pattern;
 import model.calendar.RobustCalendar;
 
 public class EditEventAndMaybeAll extends CalCommand {
+  private static final Pattern PATTERN = Pattern.compile(
+          "^edit series (.*?) (\\S+) from (\\S+) with (\\S+)$"
+  );
+
   public EditEventAndMaybeAll(
           RobustCalendar m,
           String property,
@@ -22,10 +26,7 @@ public class EditEventAndMaybeAll extends CalCommand {
   }
 
   public static Matcher matcher(String prompt) {
-    Pattern pattern = Pattern.compile(
-            "^edit series (.*?) (\\S+) from (\\S+) with (\\S+)$"
-    );
-    return pattern.matcher(prompt);
+    return PATTERN.matcher(prompt);
   }
 
   public static boolean matches(String prompt) {
@@ -7,6 +7,10 @@ import java.util.regex.Pattern;
 import model.calendar.RobustCalendar;
 
 public class EditEventAndMaybeOnward extends CalCommand {
+  private static final Pattern PATTERN = Pattern.compile(
+          "^edit events (.*?) (\\S+) from (\\S+) with (\\S+)$"
+  );
+
   public EditEventAndMaybeOnward(
           RobustCalendar m,
           String property,
@@ -22,10 +26,7 @@ public class EditEventAndMaybeOnward extends CalCommand {
   }
 
   public static Matcher matcher(String prompt) {
-    Pattern pattern = Pattern.compile(
-            "^edit events (.*?) (\\S+) from (\\S+) with (\\S+)$"
-    );
-    return pattern.matcher(prompt);
+    return PATTERN.matcher(prompt);
   }
 
   public static boolean matches(String prompt) {
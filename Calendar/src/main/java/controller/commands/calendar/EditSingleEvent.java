@@ -7,6 +7,10 @@ import java.util.regex.Pattern;
 import model.calendar.RobustCalendar;
 
 public class EditSingleEvent extends CalCommand {
+  private static final Pattern PATTERN = Pattern.compile(
+          "^edit event (.*?) (\\S+) from (\\S+) to (\\S+) with (\\S+)"
+  );
+
   public EditSingleEvent(
           RobustCalendar m,
           String property,
@@ -24,10 +28,7 @@ public class EditSingleEvent extends CalCommand {
   }
 
   public static Matcher matcher(String prompt) {
-    Pattern pattern = Pattern.compile(
-            "^edit event (.*?) (\\S+) from (\\S+) to (\\S+) with (\\S+)"
-    );
-    return pattern.matcher(prompt);
+    return PATTERN.matcher(prompt);
   }
 
   public static boolean matches(String prompt) {
@@ -1,31 +1,33 @@
 package controller.commands.calendar;
 
 import java.io.IOException;
-import java.util.List;
+import java.io.UncheckedIOException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-import model.events.RobustCalEvent;
 import model.calendar.RobustCalendar;
 
 public class PrintAllEventsBetweenDates extends CalCommand {
-  private List<RobustCalEvent> events;
+  private static final Pattern PATTERN = Pattern.compile(
+          "^print events from (.*?) to (\\S+)$"
+  );
+
+  private final Appendable out;
 
   public PrintAllEventsBetweenDates(
           RobustCalendar m,
           String fromDateStringTtimeString,
-          String toDateStringTtimeString
+          String toDateStringTtimeString,
+          Appendable out
   ) {
     super(m);
     this.fromDateStringTtimeString = fromDateStringTtimeString;
     this.toDateStringTtimeString = toDateStringTtimeString;
+    this.out = out;
   }
 
   public static Matcher matcher(String prompt) {
-    Pattern pattern = Pattern.compile(
-            "^print events from (.*?) to (\\S+)$"
-    );
-    return pattern.matcher(prompt);
+    return PATTERN.matcher(prompt);
   }
 
   public static boolean matches(String prompt) {
@@ -44,23 +46,23 @@ public class PrintAllEventsBetweenDates extends CalCommand {
     PrintAllEventsBetweenDates command = new PrintAllEventsBetweenDates(
             r,
             fromDate,
-            toDate
+            toDate,
+            out
     );
-    command.perform();
-    for (RobustCalEvent event : command.getEvents()) {
-      out.append(event.toString()).append(System.lineSeparator());
+    try {
+      command.perform();
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
     }
   }
 
-  public List<RobustCalEvent> getEvents() {
-    return events;
-  }
-
   @Override
   public void perform() {
-    events = m.printAllEventsBetweenDates(
-            fromDateStringTtimeString,
-            toDateStringTtimeString
-    );
+    // print each event as it is found, straight from what the calendar stores
+    try {
+      m.writeEventsBetweenDates(fromDateStringTtimeString, toDateStringTtimeString, out);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
   }
 }
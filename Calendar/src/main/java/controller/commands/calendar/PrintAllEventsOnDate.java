@@ -1,29 +1,31 @@
 package controller.commands.calendar;
 
 import java.io.IOException;
-import java.util.List;
+import java.io.UncheckedIOException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-import model.events.RobustCalEvent;
 import model.calendar.RobustCalendar;
 
 public class PrintAllEventsOnDate extends CalCommand {
-  private List<RobustCalEvent> events;
+  private static final Pattern PATTERN = Pattern.compile(
+          "^print events on (.*?)"
+  );
+
+  private final Appendable out;
 
   public PrintAllEventsOnDate(
           RobustCalendar m,
-          String dateString
+          String dateString,
+          Appendable out
   ) {
     super(m);
     this.dateString = dateString;
+    this.out = out;
   }
 
   public static Matcher matcher(String prompt) {
-    Pattern pattern = Pattern.compile(
-            "^print events on (.*?)"
-    );
-    return pattern.matcher(prompt);
+    return PATTERN.matcher(prompt);
   }
 
   public static boolean matches(String prompt) {
@@ -40,20 +42,23 @@ public class PrintAllEventsOnDate extends CalCommand {
     String date = matcher.group(1).trim();
     PrintAllEventsOnDate command = new PrintAllEventsOnDate(
             r,
-            date
+            date,
+            out
     );
-    command.perform();
-    for (RobustCalEvent event : command.getEvents()) {
-      out.append(event.toString()).append(System.lineSeparator());
+    try {
+      command.perform();
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
     }
   }
 
-  public List<RobustCalEvent> getEvents() {
-    return events;
-  }
-
   @Override
   public void perform() {
-    events = m.printAllEventsOnDate(dateString);
+    // print each event as it is found, straight from what the calendar stores
+    try {
+      m.writeEventsOnDate(dateString, out);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
   }
 }
@@ -7,6 +7,10 @@ import java.util.regex.Pattern;
 import model.calendar.RobustCalendar;
 
 public class ShowStatusOnDateAtTime extends CalCommand {
+  private static final Pattern PATTERN = Pattern.compile(
+          "^show status on (.*?)$"
+  );
+
   private String status;
 
   public ShowStatusOnDateAtTime(
@@ -18,10 +22,7 @@ public class ShowStatusOnDateAtTime extends CalCommand {
   }
 
   public static Matcher matcher(String prompt) {
-    Pattern pattern = Pattern.compile(
-            "^show status on (.*?)$"
-    );
-    return pattern.matcher(prompt);
+    return PATTERN.matcher(prompt);
   }
 
   public static boolean matches(String prompt) {
@@ -7,6 +7,10 @@ import java.util.regex.Pattern;
 import model.calendars.RobustCalendars;
 
 public class CopyAllEventsInBetweenDates extends CalsCommand {
+  private static final Pattern PATTERN = Pattern.compile(
+          "^copy events between (.*?) and (\\S+) --target (\\S+) to (\\S+)$"
+  );
+
   public CopyAllEventsInBetweenDates(
           RobustCalendars m,
           String fromDateString,
@@ -22,10 +26,7 @@ public class CopyAllEventsInBetweenDates extends CalsCommand {
   }
 
   public static Matcher matcher(String prompt) {
-    Pattern pattern = Pattern.compile(
-            "^copy events between (.*?) and (\\S+) --target (\\S+) to (\\S+)$"
-    );
-    return pattern.matcher(prompt);
+    return PATTERN.matcher(prompt);
   }
 
   public static boolean matches(String prompt) {
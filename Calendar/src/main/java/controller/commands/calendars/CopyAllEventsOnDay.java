@@ -7,6 +7,10 @@ import java.util.regex.Pattern;
 import model.calendars.RobustCalendars;
 
 public class CopyAllEventsOnDay extends CalsCommand {
+  private static final Pattern PATTERN = Pattern.compile(
+          "^copy events on (.*?) --target (\\S+) to (\\S+)$"
+  );
+
   public CopyAllEventsOnDay(
           RobustCalendars m,
           String onDateString,
@@ -20,10 +24,7 @@ public class CopyAllEventsOnDay extends CalsCommand {
   }
 
   public static Matcher matcher(String prompt) {
-    Pattern pattern = Pattern.compile(
-            "^copy events on (.*?) --target (\\S+) to (\\S+)$"
-    );
-    return pattern.matcher(prompt);
+    return PATTERN.matcher(prompt);
   }
 
   public static boolean matches(String prompt) {
@@ -7,6 +7,10 @@ import java.util.regex.Pattern;
 import model.calendars.RobustCalendars;
 
 public class CreateCalendar extends CalsCommand {
+  private static final Pattern PATTERN = Pattern.compile(
+          "^create calendar --name (.*?) --timezone (\\S+)$"
+  );
+
   public CreateCalendar(
           RobustCalendars m,
           String name,
@@ -18,10 +22,7 @@ public class CreateCalendar extends CalsCommand {
   }
 
   public static Matcher matcher(String prompt) {
-    Pattern pattern = Pattern.compile(
-            "^create calendar --name (.*?) --timezone (\\S+)$"
-    );
-    return pattern.matcher(prompt);
+    return PATTERN.matcher(prompt);
   }
 
   public static boolean matches(String prompt) {
@@ -7,6 +7,10 @@ import java.util.regex.Pattern;
 import model.calendars.RobustCalendars;
 
 public class EditCalendar extends CalsCommand {
+  private static final Pattern PATTERN = Pattern.compile(
+          "^edit calendar --name (.*?) --property (.*?) (\\S+)$"
+  );
+
   public EditCalendar(
           RobustCalendars m,
           String name,
@@ -20,10 +24,7 @@ public class EditCalendar extends CalsCommand {
   }
 
   public static Matcher matcher(String prompt) {
-    Pattern pattern = Pattern.compile(
-            "^edit calendar --name (.*?) --property (.*?) (\\S+)$"
-    );
-    return pattern.matcher(prompt);
+    return PATTERN.matcher(prompt);
   }
 
   public static boolean matches(String prompt) {
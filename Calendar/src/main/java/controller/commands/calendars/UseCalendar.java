@@ -8,6 +8,10 @@ import controller.calendar.CalendarController;
 import model.calendars.RobustCalendars;
 
 public class UseCalendar extends CalsCommand {
+  private static final Pattern PATTERN = Pattern.compile(
+          "^use calendar --name (\\S+)$"
+  );
+
   public UseCalendar(
           RobustCalendars m,
           String name
@@ -17,10 +21,7 @@ public class UseCalendar extends CalsCommand {
   }
 
   public static Matcher matcher(String prompt) {
-    Pattern pattern = Pattern.compile(
-            "^use calendar --name (\\S+)$"
-    );
-    return pattern.matcher(prompt);
+    return PATTERN.matcher(prompt);
   }
 
   public static boolean matches(String prompt) {
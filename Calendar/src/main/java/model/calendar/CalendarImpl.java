@@ -1,18 +1,35 @@
 package model.calendar;
 
+import java.io.IOException;
 import java.time.DateTimeException;
 import java.time.DayOfWeek;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.YearMonth;
 import java.time.ZoneId;
+import java.util.AbstractSet;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.SortedSet;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import model.events.CalEventImpl;
+import model.events.DateTimes;
+import model.events.EventProperty;
+import model.events.Recurrence;
 import model.events.RobustCalEvent;
 import model.events.ZonedCalEventImpl;
 
@@ -23,8 +40,20 @@ import model.events.ZonedCalEventImpl;
  */
 public class CalendarImpl implements RobustCalendar {
   private final Set<RobustCalEvent> events;
+  private final IntervalTree<RobustCalEvent> eventIntervals;
+  private final DayIndex eventDays;
+  private final EventKeyIndex eventKeys;
+  private final RecurrenceIndex recurrences;
   private String name;
   private ZoneId zone;
+  private volatile CalendarSnapshot snapshot;
+  /* the version of the latest snapshot, and the version of the snapshot that first
+   * showed the last change to the stored events starting in each month, to the
+   * series rules, and to every stored event at once */
+  private final Map<YearMonth, Long> monthVersions;
+  private long version;
+  private long rulesVersion;
+  private long rebuiltVersion;
 
   /**
    * Construct a new calendar object with empty event and event series sets
@@ -42,13 +71,175 @@ public class CalendarImpl implements RobustCalendar {
    */
   public CalendarImpl(String name, String zone) {
     events = new TreeSet<>();
+    eventIntervals = new IntervalTree<>(
+            Comparator.naturalOrder(),
+            RobustCalEvent::getStartDateTime,
+            RobustCalEvent::getEndDateTime
+    );
+    eventDays = new DayIndex();
+    eventKeys = new EventKeyIndex();
+    recurrences = new RecurrenceIndex();
+    monthVersions = new HashMap<>();
     this.zone = (zone != null) ? ZoneId.of(zone) : null;
     this.name = name;
+    publish();
+    rebuiltVersion = version;
+  }
+
+  /**
+   * Construct a calendar holding the given events and series rules, building
+   * each index in one go rather than event by event, as a snapshot file is
+   * loaded.
+   *
+   * @param name   the name of the calendar.
+   * @param zone   the time zone of the calendar, if any.
+   * @param events the events to store, distinct and in order.
+   * @param rules  the series only stored as a rule, in the order they were added.
+   * @return the calendar.
+   */
+  static CalendarImpl restore(
+          String name,
+          String zone,
+          List<RobustCalEvent> events,
+          List<RobustCalEvent.Series> rules
+  ) {
+    CalendarImpl calendar = new CalendarImpl(name, zone);
+    // the events are distinct and in order already, so each index is built from the order
+    List<RobustCalEvent> frozenCopies = new ArrayList<>(events.size());
+    for (RobustCalEvent event : events) {
+      frozenCopies.add(new CalEventImpl(event));
+      calendar.eventKeys.add(event);
+    }
+    calendar.events.addAll(new SortedListView<>(events));
+    calendar.eventDays.addAll(frozenCopies);
+    calendar.eventIntervals.addAll(frozenCopies);
+    rules.forEach(calendar.recurrences::add);
+    calendar.publish();
+    return calendar;
+  }
+
+  /**
+   * Retrieve a snapshot of this calendar as it was at the end of the last
+   * change to it, which can be queried from other threads while this calendar
+   * keeps changing.
+   *
+   * @return the latest snapshot of this calendar.
+   */
+  public CalendarSnapshot getSnapshot() {
+    return snapshot;
+  }
+
+  private void publish() {
+    // the trees copy what they change, so the snapshot shares them as they are
+    version++;
+    snapshot = new CalendarSnapshot(eventIntervals.snapshot(), recurrences.spans(), zone);
+  }
+
+  /**
+   * Retrieve the version of the latest snapshot of this calendar, which goes
+   * up by one with every snapshot.
+   *
+   * @return the version of {@link #getSnapshot()}.
+   */
+  long version() {
+    return version;
+  }
+
+  /**
+   * Find out what changed in this calendar since its snapshot of the given
+   * version, at the granularity of the months the stored events start in.
+   * Call it from the thread changing this calendar, or while changes to it are
+   * held back, so the changes match the snapshot returned with them.
+   *
+   * @param sinceVersion the version of an earlier snapshot; one from before
+   *                     the first snapshot, such as 0, counts every stored
+   *                     event as changed.
+   * @return the changes, along with the latest snapshot.
+   */
+  Changes changesSince(long sinceVersion) {
+    if (rebuiltVersion > sinceVersion) {
+      return new Changes(snapshot, version, true, true, null);
+    }
+    SortedSet<YearMonth> months = new TreeSet<>();
+    monthVersions.forEach((month, changedAt) -> {
+      if (changedAt > sinceVersion) {
+        months.add(month);
+      }
+    });
+    return new Changes(snapshot, version, false, rulesVersion > sinceVersion, months);
+  }
+
+  /**
+   * What changed in a calendar between an earlier snapshot of it and the
+   * latest one.
+   *
+   * @param snapshot        the latest snapshot.
+   * @param version         the version of the latest snapshot.
+   * @param isRebuilt       whether any stored event may have changed, as after
+   *                        the time zone of the calendar changed.
+   * @param areRulesChanged whether the series only stored as a rule changed.
+   * @param months          the months whose stored events changed, in order,
+   *                        or null if the calendar was rebuilt.
+   */
+  record Changes(
+          CalendarSnapshot snapshot,
+          long version,
+          boolean isRebuilt,
+          boolean areRulesChanged,
+          SortedSet<YearMonth> months
+  ) {
+  }
+
+  private void touch(RobustCalEvent event) {
+    // the change first shows in the next snapshot, so it takes that one's version
+    LocalDateTime start = event.getStartDateTime();
+    monthVersions.put(YearMonth.of(start.getYear(), start.getMonth()), version + 1);
   }
 
   @Override
   public Set<RobustCalEvent> getEvents() {
-    return events;
+    if (recurrences.isEmpty()) {
+      return events;
+    }
+    // a view walking the stored events and every rule together, rather than a copy of them
+    return new AbstractSet<>() {
+      @Override
+      public Iterator<RobustCalEvent> iterator() {
+        List<Iterator<RobustCalEvent>> sources = new ArrayList<>();
+        sources.add(events.iterator());
+        sources.addAll(recurrences.occurrences());
+        return new MergingIterator<>(sources, Comparator.naturalOrder());
+      }
+
+      @Override
+      public int size() {
+        // no stored event has the sort keys of an occurrence, so none is counted twice
+        return (int) Math.min(events.size() + recurrences.countOccurrences(), Integer.MAX_VALUE);
+      }
+
+      @Override
+      public boolean contains(Object other) {
+        return events.contains(other)
+                || (other instanceof RobustCalEvent event && recurrences.contains(event));
+      }
+    };
+  }
+
+  private boolean isTaken(RobustCalEvent key) {
+    return events.contains(key) || recurrences.contains(key);
+  }
+
+  @Override
+  public RobustCalEvent getEvent(String eventSubject, String fromDateStringTtimeString) {
+    LocalDateTime startDateTime = DateTimes.parseDateTime(fromDateStringTtimeString);
+    RobustCalEvent event = eventKeys.find(eventSubject, startDateTime);
+    if (event == null) {
+      RobustCalEvent.Series series = recurrences.find(eventSubject, startDateTime);
+      if (series != null) {
+        event = series.getRule().occurrenceOn(startDateTime.toLocalDate(), series);
+      }
+    }
+    return event;
   }
 
   @Override
@@ -58,7 +249,7 @@ public class CalendarImpl implements RobustCalendar {
 
   @Override
   public String getZone() {
-    return zone.toString();
+    return (zone != null) ? zone.toString() : null;
   }
 
   @Override
@@ -68,729 +259,537 @@ public class CalendarImpl implements RobustCalendar {
 
   @Override
   public void setZone(String zone) {
-    this.zone = (zone != null) ? ZoneId.of(zone) : null;
+    ZoneId newZone = (zone != null) ? ZoneId.of(zone) : null;
+    rebase(ZoneConverter.of(this.zone, newZone));
+    this.zone = newZone;
+    publish();
+  }
+
+  private void rebase(ZoneConverter converter) {
+    if (converter.isIdentity()) {
+      return;
+    }
+    // a rule can't follow the offsets of two zones, so timed series store their events
+    for (RobustCalEvent.Series series : recurrences.series()) {
+      if (!series.getRule().isAllDay()) {
+        materialize(series);
+      }
+    }
+    // events keep the instant they happen at, while all-day ones stay on their date
+    List<RobustCalEvent> rebased = new ArrayList<>(events.size());
+    for (RobustCalEvent event : events) {
+      if (event.isAllDay()) {
+        rebased.add(event);
+        continue;
+      }
+      RobustCalEvent moved = new CalEventImpl(event, converter::convert);
+      RobustCalEvent.Series series = event.getSeries();
+      if (series != null) {
+        series.remove(event);
+        moved.setSeries(series);
+        series.add(moved);
+      }
+      rebased.add(moved);
+    }
+    // nearly every sort key changed, so the indexes are rebuilt rather than updated
+    rebuiltVersion = version + 1;
+    events.clear();
+    eventIntervals.clear();
+    eventDays.clear();
+    eventKeys.clear();
+    addEvents(rebased);
   }
 
   @Override
   public void createSingleNormalEvent(
           String eventSubject,
-          String fromDateStringTtimeString,
-          String toDateStringTtimeString
+          LocalDateTime startDateTime,
+          LocalDateTime endDateTime
   ) {
-    events.add(
-            createOneNormalEvent(
-                    eventSubject,
-                    fromDateStringTtimeString,
-                    toDateStringTtimeString
-            )
+    addEvent(new CalEventImpl(eventSubject, startDateTime, endDateTime));
+    publish();
+  }
+
+  private void addEvent(RobustCalEvent event) {
+    // only index events that aren't duplicates of ones already in the calendar
+    if (!recurrences.contains(event) && events.add(event)) {
+      touch(event);
+      /* the indexes queries print from hold a frozen copy, as snapshots share the
+       * interval tree and printed events are views rather than copies */
+      RobustCalEvent frozen = new CalEventImpl(event);
+      eventIntervals.add(frozen);
+      eventDays.add(frozen);
+      eventKeys.add(event);
+    }
+  }
+
+  @Override
+  public void createCopiesOfEvents(
+          Iterable<? extends RobustCalEvent> events,
+          ZoneId sourceZone,
+          Duration shift
+  ) {
+    ZoneConverter converter = ZoneConverter.of(sourceZone, zone);
+    List<RobustCalEvent> copies = new ArrayList<>();
+    for (RobustCalEvent event : events) {
+      copies.add(new CalEventImpl(event, converter.moveOf(event, shift)));
+    }
+    addEvents(copies);
+    publish();
+  }
+
+  private void addEvents(List<RobustCalEvent> newEvents) {
+    List<RobustCalEvent> frozenCopies = new ArrayList<>(newEvents.size());
+    for (RobustCalEvent event : newEvents) {
+      if (!recurrences.contains(event) && events.add(event)) {
+        touch(event);
+        RobustCalEvent frozen = new CalEventImpl(event);
+        frozenCopies.add(frozen);
+        eventDays.add(frozen);
+        eventKeys.add(event);
+      }
+    }
+    // load the interval tree in one go instead of copying a path of it per event
+    eventIntervals.addAll(frozenCopies);
+  }
+
+  private void rekeyEvent(RobustCalEvent event, Consumer<RobustCalEvent> edit) {
+    // try the edit on a copy first, so a failing or clashing edit changes nothing
+    RobustCalEvent editedKey = copyKeyOf(event);
+    edit.accept(editedKey);
+    if (!editedKey.equals(event) && isTaken(editedKey)) {
+      throw new IllegalArgumentException("An event with the same subject, start, and end " +
+              "already exists!");
+    }
+    // take the event out of every ordered structure holding it while its sort keys change
+    RobustCalEvent.Series series = event.getSeries();
+    touch(event);
+    events.remove(event);
+    eventIntervals.remove(event);
+    eventDays.remove(event);
+    eventKeys.remove(event);
+    if (series != null) {
+      series.remove(event);
+    }
+    edit.accept(event);
+    addEvent(event);
+    if (series != null) {
+      series.add(event);
+    }
+  }
+
+  private void refreshEvent(RobustCalEvent event) {
+    // swap in a new frozen copy, leaving the one older snapshots and views hold alone
+    if (eventIntervals.remove(event)) {
+      touch(event);
+      RobustCalEvent frozen = new CalEventImpl(event);
+      eventIntervals.add(frozen);
+      eventDays.remove(event);
+      eventDays.add(frozen);
+    }
+  }
+
+  private static RobustCalEvent copyKeyOf(RobustCalEvent event) {
+    RobustCalEvent copy = new CalEventImpl(
+            event.getSubject(), event.getStartDateTime(), event.getEndDateTime()
     );
+    // all-day events always span the same hours of their start date
+    if (event.isAllDay()) {
+      copy.setAllDay();
+    }
+    return copy;
   }
 
-  private RobustCalEvent createOneNormalEvent(
+  private RobustCalEvent findEditTarget(
           String eventSubject,
-          String fromDateStringTtimeString,
-          String toDateStringTtimeString
+          LocalDateTime startDateTime,
+          LocalDateTime endDateTime
   ) {
-    return new CalEventImpl(
-            eventSubject,
-            LocalDateTime.parse(fromDateStringTtimeString),
-            LocalDateTime.parse(toDateStringTtimeString)
-    );
+    RobustCalEvent targetEvent = eventKeys.find(eventSubject, startDateTime, endDateTime);
+    if (targetEvent == null) {
+      RobustCalEvent.Series series = recurrences.find(eventSubject, startDateTime, endDateTime);
+      if (series != null) {
+        targetEvent = storeOccurrence(series, startDateTime.toLocalDate());
+      }
+    }
+    return targetEvent;
+  }
+
+  private RobustCalEvent findEditTarget(String eventSubject, LocalDateTime startDateTime) {
+    RobustCalEvent targetEvent = eventKeys.find(eventSubject, startDateTime);
+    RobustCalEvent.Series series = (targetEvent != null)
+            ? targetEvent.getSeries()
+            : recurrences.find(eventSubject, startDateTime);
+    // edits of several events of a series need all of its events stored
+    if (series != null && series.getRule() != null) {
+      materialize(series);
+      targetEvent = eventKeys.find(eventSubject, startDateTime);
+    }
+    return targetEvent;
+  }
+
+  private RobustCalEvent storeOccurrence(RobustCalEvent.Series series, LocalDate date) {
+    // only the edited occurrence is stored, and the rule skips its date from now on
+    Recurrence rule = series.getRule();
+    RobustCalEvent occurrence = rule.occurrenceOn(date, series);
+    recurrences.remove(series);
+    rulesVersion = version + 1;
+    Recurrence rest = rule.except(date);
+    if (rest.size() > 0) {
+      series.setRule(rest);
+      recurrences.add(series);
+    } else {
+      series.setRule(null);
+    }
+    series.add(occurrence);
+    addEvent(occurrence);
+    return occurrence;
+  }
+
+  private void materialize(RobustCalEvent.Series series) {
+    // store every other occurrence so the edited ones can differ from the rule
+    recurrences.remove(series);
+    rulesVersion = version + 1;
+    Recurrence rule = series.getRule();
+    series.setRule(null);
+    rule.forEachOccurrence(series, (event) -> {
+      series.add(event);
+      addEvent(event);
+    });
   }
 
   @Override
   public void createRecurringNormalEventsNTimes(
           String eventSubject,
-          String fromDateStringTtimeString,
-          String toDateStringTtimeString,
-          String repeatWeekdays,
+          LocalDateTime startDateTime,
+          LocalDateTime endDateTime,
+          Set<DayOfWeek> repeatWeekdays,
           int N
   ) {
     // if N is 0 or 1, do one event creation only
     if (N == 0 || N == 1) {
-      createSingleNormalEvent(eventSubject, fromDateStringTtimeString, toDateStringTtimeString);
+      createSingleNormalEvent(eventSubject, startDateTime, endDateTime);
     }
-    // define the new series
-    RobustCalEvent.Series newSeries = new RobustCalEvent.Series();
     // get starting data
-    if (LocalDateTime.parse(fromDateStringTtimeString).toLocalDate().getDayOfMonth() !=
-            LocalDateTime.parse(toDateStringTtimeString).toLocalDate().getDayOfMonth()
-    ) {
+    if (startDateTime.getDayOfMonth() != endDateTime.getDayOfMonth()) {
       throw new DateTimeException("Cannot repeat an event that doesn't end on " +
               "the same day it starts on!");
     }
-    RobustCalEvent firstEvent = createOneNormalEvent(
-            eventSubject, fromDateStringTtimeString, toDateStringTtimeString
-    );
-    firstEvent.setSeries(newSeries);
-    newSeries.add(firstEvent);
-    // retrieve the weekdays
-    for (char weekday : repeatWeekdays.toCharArray()) {
-      if (!CalEventImpl.getDaysOfTheWeek().containsKey(weekday)) {
-        throw new DateTimeException("Invalid weekday letters entered! " +
-                "'M' is Monday, 'T' is Tuesday, 'W' is Wednesday, 'R' is Thursday, " +
-                "'F' is Friday, 'S' is Saturday, and 'U' is Sunday."
-        );
-      }
-    }
-    /* cases for weekdays:
-     *  1. weekdays are after the current one, in which case in the first
-     *     iteration we can continue as wanted
-     *  2. weekdays are BEFORE the current one, in which case in the first
-     *     iteration we can continue with the OTHER weekdays, BUT ADD them
-     *     from the NEXT iteration onward */
-    // create a wrapper class version of the repeated weekdays
-    Character[] weekdays = new Character[repeatWeekdays.length()];
-    for (int i = 0; i < repeatWeekdays.length(); i++) {
-      weekdays[i] = repeatWeekdays.toCharArray()[i];
-    }
-    // store the days of the week
-    DayOfWeek[] repeatDaysOfWeek = Arrays.stream(weekdays)
-            .map(CalEventImpl.getDaysOfTheWeek()::get)
-            .toArray(DayOfWeek[]::new);
-    // find the offset from the day of the week of the first day
-    int firstEventDayOfWeekNum = firstEvent
-            .getStartDateTime().toLocalDate().getDayOfWeek().ordinal();
-    Integer[] dayOfWeekOffset = Arrays.stream(repeatDaysOfWeek)
-            .map((it) -> it.ordinal() - firstEventDayOfWeekNum)
-            .toArray(Integer[]::new);
-    /* plan:
-     *  1. find the first iteration of the dates, keeping in mind the two cases
-     *     defined above
-     *     a. if they're after, just add the days and create the date
-     *     b. if they're before, add 7 to the ordinal difference and create that
-     *        event, that many days after
-     *  2. then, for a total of N times, create days that mirror these events on
-     *     the specified days of the week, adding seven days to the date */
-    // define an ordered collection of all the events
-    Set<RobustCalEvent> allFirstEvents = new TreeSet<>();
-    // define auxiliary before and after events data structures
-    List<RobustCalEvent> beforeFirstEvents = new ArrayList<>();
-    List<RobustCalEvent> afterFirstEvents = new ArrayList<>();
-    // define data structures of the non-0 offsets for repeating events on certain days
-    Integer[] beforeOffsets = Arrays.stream(dayOfWeekOffset)
-            .filter((it) -> it < 0)
-            .map((it) -> it + 7)
-            .toArray(Integer[]::new);
-    Integer[] afterOffsets = Arrays.stream(dayOfWeekOffset)
-            .filter((it) -> it >= 0)
-            .toArray(Integer[]::new);
-    // create these relevant repeating events' first iterations
-    createWeekdayRepeatNormalEvents(eventSubject, firstEvent, beforeFirstEvents, beforeOffsets);
-    createWeekdayRepeatNormalEvents(eventSubject, firstEvent, afterFirstEvents, afterOffsets);
-    // add these first iterations to the set of all first events
-    allFirstEvents.addAll(beforeFirstEvents);
-    allFirstEvents.addAll(afterFirstEvents);
-    // now, create the new events to add a total of N times
-    RobustCalEvent[] allFirstEventsArray = allFirstEvents.toArray(RobustCalEvent[]::new);
-    int i = 0;
-    while (newSeries.getEvents().size() < N) {
-      for (RobustCalEvent event : allFirstEventsArray) {
-        RobustCalEvent newEvent = new CalEventImpl(
-                eventSubject,
-                LocalDateTime.of(
-                        LocalDate.ofEpochDay(
-                                event.getStartDateTime().toLocalDate().toEpochDay()
-                                        + 7L * i
-                        ), event.getStartDateTime().toLocalTime()
-                ),
-                LocalDateTime.of(
-                        LocalDate.ofEpochDay(
-                                event.getEndDateTime().toLocalDate().toEpochDay()
-                                        + 7L * i
-                        ), event.getEndDateTime().toLocalTime()
-                )
-        );
-        if (newSeries.getEvents().size() < N) {
-          newEvent.setSeries(newSeries);
-          newSeries.add(newEvent);
-        } else {
-          break;
-        }
-      }
-      i++;
+    RobustCalEvent firstEvent = new CalEventImpl(eventSubject, startDateTime, endDateTime);
+    // the single event above already covers these cases
+    if (N == 0 || N == 1) {
+      return;
     }
-    // finally, store all the events in the calendar's events field
-    events.addAll(newSeries.getEvents());
+    addSeries(Recurrence.nTimes(firstEvent, repeatWeekdays, N));
   }
 
   @Override
   public void createRecurringNormalEventsUntilDate(
           String eventSubject,
-          String fromDateStringTtimeString,
-          String toDateStringTtimeString,
-          String repeatWeekdays,
-          String untilDateString
+          LocalDateTime startDateTime,
+          LocalDateTime endDateTime,
+          Set<DayOfWeek> repeatWeekdays,
+          LocalDate untilDate
   ) {
-    // calculate an undershot (for safety) amount of weeks to repeat the event
-    LocalDate untilDate = LocalDate.parse(untilDateString);
-    int times = Math.toIntExact(
-            (int) (
-                    untilDate.toEpochDay()
-                            - LocalDateTime.parse(fromDateStringTtimeString)
-                            .toLocalDate().toEpochDay()
-            ) / 7
-    );
-    // define the new series
-    RobustCalEvent.Series newSeries = new RobustCalEvent.Series();
     // get starting data
-    if (LocalDateTime.parse(fromDateStringTtimeString).toLocalDate().getDayOfMonth() !=
-            LocalDateTime.parse(toDateStringTtimeString).toLocalDate().getDayOfMonth()
-    ) {
+    if (startDateTime.getDayOfMonth() != endDateTime.getDayOfMonth()) {
       throw new DateTimeException("Cannot repeat an event that doesn't end on " +
               "the same day it starts on!");
     }
-    RobustCalEvent firstEvent = createOneNormalEvent(
-            eventSubject, fromDateStringTtimeString, toDateStringTtimeString
-    );
-    firstEvent.setSeries(newSeries);
-    newSeries.add(firstEvent);
-    // retrieve the weekdays
-    for (char weekday : repeatWeekdays.toCharArray()) {
-      if (!CalEventImpl.getDaysOfTheWeek().containsKey(weekday)) {
-        throw new DateTimeException("Invalid weekday letters entered!");
-      }
-    }
-    /* cases for weekdays:
-     *  1. weekdays are after the current one, in which case in the first
-     *     iteration we can continue as wanted
-     *  2. weekdays are BEFORE the current one, in which case in the first
-     *     iteration we can continue with the OTHER weekdays, BUT ADD them
-     *     from the NEXT iteration onward */
-    // create a wrapper class version of the repeated weekdays
-    Character[] weekdays = new Character[repeatWeekdays.length()];
-    for (int i = 0; i < repeatWeekdays.length(); i++) {
-      weekdays[i] = repeatWeekdays.toCharArray()[i];
-    }
-    // store the days of the week
-    DayOfWeek[] repeatDaysOfWeek = Arrays.stream(weekdays)
-            .map(CalEventImpl.getDaysOfTheWeek()::get)
-            .toArray(DayOfWeek[]::new);
-    // find the offset from the day of the week of the first day
-    int firstEventDayOfWeekNum = firstEvent
-            .getStartDateTime().toLocalDate().getDayOfWeek().ordinal();
-    Integer[] dayOfWeekOffset = Arrays.stream(repeatDaysOfWeek)
-            .map((it) -> it.ordinal() - firstEventDayOfWeekNum)
-            .toArray(Integer[]::new);
-    /* plan:
-     *  1. find the first iteration of the dates, keeping in mind the two cases
-     *     defined above
-     *     a. if they're after, just add the days and create the date
-     *     b. if they're before, add 7 to the ordinal difference and create that
-     *        event, that many days after
-     *  2. then, for a total of N times, create days that mirror these events on
-     *     the specified days of the week, adding seven days to the date */
-    // define an ordered collection of all the events
-    Set<RobustCalEvent> allFirstEvents = new TreeSet<>();
-    // define auxiliary before and after events data structures
-    List<RobustCalEvent> beforeFirstEvents = new ArrayList<>();
-    List<RobustCalEvent> afterFirstEvents = new ArrayList<>();
-    // define data structures of the non-0 offsets for repeating events on certain days
-    Integer[] beforeOffsets = Arrays.stream(dayOfWeekOffset)
-            .filter((it) -> it < 0)
-            .map((it) -> it + 7)
-            .toArray(Integer[]::new);
-    Integer[] afterOffsets = Arrays.stream(dayOfWeekOffset)
-            .filter((it) -> it >= 0)
-            .toArray(Integer[]::new);
-    // create these relevant repeating events' first iterations
-    createWeekdayRepeatNormalEvents(eventSubject, firstEvent, beforeFirstEvents, beforeOffsets);
-    createWeekdayRepeatNormalEvents(eventSubject, firstEvent, afterFirstEvents, afterOffsets);
-    // add these first iterations to the set of all first events
-    allFirstEvents.addAll(beforeFirstEvents);
-    allFirstEvents.addAll(afterFirstEvents);
-    // add these first iterations of the new events to the series
-    if (times <= 1) {
-      for (RobustCalEvent event : allFirstEvents) {
-        if (event.getStartDateTime().toLocalDate().isBefore(untilDate)) {
-          event.setSeries(newSeries);
-          newSeries.add(event);
-        } else {
-          break;
-        }
-      }
-      // quit preliminarily again if N is near 1
-      return;
-    } else {
-      newSeries.addAll(allFirstEvents);
-    }
-    // now, create the new events to add a total of N times
-    for (RobustCalEvent event : allFirstEvents) {
-      for (int i = 1; i <= times; i++) {
-        RobustCalEvent newEvent = new CalEventImpl(
-                eventSubject,
-                LocalDateTime.of(
-                        LocalDate.ofEpochDay(
-                                event.getStartDateTime().toLocalDate().toEpochDay()
-                                        + 7L * i
-                        ), event.getStartDateTime().toLocalTime()
-                ),
-                LocalDateTime.of(
-                        LocalDate.ofEpochDay(
-                                event.getEndDateTime().toLocalDate().toEpochDay()
-                                        + 7L * i
-                        ), event.getEndDateTime().toLocalTime()
-                )
-        );
-        if (i == times) {
-          if (newEvent.getStartDateTime().toLocalDate().isBefore(untilDate)) {
-            newEvent.setSeries(newSeries);
-            newSeries.add(newEvent);
-          }
-        } else {
-          newEvent.setSeries(newSeries);
-          newSeries.add(newEvent);
-        }
-      }
-    }
-    // finally, store all the events in the calendar's events field
-    events.addAll(newSeries.getEvents());
+    RobustCalEvent firstEvent = new CalEventImpl(eventSubject, startDateTime, endDateTime);
+    addSeries(Recurrence.untilDate(firstEvent, repeatWeekdays, untilDate));
   }
 
-  private void createWeekdayRepeatNormalEvents(
-          String eventSubject,
-          RobustCalEvent firstEvent,
-          List<RobustCalEvent> firstEvents,
-          Integer[] offsets
-  ) {
-    for (int offset : offsets) {
-      RobustCalEvent newEvent = new CalEventImpl(
-              eventSubject,
-              LocalDateTime.of(
-                      LocalDate.ofEpochDay(
-                              firstEvent.getStartDateTime().toLocalDate().toEpochDay()
-                                      + offset
-                      ), firstEvent.getStartDateTime().toLocalTime()
-              ),
-              LocalDateTime.of(
-                      LocalDate.ofEpochDay(
-                              firstEvent.getEndDateTime().toLocalDate().toEpochDay()
-                                      + offset
-                      ), firstEvent.getEndDateTime().toLocalTime()
-              )
-      );
-      firstEvents.add(newEvent);
-    }
+  private void addSeries(Recurrence rule) {
+    // only the rule is stored, the occurrences are worked out when queried
+    recurrences.add(new RobustCalEvent.Series(rule));
+    rulesVersion = version + 1;
+    publish();
   }
 
   @Override
-  public void createSingleAllDayEvent(String eventSubject, String dateString) {
-    events.add(createOneAllDayEvent(eventSubject, dateString));
-  }
-
-  private RobustCalEvent createOneAllDayEvent(String eventSubject, String dateString) {
-    return new CalEventImpl(eventSubject, LocalDate.parse(dateString));
+  public void createSingleAllDayEvent(String eventSubject, LocalDate date) {
+    addEvent(new CalEventImpl(eventSubject, date));
+    publish();
   }
 
   @Override
   public void createRecurringAllDayEventsNTimes(
           String eventSubject,
-          String dateString,
-          String repeatWeekdays,
+          LocalDate date,
+          Set<DayOfWeek> repeatWeekdays,
           int N
   ) {
     // if N is 0 or 1, do one event creation only
     if (N == 0 || N == 1) {
-      createSingleAllDayEvent(eventSubject, dateString);
-    }
-    // define the new series
-    RobustCalEvent.Series newSeries = new RobustCalEvent.Series();
-    // get starting data
-    RobustCalEvent firstEvent = createOneAllDayEvent(eventSubject, dateString);
-    firstEvent.setSeries(newSeries);
-    newSeries.add(firstEvent);
-    // retrieve the weekdays
-    for (char weekday : repeatWeekdays.toCharArray()) {
-      if (!CalEventImpl.getDaysOfTheWeek().containsKey(weekday)) {
-        throw new DateTimeException("Invalid weekday letters entered!");
-      }
-    }
-    /* cases for weekdays:
-     *  1. weekdays are after the current one, in which case in the first
-     *     iteration we can continue as wanted
-     *  2. weekdays are BEFORE the current one, in which case in the first
-     *     iteration we can continue with the OTHER weekdays, BUT ADD them
-     *     from the NEXT iteration onward */
-    // create a wrapper class version of the repeated weekdays
-    Character[] weekdays = new Character[repeatWeekdays.length()];
-    for (int i = 0; i < repeatWeekdays.length(); i++) {
-      weekdays[i] = repeatWeekdays.toCharArray()[i];
-    }
-    // store the days of the week
-    DayOfWeek[] repeatDaysOfWeek = Arrays.stream(weekdays)
-            .map(CalEventImpl.getDaysOfTheWeek()::get)
-            .toArray(DayOfWeek[]::new);
-    // find the offset from the day of the week of the first day
-    int firstEventDayOfWeekNum = firstEvent
-            .getStartDateTime().toLocalDate().getDayOfWeek().ordinal();
-    Integer[] dayOfWeekOffset = Arrays.stream(repeatDaysOfWeek)
-            .map((it) -> it.ordinal() - firstEventDayOfWeekNum)
-            .toArray(Integer[]::new);
-    /* plan:
-     *  1. find the first iteration of the dates, keeping in mind the two cases
-     *     defined above
-     *     a. if they're after, just add the days and create the date
-     *     b. if they're before, add 7 to the ordinal difference and create that
-     *        event, that many days after
-     *  2. then, for a total of N times, create days that mirror these events on
-     *     the specified days of the week, adding seven days to the date */
-    // define an ordered collection of all the events
-    Set<RobustCalEvent> allFirstEvents = new TreeSet<>();
-    // define auxiliary before and after events data structures
-    List<RobustCalEvent> beforeFirstEvents = new ArrayList<>();
-    List<RobustCalEvent> afterFirstEvents = new ArrayList<>();
-    // define data structures of the non-0 offsets for repeating events on certain days
-    Integer[] beforeOffsets = Arrays.stream(dayOfWeekOffset)
-            .filter((it) -> it < 0)
-            .map((it) -> it + 7)
-            .toArray(Integer[]::new);
-    Integer[] afterOffsets = Arrays.stream(dayOfWeekOffset)
-            .filter((it) -> it >= 0)
-            .toArray(Integer[]::new);
-    // create these relevant repeating events' first iterations
-    createWeekdayRepeatNormalEvents(eventSubject, firstEvent, beforeFirstEvents, beforeOffsets);
-    createWeekdayRepeatNormalEvents(eventSubject, firstEvent, afterFirstEvents, afterOffsets);
-    // add these first iterations to the set of all first events
-    allFirstEvents.addAll(beforeFirstEvents);
-    allFirstEvents.addAll(afterFirstEvents);
-    // now, create the new events to add a total of N times
-    RobustCalEvent[] allFirstEventsArray = allFirstEvents.toArray(RobustCalEvent[]::new);
-    int i = 0;
-    while (newSeries.getEvents().size() < N) {
-      for (RobustCalEvent event : allFirstEventsArray) {
-        RobustCalEvent newEvent = new CalEventImpl(
-                eventSubject,
-                LocalDate.ofEpochDay(
-                        event.getStartDateTime().toLocalDate().toEpochDay()
-                                + 7L * i
-                )
-        );
-        if (newSeries.getEvents().size() < N) {
-          newEvent.setSeries(newSeries);
-          newSeries.add(newEvent);
-        } else {
-          break;
-        }
-      }
-      i++;
+      createSingleAllDayEvent(eventSubject, date);
+      return;
     }
-    // finally, store all the events in the calendar's events field
-    events.addAll(newSeries.getEvents());
+    addSeries(Recurrence.nTimes(new CalEventImpl(eventSubject, date), repeatWeekdays, N));
   }
 
   @Override
   public void createRecurringAllDayEventsUntilDate(
           String eventSubject,
-          String dateString,
-          String repeatWeekdays,
-          String untilDateString
+          LocalDate date,
+          Set<DayOfWeek> repeatWeekdays,
+          LocalDate untilDate
   ) {
-    // calculate undershot (for safety) amount of weeks to repeat the event
-    LocalDate untilDate = LocalDate.parse(untilDateString);
-    int times = Math.toIntExact(
-            (int) (
-                    untilDate.toEpochDay() - LocalDate.parse(dateString).toEpochDay()
-            ) / 7
-    );
-    // define the new series
-    RobustCalEvent.Series newSeries = new RobustCalEvent.Series();
-    // get starting data
-    RobustCalEvent firstEvent = createOneAllDayEvent(eventSubject, dateString);
-    firstEvent.setSeries(newSeries);
-    newSeries.add(firstEvent);
-    // retrieve the weekdays
-    for (char weekday : repeatWeekdays.toCharArray()) {
-      if (!CalEventImpl.getDaysOfTheWeek().containsKey(weekday)) {
-        throw new DateTimeException("Invalid weekday letters entered!");
-      }
-    }
-    /* cases for weekdays:
-     *  1. weekdays are after the current one, in which case in the first
-     *     iteration we can continue as wanted
-     *  2. weekdays are BEFORE the current one, in which case in the first
-     *     iteration we can continue with the OTHER weekdays, BUT ADD them
-     *     from the NEXT iteration onward */
-    // create a wrapper class version of the repeated weekdays
-    Character[] weekdays = new Character[repeatWeekdays.length()];
-    for (int i = 0; i < repeatWeekdays.length(); i++) {
-      weekdays[i] = repeatWeekdays.toCharArray()[i];
-    }
-    // store the days of the week
-    DayOfWeek[] repeatDaysOfWeek = Arrays.stream(weekdays)
-            .map(CalEventImpl.getDaysOfTheWeek()::get)
-            .toArray(DayOfWeek[]::new);
-    // find the offset from the day of the week of the first day
-    int firstEventDayOfWeekNum = firstEvent
-            .getStartDateTime().toLocalDate().getDayOfWeek().ordinal();
-    Integer[] dayOfWeekOffset = Arrays.stream(repeatDaysOfWeek)
-            .map((it) -> it.ordinal() - firstEventDayOfWeekNum)
-            .toArray(Integer[]::new);
-    /* plan:
-     *  1. find the first iteration of the dates, keeping in mind the two cases
-     *     defined above
-     *     a. if they're after, just add the days and create the date
-     *     b. if they're before, add 7 to the ordinal difference and create that
-     *        event, that many days after
-     *  2. then, for a total of N times, create days that mirror these events on
-     *     the specified days of the week, adding seven days to the date */
-    // define an ordered collection of all the events
-    Set<RobustCalEvent> allFirstEvents = new TreeSet<>();
-    // define auxiliary before and after events data structures
-    List<RobustCalEvent> beforeFirstEvents = new ArrayList<>();
-    List<RobustCalEvent> afterFirstEvents = new ArrayList<>();
-    // define data structures of the non-0 offsets for repeating events on certain days
-    Integer[] beforeOffsets = Arrays.stream(dayOfWeekOffset)
-            .filter((it) -> it < 0)
-            .map((it) -> it + 7)
-            .toArray(Integer[]::new);
-    Integer[] afterOffsets = Arrays.stream(dayOfWeekOffset)
-            .filter((it) -> it >= 0)
-            .toArray(Integer[]::new);
-    // create these relevant repeating events' first iterations
-    createWeekdayRepeatAllDayEvents(eventSubject, firstEvent, beforeFirstEvents, beforeOffsets);
-    createWeekdayRepeatAllDayEvents(eventSubject, firstEvent, afterFirstEvents, afterOffsets);
-    // add these first iterations to the set of all first events
-    allFirstEvents.addAll(beforeFirstEvents);
-    allFirstEvents.addAll(afterFirstEvents);
-    // add these first iterations of the new events to the series
-    if (times <= 1) {
-      for (RobustCalEvent event : allFirstEvents) {
-        if (event.getStartDateTime().toLocalDate().isBefore(untilDate)) {
-          event.setSeries(newSeries);
-          newSeries.add(event);
-        } else {
-          break;
-        }
-      }
-      // quit preliminarily again if N is near 1
-      return;
-    } else {
-      newSeries.addAll(allFirstEvents);
-    }
-    // now, create the new events to add a total of N times
-    for (RobustCalEvent event : allFirstEvents) {
-      for (int i = 1; i <= times; i++) {
-        RobustCalEvent newEvent = new CalEventImpl(
-                eventSubject,
-                LocalDate.ofEpochDay(
-                        event.getStartDateTime().toLocalDate().toEpochDay()
-                                + 7L * i
-                )
-        );
-        if (i == times) {
-          if (newEvent.getStartDateTime().toLocalDate().isBefore(untilDate)) {
-            event.setSeries(newSeries);
-            newSeries.add(newEvent);
-          }
-        } else {
-          event.setSeries(newSeries);
-          newSeries.add(newEvent);
-        }
-      }
-    }
-    // finally, store all the events in the calendar's events field
-    events.addAll(newSeries.getEvents());
+    RobustCalEvent firstEvent = new CalEventImpl(eventSubject, date);
+    addSeries(Recurrence.untilDate(firstEvent, repeatWeekdays, untilDate));
   }
 
-  private void createWeekdayRepeatAllDayEvents(
+  @Override
+  public void editSingleEvent(
+          EventProperty property,
           String eventSubject,
-          RobustCalEvent firstEvent,
-          List<RobustCalEvent> firstEvents,
-          Integer[] offsets
+          LocalDateTime startDateTime,
+          LocalDateTime endDateTime,
+          String newPropertyVal
   ) {
-    for (int offset : offsets) {
-      RobustCalEvent newEvent = new CalEventImpl(
-              eventSubject,
-              LocalDate.ofEpochDay(
-                      firstEvent.getStartDateTime().toLocalDate().toEpochDay()
-                              + offset
-              )
-      );
-      firstEvents.add(newEvent);
+    try {
+      editOneEvent(property, eventSubject, startDateTime, endDateTime, newPropertyVal);
+    } finally {
+      publish();
     }
   }
 
-  @Override
-  public void editSingleEvent(
-          String property,
+  private void editOneEvent(
+          EventProperty property,
           String eventSubject,
-          String fromDateStringTtimeString,
-          String toDateStringTtimeString,
+          LocalDateTime startDateTime,
+          LocalDateTime endDateTime,
           String newPropertyVal
   ) {
     // ensure the event set isn't empty
-    if (events.isEmpty()) {
+    if (events.isEmpty() && recurrences.isEmpty()) {
       throw new IllegalStateException("No events to pick from to edit!");
     }
     // find the target event, if any
-    RobustCalEvent targetEvent = events.stream()
-            .filter(
-                    (it) ->
-                            it.getSubject().equals(eventSubject)
-                                    && it.getStartDateTime().equals(
-                                    LocalDateTime.parse(fromDateStringTtimeString)
-                            )
-                                    && it.getEndDateTime().equals(
-                                    LocalDateTime.parse(toDateStringTtimeString)
-                            )
-            )
-            .findFirst()
-            .orElse(null);
+    RobustCalEvent targetEvent = findEditTarget(eventSubject, startDateTime, endDateTime);
     // ensure the target event is not null, then do the corresponding action
     if (targetEvent != null) {
-      switch (property) {
-        case "subject" -> targetEvent.setSubject(newPropertyVal);
-        case "start" -> {
-          targetEvent.setStartDateTime(newPropertyVal);
-          if (targetEvent.getSeries() != null) {
-            targetEvent.getSeries().remove(targetEvent);
-            targetEvent.setSeries(null);
-          }
-        }
-        case "end" -> {
-          targetEvent.setEndDateTime(newPropertyVal);
-          if (targetEvent.getSeries() != null) {
-            targetEvent.getSeries().remove(targetEvent);
-            targetEvent.setSeries(null);
-          }
-        }
-        case "description" -> targetEvent.setDescription(newPropertyVal);
-        case "location" -> targetEvent.setLocation(newPropertyVal);
-        case "status" -> targetEvent.setStatus(newPropertyVal);
-        // if the specified property doesn't exist, throw relevant exception
-        default -> throw new IllegalArgumentException("No properties match the one passed!");
-      }
+      editEvent(targetEvent, property, newPropertyVal);
       // if no event was found, throw relevant exception
     } else {
       throw new IllegalArgumentException("No events match the provided subject and/or times!");
     }
   }
 
+  private void editEvent(RobustCalEvent event, EventProperty property, String newPropertyVal) {
+    if (property.isKey()) {
+      rekeyEvent(event, (it) -> applyEdit(it, property, newPropertyVal));
+    } else {
+      applyEdit(event, property, newPropertyVal);
+    }
+    if (property.isTime()) {
+      leaveSeries(event);
+    }
+    refreshEvent(event);
+  }
+
+  private static void applyEdit(
+          RobustCalEvent event,
+          EventProperty property,
+          String newPropertyVal
+  ) {
+    switch (property) {
+      case SUBJECT -> event.setSubject(newPropertyVal);
+      case START -> event.setStartDateTime(newPropertyVal);
+      case END -> event.setEndDateTime(newPropertyVal);
+      case DESCRIPTION -> event.setDescription(newPropertyVal);
+      case LOCATION -> event.setLocation(newPropertyVal);
+      case STATUS -> event.setStatus(newPropertyVal);
+      // if the specified property doesn't exist, throw relevant exception
+      default -> throw new IllegalArgumentException("No properties match the one passed!");
+    }
+  }
+
+  private void editEvents(
+          List<RobustCalEvent> batch,
+          EventProperty property,
+          String newPropertyVal
+  ) {
+    // try every edit on a copy first, so a failing or clashing one changes nothing
+    if (!property.isKey()) {
+      applyEdit(copyKeyOf(batch.get(0)), property, newPropertyVal);
+      for (RobustCalEvent event : batch) {
+        applyEdit(event, property, newPropertyVal);
+      }
+      refreshEvents(batch);
+      return;
+    }
+    Set<RobustCalEvent> batchKeys = new TreeSet<>(batch);
+    Set<RobustCalEvent> editedKeys = new TreeSet<>();
+    for (RobustCalEvent event : batch) {
+      RobustCalEvent editedKey = copyKeyOf(event);
+      applyEdit(editedKey, property, newPropertyVal);
+      // events of the batch may take each other's keys, but not an outside event's
+      if (!editedKeys.add(editedKey)
+              || (events.contains(editedKey) && !batchKeys.contains(editedKey))
+              || recurrences.contains(editedKey)) {
+        throw new IllegalArgumentException("An event with the same subject, start, and end " +
+                "already exists!");
+      }
+    }
+    // take the whole batch out while its sort keys change, then put it back in one go
+    for (RobustCalEvent event : batch) {
+      touch(event);
+      events.remove(event);
+      eventDays.remove(event);
+      eventKeys.remove(event);
+      if (event.getSeries() != null) {
+        event.getSeries().remove(event);
+      }
+    }
+    eventIntervals.removeAll(batch);
+    for (RobustCalEvent event : batch) {
+      applyEdit(event, property, newPropertyVal);
+    }
+    addEvents(batch);
+    for (RobustCalEvent event : batch) {
+      if (event.getSeries() != null) {
+        event.getSeries().add(event);
+      }
+    }
+  }
+
+  private void refreshEvents(List<RobustCalEvent> batch) {
+    List<RobustCalEvent> frozenCopies = new ArrayList<>(batch.size());
+    for (RobustCalEvent event : batch) {
+      touch(event);
+      RobustCalEvent frozen = new CalEventImpl(event);
+      frozenCopies.add(frozen);
+      eventDays.remove(event);
+      eventDays.add(frozen);
+    }
+    eventIntervals.removeAll(batch);
+    eventIntervals.addAll(frozenCopies);
+  }
+
+  private static void leaveSeries(RobustCalEvent event) {
+    if (event.getSeries() != null) {
+      event.getSeries().remove(event);
+      event.setSeries(null);
+    }
+  }
+
   @Override
   public void editEventAndMaybeOnward(
-          String property,
+          EventProperty property,
           String eventSubject,
-          String fromDateStringTtimeString,
+          LocalDateTime startDateTime,
+          String newPropertyVal
+  ) {
+    // readers only see the edits once the whole run of them is done
+    try {
+      editOnward(property, eventSubject, startDateTime, newPropertyVal);
+    } finally {
+      publish();
+    }
+  }
+
+  private void editOnward(
+          EventProperty property,
+          String eventSubject,
+          LocalDateTime startDateTime,
           String newPropertyVal
   ) {
     // ensure the event set isn't empty
-    if (events.isEmpty()) {
+    if (events.isEmpty() && recurrences.isEmpty()) {
       throw new IllegalStateException("No events to pick from to edit!");
     }
     // find the target event, if any
-    RobustCalEvent targetEvent = events.stream()
-            .filter(
-                    (it) ->
-                            it.getSubject().equals(eventSubject)
-                                    && it.getStartDateTime().equals(
-                                    LocalDateTime.parse(fromDateStringTtimeString)
-                            )
-            )
-            .findFirst()
-            .orElse(null);
-    // ensure the target event is not null, then do the corresponding action
-    if (targetEvent != null) {
-      switch (property) {
-        case "subject" -> targetEvent.setSubject(newPropertyVal);
-        case "start" -> {
-          targetEvent.setStartDateTime(newPropertyVal);
-          if (targetEvent.getSeries() != null) {
-            targetEvent.getSeries().remove(targetEvent);
-            targetEvent.setSeries(null);
-          }
-        }
-        case "end" -> {
-          targetEvent.setEndDateTime(newPropertyVal);
-          if (targetEvent.getSeries() != null) {
-            targetEvent.getSeries().remove(targetEvent);
-            targetEvent.setSeries(null);
-          }
-        }
-        case "description" -> targetEvent.setDescription(newPropertyVal);
-        case "location" -> targetEvent.setLocation(newPropertyVal);
-        case "status" -> targetEvent.setStatus(newPropertyVal);
-        // if the specified property doesn't exist, throw relevant exception
-        default -> throw new IllegalArgumentException("No properties match the one passed!");
-      }
-      // if no event was found, throw relevant exception
-    } else {
+    RobustCalEvent targetEvent = findEditTarget(eventSubject, startDateTime);
+    if (targetEvent == null) {
       throw new IllegalArgumentException("No events match the provided subject and/or times!");
     }
-    // find whether the current event is in a series
-    if (targetEvent.getSeries() != null) {
-      // if so, create a new series and separate from the old one, if property was start/end
-      RobustCalEvent.Series newSeries = null;
-      if (property.equals("start") || property.equals("end")) {
-        newSeries = new RobustCalEvent.Series();
-        targetEvent.setSeries(newSeries);
-        newSeries.add(targetEvent);
-      }
-      // store the target series as an iterable list
-      List<RobustCalEvent> targetSeries =
-              new ArrayList<>(targetEvent.getSeries().getEvents().stream().toList());
-      // find the index of the target event, then only iterate from there on out
-      final int startingIndex = targetSeries.indexOf(targetEvent);
-      for (int i = startingIndex + 1; i < targetSeries.size(); i++) {
-        RobustCalEvent currentEvent = targetSeries.get(i);
-        String currentSubject = currentEvent.getSubject();
-        String currentStart = currentEvent.getStartDateTime().toString();
-        String currentEnd = currentEvent.getEndDateTime().toString();
-        editSingleEvent(property, currentSubject, currentStart, currentEnd, newPropertyVal);
-        // again, ensure that new series actions are only carried out when property is start/end
-        if (property.equals("start") || property.equals("end")) {
-          currentEvent.setSeries(newSeries);
-          newSeries.add(currentEvent);
-        }
-      }
+    // the series keeps its events in order, so the following ones are its tail
+    RobustCalEvent.Series series = targetEvent.getSeries();
+    List<RobustCalEvent> following = (series != null)
+            ? new ArrayList<>(series.getEvents().tailSet(targetEvent, false))
+            : List.of();
+    List<RobustCalEvent> batch = new ArrayList<>(following.size() + 1);
+    batch.add(targetEvent);
+    batch.addAll(following);
+    // every edited event takes the new value, as when editing the whole series
+    editEvents(batch, property, newPropertyVal);
+    if (!property.isTime() || series == null) {
+      return;
+    }
+    // the edited events form a series of their own, leaving the earlier ones the old one
+    RobustCalEvent.Series newSeries = new RobustCalEvent.Series();
+    for (RobustCalEvent event : batch) {
+      series.remove(event);
+      event.setSeries(newSeries);
+      newSeries.add(event);
+      refreshEvent(event);
     }
   }
 
   @Override
   public void editEventAndMaybeAll(
-          String property,
+          EventProperty property,
           String eventSubject,
-          String fromDateStringTtimeString,
+          LocalDateTime startDateTime,
+          String newPropertyVal
+  ) {
+    // readers only see the edits once the whole series is done
+    try {
+      editAll(property, eventSubject, startDateTime, newPropertyVal);
+    } finally {
+      publish();
+    }
+  }
+
+  private void editAll(
+          EventProperty property,
+          String eventSubject,
+          LocalDateTime startDateTime,
           String newPropertyVal
   ) {
     // ensure the event set isn't empty
-    if (events.isEmpty()) {
+    if (events.isEmpty() && recurrences.isEmpty()) {
       throw new IllegalStateException("No events to pick from to edit!");
     }
+    // renaming a whole series only needs its rule renamed, unless it stores events too
+    if (property == EventProperty.SUBJECT && eventKeys.find(eventSubject, startDateTime) == null) {
+      RobustCalEvent.Series series = recurrences.find(eventSubject, startDateTime);
+      if (series != null && series.getStoredEvents().isEmpty()) {
+        if (newPropertyVal.equals(eventSubject)) {
+          return;
+        }
+        // the renamed occurrences may not take the key of any other event
+        Recurrence renamed = series.getRule().withSubject(newPropertyVal);
+        renamed.forEachOccurrence(series, (it) -> {
+          if (isTaken(it)) {
+            throw new IllegalArgumentException("An event with the same subject, start, and end " +
+                    "already exists!");
+          }
+        });
+        recurrences.remove(series);
+        series.setRule(renamed);
+        recurrences.add(series);
+        rulesVersion = version + 1;
+        return;
+      }
+    }
     // find the target event, if any
-    RobustCalEvent targetEvent = events.stream()
-            .filter(
-                    (it) ->
-                            it.getSubject().equals(eventSubject)
-                                    && it.getStartDateTime().equals(
-                                    LocalDateTime.parse(fromDateStringTtimeString)
-                            )
-            )
-            .findFirst()
-            .orElse(null);
+    RobustCalEvent targetEvent = findEditTarget(eventSubject, startDateTime);
     /* carry out series editing first; no new series needed as that'd be redundant
      * when all elements in this series would be edited and added to another one which
      * still contains the same events as before, just edited */
     if (targetEvent != null) {
       if (targetEvent.getSeries() != null) {
-        for (RobustCalEvent event : targetEvent.getSeries().getEvents()) {
-          switch (property) {
-            case "subject" -> event.setSubject(newPropertyVal);
-            case "start" -> event.setStartDateTime(newPropertyVal);
-            case "end" -> event.setEndDateTime(newPropertyVal);
-            case "description" -> event.setDescription(newPropertyVal);
-            case "location" -> event.setLocation(newPropertyVal);
-            case "status" -> event.setStatus(newPropertyVal);
-            // if the specified property doesn't exist, throw relevant exception
-            default -> throw new IllegalArgumentException("No properties match the one passed!");
-          }
-        }
+        // edit the series as one batch, so it is either fully edited or left alone
+        editEvents(new ArrayList<>(targetEvent.getSeries().getEvents()), property, newPropertyVal);
         // if not part of a series, simply do single event editing
       } else {
-        editSingleEvent(
+        editOneEvent(
                 property,
                 eventSubject,
-                fromDateStringTtimeString,
-                targetEvent.getEndDateTime().toString(),
+                startDateTime,
+                targetEvent.getEndDateTime(),
                 newPropertyVal
         );
       }
@@ -802,18 +801,21 @@ public class CalendarImpl implements RobustCalendar {
     // create a list of the events
     List<RobustCalEvent> events = new ArrayList<>();
     // retrieve the start and end date times of the date
+    LocalDate date = DateTimes.parseDate(dateString);
     LocalDateTime startDateTime = LocalDateTime.of(
-            LocalDate.parse(dateString),
+            date,
             LocalTime.of(LocalTime.MIN.getHour(), LocalTime.MIN.getMinute())
     );
     LocalDateTime endDateTime = LocalDateTime.of(
-            LocalDate.parse(dateString),
+            date,
             LocalTime.of(LocalTime.MAX.getHour(), LocalTime.MAX.getMinute())
     );
-    // iterate over the event set
-    eventPrintingHelper(startDateTime, endDateTime, events);
+    // only iterate over the events touching that day
+    for (RobustCalEvent event : eventDays.eventsOn(date)) {
+      addIfPrintable(event, startDateTime, endDateTime, events);
+    }
     // return the events satisfying the conditions
-    return events;
+    return withOccurrences(startDateTime, endDateTime, events);
   }
 
   @Override
@@ -824,15 +826,139 @@ public class CalendarImpl implements RobustCalendar {
     // create a list of the events
     List<RobustCalEvent> events = new ArrayList<>();
     // retrieve the start and end date times of the date
-    LocalDateTime startDateTime = LocalDateTime.parse(
+    LocalDateTime startDateTime = DateTimes.parseDateTime(
             fromDateStringTtimeString
     );
-    LocalDateTime endDateTime = LocalDateTime.parse(
+    LocalDateTime endDateTime = DateTimes.parseDateTime(
             toDateStringTtimeString
     );
     // iterate over the event set
     eventPrintingHelper(startDateTime, endDateTime, events);
-    return events;
+    return withOccurrences(startDateTime, endDateTime, events);
+  }
+
+  @Override
+  public Stream<RobustCalEvent> streamEventsOnDate(String dateString) {
+    LocalDate date = DateTimes.parseDate(dateString);
+    return streamPrintable(
+            LocalDateTime.of(date, LocalTime.of(0, 0)),
+            LocalDateTime.of(date, LocalTime.of(23, 59))
+    );
+  }
+
+  @Override
+  public Stream<RobustCalEvent> streamEventsBetweenDates(
+          String fromDateStringTtimeString,
+          String toDateStringTtimeString
+  ) {
+    return streamPrintable(
+            DateTimes.parseDateTime(fromDateStringTtimeString),
+            DateTimes.parseDateTime(toDateStringTtimeString)
+    );
+  }
+
+  @Override
+  public void writeEventsOnDate(String dateString, Appendable out) throws IOException {
+    LocalDate date = DateTimes.parseDate(dateString);
+    writePrintable(
+            LocalDateTime.of(date, LocalTime.of(0, 0)),
+            LocalDateTime.of(date, LocalTime.of(23, 59)),
+            out
+    );
+  }
+
+  @Override
+  public void writeEventsBetweenDates(
+          String fromDateStringTtimeString,
+          String toDateStringTtimeString,
+          Appendable out
+  ) throws IOException {
+    writePrintable(
+            DateTimes.parseDateTime(fromDateStringTtimeString),
+            DateTimes.parseDateTime(toDateStringTtimeString),
+            out
+    );
+  }
+
+  private Stream<RobustCalEvent> streamPrintable(
+          LocalDateTime startDateTime,
+          LocalDateTime endDateTime
+  ) {
+    Spliterator<RobustCalEvent> spliterator = Spliterators.spliteratorUnknownSize(
+            overlapping(eventIntervals, recurrences.spans(), startDateTime, endDateTime),
+            Spliterator.ORDERED | Spliterator.NONNULL
+    );
+    ZoneId eventZone = zone;
+    return StreamSupport.stream(spliterator, false)
+            .filter((it) -> isPrintable(it, startDateTime, endDateTime))
+            .map((it) -> new ZonedCalEventImpl(it, eventZone));
+  }
+
+  private void writePrintable(
+          LocalDateTime startDateTime,
+          LocalDateTime endDateTime,
+          Appendable out
+  ) throws IOException {
+    writePrintable(
+            overlapping(eventIntervals, recurrences.spans(), startDateTime, endDateTime),
+            startDateTime,
+            endDateTime,
+            zone,
+            out
+    );
+  }
+
+  /**
+   * Walk the stored events and the occurrences of rules overlapping an
+   * interval in order. The trees copy what they change, so the walk keeps
+   * seeing them as they were when it started, even if they change during it.
+   *
+   * @param events        the stored events.
+   * @param spans         the spans of the series with rules.
+   * @param startDateTime the start of the interval.
+   * @param endDateTime   the end of the interval.
+   * @return the events overlapping the interval, in order.
+   */
+  static Iterator<RobustCalEvent> overlapping(
+          IntervalTree<RobustCalEvent> events,
+          IntervalTree<RecurrenceIndex.Entry> spans,
+          LocalDateTime startDateTime,
+          LocalDateTime endDateTime
+  ) {
+    List<Iterator<RobustCalEvent>> sources = new ArrayList<>();
+    sources.add(events.overlapping(startDateTime, endDateTime));
+    sources.addAll(RecurrenceIndex.occurrences(spans, startDateTime, endDateTime));
+    // stored events go first so they win over equal occurrences of a rule
+    return (sources.size() == 1)
+            ? sources.get(0)
+            : new MergingIterator<>(sources, Comparator.naturalOrder());
+  }
+
+  /**
+   * Write the printable events among the given ones straight to the output,
+   * one line each, in the same form as the events printing returns.
+   *
+   * @param events        the events overlapping the interval, in order.
+   * @param startDateTime the start of the interval.
+   * @param endDateTime   the end of the interval.
+   * @param zone          the time zone of the calendar.
+   * @param out           where to write the events.
+   * @throws IOException if writing to the output fails.
+   */
+  static void writePrintable(
+          Iterator<RobustCalEvent> events,
+          LocalDateTime startDateTime,
+          LocalDateTime endDateTime,
+          ZoneId zone,
+          Appendable out
+  ) throws IOException {
+    while (events.hasNext()) {
+      RobustCalEvent event = events.next();
+      if (isPrintable(event, startDateTime, endDateTime)) {
+        event.appendTo(out, zone);
+        out.append(System.lineSeparator());
+      }
+    }
   }
 
   private void eventPrintingHelper(
@@ -840,42 +966,70 @@ public class CalendarImpl implements RobustCalendar {
           LocalDateTime endDateTime,
           List<RobustCalEvent> events
   ) {
-    for (RobustCalEvent event : getEvents()) {
-      // retrieve the event's starting and ending dates and times
-      LocalDateTime eventStartDateTime = event.getStartDateTime();
-      LocalDateTime eventEndDateTime = event.getEndDateTime();
-      /* condition checks separated for proper ability to check */
-      // first condition: start before but end during day
-      boolean condition1 = eventEndDateTime.isAfter(startDateTime) &&
-              eventEndDateTime.isBefore(endDateTime);
-      // second condition: start and end within day itself
-      boolean condition2 = eventStartDateTime.isAfter(startDateTime) &&
-              eventEndDateTime.isBefore(endDateTime);
-      // third condition: start during but end after day
-      boolean condition3 = eventStartDateTime.isAfter(startDateTime) &&
-              eventStartDateTime.isBefore(endDateTime);
-      // put conditions all together
-      if (condition1 || condition2 || condition3) {
-        events.add(new ZonedCalEventImpl(event, zone));
-      }
+    // only visit the events that overlap the interval at all
+    eventIntervals.forEachOverlapping(
+            startDateTime,
+            endDateTime,
+            (event) -> addIfPrintable(event, startDateTime, endDateTime, events)
+    );
+  }
+
+  private List<RobustCalEvent> withOccurrences(
+          LocalDateTime startDateTime,
+          LocalDateTime endDateTime,
+          List<RobustCalEvent> events
+  ) {
+    if (recurrences.isEmpty()) {
+      return events;
+    }
+    recurrences.forEachOccurrence(
+            startDateTime,
+            endDateTime,
+            (event) -> addIfPrintable(event, startDateTime, endDateTime, events)
+    );
+    // put the occurrences in order, dropping any equal to an earlier event
+    return new ArrayList<>(new TreeSet<>(events));
+  }
+
+  private void addIfPrintable(
+          RobustCalEvent event,
+          LocalDateTime startDateTime,
+          LocalDateTime endDateTime,
+          List<RobustCalEvent> events
+  ) {
+    if (isPrintable(event, startDateTime, endDateTime)) {
+      events.add(new ZonedCalEventImpl(event, zone));
     }
   }
 
+  static boolean isPrintable(
+          RobustCalEvent event,
+          LocalDateTime startDateTime,
+          LocalDateTime endDateTime
+  ) {
+    // retrieve the event's starting and ending dates and times
+    LocalDateTime eventStartDateTime = event.getStartDateTime();
+    LocalDateTime eventEndDateTime = event.getEndDateTime();
+    /* condition checks separated for proper ability to check */
+    // first condition: start before but end during day
+    boolean condition1 = eventEndDateTime.isAfter(startDateTime) &&
+            eventEndDateTime.isBefore(endDateTime);
+    // second condition: start and end within day itself
+    boolean condition2 = eventStartDateTime.isAfter(startDateTime) &&
+            eventEndDateTime.isBefore(endDateTime);
+    // third condition: start during but end after day
+    boolean condition3 = eventStartDateTime.isAfter(startDateTime) &&
+            eventStartDateTime.isBefore(endDateTime);
+    // put conditions all together
+    return condition1 || condition2 || condition3;
+  }
+
   @Override
   public String showStatusOnDateAtTime(String dateStringTtimeString) {
-    LocalDateTime targetTime = LocalDateTime.parse(dateStringTtimeString);
-    for (RobustCalEvent event : getEvents()) {
-      // retrieve the event's starting and ending dates and times
-      LocalDateTime startDateTime = event.getStartDateTime();
-      LocalDateTime endDateTime = event.getEndDateTime();
-      // check whether the target time is within an event's time
-      if (targetTime.isAfter(startDateTime) &&
-              targetTime.isBefore(endDateTime)
-      ) {
-        return "busy";
-      }
-    }
-    return "available";
+    LocalDateTime targetTime = DateTimes.parseDateTime(dateStringTtimeString);
+    // check whether the target time is within any event's time
+    return (eventIntervals.findContaining(targetTime) != null
+            || recurrences.hasOccurrenceContaining(targetTime)) ? "busy" : "available";
   }
 
   @Override
@@ -884,4 +1038,10 @@ public class CalendarImpl implements RobustCalendar {
             || other instanceof RobustCalendar r
             && getName().equals(r.getName());
   }
+
+  @Override
+  public int hashCode() {
+    // calendars are equal by name, so they must hash by name as well
+    return Objects.hashCode(getName());
+  }
 }
@@ -0,0 +1,210 @@
+package model.calendar;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+import model.events.CalEventImpl;
+import model.events.DateTimes;
+import model.events.RobustCalEvent;
+import model.events.ZonedCalEventImpl;
+
+/**
+ * An unchanging view of a {@link CalendarImpl} as it was at the end of one
+ * change to it, which can be queried from any thread without locking. It
+ * shares its trees with the calendar, which copies the nodes it changes
+ * instead of changing them, so taking a snapshot costs nothing and later
+ * changes to the calendar never show through it.
+ */
+public final class CalendarSnapshot {
+  private final IntervalTree<RobustCalEvent> events;
+  private final IntervalTree<RecurrenceIndex.Entry> recurrences;
+  private final ZoneId zone;
+
+  /**
+   * Construct a new snapshot over the given trees, which must never change.
+   *
+   * @param events      a snapshot of the stored events of the calendar.
+   * @param recurrences a snapshot of the spans of the series of the calendar.
+   * @param zone        the time zone of the calendar.
+   */
+  CalendarSnapshot(
+          IntervalTree<RobustCalEvent> events,
+          IntervalTree<RecurrenceIndex.Entry> recurrences,
+          ZoneId zone
+  ) {
+    this.events = events;
+    this.recurrences = recurrences;
+    this.zone = zone;
+  }
+
+  /**
+   * Retrieve the events stored in the calendar, which are frozen copies that
+   * never change, in order.
+   *
+   * @return the stored events of this snapshot.
+   */
+  IntervalTree<RobustCalEvent> storedEvents() {
+    return events;
+  }
+
+  /**
+   * Retrieve the series only stored as a rule in the calendar, along with the
+   * rule each had.
+   *
+   * @return the series rules of this snapshot.
+   */
+  IntervalTree<RecurrenceIndex.Entry> rules() {
+    return recurrences;
+  }
+
+  /**
+   * Retrieve the time zone of the calendar.
+   *
+   * @return the time zone of this snapshot, or null if it has none.
+   */
+  ZoneId zoneId() {
+    return zone;
+  }
+
+  /**
+   * Retrieve every event in this snapshot, including each occurrence of the
+   * series only stored as a rule. The events are copies, so changing them
+   * doesn't change the calendar.
+   *
+   * @return an ordered set of every event in this snapshot.
+   */
+  public Set<RobustCalEvent> getEvents() {
+    // stored events go first so they win over equal occurrences of a rule
+    Set<RobustCalEvent> allEvents = new TreeSet<>();
+    events.forEach((it) -> allEvents.add(new CalEventImpl(it)));
+    recurrences.forEach((it) -> it.rule().forEachOccurrence(it.series(), allEvents::add));
+    return allEvents;
+  }
+
+  /**
+   * Retrieve the events that were on the given date, in the same way as
+   * {@link CalendarImpl#printAllEventsOnDate(String)}.
+   *
+   * @param dateString the date in question.
+   * @return the events on that date, in order.
+   */
+  public List<RobustCalEvent> printAllEventsOnDate(String dateString) {
+    LocalDate date = DateTimes.parseDate(dateString);
+    return printable(
+            LocalDateTime.of(date, LocalTime.of(0, 0)),
+            LocalDateTime.of(date, LocalTime.of(23, 59))
+    );
+  }
+
+  /**
+   * Retrieve the events that were between the given dates and times, in the
+   * same way as {@link CalendarImpl#printAllEventsBetweenDates(String, String)}.
+   *
+   * @param fromDateStringTtimeString the start of the interval.
+   * @param toDateStringTtimeString   the end of the interval.
+   * @return the events in the interval, in order.
+   */
+  public List<RobustCalEvent> printAllEventsBetweenDates(
+          String fromDateStringTtimeString,
+          String toDateStringTtimeString
+  ) {
+    return printable(
+            DateTimes.parseDateTime(fromDateStringTtimeString),
+            DateTimes.parseDateTime(toDateStringTtimeString)
+    );
+  }
+
+  /**
+   * Write the events that were on the given date straight to the output, in
+   * the same way as {@link CalendarImpl#writeEventsOnDate(String, Appendable)}.
+   *
+   * @param dateString the date in question.
+   * @param out        where to write the events.
+   * @throws IOException if writing to the output fails.
+   */
+  public void writeEventsOnDate(String dateString, Appendable out) throws IOException {
+    LocalDate date = DateTimes.parseDate(dateString);
+    writePrintable(
+            LocalDateTime.of(date, LocalTime.of(0, 0)),
+            LocalDateTime.of(date, LocalTime.of(23, 59)),
+            out
+    );
+  }
+
+  /**
+   * Write the events that were between the given dates and times straight to
+   * the output, in the same way as
+   * {@link CalendarImpl#writeEventsBetweenDates(String, String, Appendable)}.
+   *
+   * @param fromDateStringTtimeString the start of the interval.
+   * @param toDateStringTtimeString   the end of the interval.
+   * @param out                       where to write the events.
+   * @throws IOException if writing to the output fails.
+   */
+  public void writeEventsBetweenDates(
+          String fromDateStringTtimeString,
+          String toDateStringTtimeString,
+          Appendable out
+  ) throws IOException {
+    writePrintable(
+            DateTimes.parseDateTime(fromDateStringTtimeString),
+            DateTimes.parseDateTime(toDateStringTtimeString),
+            out
+    );
+  }
+
+  /**
+   * Find out whether the calendar was busy at the given date and time, in the
+   * same way as {@link CalendarImpl#showStatusOnDateAtTime(String)}.
+   *
+   * @param dateStringTtimeString the date and time in question.
+   * @return "busy" or "available".
+   */
+  public String showStatusOnDateAtTime(String dateStringTtimeString) {
+    LocalDateTime targetTime = DateTimes.parseDateTime(dateStringTtimeString);
+    return (events.findContaining(targetTime) != null
+            || RecurrenceIndex.hasOccurrenceContaining(recurrences, targetTime))
+            ? "busy" : "available";
+  }
+
+  private void writePrintable(
+          LocalDateTime startDateTime,
+          LocalDateTime endDateTime,
+          Appendable out
+  ) throws IOException {
+    CalendarImpl.writePrintable(
+            CalendarImpl.overlapping(events, recurrences, startDateTime, endDateTime),
+            startDateTime,
+            endDateTime,
+            zone,
+            out
+    );
+  }
+
+  private List<RobustCalEvent> printable(
+          LocalDateTime startDateTime,
+          LocalDateTime endDateTime
+  ) {
+    List<RobustCalEvent> printable = new ArrayList<>();
+    Consumer<RobustCalEvent> addIfPrintable = (event) -> {
+      if (CalendarImpl.isPrintable(event, startDateTime, endDateTime)) {
+        printable.add(new ZonedCalEventImpl(event, zone));
+      }
+    };
+    events.forEachOverlapping(startDateTime, endDateTime, addIfPrintable);
+    if (recurrences.size() == 0) {
+      return printable;
+    }
+    RecurrenceIndex.forEachOccurrence(recurrences, startDateTime, endDateTime, addIfPrintable);
+    // put the occurrences in order, dropping any equal to an earlier event
+    return new ArrayList<>(new TreeSet<>(printable));
+  }
+}
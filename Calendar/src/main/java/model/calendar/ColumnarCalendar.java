@@ -0,0 +1,1056 @@
+package model.calendar;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import model.events.CalEventImpl;
+import model.events.DateTimes;
+import model.events.EventProperty;
+import model.events.QueriableCalEvent;
+import model.events.Recurrence;
+import model.events.RobustCalEvent;
+import model.events.ZonedCalEventImpl;
+
+/**
+ * An implementation of a robust calendar meant for very large calendars, which
+ * stores its events column by column instead of as one object per event. Each
+ * event is a row: its start and end as minutes since the epoch, its all-day,
+ * location, and status properties packed into a single byte, and its subject
+ * and description as ids into a table of interned strings. Times are therefore
+ * kept to the minute, which is the precision every command uses.
+ *
+ * <p>The events this calendar hands out are created from their row on demand,
+ * so changing them has no effect on the calendar; events are only edited
+ * through the calendar itself.
+ */
+public class ColumnarCalendar implements RobustCalendar {
+  private static final byte ALL_DAY = 0b1;
+  private static final byte LOCATION = 0b110;
+  private static final int LOCATION_SHIFT = 1;
+  private static final byte PUBLIC = 0b1000;
+  private static final int NONE = -1;
+
+  private final StringTable strings;
+  private final List<ColumnarSeries> series;
+  private long[] starts;
+  private long[] ends;
+  private byte[] flags;
+  private int[] subjects;
+  private int[] descriptions;
+  private int[] seriesIds;
+  private int size;
+  // rows in the order events sort in, and the latest end up to each position
+  private int[] order;
+  private long[] maxEnds;
+  private boolean isOrdered;
+  private boolean areMaxEndsValid;
+  // an open-addressing hash table of every row by its whole key, holding row + 1
+  private int[] slots;
+  private String name;
+  private ZoneId zone;
+
+  /**
+   * Construct a new calendar object with no events and no time zone.
+   */
+  public ColumnarCalendar() {
+    this(null, null);
+  }
+
+  /**
+   * Construct a new calendar object with no events and the given name and time
+   * zone.
+   *
+   * @param name the name of this calendar.
+   * @param zone a provided time zone.
+   */
+  public ColumnarCalendar(String name, String zone) {
+    strings = new StringTable();
+    series = new ArrayList<>();
+    starts = new long[16];
+    ends = new long[16];
+    flags = new byte[16];
+    subjects = new int[16];
+    descriptions = new int[16];
+    seriesIds = new int[16];
+    order = new int[16];
+    maxEnds = new long[16];
+    isOrdered = true;
+    areMaxEndsValid = true;
+    slots = new int[32];
+    this.zone = (zone != null) ? ZoneId.of(zone) : null;
+    this.name = name;
+  }
+
+  @Override
+  public Set<RobustCalEvent> getEvents() {
+    return new AbstractSet<>() {
+      @Override
+      public Iterator<RobustCalEvent> iterator() {
+        ensureOrdered();
+        return new Iterator<>() {
+          private int position;
+
+          @Override
+          public boolean hasNext() {
+            return position < size;
+          }
+
+          @Override
+          public RobustCalEvent next() {
+            if (!hasNext()) {
+              throw new NoSuchElementException();
+            }
+            return eventOf(order[position++]);
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+
+      @Override
+      public boolean contains(Object other) {
+        return other instanceof RobustCalEvent event
+                && findRow(
+                strings.find(event.getSubject()),
+                toMinutes(event.getStartDateTime()),
+                toMinutes(event.getEndDateTime()),
+                event.isAllDay()
+        ) != NONE;
+      }
+    };
+  }
+
+  @Override
+  public RobustCalEvent getEvent(String eventSubject, String fromDateStringTtimeString) {
+    int row = findRow(eventSubject, DateTimes.parseDateTime(fromDateStringTtimeString));
+    return (row != NONE) ? eventOf(row) : null;
+  }
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public String getZone() {
+    return (zone != null) ? zone.toString() : null;
+  }
+
+  @Override
+  public void setName(String name) {
+    this.name = name;
+  }
+
+  @Override
+  public void setZone(String zone) {
+    ZoneId newZone = (zone != null) ? ZoneId.of(zone) : null;
+    ZoneConverter converter = ZoneConverter.of(this.zone, newZone);
+    if (!converter.isIdentity()) {
+      // events keep the instant they happen at, while all-day ones stay on their date
+      for (int row = 0; row < size; row++) {
+        if (!isAllDay(row)) {
+          starts[row] = toMinutes(converter.convert(toDateTime(starts[row])));
+          ends[row] = toMinutes(converter.convert(toDateTime(ends[row])));
+        }
+      }
+      // nearly every key changed, so the hash table and order are rebuilt
+      Arrays.fill(slots, 0);
+      for (int row = 0; row < size; row++) {
+        placeSlot(row);
+      }
+      isOrdered = false;
+      areMaxEndsValid = false;
+    }
+    this.zone = newZone;
+  }
+
+  @Override
+  public void createSingleNormalEvent(
+          String eventSubject,
+          LocalDateTime startDateTime,
+          LocalDateTime endDateTime
+  ) {
+    addRow(new CalEventImpl(eventSubject, startDateTime, endDateTime), NONE);
+  }
+
+  @Override
+  public void createRecurringNormalEventsNTimes(
+          String eventSubject,
+          LocalDateTime startDateTime,
+          LocalDateTime endDateTime,
+          Set<DayOfWeek> repeatWeekdays,
+          int N
+  ) {
+    // if N is 0 or 1, do one event creation only
+    if (N == 0 || N == 1) {
+      createSingleNormalEvent(eventSubject, startDateTime, endDateTime);
+    }
+    // get starting data
+    if (startDateTime.getDayOfMonth() != endDateTime.getDayOfMonth()) {
+      throw new DateTimeException("Cannot repeat an event that doesn't end on " +
+              "the same day it starts on!");
+    }
+    // the single event above already covers these cases
+    if (N == 0 || N == 1) {
+      return;
+    }
+    RobustCalEvent firstEvent = new CalEventImpl(eventSubject, startDateTime, endDateTime);
+    addSeries(Recurrence.nTimes(firstEvent, repeatWeekdays, N));
+  }
+
+  @Override
+  public void createRecurringNormalEventsUntilDate(
+          String eventSubject,
+          LocalDateTime startDateTime,
+          LocalDateTime endDateTime,
+          Set<DayOfWeek> repeatWeekdays,
+          LocalDate untilDate
+  ) {
+    // get starting data
+    if (startDateTime.getDayOfMonth() != endDateTime.getDayOfMonth()) {
+      throw new DateTimeException("Cannot repeat an event that doesn't end on " +
+              "the same day it starts on!");
+    }
+    RobustCalEvent firstEvent = new CalEventImpl(eventSubject, startDateTime, endDateTime);
+    addSeries(Recurrence.untilDate(firstEvent, repeatWeekdays, untilDate));
+  }
+
+  @Override
+  public void createSingleAllDayEvent(String eventSubject, LocalDate date) {
+    addRow(new CalEventImpl(eventSubject, date), NONE);
+  }
+
+  @Override
+  public void createRecurringAllDayEventsNTimes(
+          String eventSubject,
+          LocalDate date,
+          Set<DayOfWeek> repeatWeekdays,
+          int N
+  ) {
+    // if N is 0 or 1, do one event creation only
+    if (N == 0 || N == 1) {
+      createSingleAllDayEvent(eventSubject, date);
+      return;
+    }
+    addSeries(Recurrence.nTimes(new CalEventImpl(eventSubject, date), repeatWeekdays, N));
+  }
+
+  @Override
+  public void createRecurringAllDayEventsUntilDate(
+          String eventSubject,
+          LocalDate date,
+          Set<DayOfWeek> repeatWeekdays,
+          LocalDate untilDate
+  ) {
+    RobustCalEvent firstEvent = new CalEventImpl(eventSubject, date);
+    addSeries(Recurrence.untilDate(firstEvent, repeatWeekdays, untilDate));
+  }
+
+  @Override
+  public void createCopiesOfEvents(
+          Iterable<? extends RobustCalEvent> events,
+          ZoneId sourceZone,
+          Duration shift
+  ) {
+    ZoneConverter converter = ZoneConverter.of(sourceZone, zone);
+    for (RobustCalEvent event : events) {
+      int row = addRow(new CalEventImpl(event, converter.moveOf(event, shift)), NONE);
+      if (row == NONE) {
+        continue;
+      }
+      // copies share the interned subject and description of every other copy
+      descriptions[row] = strings.intern(event.getDescription());
+      if (event.getLocation() != null) {
+        flags[row] |= (byte) ((event.getLocation().ordinal() + 1) << LOCATION_SHIFT);
+      }
+      if (event.getStatus() == CalEventImpl.Status.PUBLIC) {
+        flags[row] |= PUBLIC;
+      }
+    }
+  }
+
+  private void addSeries(Recurrence rule) {
+    ColumnarSeries newSeries = new ColumnarSeries();
+    series.add(newSeries);
+    int seriesId = series.size() - 1;
+    rule.forEachOccurrence(newSeries, (event) -> {
+      int row = addRow(event, seriesId);
+      if (row != NONE) {
+        newSeries.addRow(row);
+      }
+    });
+  }
+
+  @Override
+  public void editSingleEvent(
+          EventProperty property,
+          String eventSubject,
+          LocalDateTime startDateTime,
+          LocalDateTime endDateTime,
+          String newPropertyVal
+  ) {
+    // ensure the event set isn't empty
+    if (size == 0) {
+      throw new IllegalStateException("No events to pick from to edit!");
+    }
+    // find the target event, if any
+    int row = findRow(eventSubject, startDateTime, endDateTime);
+    if (row == NONE) {
+      throw new IllegalArgumentException("No events match the provided subject and/or times!");
+    }
+    editRow(row, property, newPropertyVal);
+    // events whose times change no longer belong to their series
+    if (property.isTime()) {
+      leaveSeries(row);
+    }
+  }
+
+  @Override
+  public void editEventAndMaybeOnward(
+          EventProperty property,
+          String eventSubject,
+          LocalDateTime startDateTime,
+          String newPropertyVal
+  ) {
+    // ensure the event set isn't empty
+    if (size == 0) {
+      throw new IllegalStateException("No events to pick from to edit!");
+    }
+    // find the target event, if any
+    int row = findRow(eventSubject, startDateTime);
+    if (row == NONE) {
+      throw new IllegalArgumentException("No events match the provided subject and/or times!");
+    }
+    int[] following = rowsAfter(row);
+    int[] rows = new int[following.length + 1];
+    rows[0] = row;
+    System.arraycopy(following, 0, rows, 1, following.length);
+    // every edited event takes the new value, as when editing the whole series
+    editRows(rows, property, newPropertyVal);
+    if (!property.isTime() || seriesIds[row] == NONE) {
+      return;
+    }
+    // the edited events form a series of their own, leaving the earlier ones the old one
+    ColumnarSeries newSeries = new ColumnarSeries();
+    series.add(newSeries);
+    for (int member : rows) {
+      leaveSeries(member);
+      joinSeries(member, series.size() - 1);
+    }
+  }
+
+  private int[] rowsAfter(int row) {
+    if (seriesIds[row] == NONE) {
+      return new int[0];
+    }
+    // the rows of a series are kept unordered, so they are all compared to the target
+    int[] members = series.get(seriesIds[row]).rows();
+    int count = 0;
+    for (int member : members) {
+      if (compareRows(member, row) > 0) {
+        members[count++] = member;
+      }
+    }
+    return Arrays.copyOf(members, count);
+  }
+
+  private void joinSeries(int row, int seriesId) {
+    seriesIds[row] = seriesId;
+    series.get(seriesId).addRow(row);
+  }
+
+  @Override
+  public void editEventAndMaybeAll(
+          EventProperty property,
+          String eventSubject,
+          LocalDateTime startDateTime,
+          String newPropertyVal
+  ) {
+    // ensure the event set isn't empty
+    if (size == 0) {
+      throw new IllegalStateException("No events to pick from to edit!");
+    }
+    // find the target event, if any
+    int row = findRow(eventSubject, startDateTime);
+    if (row == NONE) {
+      return;
+    }
+    if (seriesIds[row] != NONE) {
+      editRows(series.get(seriesIds[row]).rows(), property, newPropertyVal);
+    } else {
+      editRow(row, property, newPropertyVal);
+    }
+  }
+
+  private void editRows(int[] rows, EventProperty property, String newPropertyVal) {
+    // past about log n rows, sorting once when next needed beats moving each row
+    if (property.isKey() && rows.length > 32 - Integer.numberOfLeadingZeros(size)) {
+      isOrdered = false;
+    }
+    // remember the rows as they were, so a failing edit can put back the ones before it
+    int[] oldSubjects = new int[rows.length];
+    long[] oldStarts = new long[rows.length];
+    long[] oldEnds = new long[rows.length];
+    byte[] oldFlags = new byte[rows.length];
+    int[] oldDescriptions = new int[rows.length];
+    for (int i = 0; i < rows.length; i++) {
+      oldSubjects[i] = subjects[rows[i]];
+      oldStarts[i] = starts[rows[i]];
+      oldEnds[i] = ends[rows[i]];
+      oldFlags[i] = flags[rows[i]];
+      oldDescriptions[i] = descriptions[rows[i]];
+    }
+    int edited = 0;
+    try {
+      for (; edited < rows.length; edited++) {
+        editRow(rows[edited], property, newPropertyVal);
+      }
+    } catch (RuntimeException e) {
+      for (int i = 0; i < edited; i++) {
+        int row = rows[i];
+        removeSlot(row);
+        subjects[row] = oldSubjects[i];
+        starts[row] = oldStarts[i];
+        ends[row] = oldEnds[i];
+        flags[row] = oldFlags[i];
+        descriptions[row] = oldDescriptions[i];
+        addSlot(row);
+      }
+      // rows moved for their new keys are out of place again
+      if (edited > 0 && property.isKey()) {
+        isOrdered = false;
+      }
+      throw e;
+    }
+  }
+
+  private void editRow(int row, EventProperty property, String newPropertyVal) {
+    switch (property) {
+      case SUBJECT -> rekeyRow(
+              row, strings.intern(newPropertyVal), starts[row], ends[row], isAllDay(row)
+      );
+      case START -> {
+        long start = toMinutes(DateTimes.parseDateTime(newPropertyVal));
+        if (start > ends[row]) {
+          throw new DateTimeException("Start date/time after end date/time!" +
+                  " Edit end date/time first.");
+        }
+        // like any event, an all-day one only stops being all day
+        rekeyRow(row, subjects[row], isAllDay(row) ? starts[row] : start, ends[row], false);
+      }
+      case END -> {
+        long end = toMinutes(DateTimes.parseDateTime(newPropertyVal));
+        if (end < starts[row]) {
+          throw new DateTimeException("End date/time before start date/time!" +
+                  " Edit start date/time first.");
+        }
+        rekeyRow(row, subjects[row], starts[row], isAllDay(row) ? ends[row] : end, false);
+      }
+      case DESCRIPTION -> descriptions[row] = strings.intern(newPropertyVal);
+      case LOCATION -> {
+        int location = locationOf(newPropertyVal);
+        flags[row] = (byte) (flags[row] & ~LOCATION | (location + 1) << LOCATION_SHIFT);
+      }
+      case STATUS -> {
+        boolean isPublic = isPublic(newPropertyVal);
+        flags[row] = (byte) (isPublic ? flags[row] | PUBLIC : flags[row] & ~PUBLIC);
+      }
+      // if the specified property doesn't exist, throw relevant exception
+      default -> throw new IllegalArgumentException("No properties match the one passed!");
+    }
+  }
+
+  private static int locationOf(String location) {
+    for (CalEventImpl.Location loc : CalEventImpl.Location.values()) {
+      if (loc.getStringRepresentation().equals(location)) {
+        return loc.ordinal();
+      }
+    }
+    throw new NoSuchElementException("Location must either be \"physical\" " +
+            "or \"online\".");
+  }
+
+  private static boolean isPublic(String status) {
+    for (CalEventImpl.Status stat : CalEventImpl.Status.values()) {
+      if (stat.getStringRepresentation().equals(status)) {
+        return stat == CalEventImpl.Status.PUBLIC;
+      }
+    }
+    throw new NoSuchElementException("Status must either be \"public\" or " +
+            "\"private\".");
+  }
+
+  private void leaveSeries(int row) {
+    if (seriesIds[row] != NONE) {
+      series.get(seriesIds[row]).removeRow(row);
+      seriesIds[row] = NONE;
+    }
+  }
+
+  @Override
+  public List<RobustCalEvent> printAllEventsOnDate(String dateString) {
+    // retrieve the start and end date times of the date
+    LocalDate date = DateTimes.parseDate(dateString);
+    LocalDateTime startDateTime = LocalDateTime.of(
+            date,
+            LocalTime.of(LocalTime.MIN.getHour(), LocalTime.MIN.getMinute())
+    );
+    LocalDateTime endDateTime = LocalDateTime.of(
+            date,
+            LocalTime.of(LocalTime.MAX.getHour(), LocalTime.MAX.getMinute())
+    );
+    return printableBetween(toMinutes(startDateTime), toMinutes(endDateTime))
+            .collect(Collectors.toCollection(ArrayList::new));
+  }
+
+  @Override
+  public List<RobustCalEvent> printAllEventsBetweenDates(
+          String fromDateStringTtimeString,
+          String toDateStringTtimeString
+  ) {
+    return streamEventsBetweenDates(fromDateStringTtimeString, toDateStringTtimeString)
+            .collect(Collectors.toCollection(ArrayList::new));
+  }
+
+  @Override
+  public Stream<RobustCalEvent> streamEventsOnDate(String dateString) {
+    LocalDate date = DateTimes.parseDate(dateString);
+    return printableBetween(
+            toMinutes(LocalDateTime.of(date, LocalTime.of(0, 0))),
+            toMinutes(LocalDateTime.of(date, LocalTime.of(23, 59)))
+    );
+  }
+
+  @Override
+  public Stream<RobustCalEvent> streamEventsBetweenDates(
+          String fromDateStringTtimeString,
+          String toDateStringTtimeString
+  ) {
+    return printableBetween(
+            toMinutes(DateTimes.parseDateTime(fromDateStringTtimeString)),
+            toMinutes(DateTimes.parseDateTime(toDateStringTtimeString))
+    );
+  }
+
+  @Override
+  public void writeEventsOnDate(String dateString, Appendable out) throws IOException {
+    LocalDate date = DateTimes.parseDate(dateString);
+    writePrintableBetween(
+            toMinutes(LocalDateTime.of(date, LocalTime.of(0, 0))),
+            toMinutes(LocalDateTime.of(date, LocalTime.of(23, 59))),
+            out
+    );
+  }
+
+  @Override
+  public void writeEventsBetweenDates(
+          String fromDateStringTtimeString,
+          String toDateStringTtimeString,
+          Appendable out
+  ) throws IOException {
+    writePrintableBetween(
+            toMinutes(DateTimes.parseDateTime(fromDateStringTtimeString)),
+            toMinutes(DateTimes.parseDateTime(toDateStringTtimeString)),
+            out
+    );
+  }
+
+  private Stream<RobustCalEvent> printableBetween(long from, long to) {
+    ensureMaxEnds();
+    // only rows starting before the interval ends and ending after it starts
+    int last = countStartingBefore(to);
+    int first = firstEndingAfter(from, last);
+    ZoneId eventZone = zone;
+    return IntStream.range(first, last)
+            .map((position) -> order[position])
+            .filter((row) -> isPrintable(row, from, to))
+            .mapToObj((row) -> new ZonedCalEventImpl(eventOf(row), eventZone));
+  }
+
+  private void writePrintableBetween(long from, long to, Appendable out) throws IOException {
+    ensureMaxEnds();
+    int last = countStartingBefore(to);
+    for (int position = firstEndingAfter(from, last); position < last; position++) {
+      int row = order[position];
+      if (isPrintable(row, from, to)) {
+        appendRow(out, row);
+        out.append(System.lineSeparator());
+      }
+    }
+  }
+
+  private static void appendDayAndDate(Appendable out, long minutes, boolean withTime)
+          throws IOException {
+    // written the same way events write their start and end
+    LocalDate date = LocalDate.ofEpochDay(Math.floorDiv(minutes, 24 * 60));
+    out.append(date.getDayOfWeek().name()).append(' ').append(date.toString());
+    if (withTime) {
+      long minuteOfDay = Math.floorMod(minutes, 24 * 60);
+      out.append('T');
+      appendTwoDigits(out, minuteOfDay / 60);
+      out.append(':');
+      appendTwoDigits(out, minuteOfDay % 60);
+    }
+  }
+
+  private static void appendTwoDigits(Appendable out, long value) throws IOException {
+    out.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+  }
+
+  private boolean isPrintable(int row, long from, long to) {
+    // an event is printed if it starts or ends strictly within the interval
+    return starts[row] > from && starts[row] < to || ends[row] > from && ends[row] < to;
+  }
+
+  private void appendRow(Appendable out, int row) throws IOException {
+    // the same line the event of the row writes, straight from the columns
+    out.append('"').append(strings.get(subjects[row])).append("\", ");
+    if (!isAllDay(row)) {
+      out.append("from ");
+      appendDayAndDate(out, starts[row], true);
+      out.append(" to ");
+      appendDayAndDate(out, ends[row], true);
+    } else {
+      out.append("on ");
+      appendDayAndDate(out, starts[row], false);
+    }
+    int location = (flags[row] & LOCATION) >> LOCATION_SHIFT;
+    if (location != 0) {
+      out.append("; ")
+              .append(CalEventImpl.Location.values()[location - 1].getStringRepresentation());
+    }
+    QueriableCalEvent.appendZone(out, zone);
+  }
+
+  @Override
+  public String showStatusOnDateAtTime(String dateStringTtimeString) {
+    long targetTime = toMinutes(DateTimes.parseDateTime(dateStringTtimeString));
+    ensureMaxEnds();
+    // something starting before the target time must end after it
+    int startingBefore = countStartingBefore(targetTime);
+    return (startingBefore > 0 && maxEnds[startingBefore - 1] > targetTime)
+            ? "busy" : "available";
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    return this == other
+            || other instanceof RobustCalendar r
+            && getName().equals(r.getName());
+  }
+
+  @Override
+  public int hashCode() {
+    // calendars are equal by name, so they must hash by name as well
+    return Objects.hashCode(getName());
+  }
+
+  private int addRow(RobustCalEvent event, int seriesId) {
+    int subject = strings.intern(event.getSubject());
+    long start = toMinutes(event.getStartDateTime());
+    long end = toMinutes(event.getEndDateTime());
+    // ignore events equal to one already in the calendar
+    if (findRow(subject, start, end, event.isAllDay()) != NONE) {
+      return NONE;
+    }
+    if (size == starts.length) {
+      grow();
+    }
+    int row = size++;
+    int position = row;
+    starts[row] = start;
+    ends[row] = end;
+    flags[row] = event.isAllDay() ? ALL_DAY : 0;
+    subjects[row] = subject;
+    descriptions[row] = NONE;
+    seriesIds[row] = seriesId;
+    addSlot(row);
+    // rows arriving in order, as they do when loading, keep everything valid
+    order[position] = row;
+    if (isOrdered && position > 0 && compareRows(order[position - 1], row) > 0) {
+      isOrdered = false;
+    }
+    if (isOrdered && areMaxEndsValid) {
+      maxEnds[position] = (position > 0) ? Math.max(maxEnds[position - 1], end) : end;
+    } else {
+      areMaxEndsValid = false;
+    }
+    return row;
+  }
+
+  private void rekeyRow(int row, int subject, long start, long end, boolean isAllDay) {
+    if (subjects[row] == subject && starts[row] == start && ends[row] == end
+            && isAllDay(row) == isAllDay) {
+      return;
+    }
+    if (findRow(subject, start, end, isAllDay) != NONE) {
+      throw new IllegalArgumentException("An event with the same subject, start, and end " +
+              "already exists!");
+    }
+    // when the rows are already out of order, they are sorted once when next needed
+    if (!isOrdered) {
+      removeSlot(row);
+      setKey(row, subject, start, end, isAllDay);
+      addSlot(row);
+      return;
+    }
+    // move the row to where its new key sorts, shifting the rows in between
+    int oldPosition = positionOf(row);
+    System.arraycopy(order, oldPosition + 1, order, oldPosition, size - oldPosition - 1);
+    removeSlot(row);
+    setKey(row, subject, start, end, isAllDay);
+    addSlot(row);
+    int newPosition = insertionPointOf(row, size - 1);
+    System.arraycopy(order, newPosition, order, newPosition + 1, size - 1 - newPosition);
+    order[newPosition] = row;
+    areMaxEndsValid = false;
+  }
+
+  private void setKey(int row, int subject, long start, long end, boolean isAllDay) {
+    subjects[row] = subject;
+    starts[row] = start;
+    ends[row] = end;
+    flags[row] = (byte) (isAllDay ? flags[row] | ALL_DAY : flags[row] & ~ALL_DAY);
+  }
+
+  private int findRow(String subject, LocalDateTime startDateTime) {
+    return findRow(subject, startDateTime, null);
+  }
+
+  private int findRow(String subject, LocalDateTime startDateTime, LocalDateTime endDateTime) {
+    int subjectId = strings.find(subject);
+    if (subjectId == NONE) {
+      return NONE;
+    }
+    ensureOrdered();
+    long start = toMinutes(startDateTime);
+    // the first matching row in order is among the rows sharing its start
+    for (int position = countStartingBefore(start);
+         position < size && starts[order[position]] == start;
+         position++) {
+      int row = order[position];
+      if (subjects[row] == subjectId
+              && (endDateTime == null || ends[row] == toMinutes(endDateTime))) {
+        return row;
+      }
+    }
+    return NONE;
+  }
+
+  private int findRow(int subject, long start, long end, boolean isAllDay) {
+    if (subject == NONE) {
+      return NONE;
+    }
+    int mask = slots.length - 1;
+    for (int slot = hash(subject, start, end, isAllDay) & mask;
+         slots[slot] != 0;
+         slot = (slot + 1) & mask) {
+      int row = slots[slot] - 1;
+      if (starts[row] == start && ends[row] == end && subjects[row] == subject
+              && isAllDay(row) == isAllDay) {
+        return row;
+      }
+    }
+    return NONE;
+  }
+
+  private void addSlot(int row) {
+    // keep the table at most half full so probes stay short
+    if (2 * size > slots.length) {
+      slots = new int[2 * slots.length];
+      for (int other = 0; other < size; other++) {
+        if (other != row) {
+          placeSlot(other);
+        }
+      }
+    }
+    placeSlot(row);
+  }
+
+  private void placeSlot(int row) {
+    int mask = slots.length - 1;
+    int slot = hashOf(row) & mask;
+    while (slots[slot] != 0) {
+      slot = (slot + 1) & mask;
+    }
+    slots[slot] = row + 1;
+  }
+
+  private void removeSlot(int row) {
+    int mask = slots.length - 1;
+    int hole = hashOf(row) & mask;
+    while (slots[hole] != row + 1) {
+      hole = (hole + 1) & mask;
+    }
+    // shift back later rows of the probe run that could live in the hole
+    for (int slot = (hole + 1) & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+      int home = hashOf(slots[slot] - 1) & mask;
+      boolean homeAfterHole = (hole <= slot)
+              ? (hole < home && home <= slot)
+              : (hole < home || home <= slot);
+      if (!homeAfterHole) {
+        slots[hole] = slots[slot];
+        hole = slot;
+      }
+    }
+    slots[hole] = 0;
+  }
+
+  private int hashOf(int row) {
+    return hash(subjects[row], starts[row], ends[row], isAllDay(row));
+  }
+
+  private static int hash(int subject, long start, long end, boolean isAllDay) {
+    long h = start * 0x9E3779B97F4A7C15L + end;
+    h = h * 0x9E3779B97F4A7C15L + subject;
+    h = h * 0x9E3779B97F4A7C15L + (isAllDay ? 1 : 0);
+    return (int) (h ^ (h >>> 32));
+  }
+
+  private void ensureOrdered() {
+    if (!isOrdered) {
+      sortRows(order, new int[size], 0, size);
+      isOrdered = true;
+      areMaxEndsValid = false;
+    }
+  }
+
+  private void ensureMaxEnds() {
+    ensureOrdered();
+    if (!areMaxEndsValid) {
+      long maxEnd = Long.MIN_VALUE;
+      for (int position = 0; position < size; position++) {
+        maxEnd = Math.max(maxEnd, ends[order[position]]);
+        maxEnds[position] = maxEnd;
+      }
+      areMaxEndsValid = true;
+    }
+  }
+
+  private void sortRows(int[] rows, int[] buffer, int from, int to) {
+    if (to - from < 2) {
+      return;
+    }
+    int middle = (from + to) >>> 1;
+    sortRows(rows, buffer, from, middle);
+    sortRows(rows, buffer, middle, to);
+    // halves that are already in order need no merging
+    if (compareRows(rows[middle - 1], rows[middle]) <= 0) {
+      return;
+    }
+    System.arraycopy(rows, from, buffer, from, to - from);
+    int left = from;
+    int right = middle;
+    for (int position = from; position < to; position++) {
+      if (right >= to || left < middle && compareRows(buffer[left], buffer[right]) <= 0) {
+        rows[position] = buffer[left++];
+      } else {
+        rows[position] = buffer[right++];
+      }
+    }
+  }
+
+  /**
+   * Compare two rows the same way {@link CalEventImpl} compares events: by
+   * start, then end, then subject, with all-day events first.
+   */
+  private int compareRows(int first, int second) {
+    if (starts[first] != starts[second]) {
+      return Long.compare(starts[first], starts[second]);
+    } else if (ends[first] != ends[second]) {
+      return Long.compare(ends[first], ends[second]);
+    } else if (subjects[first] != subjects[second]) {
+      return strings.get(subjects[first]).compareTo(strings.get(subjects[second]));
+    } else {
+      return Boolean.compare(!isAllDay(first), !isAllDay(second));
+    }
+  }
+
+  private int positionOf(int row) {
+    int low = 0;
+    int high = size - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      int comparison = compareRows(order[middle], row);
+      if (comparison < 0) {
+        low = middle + 1;
+      } else if (comparison > 0) {
+        high = middle - 1;
+      } else {
+        return middle;
+      }
+    }
+    throw new IllegalStateException("Row missing from the event order!");
+  }
+
+  private int insertionPointOf(int row, int count) {
+    int low = 0;
+    int high = count;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (compareRows(order[middle], row) < 0) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  private int countStartingBefore(long time) {
+    int low = 0;
+    int high = size;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (starts[order[middle]] < time) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  private int firstEndingAfter(long time, int count) {
+    // the latest end up to each position never decreases
+    int low = 0;
+    int high = count;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (maxEnds[middle] <= time) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  private void grow() {
+    int capacity = 2 * starts.length;
+    starts = Arrays.copyOf(starts, capacity);
+    ends = Arrays.copyOf(ends, capacity);
+    flags = Arrays.copyOf(flags, capacity);
+    subjects = Arrays.copyOf(subjects, capacity);
+    descriptions = Arrays.copyOf(descriptions, capacity);
+    seriesIds = Arrays.copyOf(seriesIds, capacity);
+    order = Arrays.copyOf(order, capacity);
+    maxEnds = Arrays.copyOf(maxEnds, capacity);
+  }
+
+  private boolean isAllDay(int row) {
+    return (flags[row] & ALL_DAY) != 0;
+  }
+
+  private RobustCalEvent eventOf(int row) {
+    String subject = strings.get(subjects[row]);
+    // all-day events always span the same hours of their start date
+    RobustCalEvent event = isAllDay(row)
+            ? new CalEventImpl(subject, toDateTime(starts[row]).toLocalDate())
+            : new CalEventImpl(subject, toDateTime(starts[row]), toDateTime(ends[row]));
+    if (seriesIds[row] != NONE) {
+      event.setSeries(series.get(seriesIds[row]));
+    }
+    if (descriptions[row] != NONE) {
+      event.setDescription(strings.get(descriptions[row]));
+    }
+    int location = (flags[row] & LOCATION) >> LOCATION_SHIFT;
+    if (location != 0) {
+      event.setLocation(CalEventImpl.Location.values()[location - 1].getStringRepresentation());
+    }
+    if ((flags[row] & PUBLIC) != 0) {
+      event.setStatus(CalEventImpl.Status.PUBLIC.getStringRepresentation());
+    }
+    return event;
+  }
+
+  private static long toMinutes(LocalDateTime dateTime) {
+    return Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60);
+  }
+
+  private static LocalDateTime toDateTime(long minutes) {
+    return LocalDateTime.ofEpochSecond(minutes * 60, 0, ZoneOffset.UTC);
+  }
+
+  /**
+   * A series of events of this calendar, which only remembers the rows of its
+   * events and creates the events themselves when they are asked for. Its
+   * events are changed through the calendar, not through the series.
+   */
+  private final class ColumnarSeries extends RobustCalEvent.Series {
+    private int[] rows = new int[4];
+    private int count;
+
+    private void addRow(int row) {
+      if (count == rows.length) {
+        rows = Arrays.copyOf(rows, 2 * count);
+      }
+      rows[count++] = row;
+    }
+
+    private void removeRow(int row) {
+      for (int i = 0; i < count; i++) {
+        if (rows[i] == row) {
+          rows[i] = rows[--count];
+          return;
+        }
+      }
+    }
+
+    private int[] rows() {
+      return Arrays.copyOf(rows, count);
+    }
+
+    @Override
+    public TreeSet<RobustCalEvent> getEvents() {
+      TreeSet<RobustCalEvent> events = new TreeSet<>();
+      for (int i = 0; i < count; i++) {
+        events.add(eventOf(rows[i]));
+      }
+      return events;
+    }
+
+    @Override
+    public TreeSet<RobustCalEvent> getStoredEvents() {
+      return getEvents();
+    }
+
+    @Override
+    public void add(RobustCalEvent event) {
+      throw new UnsupportedOperationException("Edit columnar series through their calendar!");
+    }
+
+    @Override
+    public void addAll(Collection<? extends RobustCalEvent> eventCollection) {
+      throw new UnsupportedOperationException("Edit columnar series through their calendar!");
+    }
+
+    @Override
+    public void remove(RobustCalEvent event) {
+      throw new UnsupportedOperationException("Edit columnar series through their calendar!");
+    }
+  }
+}
@@ -0,0 +1,309 @@
+package model.calendar;
+
+import java.io.IOException;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+import model.events.CalEventImpl;
+import model.events.EventProperty;
+import model.events.RobustCalEvent;
+
+/**
+ * A robust calendar that can be shared between threads, guarding another
+ * calendar with a {@link StampedLock}. Queries share the read lock, so they run
+ * side by side, while every change to the calendar takes the write lock, so a
+ * query never sees a series edit half done. Events handed out are detached
+ * copies, which later edits to the calendar don't change.
+ */
+public class ConcurrentCalendar implements RobustCalendar {
+  private final RobustCalendar delegate;
+  private final StampedLock lock;
+
+  /**
+   * Construct a new thread-safe calendar guarding the given calendar with its
+   * own lock.
+   *
+   * @param delegate the calendar to guard, which must not be used directly.
+   */
+  public ConcurrentCalendar(RobustCalendar delegate) {
+    this(delegate, new StampedLock());
+  }
+
+  /**
+   * Construct a new thread-safe calendar guarding the given calendar with a
+   * lock that may be shared with other calendars, so that changes spanning
+   * several calendars can be made under one write lock.
+   *
+   * @param delegate the calendar to guard, which must not be used directly.
+   * @param lock     the lock guarding the calendar.
+   */
+  public ConcurrentCalendar(RobustCalendar delegate, StampedLock lock) {
+    this.delegate = delegate;
+    this.lock = lock;
+  }
+
+  /**
+   * Retrieve the calendar guarded by this one.
+   *
+   * @return the guarded calendar.
+   */
+  public RobustCalendar getDelegate() {
+    return delegate;
+  }
+
+  @Override
+  public Set<RobustCalEvent> getEvents() {
+    return read(() -> {
+      Set<RobustCalEvent> events = new TreeSet<>();
+      delegate.getEvents().forEach((it) -> events.add(new CalEventImpl(it)));
+      return events;
+    });
+  }
+
+  @Override
+  public RobustCalEvent getEvent(String eventSubject, String fromDateStringTtimeString) {
+    return read(() -> {
+      RobustCalEvent event = delegate.getEvent(eventSubject, fromDateStringTtimeString);
+      return (event != null) ? new CalEventImpl(event) : null;
+    });
+  }
+
+  @Override
+  public String getName() {
+    return readOptimistically(delegate::getName);
+  }
+
+  @Override
+  public String getZone() {
+    return readOptimistically(delegate::getZone);
+  }
+
+  @Override
+  public void setName(String name) {
+    write(() -> delegate.setName(name));
+  }
+
+  @Override
+  public void setZone(String zone) {
+    write(() -> delegate.setZone(zone));
+  }
+
+  @Override
+  public void createSingleNormalEvent(
+          String eventSubject,
+          LocalDateTime startDateTime,
+          LocalDateTime endDateTime
+  ) {
+    write(() -> delegate.createSingleNormalEvent(eventSubject, startDateTime, endDateTime));
+  }
+
+  @Override
+  public void createRecurringNormalEventsNTimes(
+          String eventSubject,
+          LocalDateTime startDateTime,
+          LocalDateTime endDateTime,
+          Set<DayOfWeek> repeatWeekdays,
+          int N
+  ) {
+    write(() -> delegate.createRecurringNormalEventsNTimes(
+            eventSubject, startDateTime, endDateTime, repeatWeekdays, N
+    ));
+  }
+
+  @Override
+  public void createRecurringNormalEventsUntilDate(
+          String eventSubject,
+          LocalDateTime startDateTime,
+          LocalDateTime endDateTime,
+          Set<DayOfWeek> repeatWeekdays,
+          LocalDate untilDate
+  ) {
+    write(() -> delegate.createRecurringNormalEventsUntilDate(
+            eventSubject, startDateTime, endDateTime, repeatWeekdays, untilDate
+    ));
+  }
+
+  @Override
+  public void createSingleAllDayEvent(String eventSubject, LocalDate date) {
+    write(() -> delegate.createSingleAllDayEvent(eventSubject, date));
+  }
+
+  @Override
+  public void createRecurringAllDayEventsNTimes(
+          String eventSubject,
+          LocalDate date,
+          Set<DayOfWeek> repeatWeekdays,
+          int N
+  ) {
+    write(() -> delegate.createRecurringAllDayEventsNTimes(
+            eventSubject, date, repeatWeekdays, N
+    ));
+  }
+
+  @Override
+  public void createRecurringAllDayEventsUntilDate(
+          String eventSubject,
+          LocalDate date,
+          Set<DayOfWeek> repeatWeekdays,
+          LocalDate untilDate
+  ) {
+    write(() -> delegate.createRecurringAllDayEventsUntilDate(
+            eventSubject, date, repeatWeekdays, untilDate
+    ));
+  }
+
+  @Override
+  public void createCopiesOfEvents(
+          Iterable<? extends RobustCalEvent> events,
+          ZoneId sourceZone,
+          Duration shift
+  ) {
+    write(() -> delegate.createCopiesOfEvents(events, sourceZone, shift));
+  }
+
+  @Override
+  public void editSingleEvent(
+          EventProperty property,
+          String eventSubject,
+          LocalDateTime startDateTime,
+          LocalDateTime endDateTime,
+          String newPropertyVal
+  ) {
+    write(() -> delegate.editSingleEvent(
+            property, eventSubject, startDateTime, endDateTime, newPropertyVal
+    ));
+  }
+
+  @Override
+  public void editEventAndMaybeOnward(
+          EventProperty property,
+          String eventSubject,
+          LocalDateTime startDateTime,
+          String newPropertyVal
+  ) {
+    write(() -> delegate.editEventAndMaybeOnward(
+            property, eventSubject, startDateTime, newPropertyVal
+    ));
+  }
+
+  @Override
+  public void editEventAndMaybeAll(
+          EventProperty property,
+          String eventSubject,
+          LocalDateTime startDateTime,
+          String newPropertyVal
+  ) {
+    write(() -> delegate.editEventAndMaybeAll(
+            property, eventSubject, startDateTime, newPropertyVal
+    ));
+  }
+
+  @Override
+  public List<RobustCalEvent> printAllEventsOnDate(String dateString) {
+    return read(() -> delegate.printAllEventsOnDate(dateString));
+  }
+
+  @Override
+  public List<RobustCalEvent> printAllEventsBetweenDates(
+          String fromDateStringTtimeString,
+          String toDateStringTtimeString
+  ) {
+    return read(() -> delegate.printAllEventsBetweenDates(
+            fromDateStringTtimeString, toDateStringTtimeString
+    ));
+  }
+
+  @Override
+  public void writeEventsOnDate(String dateString, Appendable out) throws IOException {
+    out.append(read(() -> written((lines) -> delegate.writeEventsOnDate(dateString, lines))));
+  }
+
+  @Override
+  public void writeEventsBetweenDates(
+          String fromDateStringTtimeString,
+          String toDateStringTtimeString,
+          Appendable out
+  ) throws IOException {
+    out.append(read(() -> written((lines) -> delegate.writeEventsBetweenDates(
+            fromDateStringTtimeString, toDateStringTtimeString, lines
+    ))));
+  }
+
+  @Override
+  public String showStatusOnDateAtTime(String dateStringTtimeString) {
+    return read(() -> delegate.showStatusOnDateAtTime(dateStringTtimeString));
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    return this == other
+            || other instanceof RobustCalendar r
+            && getName().equals(r.getName());
+  }
+
+  @Override
+  public int hashCode() {
+    // calendars are equal by name, so they must hash by name as well
+    return Objects.hashCode(getName());
+  }
+
+  private static StringBuilder written(Writer writer) {
+    // written under the lock, but handed to the output only once it is released
+    StringBuilder lines = new StringBuilder();
+    try {
+      writer.writeTo(lines);
+    } catch (IOException e) {
+      // a StringBuilder never throws
+      throw new IllegalStateException(e);
+    }
+    return lines;
+  }
+
+  private interface Writer {
+    void writeTo(Appendable out) throws IOException;
+  }
+
+  private <T> T read(Supplier<T> query) {
+    long stamp = lock.readLock();
+    try {
+      return query.get();
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  private <T> T readOptimistically(Supplier<T> query) {
+    /* only reads of a single field are tried without the lock; walking the
+     * event trees while a writer rebalances them could follow torn links */
+    long stamp = lock.tryOptimisticRead();
+    try {
+      T value = query.get();
+      if (lock.validate(stamp)) {
+        return value;
+      }
+    } catch (RuntimeException e) {
+      if (lock.validate(stamp)) {
+        throw e;
+      }
+    }
+    return read(query);
+  }
+
+  private void write(Runnable mutation) {
+    long stamp = lock.writeLock();
+    try {
+      mutation.run();
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+}
@@ -0,0 +1,107 @@
+package model.calendar;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import model.events.RobustCalEvent;
+
+/**
+ * A secondary index of calendar events by the days they touch, so that the
+ * events on a single day can be found without looking at any other event. An
+ * event spanning several days is registered under every day it spans.
+ */
+final class DayIndex {
+  private final Map<Long, Set<RobustCalEvent>> days;
+
+  /**
+   * Construct a new, empty index of events by day.
+   */
+  DayIndex() {
+    days = new HashMap<>();
+  }
+
+  /**
+   * Register an event under every day it touches. The event must not change its
+   * start, end, or position in the order while it is in this index.
+   *
+   * @param event the event to register.
+   */
+  void add(RobustCalEvent event) {
+    for (long day = firstDay(event); day <= lastDay(event); day++) {
+      days.computeIfAbsent(day, (it) -> new TreeSet<>()).add(event);
+    }
+  }
+
+  /**
+   * Register many events under every day they touch at once, building the
+   * events of each day not in this index yet in one go from their order.
+   *
+   * @param ordered the events to register, distinct and in order.
+   */
+  void addAll(List<RobustCalEvent> ordered) {
+    Map<Long, List<RobustCalEvent>> newDays = new HashMap<>();
+    for (RobustCalEvent event : ordered) {
+      for (long day = firstDay(event); day <= lastDay(event); day++) {
+        newDays.computeIfAbsent(day, (it) -> new ArrayList<>()).add(event);
+      }
+    }
+    newDays.forEach((day, events) -> {
+      Set<RobustCalEvent> bucket = days.get(day);
+      if (bucket != null) {
+        bucket.addAll(events);
+      } else {
+        days.put(day, new TreeSet<>(new SortedListView<>(events)));
+      }
+    });
+  }
+
+  /**
+   * Remove an event from every day it touches.
+   *
+   * @param event the event to remove.
+   */
+  void remove(RobustCalEvent event) {
+    for (long day = firstDay(event); day <= lastDay(event); day++) {
+      Set<RobustCalEvent> bucket = days.get(day);
+      if (bucket != null) {
+        bucket.remove(event);
+        // drop empty days so the index doesn't grow with edit history
+        if (bucket.isEmpty()) {
+          days.remove(day);
+        }
+      }
+    }
+  }
+
+  /**
+   * Remove every event from this index.
+   */
+  void clear() {
+    days.clear();
+  }
+
+  /**
+   * Retrieve the events touching the given day, in order.
+   *
+   * @param date the day in question.
+   * @return an unmodifiable view of the events touching the given day.
+   */
+  Set<RobustCalEvent> eventsOn(LocalDate date) {
+    Set<RobustCalEvent> bucket = days.get(date.toEpochDay());
+    return (bucket != null) ? Collections.unmodifiableSet(bucket) : Set.of();
+  }
+
+  private static long firstDay(RobustCalEvent event) {
+    return event.getStartDateTime().toLocalDate().toEpochDay();
+  }
+
+  private static long lastDay(RobustCalEvent event) {
+    return event.getEndDateTime().toLocalDate().toEpochDay();
+  }
+}
@@ -1,8 +1,21 @@
 package model.calendar;
 
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Set;
+
+import model.events.DateTimes;
+import model.events.Recurrence;
+import model.events.RobustCalEvent;
+
 /**
  * An interface representing all the things that a {@link EventCreatableCalendar}
- * object should be able to offer its users when creating events.
+ * object should be able to offer its users when creating events. Every method
+ * taking ISO-formatted Strings parses them and hands them to its typed
+ * counterpart, which callers that already have dates and times should use.
  */
 public interface EventCreatableCalendar {
   /**
@@ -13,10 +26,30 @@ public interface EventCreatableCalendar {
    * @param fromDateStringTtimeString the date and time this event starts.
    * @param toDateStringTtimeString   the date and time this event ends.
    */
-  void createSingleNormalEvent(
+  default void createSingleNormalEvent(
           String eventSubject,
           String fromDateStringTtimeString,
           String toDateStringTtimeString
+  ) {
+    createSingleNormalEvent(
+            eventSubject,
+            DateTimes.parseDateTime(fromDateStringTtimeString),
+            DateTimes.parseDateTime(toDateStringTtimeString)
+    );
+  }
+
+  /**
+   * Create one "normal" event in this calendar, as in
+   * {@link #createSingleNormalEvent(String, String, String)}.
+   *
+   * @param eventSubject  title of this event.
+   * @param startDateTime the date and time this event starts.
+   * @param endDateTime   the date and time this event ends.
+   */
+  void createSingleNormalEvent(
+          String eventSubject,
+          LocalDateTime startDateTime,
+          LocalDateTime endDateTime
   );
 
   /**
@@ -32,12 +65,46 @@ public interface EventCreatableCalendar {
    * @param repeatWeekdays            days of the week on which these events repeat.
    * @param N                         how many times these events should repeat.
    */
-  void createRecurringNormalEventsNTimes(
+  default void createRecurringNormalEventsNTimes(
           String eventSubject,
           String fromDateStringTtimeString,
           String toDateStringTtimeString,
           String repeatWeekdays,
           int N
+  ) {
+    createRecurringNormalEventsNTimes(
+            eventSubject,
+            DateTimes.parseDateTime(fromDateStringTtimeString),
+            DateTimes.parseDateTime(toDateStringTtimeString),
+            Recurrence.parseWeekdays(
+                    repeatWeekdays,
+                    "Invalid weekday letters entered! " +
+                            "'M' is Monday, 'T' is Tuesday, 'W' is Wednesday, " +
+                            "'R' is Thursday, 'F' is Friday, 'S' is Saturday, " +
+                            "and 'U' is Sunday."
+            ),
+            N
+    );
+  }
+
+  /**
+   * Create recurring, normal events a total of {@code N} times, as in
+   * {@link #createRecurringNormalEventsNTimes(String, String, String, String, int)}.
+   *
+   * @param eventSubject   title of this event.
+   * @param startDateTime  the date from which these events recur and the common
+   *                       start time these events share.
+   * @param endDateTime    the date from which these events recur and the common
+   *                       end time these events share.
+   * @param repeatWeekdays days of the week on which these events repeat.
+   * @param N              how many times these events should repeat.
+   */
+  void createRecurringNormalEventsNTimes(
+          String eventSubject,
+          LocalDateTime startDateTime,
+          LocalDateTime endDateTime,
+          Set<DayOfWeek> repeatWeekdays,
+          int N
   );
 
   /**
@@ -53,12 +120,41 @@ public interface EventCreatableCalendar {
    * @param repeatWeekdays            days of the week on which these events repeat.
    * @param untilDateString           the date until which these events should repeat.
    */
-  void createRecurringNormalEventsUntilDate(
+  default void createRecurringNormalEventsUntilDate(
           String eventSubject,
           String fromDateStringTtimeString,
           String toDateStringTtimeString,
           String repeatWeekdays,
           String untilDateString
+  ) {
+    LocalDate untilDate = DateTimes.parseDate(untilDateString);
+    createRecurringNormalEventsUntilDate(
+            eventSubject,
+            DateTimes.parseDateTime(fromDateStringTtimeString),
+            DateTimes.parseDateTime(toDateStringTtimeString),
+            Recurrence.parseWeekdays(repeatWeekdays, "Invalid weekday letters entered!"),
+            untilDate
+    );
+  }
+
+  /**
+   * Create recurring, normal events until a given date, as in
+   * {@link #createRecurringNormalEventsUntilDate(String, String, String, String, String)}.
+   *
+   * @param eventSubject   title of this event.
+   * @param startDateTime  the date from which these events recur and the common
+   *                       start time these events share.
+   * @param endDateTime    the date from which these events recur and the common
+   *                       end time these events share.
+   * @param repeatWeekdays days of the week on which these events repeat.
+   * @param untilDate      the date until which these events should repeat.
+   */
+  void createRecurringNormalEventsUntilDate(
+          String eventSubject,
+          LocalDateTime startDateTime,
+          LocalDateTime endDateTime,
+          Set<DayOfWeek> repeatWeekdays,
+          LocalDate untilDate
   );
 
   /**
@@ -68,7 +164,18 @@ public interface EventCreatableCalendar {
    * @param eventSubject the title of this event.
    * @param dateString   the date this should event should last all-day on.
    */
-  void createSingleAllDayEvent(String eventSubject, String dateString);
+  default void createSingleAllDayEvent(String eventSubject, String dateString) {
+    createSingleAllDayEvent(eventSubject, DateTimes.parseDate(dateString));
+  }
+
+  /**
+   * Create one "all-day" event, as in
+   * {@link #createSingleAllDayEvent(String, String)}.
+   *
+   * @param eventSubject the title of this event.
+   * @param date         the date this should event should last all-day on.
+   */
+  void createSingleAllDayEvent(String eventSubject, LocalDate date);
 
   /**
    * Create recurring, all-day events (as defined in the documentation of
@@ -80,11 +187,34 @@ public interface EventCreatableCalendar {
    * @param repeatWeekdays days of the week on which these events repeat.
    * @param N              how many times these events should repeat.
    */
-  void createRecurringAllDayEventsNTimes(
+  default void createRecurringAllDayEventsNTimes(
           String eventSubject,
           String dateString,
           String repeatWeekdays,
           int N
+  ) {
+    createRecurringAllDayEventsNTimes(
+            eventSubject,
+            DateTimes.parseDate(dateString),
+            Recurrence.parseWeekdays(repeatWeekdays, "Invalid weekday letters entered!"),
+            N
+    );
+  }
+
+  /**
+   * Create recurring, all-day events a total of {@code N} times, as in
+   * {@link #createRecurringAllDayEventsNTimes(String, String, String, int)}.
+   *
+   * @param eventSubject   title of this event.
+   * @param date           the date from which these events recur.
+   * @param repeatWeekdays days of the week on which these events repeat.
+   * @param N              how many times these events should repeat.
+   */
+  void createRecurringAllDayEventsNTimes(
+          String eventSubject,
+          LocalDate date,
+          Set<DayOfWeek> repeatWeekdays,
+          int N
   );
 
   /**
@@ -97,10 +227,54 @@ public interface EventCreatableCalendar {
    * @param repeatWeekdays  days of the week on which these events repeat.
    * @param untilDateString the date until which these events should repeat.
    */
-  void createRecurringAllDayEventsUntilDate(
+  default void createRecurringAllDayEventsUntilDate(
           String eventSubject,
           String dateString,
           String repeatWeekdays,
           String untilDateString
+  ) {
+    LocalDate untilDate = DateTimes.parseDate(untilDateString);
+    createRecurringAllDayEventsUntilDate(
+            eventSubject,
+            DateTimes.parseDate(dateString),
+            Recurrence.parseWeekdays(repeatWeekdays, "Invalid weekday letters entered!"),
+            untilDate
+    );
+  }
+
+  /**
+   * Create recurring, all-day events until a given date, as in
+   * {@link #createRecurringAllDayEventsUntilDate(String, String, String, String)}.
+   *
+   * @param eventSubject   title of this event.
+   * @param date           the date from which these events recur.
+   * @param repeatWeekdays days of the week on which these events repeat.
+   * @param untilDate      the date until which these events should repeat.
+   */
+  void createRecurringAllDayEventsUntilDate(
+          String eventSubject,
+          LocalDate date,
+          Set<DayOfWeek> repeatWeekdays,
+          LocalDate untilDate
+  );
+
+  /**
+   * Create standalone copies of the given events in one pass, keeping their
+   * description, location, and status but not their series. Each copy is
+   * moved from the given zone to the zone of this calendar, keeping the instant
+   * it happens at, and then by the given amount of time; all-day copies stay
+   * on their date and are only moved by that amount. Copies equal to an event
+   * already in this calendar are skipped, as with the other methods creating
+   * events.
+   *
+   * @param events     the events to copy, possibly from another calendar, which
+   *                   are only iterated over once, so they may be streamed.
+   * @param sourceZone the time zone the events are in, or null to not convert them.
+   * @param shift      how far to move each copy after converting it.
+   */
+  void createCopiesOfEvents(
+          Iterable<? extends RobustCalEvent> events,
+          ZoneId sourceZone,
+          Duration shift
   );
 }
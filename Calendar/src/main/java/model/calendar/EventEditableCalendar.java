@@ -1,8 +1,15 @@
 package model.calendar;
 
+import java.time.LocalDateTime;
+
+import model.events.DateTimes;
+import model.events.EventProperty;
+
 /**
  * An interface representing all the things that a {@link EventEditableCalendar}
  * object should be able to offer its users when editing events it already has.
+ * Every method taking the property and times as Strings parses them and hands
+ * them to its typed counterpart.
  */
 public interface EventEditableCalendar {
   /**
@@ -14,12 +21,38 @@ public interface EventEditableCalendar {
    * @param toDateStringTtimeString   the end date and time of the target event.
    * @param newPropertyVal            the new value to assign to the specified property.
    */
-  void editSingleEvent(
+  default void editSingleEvent(
           String property,
           String eventSubject,
           String fromDateStringTtimeString,
           String toDateStringTtimeString,
           String newPropertyVal
+  ) {
+    editSingleEvent(
+            EventProperty.of(property),
+            eventSubject,
+            DateTimes.parseDateTime(fromDateStringTtimeString),
+            DateTimes.parseDateTime(toDateStringTtimeString),
+            newPropertyVal
+    );
+  }
+
+  /**
+   * Assign a new value to the specified property of a single event, as in
+   * {@link #editSingleEvent(String, String, String, String, String)}.
+   *
+   * @param property       the property in question.
+   * @param eventSubject   the subject of the target event.
+   * @param startDateTime  the start date and time of the target event.
+   * @param endDateTime    the end date and time of the target event.
+   * @param newPropertyVal the new value to assign to the specified property.
+   */
+  void editSingleEvent(
+          EventProperty property,
+          String eventSubject,
+          LocalDateTime startDateTime,
+          LocalDateTime endDateTime,
+          String newPropertyVal
   );
 
   /**
@@ -33,11 +66,35 @@ public interface EventEditableCalendar {
    * @param fromDateStringTtimeString the start date and time of the target event.
    * @param newPropertyVal            the new value to assign to the specified property.
    */
-  void editEventAndMaybeOnward(
+  default void editEventAndMaybeOnward(
           String property,
           String eventSubject,
           String fromDateStringTtimeString,
           String newPropertyVal
+  ) {
+    editEventAndMaybeOnward(
+            EventProperty.of(property),
+            eventSubject,
+            DateTimes.parseDateTime(fromDateStringTtimeString),
+            newPropertyVal
+    );
+  }
+
+  /**
+   * Assign a new value to the specified property of a single event and the
+   * events following it in its series, as in
+   * {@link #editEventAndMaybeOnward(String, String, String, String)}.
+   *
+   * @param property       the property in question.
+   * @param eventSubject   the subject of the target event.
+   * @param startDateTime  the start date and time of the target event.
+   * @param newPropertyVal the new value to assign to the specified property.
+   */
+  void editEventAndMaybeOnward(
+          EventProperty property,
+          String eventSubject,
+          LocalDateTime startDateTime,
+          String newPropertyVal
   );
 
   /**
@@ -51,10 +108,34 @@ public interface EventEditableCalendar {
    * @param fromDateStringTtimeString the start date and time of the target event.
    * @param newPropertyVal            the new value to assign to the specified property.
    */
-  void editEventAndMaybeAll(
+  default void editEventAndMaybeAll(
           String property,
           String eventSubject,
           String fromDateStringTtimeString,
           String newPropertyVal
+  ) {
+    editEventAndMaybeAll(
+            EventProperty.of(property),
+            eventSubject,
+            DateTimes.parseDateTime(fromDateStringTtimeString),
+            newPropertyVal
+    );
+  }
+
+  /**
+   * Assign a new value to the specified property of a single event and every
+   * other event in its series, as in
+   * {@link #editEventAndMaybeAll(String, String, String, String)}.
+   *
+   * @param property       the property in question.
+   * @param eventSubject   the subject of the target event.
+   * @param startDateTime  the start date and time of the target event.
+   * @param newPropertyVal the new value to assign to the specified property.
+   */
+  void editEventAndMaybeAll(
+          EventProperty property,
+          String eventSubject,
+          LocalDateTime startDateTime,
+          String newPropertyVal
   );
 }
@@ -0,0 +1,107 @@
+package model.calendar;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import model.events.RobustCalEvent;
+
+/**
+ * A hash index of calendar events by their subject and start date and time,
+ * which is how edit and copy commands identify the event they target.
+ */
+final class EventKeyIndex {
+  private final Map<Key, Set<RobustCalEvent>> events;
+
+  /**
+   * Construct a new, empty index of events by subject and start.
+   */
+  EventKeyIndex() {
+    events = new HashMap<>();
+  }
+
+  /**
+   * Add an event to this index. The event must not change its subject, start,
+   * or position in the order while it is in this index.
+   *
+   * @param event the event to add.
+   */
+  void add(RobustCalEvent event) {
+    events.computeIfAbsent(keyOf(event), (it) -> new TreeSet<>()).add(event);
+  }
+
+  /**
+   * Remove an event from this index, if it is in it.
+   *
+   * @param event the event to remove.
+   */
+  void remove(RobustCalEvent event) {
+    Key key = keyOf(event);
+    Set<RobustCalEvent> matches = events.get(key);
+    if (matches != null) {
+      matches.remove(event);
+      if (matches.isEmpty()) {
+        events.remove(key);
+      }
+    }
+  }
+
+  /**
+   * Remove every event from this index.
+   */
+  void clear() {
+    events.clear();
+  }
+
+  /**
+   * Find the first event, in order, with the given subject and start.
+   *
+   * @param subject       the subject of the target event.
+   * @param startDateTime the start date and time of the target event.
+   * @return the first matching event, or null if there is none.
+   */
+  RobustCalEvent find(String subject, LocalDateTime startDateTime) {
+    Set<RobustCalEvent> matches = events.get(new Key(subject, startDateTime));
+    return (matches != null) ? matches.iterator().next() : null;
+  }
+
+  /**
+   * Find the first event, in order, with the given subject, start, and end.
+   *
+   * @param subject       the subject of the target event.
+   * @param startDateTime the start date and time of the target event.
+   * @param endDateTime   the end date and time of the target event.
+   * @return the first matching event, or null if there is none.
+   */
+  RobustCalEvent find(
+          String subject,
+          LocalDateTime startDateTime,
+          LocalDateTime endDateTime
+  ) {
+    Set<RobustCalEvent> matches = events.get(new Key(subject, startDateTime));
+    if (matches != null) {
+      // events sharing a subject and start only differ by end or all-day status
+      for (RobustCalEvent event : matches) {
+        if (event.getEndDateTime().equals(endDateTime)) {
+          return event;
+        }
+      }
+    }
+    return null;
+  }
+
+  private static Key keyOf(RobustCalEvent event) {
+    return new Key(event.getSubject(), event.getStartDateTime());
+  }
+
+  /**
+   * The subject and start date and time an event is looked up by.
+   *
+   * @param subject       the subject of an event.
+   * @param startDateTime the start date and time of an event.
+   */
+  private record Key(String subject, LocalDateTime startDateTime) {
+  }
+}
@@ -0,0 +1,504 @@
+package model.calendar;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * An augmented, self-balancing (AVL) search tree of entries that each span an
+ * interval of time. Every node also remembers the latest end date and time in
+ * its subtree, which lets overlap queries skip whole subtrees that end too early
+ * and stop as soon as entries start too late, answering in O(log n + k) time
+ * instead of scanning every entry. The tree is persistent: changes copy the
+ * O(log n) nodes on their path, so snapshots of it cost nothing to take.
+ *
+ * @param <T> the type of entry stored in this tree.
+ */
+final class IntervalTree<T> {
+  private final Comparator<? super T> order;
+  private final Function<? super T, LocalDateTime> startOf;
+  private final Function<? super T, LocalDateTime> endOf;
+  private Node<T> root;
+  private int size;
+
+  /**
+   * Construct a new, empty interval tree.
+   *
+   * @param order   the order to keep entries in, which must order entries by
+   *                their start date and time first.
+   * @param startOf how to retrieve the start date and time of an entry.
+   * @param endOf   how to retrieve the end date and time of an entry.
+   */
+  IntervalTree(
+          Comparator<? super T> order,
+          Function<? super T, LocalDateTime> startOf,
+          Function<? super T, LocalDateTime> endOf
+  ) {
+    this.order = order;
+    this.startOf = startOf;
+    this.endOf = endOf;
+  }
+
+  private IntervalTree(IntervalTree<T> other) {
+    this(other.order, other.startOf, other.endOf);
+    this.root = other.root;
+    this.size = other.size;
+  }
+
+  /**
+   * Take a snapshot of this tree in O(1) time. Since nodes are never changed,
+   * the snapshot shares all of them with this tree, and later changes to either
+   * tree don't affect the other.
+   *
+   * @return a snapshot of this tree.
+   */
+  IntervalTree<T> snapshot() {
+    return new IntervalTree<>(this);
+  }
+
+  /**
+   * Retrieve the number of entries in this tree.
+   *
+   * @return the number of entries in this tree.
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Add an entry to this tree, unless an equal entry is already in it. The entry
+   * must not change its position in the order while it is in this tree.
+   *
+   * @param value the entry to add.
+   * @return whether the entry was added.
+   */
+  boolean add(T value) {
+    int sizeBefore = size;
+    root = insert(root, value);
+    return size > sizeBefore;
+  }
+
+  /**
+   * Add many entries to this tree at once, skipping those equal to an entry
+   * already in it or to one added before them. When the entries are many
+   * compared to the tree, it is rebuilt from the merged, ordered entries in
+   * O(n + k log k) time instead of inserting them one by one, which would copy
+   * a path of the tree for every entry.
+   *
+   * @param values the entries to add, in any order.
+   */
+  void addAll(Collection<? extends T> values) {
+    // a few entries are cheaper to insert than rebuilding the whole tree for
+    if ((long) values.size() * height(root) < size) {
+      values.forEach(this::add);
+      return;
+    }
+    List<T> added = new ArrayList<>(values);
+    added.sort(order);
+    List<T> existing = new ArrayList<>(size);
+    forEach(existing::add);
+    // merge the two ordered lists, keeping the entry already in the tree on ties
+    List<T> merged = new ArrayList<>(existing.size() + added.size());
+    int i = 0;
+    for (T value : added) {
+      while (i < existing.size() && order.compare(existing.get(i), value) < 0) {
+        merged.add(existing.get(i++));
+      }
+      boolean isDuplicate = (i < existing.size() && order.compare(existing.get(i), value) == 0)
+              || (!merged.isEmpty() && order.compare(merged.get(merged.size() - 1), value) == 0);
+      if (!isDuplicate) {
+        merged.add(value);
+      }
+    }
+    merged.addAll(existing.subList(i, existing.size()));
+    root = build(merged, 0, merged.size());
+    size = merged.size();
+  }
+
+  /**
+   * Remove every entry from this tree, leaving snapshots taken before alone.
+   */
+  void clear() {
+    root = null;
+    size = 0;
+  }
+
+  /**
+   * Remove an entry from this tree, if it is in it.
+   *
+   * @param value the entry to remove.
+   * @return whether the entry was removed.
+   */
+  boolean remove(T value) {
+    int sizeBefore = size;
+    root = delete(root, value);
+    return size < sizeBefore;
+  }
+
+  /**
+   * Remove many entries from this tree at once, skipping those not in it. As
+   * with {@link #addAll(Collection)}, when the entries are many compared to the
+   * tree, it is rebuilt from the entries left instead of removing them one by one.
+   *
+   * @param values the entries to remove, in any order.
+   */
+  void removeAll(Collection<? extends T> values) {
+    if ((long) values.size() * height(root) < size) {
+      values.forEach(this::remove);
+      return;
+    }
+    List<T> removed = new ArrayList<>(values);
+    removed.sort(order);
+    List<T> existing = new ArrayList<>(size);
+    forEach(existing::add);
+    // walk both ordered lists, keeping the entries no removed entry is equal to
+    List<T> kept = new ArrayList<>(existing.size());
+    int i = 0;
+    for (T value : existing) {
+      while (i < removed.size() && order.compare(removed.get(i), value) < 0) {
+        i++;
+      }
+      if (i == removed.size() || order.compare(removed.get(i), value) != 0) {
+        kept.add(value);
+      }
+    }
+    root = build(kept, 0, kept.size());
+    size = kept.size();
+  }
+
+  /**
+   * Hand every entry that starts before the end of the given interval and ends
+   * after its start to the given action, in order.
+   *
+   * @param from   the start of the interval.
+   * @param to     the end of the interval.
+   * @param action what to do with each overlapping entry.
+   */
+  void forEachOverlapping(
+          LocalDateTime from,
+          LocalDateTime to,
+          Consumer<? super T> action
+  ) {
+    overlapping(root, from, to, action);
+  }
+
+  /**
+   * Walk the entries that start before the end of the given interval and end
+   * after its start, in order, one at a time. Only the path to the next entry is
+   * kept, and the walk sees the tree as it was when this method was called.
+   *
+   * @param from the start of the interval.
+   * @param to   the end of the interval.
+   * @return an iterator over every overlapping entry.
+   */
+  Iterator<T> overlapping(LocalDateTime from, LocalDateTime to) {
+    return new OverlapIterator<>(root, from, to);
+  }
+
+  /**
+   * Hand every entry that starts at or after the given start and before the
+   * given end to the given action, in order, in O(log n + k) time.
+   *
+   * @param from   the earliest start to include.
+   * @param to     the start to stop before.
+   * @param action what to do with each entry starting in between.
+   */
+  void forEachStartingIn(LocalDateTime from, LocalDateTime to, Consumer<? super T> action) {
+    startingIn(root, from, to, action);
+  }
+
+  /**
+   * Hand every entry in this tree to the given action, in order.
+   *
+   * @param action what to do with each entry.
+   */
+  void forEach(Consumer<? super T> action) {
+    forEach(root, action);
+  }
+
+  /**
+   * Find an entry that starts strictly before and ends strictly after the given
+   * instant, following a single path down the tree.
+   *
+   * @param instant the instant in question.
+   * @return an entry containing the instant, or null if there is none.
+   */
+  T findContaining(LocalDateTime instant) {
+    Node<T> node = root;
+    while (node != null) {
+      /* if something on the left ends after the instant but doesn't contain it,
+       * it starts at or after the instant, and so does everything after it */
+      if (node.left != null && node.left.maxEnd.isAfter(instant)) {
+        node = node.left;
+      } else if (!node.start.isBefore(instant)) {
+        return null;
+      } else if (node.end.isAfter(instant)) {
+        return node.value;
+      } else {
+        node = node.right;
+      }
+    }
+    return null;
+  }
+
+  private void forEach(Node<T> node, Consumer<? super T> action) {
+    if (node != null) {
+      forEach(node.left, action);
+      action.accept(node.value);
+      forEach(node.right, action);
+    }
+  }
+
+  private void startingIn(
+          Node<T> node,
+          LocalDateTime from,
+          LocalDateTime to,
+          Consumer<? super T> action
+  ) {
+    if (node == null) {
+      return;
+    }
+    // this node and everything before it start too early
+    if (node.start.isBefore(from)) {
+      startingIn(node.right, from, to, action);
+      return;
+    }
+    startingIn(node.left, from, to, action);
+    // this node and everything after it start too late
+    if (!node.start.isBefore(to)) {
+      return;
+    }
+    action.accept(node.value);
+    startingIn(node.right, from, to, action);
+  }
+
+  private void overlapping(
+          Node<T> node,
+          LocalDateTime from,
+          LocalDateTime to,
+          Consumer<? super T> action
+  ) {
+    // skip subtrees in which nothing ends after the interval starts
+    if (node == null || !node.maxEnd.isAfter(from)) {
+      return;
+    }
+    overlapping(node.left, from, to, action);
+    // this node and everything after it start at or after the interval ends
+    if (!node.start.isBefore(to)) {
+      return;
+    }
+    if (node.end.isAfter(from)) {
+      action.accept(node.value);
+    }
+    overlapping(node.right, from, to, action);
+  }
+
+  private Node<T> build(List<T> values, int from, int to) {
+    // the middle entry of every range roots it, so the tree comes out balanced
+    if (from >= to) {
+      return null;
+    }
+    int middle = (from + to) >>> 1;
+    T value = values.get(middle);
+    return new Node<>(
+            value,
+            startOf.apply(value),
+            endOf.apply(value),
+            build(values, from, middle),
+            build(values, middle + 1, to)
+    );
+  }
+
+  private Node<T> insert(Node<T> node, T value) {
+    if (node == null) {
+      size++;
+      return new Node<>(value, startOf.apply(value), endOf.apply(value), null, null);
+    }
+    int comparison = order.compare(value, node.value);
+    if (comparison < 0) {
+      Node<T> left = insert(node.left, value);
+      return (left != node.left) ? rebalance(node.with(left, node.right)) : node;
+    } else if (comparison > 0) {
+      Node<T> right = insert(node.right, value);
+      return (right != node.right) ? rebalance(node.with(node.left, right)) : node;
+    } else {
+      return node;
+    }
+  }
+
+  private Node<T> delete(Node<T> node, T value) {
+    if (node == null) {
+      return null;
+    }
+    int comparison = order.compare(value, node.value);
+    if (comparison < 0) {
+      Node<T> left = delete(node.left, value);
+      return (left != node.left) ? rebalance(node.with(left, node.right)) : node;
+    } else if (comparison > 0) {
+      Node<T> right = delete(node.right, value);
+      return (right != node.right) ? rebalance(node.with(node.left, right)) : node;
+    }
+    size--;
+    if (node.left == null) {
+      return node.right;
+    } else if (node.right == null) {
+      return node.left;
+    }
+    // replace the removed node with the first node after it
+    Node<T> successor = node.right;
+    while (successor.left != null) {
+      successor = successor.left;
+    }
+    return rebalance(successor.with(node.left, deleteFirst(node.right)));
+  }
+
+  private Node<T> deleteFirst(Node<T> node) {
+    if (node.left == null) {
+      return node.right;
+    }
+    return rebalance(node.with(deleteFirst(node.left), node.right));
+  }
+
+  private Node<T> rebalance(Node<T> node) {
+    int balance = height(node.left) - height(node.right);
+    if (balance > 1) {
+      if (height(node.left.left) < height(node.left.right)) {
+        node = node.with(rotateLeft(node.left), node.right);
+      }
+      return rotateRight(node);
+    } else if (balance < -1) {
+      if (height(node.right.right) < height(node.right.left)) {
+        node = node.with(node.left, rotateRight(node.right));
+      }
+      return rotateLeft(node);
+    }
+    return node;
+  }
+
+  private Node<T> rotateLeft(Node<T> node) {
+    Node<T> newRoot = node.right;
+    return newRoot.with(node.with(node.left, newRoot.left), newRoot.right);
+  }
+
+  private Node<T> rotateRight(Node<T> node) {
+    Node<T> newRoot = node.left;
+    return newRoot.with(newRoot.left, node.with(newRoot.right, node.right));
+  }
+
+  private static int height(Node<?> node) {
+    return (node != null) ? node.height : 0;
+  }
+
+  /**
+   * An in-order walk over the entries of a tree that overlap an interval, which
+   * skips the same subtrees as {@link #forEachOverlapping} does.
+   *
+   * @param <T> the type of entry walked over.
+   */
+  private static final class OverlapIterator<T> implements Iterator<T> {
+    private final Deque<Node<T>> path;
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+    private T next;
+
+    private OverlapIterator(Node<T> root, LocalDateTime from, LocalDateTime to) {
+      this.path = new ArrayDeque<>();
+      this.from = from;
+      this.to = to;
+      descend(root);
+      advance();
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next != null;
+    }
+
+    @Override
+    public T next() {
+      if (next == null) {
+        throw new NoSuchElementException("No more overlapping entries!");
+      }
+      T current = next;
+      advance();
+      return current;
+    }
+
+    private void descend(Node<T> node) {
+      // skip subtrees in which nothing ends after the interval starts
+      while (node != null && node.maxEnd.isAfter(from)) {
+        path.push(node);
+        node = node.left;
+      }
+    }
+
+    private void advance() {
+      next = null;
+      while (next == null && !path.isEmpty()) {
+        Node<T> node = path.pop();
+        // this node and everything after it start at or after the interval ends
+        if (!node.start.isBefore(to)) {
+          path.clear();
+          return;
+        }
+        descend(node.right);
+        if (node.end.isAfter(from)) {
+          next = node.value;
+        }
+      }
+    }
+  }
+
+  /**
+   * An immutable node of the tree, caching the interval of its entry along with
+   * the height of and the latest end date and time in the subtree it roots.
+   * Changes copy the nodes on the path to them instead of changing any node, so
+   * earlier versions of the tree stay intact.
+   *
+   * @param <T> the type of entry stored in this node.
+   */
+  private static final class Node<T> {
+    private final T value;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private final LocalDateTime maxEnd;
+    private final int height;
+    private final Node<T> left;
+    private final Node<T> right;
+
+    private Node(
+            T value,
+            LocalDateTime start,
+            LocalDateTime end,
+            Node<T> left,
+            Node<T> right
+    ) {
+      this.value = value;
+      this.start = start;
+      this.end = end;
+      this.left = left;
+      this.right = right;
+      this.height = 1 + Math.max(height(left), height(right));
+      LocalDateTime latestEnd = end;
+      if (left != null && left.maxEnd.isAfter(latestEnd)) {
+        latestEnd = left.maxEnd;
+      }
+      if (right != null && right.maxEnd.isAfter(latestEnd)) {
+        latestEnd = right.maxEnd;
+      }
+      this.maxEnd = latestEnd;
+    }
+
+    private Node<T> with(Node<T> left, Node<T> right) {
+      return new Node<>(value, start, end, left, right);
+    }
+  }
+}
@@ -0,0 +1,81 @@
+package model.calendar;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * A walk over several iterators that are each already in order, handing out
+ * their entries in one combined order without collecting them first. Entries
+ * equal to the one handed out just before are dropped, and among equal
+ * entries, the one from the earliest iterator is the one kept.
+ *
+ * @param <T> the type of entry walked over.
+ */
+final class MergingIterator<T> implements Iterator<T> {
+  private final Comparator<? super T> order;
+  private final PriorityQueue<Head<T>> heads;
+  private T last;
+
+  /**
+   * Construct a new walk over the given ordered iterators.
+   *
+   * @param sources the iterators to combine, each in the given order.
+   * @param order   the order the iterators are in.
+   */
+  MergingIterator(List<? extends Iterator<? extends T>> sources, Comparator<? super T> order) {
+    this.order = order;
+    this.heads = new PriorityQueue<>(Math.max(1, sources.size()), (first, second) -> {
+      int comparison = order.compare(first.value, second.value);
+      return (comparison != 0) ? comparison : Integer.compare(first.source, second.source);
+    });
+    for (int source = 0; source < sources.size(); source++) {
+      Iterator<? extends T> iterator = sources.get(source);
+      if (iterator.hasNext()) {
+        heads.add(new Head<>(iterator.next(), source, iterator));
+      }
+    }
+    skipEqualToLast();
+  }
+
+  @Override
+  public boolean hasNext() {
+    return !heads.isEmpty();
+  }
+
+  @Override
+  public T next() {
+    if (heads.isEmpty()) {
+      throw new NoSuchElementException("No more entries!");
+    }
+    Head<T> head = heads.poll();
+    last = head.value;
+    if (head.rest.hasNext()) {
+      heads.add(new Head<>(head.rest.next(), head.source, head.rest));
+    }
+    skipEqualToLast();
+    return last;
+  }
+
+  private void skipEqualToLast() {
+    while (last != null && !heads.isEmpty() && order.compare(heads.peek().value, last) == 0) {
+      Head<T> duplicate = heads.poll();
+      if (duplicate.rest.hasNext()) {
+        heads.add(new Head<>(duplicate.rest.next(), duplicate.source, duplicate.rest));
+      }
+    }
+  }
+
+  /**
+   * The next entry of one of the iterators, along with the rest of it.
+   *
+   * @param value  the next entry of the iterator.
+   * @param source the position of the iterator among all of them.
+   * @param rest   the iterator, past the entry.
+   * @param <T>    the type of entry walked over.
+   */
+  private record Head<T>(T value, int source, Iterator<? extends T> rest) {
+  }
+}
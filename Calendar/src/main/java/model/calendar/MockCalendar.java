@@ -1,8 +1,14 @@
 package model.calendar;
 
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
 import java.util.Set;
 
+import model.events.EventProperty;
 import model.events.RobustCalEvent;
 
 public class MockCalendar implements RobustCalendar {
@@ -97,6 +103,74 @@ public class MockCalendar implements RobustCalendar {
             .append(newPropertyVal).append(")\n");
   }
 
+  @Override
+  public void createSingleNormalEvent(String eventSubject, LocalDateTime startDateTime, LocalDateTime endDateTime) {
+    createSingleNormalEvent(eventSubject, startDateTime.toString(), endDateTime.toString());
+  }
+
+  @Override
+  public void createRecurringNormalEventsNTimes(String eventSubject, LocalDateTime startDateTime, LocalDateTime endDateTime, Set<DayOfWeek> repeatWeekdays, int N) {
+    createRecurringNormalEventsNTimes(eventSubject, startDateTime.toString(), endDateTime.toString(), weekdayLetters(repeatWeekdays), N);
+  }
+
+  @Override
+  public void createRecurringNormalEventsUntilDate(String eventSubject, LocalDateTime startDateTime, LocalDateTime endDateTime, Set<DayOfWeek> repeatWeekdays, LocalDate untilDate) {
+    createRecurringNormalEventsUntilDate(eventSubject, startDateTime.toString(), endDateTime.toString(), weekdayLetters(repeatWeekdays), untilDate.toString());
+  }
+
+  @Override
+  public void createSingleAllDayEvent(String eventSubject, LocalDate date) {
+    createSingleAllDayEvent(eventSubject, date.toString());
+  }
+
+  @Override
+  public void createRecurringAllDayEventsNTimes(String eventSubject, LocalDate date, Set<DayOfWeek> repeatWeekdays, int N) {
+    createRecurringAllDayEventsNTimes(eventSubject, date.toString(), weekdayLetters(repeatWeekdays), N);
+  }
+
+  @Override
+  public void createRecurringAllDayEventsUntilDate(String eventSubject, LocalDate date, Set<DayOfWeek> repeatWeekdays, LocalDate untilDate) {
+    createRecurringAllDayEventsUntilDate(eventSubject, date.toString(), weekdayLetters(repeatWeekdays), untilDate.toString());
+  }
+
+  // the typed overloads log their weekdays as the letters the String overloads take, e.g. "MWF"
+  private static String weekdayLetters(Set<DayOfWeek> repeatWeekdays) {
+    StringBuilder letters = new StringBuilder();
+    for (DayOfWeek day : DayOfWeek.values()) {
+      if (repeatWeekdays.contains(day)) {
+        letters.append("MTWRFSU".charAt(day.getValue() - 1));
+      }
+    }
+    return letters.toString();
+  }
+
+  @Override
+  public void createCopiesOfEvents(Iterable<? extends RobustCalEvent> events, ZoneId sourceZone, Duration shift) {
+    int count = 0;
+    for (RobustCalEvent event : events) {
+      count++;
+    }
+    log.append("createCopiesOfEvents(")
+            .append(count).append(", ")
+            .append(sourceZone).append(", ")
+            .append(shift).append(")\n");
+  }
+
+  @Override
+  public void editSingleEvent(EventProperty property, String eventSubject, LocalDateTime startDateTime, LocalDateTime endDateTime, String newPropertyVal) {
+    editSingleEvent(property.getStringRepresentation(), eventSubject, startDateTime.toString(), endDateTime.toString(), newPropertyVal);
+  }
+
+  @Override
+  public void editEventAndMaybeOnward(EventProperty property, String eventSubject, LocalDateTime startDateTime, String newPropertyVal) {
+    editEventAndMaybeOnward(property.getStringRepresentation(), eventSubject, startDateTime.toString(), newPropertyVal);
+  }
+
+  @Override
+  public void editEventAndMaybeAll(EventProperty property, String eventSubject, LocalDateTime startDateTime, String newPropertyVal) {
+    editEventAndMaybeAll(property.getStringRepresentation(), eventSubject, startDateTime.toString(), newPropertyVal);
+  }
+
   @Override
   public String getName() {
     return "";
@@ -114,6 +188,14 @@ public class MockCalendar implements RobustCalendar {
     return Set.of();
   }
 
+  @Override
+  public RobustCalEvent getEvent(String eventSubject, String fromDateStringTtimeString) {
+    log.append("getEvent(")
+            .append(eventSubject).append(", ")
+            .append(fromDateStringTtimeString).append(")\n");
+    return null; // Return no event for this mock
+  }
+
   @Override
   public List<RobustCalEvent> printAllEventsOnDate(String dateString) {
     log.append("printAllEventsOnDate(").append(dateString).append(")\n");
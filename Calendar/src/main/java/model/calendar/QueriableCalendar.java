@@ -1,8 +1,11 @@
 package model.calendar;
 
+import java.io.IOException;
 import java.time.ZoneId;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
 
 import model.events.RobustCalEvent;
 
@@ -33,6 +36,16 @@ public interface QueriableCalendar {
    */
   Set<RobustCalEvent> getEvents();
 
+  /**
+   * Retrieve the first event in this calendar with the given subject that
+   * starts at the given date and time.
+   *
+   * @param eventSubject              the subject of the target event.
+   * @param fromDateStringTtimeString the start date and time of the target event.
+   * @return the target event, or null if no event matches.
+   */
+  RobustCalEvent getEvent(String eventSubject, String fromDateStringTtimeString);
+
   /**
    * Print a bulleted list of all events on a specified day, along with
    * their start and end time, as well as their location (if any).
@@ -55,6 +68,85 @@ public interface QueriableCalendar {
           String toDateStringTtimeString
   );
 
+  /**
+   * Stream all events on a specified day, which are the same events in the same
+   * order as {@link #printAllEventsOnDate(String)} returns. Implementations may
+   * find each event only once the stream gets to it, so the calendar must not be
+   * changed while the stream is still in use.
+   *
+   * @param dateString the date in question.
+   * @return an ordered stream of the events satisfying the conditions.
+   */
+  default Stream<RobustCalEvent> streamEventsOnDate(String dateString) {
+    return printAllEventsOnDate(dateString).stream();
+  }
+
+  /**
+   * Stream all events within a given interval, which are the same events in the
+   * same order as {@link #printAllEventsBetweenDates(String, String)} returns.
+   * Implementations may find each event only once the stream gets to it, so
+   * skipping and limiting the stream pages through the interval without
+   * collecting it, and the calendar must not be changed while the stream is
+   * still in use.
+   *
+   * @param fromDateStringTtimeString the beginning of the interval.
+   * @param toDateStringTtimeString   the end of the interval.
+   * @return an ordered stream of the events satisfying the conditions.
+   */
+  default Stream<RobustCalEvent> streamEventsBetweenDates(
+          String fromDateStringTtimeString,
+          String toDateStringTtimeString
+  ) {
+    return printAllEventsBetweenDates(fromDateStringTtimeString, toDateStringTtimeString)
+            .stream();
+  }
+
+  /**
+   * Write all events on a specified day to the given output, one line each, in
+   * the same order and the same form as {@link #printAllEventsOnDate(String)}
+   * would print them. Implementations may write each event straight from what
+   * they store, without creating an event object for it.
+   *
+   * @param dateString the date in question.
+   * @param out        where to write the events.
+   * @throws IOException if writing to the output fails.
+   */
+  default void writeEventsOnDate(String dateString, Appendable out) throws IOException {
+    writeEach(streamEventsOnDate(dateString).iterator(), out);
+  }
+
+  /**
+   * Write all events within a given interval to the given output, one line
+   * each, in the same order and the same form as
+   * {@link #printAllEventsBetweenDates(String, String)} would print them.
+   * Implementations may write each event straight from what they store,
+   * without creating an event object for it.
+   *
+   * @param fromDateStringTtimeString the beginning of the interval.
+   * @param toDateStringTtimeString   the end of the interval.
+   * @param out                       where to write the events.
+   * @throws IOException if writing to the output fails.
+   */
+  default void writeEventsBetweenDates(
+          String fromDateStringTtimeString,
+          String toDateStringTtimeString,
+          Appendable out
+  ) throws IOException {
+    writeEach(
+            streamEventsBetweenDates(fromDateStringTtimeString, toDateStringTtimeString)
+                    .iterator(),
+            out
+    );
+  }
+
+  private static void writeEach(Iterator<RobustCalEvent> events, Appendable out)
+          throws IOException {
+    while (events.hasNext()) {
+      events.next().appendTo(out);
+      out.append(System.lineSeparator());
+    }
+  }
+
   /**
    * Show the user's status at a given date and time, which is busy if the
    * given time falls within the duration of an event, and available if the
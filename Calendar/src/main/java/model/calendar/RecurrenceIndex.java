@@ -0,0 +1,308 @@
+package model.calendar;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import model.events.QueriableCalEvent;
+import model.events.Recurrence;
+import model.events.RobustCalEvent;
+
+/**
+ * An index of the recurring series whose events are only stored as a rule, so
+ * that their occurrences can be found by time or by subject and start without
+ * ever creating the occurrences that aren't asked for. Each series is kept in an
+ * interval tree under the span from its first start to its last end.
+ */
+final class RecurrenceIndex {
+  private final Map<RobustCalEvent.Series, Entry> entries;
+  private final IntervalTree<Entry> spans;
+  private final Map<String, Set<Entry>> subjects;
+  private long nextSequence;
+
+  /**
+   * Construct a new, empty index of series rules.
+   */
+  RecurrenceIndex() {
+    entries = new LinkedHashMap<>();
+    spans = new IntervalTree<>(
+            Comparator.comparing((Entry it) -> it.rule().getFirstStartDateTime())
+                    .thenComparingLong(Entry::sequence),
+            (it) -> it.rule().getFirstStartDateTime(),
+            (it) -> it.rule().getLastEndDateTime()
+    );
+    subjects = new HashMap<>();
+  }
+
+  /**
+   * Find out whether this index has no series in it.
+   *
+   * @return whether this index is empty.
+   */
+  boolean isEmpty() {
+    return entries.isEmpty();
+  }
+
+  /**
+   * Add a series to this index under its current rule. The series must not
+   * change its rule while it is in this index.
+   *
+   * @param series the series to add, which must have a rule.
+   */
+  void add(RobustCalEvent.Series series) {
+    Entry entry = new Entry(series, series.getRule(), nextSequence++);
+    entries.put(series, entry);
+    spans.add(entry);
+    subjects.computeIfAbsent(entry.rule().getSubject(), (it) -> new LinkedHashSet<>())
+            .add(entry);
+  }
+
+  /**
+   * Remove a series from this index, if it is in it.
+   *
+   * @param series the series to remove.
+   */
+  void remove(RobustCalEvent.Series series) {
+    Entry entry = entries.remove(series);
+    if (entry != null) {
+      spans.remove(entry);
+      Set<Entry> sameSubject = subjects.get(entry.rule().getSubject());
+      sameSubject.remove(entry);
+      if (sameSubject.isEmpty()) {
+        subjects.remove(entry.rule().getSubject());
+      }
+    }
+  }
+
+  /**
+   * Retrieve every series in this index, in the order they were added.
+   *
+   * @return a list of every series, which later changes to this index don't affect.
+   */
+  List<RobustCalEvent.Series> series() {
+    return new ArrayList<>(entries.keySet());
+  }
+
+  /**
+   * Hand every occurrence that starts before the end of the given interval and
+   * ends after its start to the given action, one series at a time.
+   *
+   * @param from   the start of the interval.
+   * @param to     the end of the interval.
+   * @param action what to do with each overlapping occurrence.
+   */
+  void forEachOccurrence(
+          LocalDateTime from,
+          LocalDateTime to,
+          Consumer<? super RobustCalEvent> action
+  ) {
+    forEachOccurrence(spans, from, to, action);
+  }
+
+  /**
+   * Hand every occurrence of the series in the given spans that starts before
+   * the end of the given interval and ends after its start to the given action.
+   *
+   * @param spans  the spans of the series in question.
+   * @param from   the start of the interval.
+   * @param to     the end of the interval.
+   * @param action what to do with each overlapping occurrence.
+   */
+  static void forEachOccurrence(
+          IntervalTree<Entry> spans,
+          LocalDateTime from,
+          LocalDateTime to,
+          Consumer<? super RobustCalEvent> action
+  ) {
+    spans.forEachOverlapping(
+            from, to, (it) -> it.rule().forEachOccurrence(from, to, it.series(), action)
+    );
+  }
+
+  /**
+   * Start a walk over the occurrences of each series that overlap the given
+   * interval, which creates each occurrence only when it is asked for.
+   *
+   * @param spans the spans of the series in question.
+   * @param from  the start of the interval.
+   * @param to    the end of the interval.
+   * @return one ordered iterator of occurrences per overlapping series.
+   */
+  static List<Iterator<RobustCalEvent>> occurrences(
+          IntervalTree<Entry> spans,
+          LocalDateTime from,
+          LocalDateTime to
+  ) {
+    List<Iterator<RobustCalEvent>> occurrences = new ArrayList<>();
+    spans.forEachOverlapping(
+            from, to, (it) -> occurrences.add(it.rule().occurrences(from, to, it.series()))
+    );
+    return occurrences;
+  }
+
+  /**
+   * Start a walk over the occurrences of each series, which creates each
+   * occurrence only when it is asked for.
+   *
+   * @return one ordered iterator of occurrences per series.
+   */
+  List<Iterator<RobustCalEvent>> occurrences() {
+    List<Iterator<RobustCalEvent>> occurrences = new ArrayList<>(entries.size());
+    for (Entry entry : entries.values()) {
+      occurrences.add(
+              entry.rule().occurrences(LocalDateTime.MIN, LocalDateTime.MAX, entry.series())
+      );
+    }
+    return occurrences;
+  }
+
+  /**
+   * Count the occurrences of every series.
+   *
+   * @return the number of occurrences in this index.
+   */
+  long countOccurrences() {
+    long count = 0;
+    for (Entry entry : entries.values()) {
+      count += entry.rule().size();
+    }
+    return count;
+  }
+
+  /**
+   * Hand every occurrence of every series to the given action, one series at a
+   * time, in the order the series were added.
+   *
+   * @param action what to do with each occurrence.
+   */
+  void forEachOccurrence(Consumer<? super RobustCalEvent> action) {
+    for (Entry entry : entries.values()) {
+      entry.rule().forEachOccurrence(entry.series(), action);
+    }
+  }
+
+  /**
+   * Find out whether any occurrence starts strictly before and ends strictly
+   * after the given instant, only looking at series that span it.
+   *
+   * @param instant the instant in question.
+   * @return whether an occurrence contains the given instant.
+   */
+  boolean hasOccurrenceContaining(LocalDateTime instant) {
+    return hasOccurrenceContaining(spans, instant);
+  }
+
+  /**
+   * Find out whether any occurrence of the series in the given spans starts
+   * strictly before and ends strictly after the given instant. Only the series
+   * whose span covers the instant are checked, each in time proportional to the
+   * length of its occurrences in days, and the walk stops at the first one
+   * with such an occurrence, so this takes O(log n + s) time for s series
+   * spanning the instant, however many occurrences each has.
+   *
+   * @param spans   the spans of the series in question.
+   * @param instant the instant in question.
+   * @return whether an occurrence contains the given instant.
+   */
+  static boolean hasOccurrenceContaining(IntervalTree<Entry> spans, LocalDateTime instant) {
+    Iterator<Entry> spanning = spans.overlapping(instant, instant);
+    while (spanning.hasNext()) {
+      if (spanning.next().rule().hasOccurrenceContaining(instant)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Take a snapshot of the spans of every series in this index, which later
+   * changes to this index don't affect.
+   *
+   * @return a snapshot of the spans of every series.
+   */
+  IntervalTree<Entry> spans() {
+    return spans.snapshot();
+  }
+
+  /**
+   * Find the first series added with an occurrence of the given subject and
+   * start.
+   *
+   * @param subject       the subject of the target occurrence.
+   * @param startDateTime the start date and time of the target occurrence.
+   * @return the first matching series, or null if there is none.
+   */
+  RobustCalEvent.Series find(String subject, LocalDateTime startDateTime) {
+    for (Entry entry : subjects.getOrDefault(subject, Set.of())) {
+      if (entry.rule().hasOccurrenceStartingAt(startDateTime)) {
+        return entry.series();
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Find the first series added with an occurrence of the given subject, start,
+   * and end.
+   *
+   * @param subject       the subject of the target occurrence.
+   * @param startDateTime the start date and time of the target occurrence.
+   * @param endDateTime   the end date and time of the target occurrence.
+   * @return the first matching series, or null if there is none.
+   */
+  RobustCalEvent.Series find(
+          String subject,
+          LocalDateTime startDateTime,
+          LocalDateTime endDateTime
+  ) {
+    LocalDate date = startDateTime.toLocalDate();
+    for (Entry entry : subjects.getOrDefault(subject, Set.of())) {
+      if (entry.rule().hasOccurrenceStartingAt(startDateTime)
+              && entry.rule().occurrenceOn(date, entry.series())
+              .getEndDateTime().equals(endDateTime)) {
+        return entry.series();
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Find out whether any series has an occurrence with the same subject, start,
+   * end, and all-day status as the given event.
+   *
+   * @param key the event in question.
+   * @return whether an occurrence has the same sort keys as the given event.
+   */
+  boolean contains(QueriableCalEvent key) {
+    LocalDate date = key.getStartDateTime().toLocalDate();
+    for (Entry entry : subjects.getOrDefault(key.getSubject(), Set.of())) {
+      if (entry.rule().isAllDay() == key.isAllDay()
+              && entry.rule().hasOccurrenceStartingAt(key.getStartDateTime())
+              && entry.rule().occurrenceOn(date, null)
+              .getEndDateTime().equals(key.getEndDateTime())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * A series along with the rule it was indexed under and the order it was
+   * added in, which tells apart series with the same first start.
+   *
+   * @param series   the indexed series.
+   * @param rule     the rule of the series when it was indexed.
+   * @param sequence the number of series added before this one.
+   */
+  record Entry(RobustCalEvent.Series series, Recurrence rule, long sequence) {
+  }
+}
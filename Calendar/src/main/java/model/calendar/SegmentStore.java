@@ -0,0 +1,898 @@
+package model.calendar;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+import model.events.CalEventImpl;
+import model.events.Recurrence;
+import model.events.RobustCalEvent;
+
+/**
+ * A directory holding every calendar of a collection split into buckets, one
+ * for each calendar and month the stored events of the calendar start in, so
+ * that saving again only writes the buckets whose events changed since the
+ * last save, as tracked by {@link CalendarImpl#changesSince(long)}. Saving a
+ * huge calendar after a few changes then costs I/O in proportion to the
+ * changed months rather than to the whole calendar.
+ *
+ * <p>Each save appends the buckets it writes to a new segment file, then
+ * replaces the manifest, which tells where the current bucket of every
+ * calendar and month is, along with the name, time zone and series rules of
+ * each calendar. A crash while saving leaves the last manifest and the
+ * segments it refers to in place. Buckets replaced by later saves leave garbage
+ * in older segments; once less than half of a segment is still in use, its
+ * live buckets are copied into the new segment and it is deleted, so the
+ * garbage stays bounded while each save still writes in proportion to the
+ * changes on average. The smallest segments are folded in the same way once
+ * there are too many of them.
+ *
+ * <p>A store remembers which calendars it saved or loaded, and only those are
+ * saved incrementally; any other calendar is saved in full. It isn't safe to
+ * share between threads. What changed in the calendars is read by
+ * {@link #capture}, which must happen on the thread changing them or while
+ * their changes are held back; the capture can then be saved while the
+ * calendars go on changing.
+ */
+public final class SegmentStore {
+  private static final int SEGMENT_MAGIC = 0x43414C42;
+  private static final int MANIFEST_MAGIC = 0x43414C4D;
+  private static final int VERSION = 1;
+  private static final int HEADER_BYTES = 8;
+  private static final int BUFFER_SIZE = 1 << 20;
+  // past this many segments, the smallest are folded into the next one
+  private static final int MAX_SEGMENTS = 16;
+  private static final String MANIFEST = "manifest";
+  private static final Pattern SEGMENT_NAME = Pattern.compile("segment-(\\d+)");
+
+  private final Path directory;
+  // the calendars in the manifest, in the order they were saved
+  private List<StoredCalendar> manifest;
+  private String activeName;
+  // the number of the checkpoint the last save was for, kept in the manifest
+  private long checkpoint;
+  // what was saved of each calendar this store saved or loaded
+  private Map<CalendarImpl, StoredCalendar> saved;
+  // series are saved by number, and keep it for as long as anything refers to them
+  private final Map<RobustCalEvent.Series, Integer> seriesIds;
+  private long nextSegment;
+  private int nextSeriesId;
+
+  private SegmentStore(Path directory) {
+    this.directory = directory;
+    this.manifest = List.of();
+    this.checkpoint = -1;
+    this.saved = new IdentityHashMap<>();
+    this.seriesIds = new WeakHashMap<>();
+  }
+
+  /**
+   * Open the store in the given directory, creating the directory if needed,
+   * and delete the segments a save cut short by a crash left behind.
+   *
+   * @param directory the directory of the store.
+   * @return the store, ready to load or save calendars.
+   * @throws IOException if the directory can't be read, or its manifest is
+   *                     damaged.
+   */
+  public static SegmentStore open(Path directory) throws IOException {
+    Files.createDirectories(directory);
+    SegmentStore store = new SegmentStore(directory);
+    Path manifestFile = directory.resolve(MANIFEST);
+    if (Files.exists(manifestFile)) {
+      store.readManifest(Files.readAllBytes(manifestFile));
+    }
+    store.deleteUnused();
+    return store;
+  }
+
+  /**
+   * Load every calendar in this store. Later saves of the loaded calendars
+   * only write what changed in them after loading.
+   *
+   * @return the calendars in this store, along with the calendar in use.
+   * @throws IOException if a segment can't be read, or is damaged.
+   */
+  public SnapshotFile.Contents load() throws IOException {
+    Map<Long, ByteBuffer> segments = new HashMap<>();
+    for (StoredCalendar stored : manifest) {
+      for (Ref ref : stored.refs()) {
+        if (!segments.containsKey(ref.segment())) {
+          segments.put(ref.segment(), map(segmentFile(ref.segment())));
+        }
+      }
+    }
+    Map<Integer, RobustCalEvent.Series> series = new HashMap<>();
+    // rules go first, so events of a rule find its series already made
+    List<List<RobustCalEvent.Series>> rules = new ArrayList<>(manifest.size());
+    for (StoredCalendar stored : manifest) {
+      List<RobustCalEvent.Series> calendarRules = new ArrayList<>();
+      if (stored.rules() != null) {
+        readRules(blobAt(segments, stored.rules()), series, calendarRules);
+      }
+      rules.add(calendarRules);
+    }
+    List<CalendarImpl> calendars = new ArrayList<>(manifest.size());
+    Map<CalendarImpl, StoredCalendar> loaded = new IdentityHashMap<>();
+    for (int i = 0; i < manifest.size(); i++) {
+      StoredCalendar stored = manifest.get(i);
+      // months go in order and so do the events of each, so the events come out in order
+      List<RobustCalEvent> events = new ArrayList<>();
+      for (Ref bucket : stored.buckets().values()) {
+        readEvents(blobAt(segments, bucket), series, events);
+      }
+      CalendarImpl calendar = CalendarImpl.restore(
+              stored.name(), stored.zone(), events, rules.get(i)
+      );
+      calendars.add(calendar);
+      loaded.put(calendar, stored.atVersion(calendar.version()));
+    }
+    series.forEach((id, it) -> seriesIds.put(it, id));
+    saved = loaded;
+    return new SnapshotFile.Contents(calendars, activeName);
+  }
+
+  /**
+   * Get the number of the checkpoint the calendars in this store were last
+   * saved for, as given to {@link #capture}.
+   *
+   * @return the number of the checkpoint, or -1 if nothing was saved yet.
+   */
+  public long checkpoint() {
+    return checkpoint;
+  }
+
+  /**
+   * Save the given calendars to this store, in place of what it held, as
+   * {@link #save(Capture)} does. The calendars must not change during the save.
+   *
+   * @param calendars  the calendars to save, by name.
+   * @param activeName the name of the calendar in use, or null if none is.
+   * @return the number of bytes written.
+   * @throws IOException if the segment or manifest can't be written.
+   */
+  public long save(Map<String, CalendarImpl> calendars, String activeName) throws IOException {
+    return save(capture(calendars, activeName, checkpoint));
+  }
+
+  /**
+   * Find out what changed in the given calendars since this store last saved
+   * or loaded them, which only reads what each calendar tracks of its changes
+   * and costs next to nothing however large the calendars are. It must happen
+   * on the thread changing the calendars, or while their changes are held
+   * back; the capture sees the calendars as they were then from any thread.
+   *
+   * @param calendars  the calendars to save, by name.
+   * @param activeName the name of the calendar in use, or null if none is.
+   * @param checkpoint the number of the checkpoint the save is for, which the
+   *                   store gives back from {@link #checkpoint()}.
+   * @return the calendars as they are now, ready to save.
+   */
+  public Capture capture(Map<String, CalendarImpl> calendars, String activeName, long checkpoint) {
+    List<Captured> captured = new ArrayList<>(calendars.size());
+    for (Map.Entry<String, CalendarImpl> calendar : calendars.entrySet()) {
+      StoredCalendar before = saved.get(calendar.getValue());
+      // a calendar this store hasn't saved yet is saved in full
+      captured.add(new Captured(
+              calendar.getKey(),
+              calendar.getValue(),
+              before,
+              calendar.getValue().changesSince((before != null) ? before.version() : 0)
+      ));
+    }
+    return new Capture(captured, activeName, checkpoint);
+  }
+
+  /**
+   * Save calendars captured from this store in place of what it held, writing
+   * only the months with events that changed since the last save or load of
+   * each calendar, along with its rules if they changed. It reads nothing of
+   * the calendars themselves, so they may go on changing during the save, but
+   * no other save to this store may happen between the capture and the save.
+   *
+   * @param capture the calendars as they were captured.
+   * @return the number of bytes written.
+   * @throws IOException if the segment or manifest can't be written.
+   */
+  public long save(Capture capture) throws IOException {
+    List<StoredCalendar> newManifest = new ArrayList<>(capture.calendars.size());
+    Map<CalendarImpl, StoredCalendar> newSaved = new IdentityHashMap<>();
+    long segmentBytes;
+    try (SegmentWriter segment = new SegmentWriter(nextSegment)) {
+      for (Captured calendar : capture.calendars) {
+        StoredCalendar stored = saveCalendar(calendar, segment);
+        newManifest.add(stored);
+        newSaved.put(calendar.calendar(), stored);
+      }
+      compact(newManifest, segment);
+      segmentBytes = segment.finish();
+    }
+    long segmentsUsed = (segmentBytes > 0) ? nextSegment + 1 : nextSegment;
+    long manifestBytes = writeManifest(
+            newManifest, capture.activeName, capture.checkpoint, segmentsUsed
+    );
+    manifest = newManifest;
+    saved = newSaved;
+    activeName = capture.activeName;
+    checkpoint = capture.checkpoint;
+    nextSegment = segmentsUsed;
+    deleteUnused();
+    return segmentBytes + manifestBytes;
+  }
+
+  private StoredCalendar saveCalendar(Captured calendar, SegmentWriter segment)
+          throws IOException {
+    StoredCalendar before = calendar.before();
+    CalendarImpl.Changes changes = calendar.changes();
+    CalendarSnapshot snapshot = changes.snapshot();
+    TreeMap<YearMonth, Ref> buckets = changes.isRebuilt()
+            ? new TreeMap<>()
+            : new TreeMap<>(before.buckets());
+    BucketWriter writer = new BucketWriter(segment, buckets);
+    try {
+      if (changes.isRebuilt()) {
+        snapshot.storedEvents().forEach(writer::add);
+      } else {
+        for (YearMonth month : changes.months()) {
+          // a month left without events is dropped, as no bucket is written for it
+          buckets.remove(month);
+          snapshot.storedEvents().forEachStartingIn(
+                  month.atDay(1).atStartOfDay(),
+                  month.plusMonths(1).atDay(1).atStartOfDay(),
+                  writer::add
+          );
+        }
+      }
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+    writer.finish();
+    Ref rules = (changes.areRulesChanged()) ? writeRules(snapshot, segment) : before.rules();
+    ZoneId zone = snapshot.zoneId();
+    return new StoredCalendar(
+            calendar.name(),
+            (zone != null) ? zone.toString() : null,
+            changes.version(),
+            rules,
+            buckets
+    );
+  }
+
+  private void compact(List<StoredCalendar> calendars, SegmentWriter segment)
+          throws IOException {
+    Map<Long, Long> liveBytes = new HashMap<>();
+    for (StoredCalendar stored : calendars) {
+      for (Ref ref : stored.refs()) {
+        if (ref.segment() != segment.number) {
+          liveBytes.merge(ref.segment(), (long) ref.length(), Long::sum);
+        }
+      }
+    }
+    Set<Long> folded = new HashSet<>();
+    List<Long> kept = new ArrayList<>();
+    for (Map.Entry<Long, Long> live : liveBytes.entrySet()) {
+      long size = Files.size(segmentFile(live.getKey())) - HEADER_BYTES;
+      if (2 * live.getValue() < size) {
+        folded.add(live.getKey());
+      } else {
+        kept.add(live.getKey());
+      }
+    }
+    // many small saves leave many small segments, so the smallest go as well
+    kept.sort(Comparator.comparing(liveBytes::get));
+    for (int i = 0; kept.size() - i >= MAX_SEGMENTS; i++) {
+      folded.add(kept.get(i));
+    }
+    if (folded.isEmpty()) {
+      return;
+    }
+    // copy the live buckets of those segments as they are, so the segments can be deleted
+    Map<Long, FileChannel> sources = new HashMap<>();
+    try {
+      for (long number : folded) {
+        sources.put(number, FileChannel.open(segmentFile(number), StandardOpenOption.READ));
+      }
+      for (StoredCalendar stored : calendars) {
+        for (Map.Entry<YearMonth, Ref> bucket : stored.buckets().entrySet()) {
+          if (folded.contains(bucket.getValue().segment())) {
+            bucket.setValue(segment.copy(sources, bucket.getValue()));
+          }
+        }
+        if (stored.rules() != null && folded.contains(stored.rules().segment())) {
+          stored.rules = segment.copy(sources, stored.rules());
+        }
+      }
+    } finally {
+      for (FileChannel source : sources.values()) {
+        source.close();
+      }
+    }
+  }
+
+  private Ref writeRules(CalendarSnapshot snapshot, SegmentWriter segment) throws IOException {
+    if (snapshot.rules().size() == 0) {
+      return null;
+    }
+    List<RecurrenceIndex.Entry> rules = new ArrayList<>(snapshot.rules().size());
+    snapshot.rules().forEach(rules::add);
+    rules.sort(Comparator.comparingLong(RecurrenceIndex.Entry::sequence));
+    BlobWriter blob = new BlobWriter();
+    for (RecurrenceIndex.Entry entry : rules) {
+      Recurrence rule = entry.rule();
+      blob.out.writeInt(seriesIdOf(entry.series()));
+      blob.out.writeByte(rule.isAllDay() ? 1 : 0);
+      blob.out.writeByte(SnapshotFile.weekdayMaskOf(rule.getWeekdays()));
+      blob.writeString(rule.getSubject());
+      blob.writeDateTime(rule.getFirstStartDateTime());
+      blob.writeDateTime(rule.getFirstEndDateTime());
+      blob.out.writeInt(rule.getCount());
+      blob.out.writeLong((rule.getUntilDate() != null)
+              ? rule.getUntilDate().toEpochDay() : Long.MIN_VALUE);
+      List<LocalDate> exceptions = rule.getExceptions();
+      blob.out.writeInt(exceptions.size());
+      for (LocalDate date : exceptions) {
+        blob.out.writeLong(date.toEpochDay());
+      }
+    }
+    return segment.append(blob);
+  }
+
+  private int seriesIdOf(RobustCalEvent.Series series) {
+    Integer id = seriesIds.get(series);
+    if (id == null) {
+      id = nextSeriesId++;
+      seriesIds.put(series, id);
+    }
+    return id;
+  }
+
+  private static void readRules(
+          ByteBuffer blob,
+          Map<Integer, RobustCalEvent.Series> series,
+          List<RobustCalEvent.Series> rules
+  ) {
+    BlobReader in = new BlobReader(blob);
+    while (blob.hasRemaining()) {
+      int id = blob.getInt();
+      boolean isAllDay = blob.get() != 0;
+      Set<DayOfWeek> weekdays = SnapshotFile.weekdaysOf(blob.get());
+      RobustCalEvent firstEvent = new CalEventImpl(
+              in.readString(), in.readDateTime(), in.readDateTime()
+      );
+      if (isAllDay) {
+        firstEvent.setAllDay();
+      }
+      int count = blob.getInt();
+      long untilDay = blob.getLong();
+      Recurrence rule = (untilDay != Long.MIN_VALUE)
+              ? Recurrence.untilDate(firstEvent, weekdays, LocalDate.ofEpochDay(untilDay))
+              : Recurrence.nTimes(firstEvent, weekdays, count);
+      for (int exceptions = blob.getInt(); exceptions > 0; exceptions--) {
+        rule = rule.except(LocalDate.ofEpochDay(blob.getLong()));
+      }
+      RobustCalEvent.Series ruleSeries = new RobustCalEvent.Series(rule);
+      series.put(id, ruleSeries);
+      rules.add(ruleSeries);
+    }
+  }
+
+  private static void readEvents(
+          ByteBuffer blob,
+          Map<Integer, RobustCalEvent.Series> series,
+          List<RobustCalEvent> events
+  ) {
+    BlobReader in = new BlobReader(blob);
+    while (blob.hasRemaining()) {
+      RobustCalEvent event = new CalEventImpl(
+              in.readString(), in.readDateTime(), in.readDateTime()
+      );
+      SnapshotFile.setFlags(event, blob.get());
+      String description = in.readString();
+      if (description != null) {
+        event.setDescription(description);
+      }
+      int seriesId = blob.getInt();
+      if (seriesId >= 0) {
+        RobustCalEvent.Series eventSeries =
+                series.computeIfAbsent(seriesId, (it) -> new RobustCalEvent.Series());
+        event.setSeries(eventSeries);
+        eventSeries.add(event);
+      }
+      events.add(event);
+    }
+  }
+
+  private long writeManifest(
+          List<StoredCalendar> calendars,
+          String activeName,
+          long checkpoint,
+          long segments
+  ) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    out.writeInt(MANIFEST_MAGIC);
+    out.writeInt(VERSION);
+    out.writeLong(segments);
+    out.writeInt(nextSeriesId);
+    out.writeLong(checkpoint);
+    writeNullable(out, activeName);
+    out.writeInt(calendars.size());
+    for (StoredCalendar stored : calendars) {
+      out.writeUTF(stored.name());
+      writeNullable(out, stored.zone());
+      out.writeBoolean(stored.rules() != null);
+      if (stored.rules() != null) {
+        writeRef(out, stored.rules());
+      }
+      out.writeInt(stored.buckets().size());
+      for (Map.Entry<YearMonth, Ref> bucket : stored.buckets().entrySet()) {
+        out.writeInt(bucket.getKey().getYear());
+        out.writeByte(bucket.getKey().getMonthValue());
+        writeRef(out, bucket.getValue());
+      }
+    }
+    CRC32 checksum = new CRC32();
+    checksum.update(bytes.toByteArray());
+    out.writeInt((int) checksum.getValue());
+    Path temporary = directory.resolve(MANIFEST + ".tmp");
+    try (FileChannel channel = FileChannel.open(
+            temporary,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE
+    )) {
+      ByteBuffer contents = ByteBuffer.wrap(bytes.toByteArray());
+      while (contents.hasRemaining()) {
+        channel.write(contents);
+      }
+      channel.force(false);
+    }
+    Files.move(
+            temporary,
+            directory.resolve(MANIFEST),
+            StandardCopyOption.ATOMIC_MOVE,
+            StandardCopyOption.REPLACE_EXISTING
+    );
+    // the new manifest must be found after a crash before the segments it replaces are gone
+    forceDirectory();
+    return bytes.size();
+  }
+
+  private void readManifest(byte[] bytes) throws IOException {
+    CRC32 checksum = new CRC32();
+    checksum.update(bytes, 0, Math.max(bytes.length - 4, 0));
+    if (bytes.length < HEADER_BYTES + 4
+            || ByteBuffer.wrap(bytes).getInt(bytes.length - 4) != (int) checksum.getValue()) {
+      throw new IOException("Damaged calendar store manifest!");
+    }
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+    if (in.readInt() != MANIFEST_MAGIC) {
+      throw new IOException("Not a calendar store manifest!");
+    }
+    int version = in.readInt();
+    if (version != VERSION) {
+      throw new IOException("Unknown calendar store version " + version + "!");
+    }
+    nextSegment = in.readLong();
+    nextSeriesId = in.readInt();
+    checkpoint = in.readLong();
+    activeName = readNullable(in);
+    int count = in.readInt();
+    List<StoredCalendar> calendars = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      String name = in.readUTF();
+      String zone = readNullable(in);
+      Ref rules = in.readBoolean() ? readRef(in) : null;
+      int bucketCount = in.readInt();
+      TreeMap<YearMonth, Ref> buckets = new TreeMap<>();
+      for (int j = 0; j < bucketCount; j++) {
+        buckets.put(YearMonth.of(in.readInt(), in.readByte()), readRef(in));
+      }
+      calendars.add(new StoredCalendar(name, zone, 0, rules, buckets));
+    }
+    manifest = calendars;
+  }
+
+  private static void writeRef(DataOutputStream out, Ref ref) throws IOException {
+    out.writeLong(ref.segment());
+    out.writeLong(ref.offset());
+    out.writeInt(ref.length());
+    out.writeInt(ref.checksum());
+  }
+
+  private static Ref readRef(DataInputStream in) throws IOException {
+    return new Ref(in.readLong(), in.readLong(), in.readInt(), in.readInt());
+  }
+
+  private static void writeNullable(DataOutputStream out, String value) throws IOException {
+    out.writeBoolean(value != null);
+    if (value != null) {
+      out.writeUTF(value);
+    }
+  }
+
+  private static String readNullable(DataInputStream in) throws IOException {
+    return in.readBoolean() ? in.readUTF() : null;
+  }
+
+  private Path segmentFile(long number) {
+    return directory.resolve("segment-" + number);
+  }
+
+  private static ByteBuffer map(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      if (channel.size() > Integer.MAX_VALUE) {
+        throw new IOException("Calendar store segment too large to map!");
+      }
+      ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      if (mapped.limit() < HEADER_BYTES
+              || mapped.getInt(0) != SEGMENT_MAGIC
+              || mapped.getInt(4) != VERSION) {
+        throw new IOException("Not a calendar store segment!");
+      }
+      return mapped;
+    }
+  }
+
+  private static ByteBuffer blobAt(Map<Long, ByteBuffer> segments, Ref ref) throws IOException {
+    ByteBuffer segment = segments.get(ref.segment());
+    if (ref.offset() < HEADER_BYTES || ref.offset() + ref.length() > segment.limit()) {
+      throw new IOException("Damaged calendar store segment!");
+    }
+    ByteBuffer blob = segment.slice((int) ref.offset(), ref.length());
+    CRC32 checksum = new CRC32();
+    checksum.update(blob.duplicate());
+    if ((int) checksum.getValue() != ref.checksum()) {
+      throw new IOException("Damaged calendar store segment!");
+    }
+    return blob;
+  }
+
+  private void deleteUnused() throws IOException {
+    Set<Long> used = new HashSet<>();
+    for (StoredCalendar stored : manifest) {
+      for (Ref ref : stored.refs()) {
+        used.add(ref.segment());
+      }
+    }
+    List<Path> unused = new ArrayList<>();
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+      for (Path file : files) {
+        Matcher name = SEGMENT_NAME.matcher(file.getFileName().toString());
+        if (name.matches() && !used.contains(Long.parseLong(name.group(1)))) {
+          unused.add(file);
+        }
+      }
+    }
+    for (Path file : unused) {
+      Files.deleteIfExists(file);
+    }
+    Files.deleteIfExists(directory.resolve(MANIFEST + ".tmp"));
+  }
+
+  private void forceDirectory() {
+    try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+      channel.force(true);
+    } catch (IOException e) {
+      // not every platform can open a directory, and those keep renames in order anyway
+    }
+  }
+
+  /**
+   * The calendars of a collection as they were at one point in time, along
+   * with what changed in each since the store last saved or loaded it.
+   */
+  public static final class Capture {
+    private final List<Captured> calendars;
+    private final String activeName;
+    private final long checkpoint;
+
+    private Capture(List<Captured> calendars, String activeName, long checkpoint) {
+      this.calendars = calendars;
+      this.activeName = activeName;
+      this.checkpoint = checkpoint;
+    }
+  }
+
+  /**
+   * One captured calendar: its name, what the store held of it before, and
+   * what changed in it since.
+   */
+  private record Captured(
+          String name,
+          CalendarImpl calendar,
+          StoredCalendar before,
+          CalendarImpl.Changes changes
+  ) {
+  }
+
+  /**
+   * Where a bucket is: the segment it is in, where it starts and how long it
+   * is, along with a checksum of it.
+   */
+  private record Ref(long segment, long offset, int length, int checksum) {
+  }
+
+  /**
+   * What the manifest holds of one calendar, along with the version of the
+   * calendar it was saved from.
+   */
+  private static final class StoredCalendar {
+    private final String name;
+    private final String zone;
+    private final long version;
+    private final TreeMap<YearMonth, Ref> buckets;
+    private Ref rules;
+
+    private StoredCalendar(
+            String name,
+            String zone,
+            long version,
+            Ref rules,
+            TreeMap<YearMonth, Ref> buckets
+    ) {
+      this.name = name;
+      this.zone = zone;
+      this.version = version;
+      this.rules = rules;
+      this.buckets = buckets;
+    }
+
+    private String name() {
+      return name;
+    }
+
+    private String zone() {
+      return zone;
+    }
+
+    private long version() {
+      return version;
+    }
+
+    private Ref rules() {
+      return rules;
+    }
+
+    private TreeMap<YearMonth, Ref> buckets() {
+      return buckets;
+    }
+
+    private StoredCalendar atVersion(long version) {
+      return new StoredCalendar(name, zone, version, rules, buckets);
+    }
+
+    private List<Ref> refs() {
+      List<Ref> refs = new ArrayList<>(buckets.values());
+      if (rules != null) {
+        refs.add(rules);
+      }
+      return refs;
+    }
+  }
+
+  /**
+   * Writing one bucket into memory: its records one after another, each
+   * string written out the first time and referred to by number after that.
+   */
+  private static final class BlobWriter {
+    private final ByteArrayOutputStream bytes;
+    private final DataOutputStream out;
+    private final Map<String, Integer> strings;
+
+    private BlobWriter() {
+      this.bytes = new ByteArrayOutputStream();
+      this.out = new DataOutputStream(bytes);
+      this.strings = new HashMap<>();
+    }
+
+    private void writeString(String value) throws IOException {
+      if (value == null) {
+        out.writeInt(-1);
+        return;
+      }
+      Integer id = strings.get(value);
+      if (id != null) {
+        out.writeInt(id);
+        return;
+      }
+      // the next number along means a new string follows
+      out.writeInt(strings.size());
+      strings.put(value, strings.size());
+      byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+      out.writeInt(encoded.length);
+      out.write(encoded);
+    }
+
+    private void writeDateTime(LocalDateTime dateTime) throws IOException {
+      out.writeLong(dateTime.toEpochSecond(ZoneOffset.UTC));
+      out.writeInt(dateTime.getNano());
+    }
+
+    private void reset() {
+      bytes.reset();
+      strings.clear();
+    }
+  }
+
+  /**
+   * Reading the strings and dates of one bucket, as written by a
+   * {@link BlobWriter}.
+   */
+  private static final class BlobReader {
+    private final ByteBuffer blob;
+    private final List<String> strings;
+
+    private BlobReader(ByteBuffer blob) {
+      this.blob = blob;
+      this.strings = new ArrayList<>();
+    }
+
+    private String readString() {
+      int id = blob.getInt();
+      if (id < 0) {
+        return null;
+      }
+      if (id < strings.size()) {
+        return strings.get(id);
+      }
+      byte[] encoded = new byte[blob.getInt()];
+      blob.get(encoded);
+      String value = new String(encoded, StandardCharsets.UTF_8);
+      strings.add(value);
+      return value;
+    }
+
+    private LocalDateTime readDateTime() {
+      return LocalDateTime.ofEpochSecond(blob.getLong(), blob.getInt(), ZoneOffset.UTC);
+    }
+  }
+
+  /**
+   * Writing the stored events of a calendar, in order, as one bucket per month
+   * they start in.
+   */
+  private final class BucketWriter {
+    private final SegmentWriter segment;
+    private final Map<YearMonth, Ref> buckets;
+    private final BlobWriter blob;
+    private YearMonth month;
+
+    private BucketWriter(SegmentWriter segment, Map<YearMonth, Ref> buckets) {
+      this.segment = segment;
+      this.buckets = buckets;
+      this.blob = new BlobWriter();
+    }
+
+    private void add(RobustCalEvent event) {
+      LocalDateTime start = event.getStartDateTime();
+      try {
+        if (month == null
+                || month.getYear() != start.getYear()
+                || month.getMonthValue() != start.getMonthValue()) {
+          finish();
+          month = YearMonth.of(start.getYear(), start.getMonth());
+        }
+        blob.writeString(event.getSubject());
+        blob.writeDateTime(start);
+        blob.writeDateTime(event.getEndDateTime());
+        blob.out.writeByte(SnapshotFile.flagsOf(event));
+        blob.writeString(event.getDescription());
+        blob.out.writeInt((event.getSeries() != null) ? seriesIdOf(event.getSeries()) : -1);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    private void finish() throws IOException {
+      if (month != null) {
+        buckets.put(month, segment.append(blob));
+        blob.reset();
+        month = null;
+      }
+    }
+  }
+
+  /**
+   * Writing the buckets of one save into a new segment, which is only created
+   * once something is written to it.
+   */
+  private final class SegmentWriter implements Closeable {
+    private final long number;
+    private final CRC32 checksum;
+    private FileChannel channel;
+    private OutputStream out;
+    private long size;
+
+    private SegmentWriter(long number) {
+      this.number = number;
+      this.checksum = new CRC32();
+    }
+
+    private Ref append(BlobWriter blob) throws IOException {
+      byte[] bytes = blob.bytes.toByteArray();
+      checksum.reset();
+      checksum.update(bytes);
+      return append(bytes, (int) checksum.getValue());
+    }
+
+    private Ref copy(Map<Long, FileChannel> sources, Ref ref) throws IOException {
+      ByteBuffer bytes = ByteBuffer.allocate(ref.length());
+      FileChannel source = sources.get(ref.segment());
+      while (bytes.hasRemaining()) {
+        if (source.read(bytes, ref.offset() + bytes.position()) < 0) {
+          throw new IOException("Damaged calendar store segment!");
+        }
+      }
+      return append(bytes.array(), ref.checksum());
+    }
+
+    private Ref append(byte[] bytes, int bytesChecksum) throws IOException {
+      if (channel == null) {
+        channel = FileChannel.open(
+                segmentFile(number),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE
+        );
+        out = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+        out.write(ByteBuffer.allocate(HEADER_BYTES).putInt(SEGMENT_MAGIC).putInt(VERSION).array());
+        size = HEADER_BYTES;
+      }
+      out.write(bytes);
+      Ref ref = new Ref(number, size, bytes.length, bytesChecksum);
+      size += bytes.length;
+      return ref;
+    }
+
+    private long finish() throws IOException {
+      if (channel == null) {
+        return 0;
+      }
+      out.flush();
+      channel.force(false);
+      return size;
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (channel != null) {
+        channel.close();
+      }
+    }
+  }
+}
@@ -0,0 +1,526 @@
+package model.calendar;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+import model.events.CalEventImpl;
+import model.events.Recurrence;
+import model.events.RobustCalEvent;
+
+/**
+ * A compact, binary file holding every calendar of a collection as it was in a
+ * {@link CalendarSnapshot} of each, which can be loaded back far faster than
+ * the commands that built the calendars can be run again.
+ *
+ * <p>The file starts with a header and ends with a trailer telling where each of
+ * its sections is, along with a checksum of each. The sections are the events
+ * of every calendar as fixed-width records, one calendar after another and in
+ * order within each; the series they belong to and the rules of series with
+ * one, also fixed-width; one record per calendar telling which events and
+ * series are its own; the table of every string the other sections refer to
+ * by index; and the dates the rules skip, which each rule record tells the
+ * range of. Saving writes the sections one after another
+ * through a small buffer, so the file is never held in memory as a whole, and
+ * loading maps the file into memory and reads the records in place.
+ *
+ * <p>Series are saved per calendar: an event copied from another calendar
+ * along with its series is loaded in a series of the calendar it is in.
+ */
+public final class SnapshotFile {
+  private static final int MAGIC = 0x43414C53;
+  private static final int VERSION = 1;
+  private static final int HEADER_BYTES = 8;
+  private static final int SECTIONS = 5;
+  private static final int SECTION_ENTRY_BYTES = 20;
+  private static final int TRAILER_BYTES = SECTIONS * SECTION_ENTRY_BYTES + 4;
+  private static final int EVENT_BYTES = 40;
+  private static final int SERIES_BYTES = 56;
+  private static final int CALENDAR_BYTES = 40;
+  private static final int BUFFER_SIZE = 1 << 20;
+  // flags of an event record
+  private static final int ALL_DAY = 1;
+  private static final int LOCATION_SHIFT = 1;
+  private static final int STATUS_SHIFT = 3;
+  // flags of a series record
+  private static final int HAS_RULE = 1;
+  private static final int RULE_ALL_DAY = 2;
+
+  private SnapshotFile() {
+  }
+
+  /**
+   * Write a snapshot file of the given calendars, replacing the given file only
+   * once the new one is complete and on disk, so a crash while writing leaves
+   * the last complete file in place.
+   *
+   * @param file       the file to write.
+   * @param calendars  the snapshot of each calendar, by the name of the calendar.
+   * @param activeName the name of the calendar in use, or null if none is.
+   * @return the number of bytes written.
+   * @throws IOException if the file can't be written.
+   */
+  public static long write(Path file, Map<String, CalendarSnapshot> calendars, String activeName)
+          throws IOException {
+    Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+    long size;
+    try (FileChannel channel = FileChannel.open(
+            temporary,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE
+    )) {
+      size = new Writer(channel).writeAll(calendars, activeName);
+      channel.force(false);
+    }
+    Files.move(
+            temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING
+    );
+    return size;
+  }
+
+  /**
+   * Load every calendar in a snapshot file.
+   *
+   * @param file the file to load.
+   * @return the calendars in the file, along with the calendar in use.
+   * @throws IOException if the file can't be read, or isn't a whole, undamaged
+   *                     snapshot file.
+   */
+  public static Contents read(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size > Integer.MAX_VALUE) {
+        throw new IOException("Snapshot file too large to map!");
+      }
+      if (size < HEADER_BYTES + TRAILER_BYTES) {
+        throw new IOException("Not a whole calendar snapshot file!");
+      }
+      ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      return new Reader(mapped).readAll();
+    }
+  }
+
+  /**
+   * The calendars loaded from a snapshot file.
+   *
+   * @param calendars  every calendar in the file.
+   * @param activeName the name of the calendar in use, or null if none was.
+   */
+  public record Contents(List<CalendarImpl> calendars, String activeName) {
+  }
+
+  /**
+   * Pack whether the given event is all-day, its location and its status into
+   * the flags of its record.
+   *
+   * @param event the event in question.
+   * @return the flags of the event.
+   */
+  static int flagsOf(RobustCalEvent event) {
+    int location = (event.getLocation() != null) ? event.getLocation().ordinal() + 1 : 0;
+    int status = (event.getStatus() != null) ? event.getStatus().ordinal() + 1 : 0;
+    return (event.isAllDay() ? ALL_DAY : 0)
+            | location << LOCATION_SHIFT
+            | status << STATUS_SHIFT;
+  }
+
+  /**
+   * Unpack the flags of a record onto the event read from it.
+   *
+   * @param event the event read from the record.
+   * @param flags the flags of the record, as made by {@link #flagsOf}.
+   */
+  static void setFlags(RobustCalEvent event, int flags) {
+    if ((flags & ALL_DAY) != 0) {
+      event.setAllDay();
+    }
+    int location = flags >> LOCATION_SHIFT & 3;
+    if (location != 0) {
+      event.setLocation(CalEventImpl.Location.values()[location - 1].getStringRepresentation());
+    }
+    int status = flags >> STATUS_SHIFT & 3;
+    if (status != 0) {
+      event.setStatus(CalEventImpl.Status.values()[status - 1].getStringRepresentation());
+    }
+  }
+
+  static int weekdayMaskOf(Set<DayOfWeek> weekdays) {
+    int mask = 0;
+    for (DayOfWeek weekday : weekdays) {
+      mask |= 1 << weekday.ordinal();
+    }
+    return mask;
+  }
+
+  static Set<DayOfWeek> weekdaysOf(int mask) {
+    Set<DayOfWeek> weekdays = EnumSet.noneOf(DayOfWeek.class);
+    for (DayOfWeek weekday : DayOfWeek.values()) {
+      if ((mask & 1 << weekday.ordinal()) != 0) {
+        weekdays.add(weekday);
+      }
+    }
+    return weekdays;
+  }
+
+  /**
+   * Writing the sections of a snapshot file in order, through one buffer.
+   */
+  private static final class Writer {
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final CRC32 checksum;
+    private final StringTable strings;
+    private final ByteBuffer trailer;
+    // the rule of every series written so far, or null for series storing their events
+    private final List<Recurrence> series;
+    // the dates every rule written so far skips, as epoch days
+    private long[] exceptDays;
+    private int exceptCount;
+    private long position;
+    private long sectionStart;
+
+    private Writer(FileChannel channel) {
+      this.channel = channel;
+      this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+      this.checksum = new CRC32();
+      this.strings = new StringTable();
+      this.trailer = ByteBuffer.allocate(TRAILER_BYTES);
+      this.series = new ArrayList<>();
+      this.exceptDays = new long[16];
+    }
+
+    private long writeAll(Map<String, CalendarSnapshot> calendars, String activeName)
+            throws IOException {
+      buffer.putInt(MAGIC).putInt(VERSION);
+      flush();
+      sectionStart = position;
+      checksum.reset();
+      // the events and series of each calendar, as where they start and how many there are
+      long[] eventRanges = new long[2 * calendars.size()];
+      int[] seriesRanges = new int[2 * calendars.size()];
+      long eventCount = 0;
+      int i = 0;
+      for (CalendarSnapshot snapshot : calendars.values()) {
+        int firstSeries = series.size();
+        eventRanges[2 * i] = eventCount;
+        eventRanges[2 * i + 1] = writeEvents(snapshot);
+        seriesRanges[2 * i] = firstSeries;
+        seriesRanges[2 * i + 1] = series.size() - firstSeries;
+        eventCount += eventRanges[2 * i + 1];
+        i++;
+      }
+      endSection();
+      for (Recurrence rule : series) {
+        writeSeries(rule);
+      }
+      endSection();
+      i = 0;
+      for (Map.Entry<String, CalendarSnapshot> calendar : calendars.entrySet()) {
+        ZoneId zone = calendar.getValue().zoneId();
+        ensureRoom(CALENDAR_BYTES);
+        int start = buffer.position();
+        buffer.putInt(strings.intern(calendar.getKey()))
+                .putInt((zone != null) ? strings.intern(zone.toString()) : -1)
+                .putLong(eventRanges[2 * i])
+                .putLong(eventRanges[2 * i + 1])
+                .putInt(seriesRanges[2 * i])
+                .putInt(seriesRanges[2 * i + 1])
+                .put((byte) (calendar.getKey().equals(activeName) ? 1 : 0));
+        buffer.position(start + CALENDAR_BYTES);
+        i++;
+      }
+      endSection();
+      writeStrings();
+      endSection();
+      for (int day = 0; day < exceptCount; day++) {
+        ensureRoom(8);
+        buffer.putLong(exceptDays[day]);
+      }
+      endSection();
+      trailer.putInt(MAGIC).flip();
+      while (trailer.hasRemaining()) {
+        position += channel.write(trailer);
+      }
+      return position;
+    }
+
+    private long writeEvents(CalendarSnapshot snapshot) throws IOException {
+      // series belong to one calendar, and rules go first in the order they were added
+      Map<RobustCalEvent.Series, Integer> seriesIds = new IdentityHashMap<>();
+      List<RecurrenceIndex.Entry> rules = new ArrayList<>(snapshot.rules().size());
+      snapshot.rules().forEach(rules::add);
+      rules.sort(Comparator.comparingLong(RecurrenceIndex.Entry::sequence));
+      for (RecurrenceIndex.Entry rule : rules) {
+        seriesIds.put(rule.series(), series.size());
+        series.add(rule.rule());
+      }
+      try {
+        snapshot.storedEvents().forEach((event) -> {
+          int seriesId = -1;
+          if (event.getSeries() != null) {
+            seriesId = seriesIds.computeIfAbsent(event.getSeries(), (it) -> {
+              series.add(null);
+              return series.size() - 1;
+            });
+          }
+          writeEvent(event, seriesId);
+        });
+      } catch (UncheckedIOException e) {
+        throw e.getCause();
+      }
+      return snapshot.storedEvents().size();
+    }
+
+    private void writeEvent(RobustCalEvent event, int seriesId) {
+      try {
+        ensureRoom(EVENT_BYTES);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      int start = buffer.position();
+      buffer.putInt(strings.intern(event.getSubject()));
+      putDateTime(event.getStartDateTime());
+      putDateTime(event.getEndDateTime());
+      buffer.putInt((event.getDescription() != null) ? strings.intern(event.getDescription()) : -1)
+              .putInt(seriesId)
+              .put((byte) flagsOf(event));
+      buffer.position(start + EVENT_BYTES);
+    }
+
+    private void writeSeries(Recurrence rule) throws IOException {
+      ensureRoom(SERIES_BYTES);
+      int start = buffer.position();
+      if (rule == null) {
+        buffer.put((byte) 0);
+      } else {
+        buffer.put((byte) (HAS_RULE | (rule.isAllDay() ? RULE_ALL_DAY : 0)))
+                .put((byte) weekdayMaskOf(rule.getWeekdays()))
+                .putShort((short) 0)
+                .putInt(strings.intern(rule.getSubject()));
+        putDateTime(rule.getFirstStartDateTime());
+        putDateTime(rule.getFirstEndDateTime());
+        buffer.putInt(rule.getCount())
+                .putLong((rule.getUntilDate() != null)
+                        ? rule.getUntilDate().toEpochDay() : Long.MIN_VALUE);
+        List<LocalDate> exceptions = rule.getExceptions();
+        buffer.putInt(exceptCount).putInt(exceptions.size());
+        for (LocalDate date : exceptions) {
+          if (exceptCount == exceptDays.length) {
+            exceptDays = Arrays.copyOf(exceptDays, 2 * exceptCount);
+          }
+          exceptDays[exceptCount++] = date.toEpochDay();
+        }
+      }
+      buffer.position(start + SERIES_BYTES);
+    }
+
+    private void writeStrings() throws IOException {
+      ensureRoom(4);
+      buffer.putInt(strings.size());
+      for (int id = 0; id < strings.size(); id++) {
+        byte[] bytes = strings.get(id).getBytes(StandardCharsets.UTF_8);
+        ensureRoom(4);
+        buffer.putInt(bytes.length);
+        // strings longer than the buffer go through it a piece at a time
+        for (int from = 0; from < bytes.length; ) {
+          ensureRoom(1);
+          int length = Math.min(buffer.remaining(), bytes.length - from);
+          buffer.put(bytes, from, length);
+          from += length;
+        }
+      }
+    }
+
+    private void putDateTime(LocalDateTime dateTime) {
+      buffer.putLong(dateTime.toEpochSecond(ZoneOffset.UTC)).putInt(dateTime.getNano());
+    }
+
+    private void ensureRoom(int bytes) throws IOException {
+      if (buffer.remaining() < bytes) {
+        flush();
+      }
+    }
+
+    private void flush() throws IOException {
+      buffer.flip();
+      checksum.update(buffer.duplicate());
+      while (buffer.hasRemaining()) {
+        position += channel.write(buffer);
+      }
+      buffer.clear();
+    }
+
+    private void endSection() throws IOException {
+      flush();
+      trailer.putLong(sectionStart)
+              .putLong(position - sectionStart)
+              .putInt((int) checksum.getValue());
+      sectionStart = position;
+      checksum.reset();
+    }
+  }
+
+  /**
+   * Reading the sections of a snapshot file in place, once they are checked.
+   */
+  private static final class Reader {
+    private final ByteBuffer file;
+    private final ByteBuffer[] sections;
+    private String[] strings;
+    private RobustCalEvent.Series[] series;
+
+    private Reader(ByteBuffer file) {
+      this.file = file;
+      this.sections = new ByteBuffer[SECTIONS];
+    }
+
+    private Contents readAll() throws IOException {
+      int trailerStart = file.limit() - TRAILER_BYTES;
+      if (file.getInt(0) != MAGIC || file.getInt(trailerStart + TRAILER_BYTES - 4) != MAGIC) {
+        throw new IOException("Not a whole calendar snapshot file!");
+      }
+      if (file.getInt(4) != VERSION) {
+        throw new IOException("Unknown calendar snapshot version " + file.getInt(4) + "!");
+      }
+      CRC32 checksum = new CRC32();
+      for (int i = 0; i < SECTIONS; i++) {
+        int entry = trailerStart + i * SECTION_ENTRY_BYTES;
+        long start = file.getLong(entry);
+        long length = file.getLong(entry + 8);
+        if (start < HEADER_BYTES || length < 0 || start + length > trailerStart) {
+          throw new IOException("Damaged calendar snapshot file!");
+        }
+        sections[i] = file.slice((int) start, (int) length);
+        checksum.reset();
+        checksum.update(sections[i].duplicate());
+        if ((int) checksum.getValue() != file.getInt(entry + 16)) {
+          throw new IOException("Damaged calendar snapshot file!");
+        }
+      }
+      readStrings(sections[3]);
+      readSeries(sections[1], sections[4]);
+      return readCalendars(sections[2], sections[0]);
+    }
+
+    private void readStrings(ByteBuffer section) {
+      strings = new String[section.getInt(0)];
+      int offset = 4;
+      byte[] bytes = new byte[64];
+      for (int id = 0; id < strings.length; id++) {
+        int length = section.getInt(offset);
+        if (length > bytes.length) {
+          bytes = new byte[Math.max(length, 2 * bytes.length)];
+        }
+        section.get(offset + 4, bytes, 0, length);
+        strings[id] = new String(bytes, 0, length, StandardCharsets.UTF_8);
+        offset += 4 + length;
+      }
+    }
+
+    private void readSeries(ByteBuffer section, ByteBuffer exceptDays) {
+      series = new RobustCalEvent.Series[section.limit() / SERIES_BYTES];
+      for (int i = 0; i < series.length; i++) {
+        int record = i * SERIES_BYTES;
+        int flags = section.get(record);
+        if ((flags & HAS_RULE) == 0) {
+          series[i] = new RobustCalEvent.Series();
+          continue;
+        }
+        RobustCalEvent firstEvent = new CalEventImpl(
+                strings[section.getInt(record + 4)],
+                getDateTime(section, record + 8),
+                getDateTime(section, record + 20)
+        );
+        if ((flags & RULE_ALL_DAY) != 0) {
+          firstEvent.setAllDay();
+        }
+        Set<DayOfWeek> weekdays = weekdaysOf(section.get(record + 1));
+        long untilDay = section.getLong(record + 36);
+        Recurrence rule = (untilDay != Long.MIN_VALUE)
+                ? Recurrence.untilDate(firstEvent, weekdays, LocalDate.ofEpochDay(untilDay))
+                : Recurrence.nTimes(firstEvent, weekdays, section.getInt(record + 32));
+        int firstException = section.getInt(record + 44);
+        for (int day = 0; day < section.getInt(record + 48); day++) {
+          rule = rule.except(LocalDate.ofEpochDay(exceptDays.getLong(8 * (firstException + day))));
+        }
+        series[i] = new RobustCalEvent.Series(rule);
+      }
+    }
+
+    private Contents readCalendars(ByteBuffer section, ByteBuffer events) {
+      List<CalendarImpl> calendars = new ArrayList<>(section.limit() / CALENDAR_BYTES);
+      String activeName = null;
+      for (int record = 0; record < section.limit(); record += CALENDAR_BYTES) {
+        String name = strings[section.getInt(record)];
+        int zone = section.getInt(record + 4);
+        long firstEvent = section.getLong(record + 8);
+        int eventCount = (int) section.getLong(record + 16);
+        int firstSeries = section.getInt(record + 24);
+        int seriesCount = section.getInt(record + 28);
+        List<RobustCalEvent> calendarEvents = new ArrayList<>(eventCount);
+        for (long i = firstEvent; i < firstEvent + eventCount; i++) {
+          calendarEvents.add(readEvent(events, (int) (i * EVENT_BYTES)));
+        }
+        List<RobustCalEvent.Series> rules = new ArrayList<>();
+        for (int i = firstSeries; i < firstSeries + seriesCount; i++) {
+          if (series[i].getRule() != null) {
+            rules.add(series[i]);
+          }
+        }
+        calendars.add(CalendarImpl.restore(
+                name, (zone >= 0) ? strings[zone] : null, calendarEvents, rules
+        ));
+        if (section.get(record + 32) != 0) {
+          activeName = name;
+        }
+      }
+      return new Contents(calendars, activeName);
+    }
+
+    private RobustCalEvent readEvent(ByteBuffer events, int record) {
+      RobustCalEvent event = new CalEventImpl(
+              strings[events.getInt(record)],
+              getDateTime(events, record + 4),
+              getDateTime(events, record + 16)
+      );
+      setFlags(event, events.get(record + 36));
+      int description = events.getInt(record + 28);
+      if (description >= 0) {
+        event.setDescription(strings[description]);
+      }
+      int seriesId = events.getInt(record + 32);
+      if (seriesId >= 0) {
+        event.setSeries(series[seriesId]);
+        series[seriesId].add(event);
+      }
+      return event;
+    }
+
+    private static LocalDateTime getDateTime(ByteBuffer section, int offset) {
+      return LocalDateTime.ofEpochSecond(
+              section.getLong(offset), section.getInt(offset + 8), ZoneOffset.UTC
+      );
+    }
+  }
+}
@@ -0,0 +1,69 @@
+package model.calendar;
+
+import java.util.AbstractSet;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.SortedSet;
+
+/**
+ * A list of distinct entries already in their natural order, seen as a sorted
+ * set. Handing one to an empty {@link java.util.TreeSet} builds the tree in
+ * O(n) time straight from the order, instead of inserting and rebalancing
+ * entry by entry. Only walking the entries is supported.
+ *
+ * @param <T> the type of entry in the list.
+ */
+final class SortedListView<T> extends AbstractSet<T> implements SortedSet<T> {
+  private final List<T> entries;
+
+  /**
+   * Construct a new view of the given list.
+   *
+   * @param entries the entries, distinct and in their natural order.
+   */
+  SortedListView(List<T> entries) {
+    this.entries = entries;
+  }
+
+  @Override
+  public Iterator<T> iterator() {
+    return entries.iterator();
+  }
+
+  @Override
+  public int size() {
+    return entries.size();
+  }
+
+  @Override
+  public Comparator<? super T> comparator() {
+    // the natural order, the same as a TreeSet made without a comparator
+    return null;
+  }
+
+  @Override
+  public T first() {
+    return entries.get(0);
+  }
+
+  @Override
+  public T last() {
+    return entries.get(entries.size() - 1);
+  }
+
+  @Override
+  public SortedSet<T> subSet(T fromElement, T toElement) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public SortedSet<T> headSet(T toElement) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public SortedSet<T> tailSet(T fromElement) {
+    throw new UnsupportedOperationException();
+  }
+}
@@ -0,0 +1,69 @@
+package model.calendar;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A table of interned strings, so that strings repeated across many events are
+ * stored once and referred to by a small integer id instead.
+ */
+final class StringTable {
+  private final Map<String, Integer> ids;
+  private final List<String> strings;
+
+  /**
+   * Construct a new, empty table of strings.
+   */
+  StringTable() {
+    ids = new HashMap<>();
+    strings = new ArrayList<>();
+  }
+
+  /**
+   * Retrieve the id of a string, adding it to this table if it isn't in it.
+   *
+   * @param string the string in question.
+   * @return the id of the string.
+   */
+  int intern(String string) {
+    Integer id = ids.get(string);
+    if (id == null) {
+      id = strings.size();
+      ids.put(string, id);
+      strings.add(string);
+    }
+    return id;
+  }
+
+  /**
+   * Retrieve the id of a string without adding it to this table.
+   *
+   * @param string the string in question.
+   * @return the id of the string, or -1 if it isn't in this table.
+   */
+  int find(String string) {
+    return ids.getOrDefault(string, -1);
+  }
+
+  /**
+   * Retrieve the number of strings in this table, which is one more than the
+   * id of the last string added.
+   *
+   * @return the number of strings in this table.
+   */
+  int size() {
+    return strings.size();
+  }
+
+  /**
+   * Retrieve the string with the given id.
+   *
+   * @param id the id of the string.
+   * @return the string with the given id.
+   */
+  String get(int id) {
+    return strings.get(id);
+  }
+}
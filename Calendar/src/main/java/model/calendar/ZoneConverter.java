@@ -0,0 +1,173 @@
+package model.calendar;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.UnaryOperator;
+
+import model.events.QueriableCalEvent;
+
+/**
+ * A conversion of local dates and times from one time zone to another, for
+ * moving events between calendars in different zones. Between the transitions
+ * of either zone, converting is adding a fixed number of seconds, so every
+ * such range is looked up in the zone rules once and then cached; converting
+ * a date and time that falls in a cached range doesn't touch the rules at all.
+ * Converters are shared per pair of zones and can be used from any thread.
+ */
+final class ZoneConverter {
+  private static final Map<Pair, ZoneConverter> CONVERTERS = new ConcurrentHashMap<>();
+
+  private final ZoneId from;
+  private final ZoneId to;
+  // cached ranges of local seconds in the source zone, by the first second of each
+  private final ConcurrentNavigableMap<Long, Range> ranges;
+  private volatile Range lastRange;
+
+  private ZoneConverter(ZoneId from, ZoneId to) {
+    this.from = from;
+    this.to = to;
+    this.ranges = new ConcurrentSkipListMap<>();
+    this.lastRange = new Range(0, 0, 0);
+  }
+
+  /**
+   * Retrieve the converter from one time zone to another. A missing zone is
+   * taken to be the same as the other one, so nothing gets converted.
+   *
+   * @param from the zone dates and times are converted from, if any.
+   * @param to   the zone dates and times are converted to, if any.
+   * @return the converter between the two zones.
+   */
+  static ZoneConverter of(ZoneId from, ZoneId to) {
+    if (from == null || to == null) {
+      return of(ZoneOffset.UTC, ZoneOffset.UTC);
+    }
+    return CONVERTERS.computeIfAbsent(new Pair(from, to), (it) -> new ZoneConverter(from, to));
+  }
+
+  /**
+   * Find out whether this converter leaves every date and time as it is.
+   *
+   * @return whether both zones are the same.
+   */
+  boolean isIdentity() {
+    return from.equals(to);
+  }
+
+  /**
+   * Convert a local date and time in the source zone to the local date and time
+   * of the same instant in the target zone. Dates and times skipped by a gap in
+   * the source zone are moved forward by the length of the gap, and those that
+   * occur twice in an overlap are taken at the earlier offset, as with
+   * {@link LocalDateTime#atZone(ZoneId)}.
+   *
+   * @param dateTime the local date and time in the source zone.
+   * @return the local date and time of the same instant in the target zone.
+   */
+  LocalDateTime convert(LocalDateTime dateTime) {
+    if (isIdentity()) {
+      return dateTime;
+    }
+    long local = dateTime.toEpochSecond(ZoneOffset.UTC);
+    // events usually come in order, so the range of the one before mostly fits
+    Range range = lastRange;
+    if (!range.contains(local)) {
+      Map.Entry<Long, Range> floor = ranges.floorEntry(local);
+      range = (floor != null && floor.getValue().contains(local)) ? floor.getValue() : null;
+    }
+    if (range == null) {
+      range = rangeAround(dateTime);
+      if (range == null) {
+        // right at a transition of the source zone, which is never cached
+        return dateTime.atZone(from).withZoneSameInstant(to).toLocalDateTime();
+      }
+      ranges.put(range.start(), range);
+    }
+    lastRange = range;
+    return dateTime.plusSeconds(range.shift());
+  }
+
+  /**
+   * Retrieve where to move the start and end of a copy of the given event to.
+   * Events at a time of day are converted and then shifted, while all-day
+   * events happen on a date rather than at an instant, so they are only shifted.
+   *
+   * @param event the event being copied.
+   * @param shift how far to move the copy after converting it.
+   * @return where to move each of the start and end of the event to.
+   */
+  UnaryOperator<LocalDateTime> moveOf(QueriableCalEvent event, Duration shift) {
+    if (event.isAllDay() || isIdentity()) {
+      return (it) -> it.plus(shift);
+    }
+    return (it) -> convert(it).plus(shift);
+  }
+
+  private Range rangeAround(LocalDateTime dateTime) {
+    Instant instant = dateTime.atZone(from).toInstant();
+    ZoneRules fromRules = from.getRules();
+    ZoneRules toRules = to.getRules();
+    long fromOffset = fromRules.getOffset(instant).getTotalSeconds();
+    long shift = toRules.getOffset(instant).getTotalSeconds() - fromOffset;
+    // transitions of the source zone also leave local dates and times skipped or doubled
+    Instant after = Instant.ofEpochSecond(instant.getEpochSecond() + 1);
+    ZoneOffsetTransition fromBefore = fromRules.previousTransition(after);
+    ZoneOffsetTransition fromNext = fromRules.nextTransition(instant);
+    ZoneOffsetTransition toBefore = toRules.previousTransition(after);
+    ZoneOffsetTransition toNext = toRules.nextTransition(instant);
+    long start = Long.MIN_VALUE;
+    if (fromBefore != null) {
+      start = fromBefore.getInstant().getEpochSecond() + Math.max(
+              fromBefore.getOffsetBefore().getTotalSeconds(),
+              fromBefore.getOffsetAfter().getTotalSeconds()
+      );
+    }
+    if (toBefore != null) {
+      start = Math.max(start, toBefore.getInstant().getEpochSecond() + fromOffset);
+    }
+    long end = Long.MAX_VALUE;
+    if (fromNext != null) {
+      end = fromNext.getInstant().getEpochSecond() + Math.min(
+              fromNext.getOffsetBefore().getTotalSeconds(),
+              fromNext.getOffsetAfter().getTotalSeconds()
+      );
+    }
+    if (toNext != null) {
+      end = Math.min(end, toNext.getInstant().getEpochSecond() + fromOffset);
+    }
+    long local = dateTime.toEpochSecond(ZoneOffset.UTC);
+    return (start <= local && local < end) ? new Range(start, end, shift) : null;
+  }
+
+  /**
+   * A range of local seconds in the source zone that all convert by adding the
+   * same number of seconds.
+   *
+   * @param start the first local second of the range.
+   * @param end   the local second right after the range.
+   * @param shift the seconds to add to convert a local second in the range.
+   */
+  private record Range(long start, long end, long shift) {
+    private boolean contains(long local) {
+      return start <= local && local < end;
+    }
+  }
+
+  /**
+   * The zones a converter converts between.
+   *
+   * @param from the zone converted from.
+   * @param to   the zone converted to.
+   */
+  private record Pair(ZoneId from, ZoneId to) {
+  }
+}
@@ -1,29 +1,161 @@
 package model.calendars;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.ZoneId;
 import java.time.temporal.ChronoUnit;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
 
 import model.calendar.CalendarImpl;
+import model.calendar.CalendarSnapshot;
 import model.calendar.RobustCalendar;
+import model.calendar.SegmentStore;
+import model.calendar.SnapshotFile;
 import model.events.RobustCalEvent;
 
 public class CalendarsImpl implements RobustCalendars {
-  private final Set<RobustCalendar> calendars;
-  private RobustCalendar activeCal;
+  // keyed by name, so names stay unique and lookups don't scan every calendar
+  private final ConcurrentMap<String, RobustCalendar> calendars;
+  private volatile RobustCalendar activeCal;
 
   public CalendarsImpl() {
-    this.calendars = new HashSet<>();
+    this.calendars = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Load a collection of calendars saved with {@link #save(Path)}.
+   *
+   * @param file the snapshot file to load.
+   * @return the calendars in the file, using the calendar that was in use.
+   * @throws IOException if the file can't be read, or isn't a whole, undamaged
+   *                     snapshot file.
+   */
+  public static CalendarsImpl load(Path file) throws IOException {
+    return of(SnapshotFile.read(file));
+  }
+
+  /**
+   * Load a collection of calendars saved with {@link #save(SegmentStore)}.
+   * Saving them back to the same store only writes what changed after loading.
+   *
+   * @param store the store to load from.
+   * @return the calendars in the store, using the calendar that was in use.
+   * @throws IOException if the store can't be read, or is damaged.
+   */
+  public static CalendarsImpl load(SegmentStore store) throws IOException {
+    return of(store.load());
+  }
+
+  private static CalendarsImpl of(SnapshotFile.Contents contents) {
+    CalendarsImpl calendarsImpl = new CalendarsImpl();
+    for (CalendarImpl calendar : contents.calendars()) {
+      calendarsImpl.calendars.put(calendar.getName(), calendar);
+    }
+    if (contents.activeName() != null) {
+      calendarsImpl.useCalendar(contents.activeName());
+    }
+    return calendarsImpl;
+  }
+
+  /**
+   * Save every calendar in this collection to a snapshot file, which
+   * {@link #load(Path)} loads back far faster than the commands that built the
+   * calendars can be run again. Each calendar is saved as it was at the end of
+   * the last change to it.
+   *
+   * @param file the snapshot file to write, which is replaced once the new one
+   *             is complete.
+   * @return the number of bytes written.
+   * @throws IOException if the file can't be written.
+   */
+  public long save(Path file) throws IOException {
+    return pointInTime().save(file);
+  }
+
+  /**
+   * Save every calendar in this collection to a store split into one bucket
+   * per calendar and month, writing only the months changed since the last
+   * save of each calendar to the same store, so saving often stays cheap
+   * however large the calendars grow.
+   *
+   * <p>What changed is read from the calendars themselves, so no change may
+   * be made to them during the save. To save while changes go on, checkpoint
+   * a {@link JournaledCalendars} instead, which captures what changed while it
+   * holds changes back and saves it after they go on.
+   *
+   * @param store the store to save to.
+   * @return the number of bytes written.
+   * @throws IOException if the store can't be written.
+   */
+  public long save(SegmentStore store) throws IOException {
+    return store.save(capture(store, store.checkpoint()));
+  }
+
+  /**
+   * Capture what changed in every calendar in this collection since the given
+   * store last saved or loaded it, which costs next to nothing per calendar, so
+   * it can be taken while changes are held back and saved after they go on.
+   *
+   * @param store      the store to save to.
+   * @param checkpoint the number of the checkpoint the save is for.
+   * @return the calendars as they are now, ready to save to the store.
+   */
+  SegmentStore.Capture capture(SegmentStore store, long checkpoint) {
+    Map<String, CalendarImpl> calendarImpls = new LinkedHashMap<>();
+    calendars.forEach((name, calendar) -> calendarImpls.put(name, (CalendarImpl) calendar));
+    RobustCalendar active = activeCal;
+    return store.capture(calendarImpls, (active != null) ? active.getName() : null, checkpoint);
+  }
+
+  /**
+   * Take a snapshot of every calendar in this collection, which stays as it is
+   * however the calendars change afterwards. Taking one costs next to nothing
+   * per calendar, so it can be taken while changes are held back and saved
+   * after they go on.
+   *
+   * @return the calendars as they are now.
+   */
+  PointInTime pointInTime() {
+    Map<String, CalendarSnapshot> snapshots = new LinkedHashMap<>();
+    calendars.forEach((name, calendar) ->
+            snapshots.put(name, ((CalendarImpl) calendar).getSnapshot()));
+    RobustCalendar active = activeCal;
+    return new PointInTime(snapshots, (active != null) ? active.getName() : null);
+  }
+
+  /**
+   * Every calendar in a collection at one point in time.
+   *
+   * @param calendars  the snapshot of each calendar by name.
+   * @param activeName the name of the calendar in use, or null if none was.
+   */
+  record PointInTime(Map<String, CalendarSnapshot> calendars, String activeName) {
+    /**
+     * Save the calendars to a snapshot file, as {@link #save(Path)} does.
+     *
+     * @param file the snapshot file to write.
+     * @return the number of bytes written.
+     * @throws IOException if the file can't be written.
+     */
+    long save(Path file) throws IOException {
+      return SnapshotFile.write(file, calendars, activeName);
+    }
   }
 
   @Override
   public Set<RobustCalendar> getAllCalendars() {
-    return calendars;
+    return Set.copyOf(calendars.values());
   }
 
   @Override
@@ -37,7 +169,10 @@ public class CalendarsImpl implements RobustCalendars {
 
   @Override
   public void createCalendar(String name, String timeZone) {
-    calendars.add(new CalendarImpl(name, timeZone));
+    // only one of several sessions creating the same name at once gets to
+    if (calendars.putIfAbsent(name, new CalendarImpl(name, timeZone)) != null) {
+      throw new IllegalArgumentException("A calendar with that name already exists!");
+    }
   }
 
   @Override
@@ -47,10 +182,7 @@ public class CalendarsImpl implements RobustCalendars {
       throw new NoSuchElementException("No calendars to choose from!");
     }
     // find the calendar with name, if any
-    RobustCalendar activeCalMaybe = calendars.stream()
-            .filter((it) -> it.getName().equals(name))
-            .findFirst()
-            .orElse(null);
+    RobustCalendar activeCalMaybe = calendars.get(name);
     if (activeCalMaybe != null) {
       activeCal = activeCalMaybe;
     } else {
@@ -67,67 +199,57 @@ public class CalendarsImpl implements RobustCalendars {
       throw new NoSuchElementException("No calendars to choose from!");
     }
     // find target calendar with name, if any
-    RobustCalendar targetCal = calendars.stream()
-            .filter((it) -> it.getName().equals(name))
-            .findFirst()
-            .orElse(null);
+    RobustCalendar targetCal = calendars.get(name);
     // ensure it's not null
     if (targetCal == null) {
       throw new NoSuchElementException("No calendar with the given name!");
     }
     // carry out action based on property name
     switch (property) {
-      case "name" -> targetCal.setName(newPropertyVal);
+      case "name" -> rename(targetCal, name, newPropertyVal);
       case "timezone" -> targetCal.setZone(newPropertyVal);
       default -> throw new IllegalArgumentException("No property with that name!");
     }
   }
 
+  private void rename(RobustCalendar targetCal, String name, String newName) {
+    // renames of the same calendar go one at a time, so it ends up under one name only
+    synchronized (targetCal) {
+      if (calendars.get(name) != targetCal) {
+        throw new NoSuchElementException("No calendar with the given name!");
+      }
+      if (name.equals(newName)) {
+        return;
+      }
+      // claim the new name first, so the calendar is never missing from the registry
+      if (calendars.putIfAbsent(newName, targetCal) != null) {
+        throw new IllegalArgumentException("A calendar with that name already exists!");
+      }
+      targetCal.setName(newName);
+      calendars.remove(name, targetCal);
+    }
+  }
+
   @Override
   public void copySingleEvent(
           String name,
-          String fromDateStringTtimeString,
+          LocalDateTime startDateTime,
           String calName,
-          String newFromDateStringTtimeString
+          LocalDateTime newStartDateTime
   ) throws NoSuchElementException {
     // find the source event, if any
-    RobustCalEvent targetEventMaybe = getActiveCal().getEvents().stream()
-            .filter(
-                    (it) ->
-                            it.getSubject().equals(name)
-                                    && it.getStartDateTime().equals(
-                                    LocalDateTime.parse(fromDateStringTtimeString)
-                            )
-            )
-            .findFirst()
-            .orElse(null);
+    RobustCalEvent targetEventMaybe = getActiveCal().getEvent(name, startDateTime.toString());
     // find the target calendar, if any
-    RobustCalendar targetCalMaybe = calendars.stream()
-            .filter((it) -> it.getName().equals(calName))
-            .findFirst()
-            .orElse(null);
+    RobustCalendar targetCalMaybe = calendars.get(calName);
     // cast-convert the arguments with "maybe" not in name anymore
     if (targetEventMaybe instanceof RobustCalEvent targetEvent
             && targetCalMaybe instanceof RobustCalendar targetCal) {
-      LocalDateTime startNew = LocalDateTime.parse(newFromDateStringTtimeString);
-      LocalDateTime endNew = startNew.plusMinutes(
-              ChronoUnit.MINUTES.between(
-                      targetEvent.getStartDateTime(),
-                      targetEvent.getEndDateTime()
-              )
+      // the new start is already in the time of the target calendar
+      targetCal.createCopiesOfEvents(
+              List.of(targetEvent),
+              null,
+              Duration.between(targetEvent.getStartDateTime(), newStartDateTime)
       );
-      if (!targetEvent.isAllDay()) {
-        targetCal.createSingleNormalEvent(
-                name,
-                startNew.toString(),
-                endNew.toString()
-        );
-      } else {
-        targetCal.createSingleAllDayEvent(
-                name,
-                startNew.toLocalDate().toString()
-        );
-      }
       // throw relevant exceptions
     } else if (targetEventMaybe == null && targetCalMaybe == null) {
       throw new NoSuchElementException("No event found nor an active calendar!");
@@ -140,85 +262,61 @@ public class CalendarsImpl implements RobustCalendars {
 
   @Override
   public void copyAllEventsOnDay(
-          String onDateString,
+          LocalDate onDate,
           String calName,
-          String toDateString
+          LocalDate toDate
   ) throws NoSuchElementException {
-    // retrieve the events
-    List<RobustCalEvent> events = getActiveCal().printAllEventsOnDate(onDateString);
+    RobustCalendar sourceCal = getActiveCal();
     // find the target calendar with that name, if any
-    RobustCalendar targetCalMaybe = calendars.stream()
-            .filter((it) -> it.getName().equals(calName))
-            .findFirst()
-            .orElse(null);
-    // copy over the events
-    if (targetCalMaybe != null) {
-      // find the time difference in between the chosen day and new dates
-      long timeDiff = ChronoUnit.DAYS.between(
-              LocalDate.parse(onDateString),
-              LocalDate.parse(toDateString)
-      );
-      events.forEach(
-              (it) -> {
-                if (!it.isAllDay()) {
-                  targetCalMaybe.createSingleNormalEvent(
-                          it.getSubject(),
-                          it.getStartDateTime().plusDays(timeDiff).toString(),
-                          it.getEndDateTime().plusDays(timeDiff).toString()
-                  );
-                } else {
-                  targetCalMaybe.createSingleAllDayEvent(
-                          it.getSubject(),
-                          it.getStartDateTime().toLocalDate()
-                                  .plusDays(timeDiff).toString()
-                  );
-                }
-              }
-      );
-    } else {
+    RobustCalendar targetCalMaybe = calendars.get(calName);
+    if (targetCalMaybe == null) {
       throw new NoSuchElementException("No such calendar with that name!");
     }
+    // stream the events into the copy in one pass, shifted by the days in between the dates
+    Stream<RobustCalEvent> events = sourceCal.streamEventsOnDate(onDate.toString());
+    targetCalMaybe.createCopiesOfEvents(
+            collectIfSame(sourceCal, targetCalMaybe, events),
+            zoneOf(sourceCal),
+            Duration.ofDays(ChronoUnit.DAYS.between(onDate, toDate))
+    );
   }
 
   @Override
   public void copyAllEventsInBetweenDates(
-          String fromDateString,
-          String toDateString,
+          LocalDate fromDate,
+          LocalDate toDate,
           String calName,
-          String newDateString
+          LocalDate newDate
   ) throws NoSuchElementException {
-    // retrieve the events
-    List<RobustCalEvent> events = getActiveCal().printAllEventsBetweenDates(
-            LocalDateTime.of(LocalDate.parse(fromDateString), LocalTime.parse("00:00"))
-                    .toString(),
-            LocalDateTime.of(LocalDate.parse(toDateString), LocalTime.parse("23:59"))
-                    .toString()
-    );
+    RobustCalendar sourceCal = getActiveCal();
     // find the target calendar with that name, if any
-    RobustCalendar targetCalMaybe = calendars.stream()
-            .filter((it) -> it.getName().equals(calName))
-            .findFirst()
-            .orElse(null);
-    // copy over the events
-    if (targetCalMaybe != null) {
-      events.forEach(
-              (it) -> {
-                if (!it.isAllDay()) {
-                  targetCalMaybe.createSingleNormalEvent(
-                          it.getSubject(),
-                          it.getStartDateTime().toString(),
-                          it.getEndDateTime().toString()
-                  );
-                } else {
-                  targetCalMaybe.createSingleAllDayEvent(
-                          it.getSubject(),
-                          it.getStartDateTime().toLocalDate().toString()
-                  );
-                }
-              }
-      );
-    } else {
+    RobustCalendar targetCalMaybe = calendars.get(calName);
+    if (targetCalMaybe == null) {
       throw new NoSuchElementException("No such calendar with that name!");
     }
+    // stream the events into the copy in one pass, rather than collecting them all first
+    Stream<RobustCalEvent> events = sourceCal.streamEventsBetweenDates(
+            LocalDateTime.of(fromDate, LocalTime.of(0, 0)).toString(),
+            LocalDateTime.of(toDate, LocalTime.of(23, 59)).toString()
+    );
+    targetCalMaybe.createCopiesOfEvents(
+            collectIfSame(sourceCal, targetCalMaybe, events),
+            zoneOf(sourceCal),
+            Duration.ZERO
+    );
+  }
+
+  private static Iterable<RobustCalEvent> collectIfSame(
+          RobustCalendar sourceCal,
+          RobustCalendar targetCal,
+          Stream<RobustCalEvent> events
+  ) {
+    // a calendar can't be changed while a stream of its events is in use
+    return (sourceCal == targetCal) ? events.toList() : events::iterator;
+  }
+
+  private static ZoneId zoneOf(RobustCalendar calendar) {
+    String zone = calendar.getZone();
+    return (zone != null) ? ZoneId.of(zone) : null;
   }
 }
@@ -0,0 +1,50 @@
+package model.calendars;
+
+/**
+ * How checkpoints of a journaled collection of calendars have gone so far.
+ *
+ * @param checkpoints        the number of checkpoints taken.
+ * @param failures           the number of checkpoints that failed.
+ * @param lastDurationNanos  how long the last checkpoint took, in nanoseconds.
+ * @param totalDurationNanos how long every checkpoint took together, in nanoseconds.
+ * @param lastPauseNanos     how long changes were held back for the last
+ *                           checkpoint, in nanoseconds.
+ * @param lastBytesWritten   the number of bytes the last checkpoint wrote to the
+ *                           store.
+ * @param totalBytesWritten  the number of bytes every checkpoint wrote together.
+ */
+public record CheckpointStats(
+        long checkpoints,
+        long failures,
+        long lastDurationNanos,
+        long totalDurationNanos,
+        long lastPauseNanos,
+        long lastBytesWritten,
+        long totalBytesWritten
+) {
+  static final CheckpointStats NONE = new CheckpointStats(0, 0, 0, 0, 0, 0, 0);
+
+  CheckpointStats plus(long durationNanos, long pauseNanos, long bytesWritten) {
+    return new CheckpointStats(
+            checkpoints + 1,
+            failures,
+            durationNanos,
+            totalDurationNanos + durationNanos,
+            pauseNanos,
+            bytesWritten,
+            totalBytesWritten + bytesWritten
+    );
+  }
+
+  CheckpointStats plusFailure() {
+    return new CheckpointStats(
+            checkpoints,
+            failures + 1,
+            lastDurationNanos,
+            totalDurationNanos,
+            lastPauseNanos,
+            lastBytesWritten,
+            totalBytesWritten
+    );
+  }
+}
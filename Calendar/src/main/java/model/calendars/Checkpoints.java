@@ -0,0 +1,193 @@
+package model.calendars;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import model.calendar.SegmentStore;
+
+/**
+ * The files a journaled collection of calendars keeps in its directory: a
+ * {@link SegmentStore} of the calendars and numbered journal segments, where
+ * journal {@code n} holds the changes made after checkpoint {@code n} was
+ * saved to the store. A checkpoint starts journal {@code n + 1}, saves what
+ * changed since the last checkpoint to the store as checkpoint {@code n + 1}
+ * and then deletes every journal before it, so the journal only ever holds
+ * the changes since the last checkpoint, and each checkpoint only writes the
+ * months that changed since the one before.
+ */
+final class Checkpoints {
+  private static final Pattern JOURNAL_NAME = Pattern.compile("journal-(\\d+)");
+  private static final String STORE = "store";
+
+  private final Path directory;
+  private final SegmentStore store;
+  private final List<Long> journals;
+  private long nextSequence;
+  private volatile CheckpointStats stats;
+
+  private Checkpoints(
+          Path directory,
+          SegmentStore store,
+          List<Long> journals,
+          long nextSequence
+  ) {
+    this.directory = directory;
+    this.store = store;
+    this.journals = journals;
+    this.nextSequence = nextSequence;
+    this.stats = CheckpointStats.NONE;
+  }
+
+  /**
+   * Find the files in the given directory, creating the directory if needed.
+   *
+   * @param directory the directory of the files.
+   * @return the files in the directory.
+   * @throws IOException if the directory can't be read or created, or the
+   *                     manifest of the store is damaged.
+   */
+  static Checkpoints in(Path directory) throws IOException {
+    Files.createDirectories(directory);
+    SegmentStore store = SegmentStore.open(directory.resolve(STORE));
+    TreeSet<Long> journals = new TreeSet<>();
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+      for (Path file : files) {
+        Matcher name = JOURNAL_NAME.matcher(file.getFileName().toString());
+        if (name.matches()) {
+          journals.add(Long.parseLong(name.group(1)));
+        }
+      }
+    }
+    long covered = Math.max(store.checkpoint(), 0);
+    List<Long> replayed = new ArrayList<>(journals.tailSet(covered));
+    if (replayed.isEmpty()) {
+      replayed.add(covered);
+    }
+    long last = Math.max(replayed.get(replayed.size() - 1), store.checkpoint());
+    return new Checkpoints(directory, store, replayed, last + 1);
+  }
+
+  /**
+   * Load the calendars from the store as of the newest checkpoint.
+   *
+   * @return the calendars, or an empty collection if there was no checkpoint.
+   * @throws IOException if the store can't be read, or is damaged.
+   */
+  CalendarsImpl load() throws IOException {
+    return (store.checkpoint() >= 0) ? CalendarsImpl.load(store) : new CalendarsImpl();
+  }
+
+  /**
+   * Get the journals found that hold the changes since the newest checkpoint,
+   * oldest first. The last one is the one to go on journaling in.
+   *
+   * @return the files of the journals, of which there is at least one.
+   */
+  List<Path> journals() {
+    return journals.stream().map(this::journalFile).toList();
+  }
+
+  /**
+   * Delete the files left behind by a checkpoint that was cut short, which the
+   * newest checkpoint already covers.
+   *
+   * @throws IOException if the files can't be deleted.
+   */
+  void deleteCovered() throws IOException {
+    if (store.checkpoint() >= 0) {
+      deleteBefore(store.checkpoint());
+    }
+  }
+
+  /**
+   * Get how checkpoints have gone so far.
+   *
+   * @return the stats of the checkpoints.
+   */
+  CheckpointStats stats() {
+    return stats;
+  }
+
+  /**
+   * Take a checkpoint, one at a time. The given capture is handed a new,
+   * empty journal, along with the store and the number of the checkpoint; it
+   * must hold back changes while it rolls the log over to the journal and
+   * captures what changed in the calendars for the store, so the capture
+   * covers exactly the changes before the new journal. The capture is saved to
+   * the store after changes go on.
+   *
+   * @param capture what rolls the log over and captures the calendars.
+   * @return the stats of the checkpoints, including this one.
+   * @throws IOException if the files can't be written or deleted.
+   */
+  synchronized CheckpointStats take(Capture capture) throws IOException {
+    long start = System.nanoTime();
+    long sequence = nextSequence++;
+    try {
+      Path journal = journalFile(sequence);
+      FileChannel next = CommandLog.create(journal);
+      long pauseStart = System.nanoTime();
+      SegmentStore.Capture captured;
+      try {
+        captured = capture.apply(next, store, sequence);
+      } catch (RuntimeException e) {
+        next.close();
+        Files.deleteIfExists(journal);
+        throw e;
+      }
+      long pause = System.nanoTime() - pauseStart;
+      // the store is on disk before the journals it covers are gone
+      long bytes = store.save(captured);
+      deleteBefore(sequence);
+      stats = stats.plus(System.nanoTime() - start, pause, bytes);
+      return stats;
+    } catch (IOException | RuntimeException e) {
+      stats = stats.plusFailure();
+      throw e;
+    }
+  }
+
+  /**
+   * What rolls the log over to a new journal and captures the calendars for
+   * the store while changes are held back.
+   */
+  @FunctionalInterface
+  interface Capture {
+    /**
+     * Roll the log over and capture the calendars.
+     *
+     * @param journal    the new, empty journal.
+     * @param store      the store the capture is saved to.
+     * @param checkpoint the number of the checkpoint.
+     * @return the captured calendars.
+     */
+    SegmentStore.Capture apply(FileChannel journal, SegmentStore store, long checkpoint);
+  }
+
+  private Path journalFile(long sequence) {
+    return directory.resolve("journal-" + sequence);
+  }
+
+  private void deleteBefore(long sequence) throws IOException {
+    List<Path> covered = new ArrayList<>();
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+      for (Path file : files) {
+        Matcher name = JOURNAL_NAME.matcher(file.getFileName().toString());
+        if (name.matches() && Long.parseLong(name.group(1)) < sequence) {
+          covered.add(file);
+        }
+      }
+    }
+    for (Path file : covered) {
+      Files.deleteIfExists(file);
+    }
+  }
+}
@@ -0,0 +1,406 @@
+package model.calendars;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only, binary log of the changes made to calendars, written ahead of
+ * each change so that the calendars can be rebuilt by replaying it. Appending
+ * only copies a record into a buffer in memory; a background thread writes out
+ * and forces to disk everything appended since its last round in one go (group
+ * commit), so the records of many changes share a single {@code fsync}. Every
+ * record carries its length and a checksum, so one cut short or damaged by a
+ * crash is found on replay and dropped, along with anything after it. The log
+ * can be rolled over to a new file, so the files before it can be deleted once
+ * a snapshot covers them.
+ */
+final class CommandLog implements Closeable {
+  private static final int MAGIC = 0x43414C4A;
+  private static final int VERSION = 1;
+  private static final int FILE_HEADER_BYTES = 8;
+  private static final int RECORD_HEADER_BYTES = 8;
+  // past this many bytes waiting to be written, appending waits for the writer
+  private static final int MAX_PENDING_BYTES = 8 << 20;
+
+  private final Thread writer;
+  private FileChannel channel;
+  // the file to roll over to, and how much of the pending records go before it
+  private FileChannel nextChannel;
+  private int rollAt;
+  private Buffer pending;
+  private Buffer writing;
+  private long appended;
+  private long durable;
+  private boolean isClosed;
+  private boolean isWriterIdle;
+  private IOException failure;
+
+  private CommandLog(FileChannel channel) {
+    this.channel = channel;
+    this.pending = new Buffer();
+    this.writing = new Buffer();
+    this.writer = new Thread(this::writeRecords, "command-log-writer");
+    writer.setDaemon(true);
+    writer.start();
+  }
+
+  /**
+   * Open the log in the given file, creating the file if needed, after handing
+   * every complete record already in it to the given action, oldest first.
+   * Anything after the last complete record is cut off, so new records follow it.
+   *
+   * @param file   the file of the log.
+   * @param replay what to do with the contents of each record.
+   * @return the log, ready to append to.
+   * @throws IOException if the file can't be read or written, or isn't a log.
+   */
+  static CommandLog open(Path file, Consumer<DataInput> replay) throws IOException {
+    FileChannel channel = FileChannel.open(
+            file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE
+    );
+    try {
+      long end = replay(channel, replay);
+      channel.truncate(end);
+      channel.position(end);
+      if (end == 0) {
+        writeHeader(channel);
+      }
+      return new CommandLog(channel);
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Hand every complete record in the log in the given file to the given
+   * action, oldest first, without changing the file.
+   *
+   * @param file   the file of the log.
+   * @param replay what to do with the contents of each record.
+   * @throws IOException if the file can't be read, or isn't a log.
+   */
+  static void replay(Path file, Consumer<DataInput> replay) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      replay(channel, replay);
+    }
+  }
+
+  /**
+   * Create a new, empty log in the given file, replacing any file there, ready
+   * to be rolled over to.
+   *
+   * @param file the file of the new log.
+   * @return the file, open for appending records.
+   * @throws IOException if the file can't be written.
+   */
+  static FileChannel create(Path file) throws IOException {
+    FileChannel channel = FileChannel.open(
+            file,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE
+    );
+    try {
+      writeHeader(channel);
+      return channel;
+    } catch (IOException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  private static void writeHeader(FileChannel channel) throws IOException {
+    ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES).putInt(MAGIC).putInt(VERSION);
+    channel.write(header.flip());
+    channel.force(false);
+  }
+
+  private static long replay(FileChannel channel, Consumer<DataInput> replay)
+          throws IOException {
+    // a file without a whole header was cut short as it was being created
+    if (channel.size() < FILE_HEADER_BYTES) {
+      return 0;
+    }
+    DataInputStream in = new DataInputStream(
+            new BufferedInputStream(Channels.newInputStream(channel.position(0)), 1 << 16)
+    );
+    if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+      throw new IOException("Not a calendar command log!");
+    }
+    long end = FILE_HEADER_BYTES;
+    byte[] payload = new byte[256];
+    CRC32 checksum = new CRC32();
+    while (true) {
+      int length;
+      int expectedChecksum;
+      try {
+        length = in.readInt();
+        expectedChecksum = in.readInt();
+        if (length < 0 || length > channel.size() - end - RECORD_HEADER_BYTES) {
+          return end;
+        }
+        if (length > payload.length) {
+          payload = new byte[Math.max(length, 2 * payload.length)];
+        }
+        in.readFully(payload, 0, length);
+      } catch (EOFException e) {
+        return end;
+      }
+      checksum.reset();
+      checksum.update(payload, 0, length);
+      if ((int) checksum.getValue() != expectedChecksum) {
+        return end;
+      }
+      replay.accept(new DataInputStream(new ByteArrayInputStream(payload, 0, length)));
+      end += RECORD_HEADER_BYTES + length;
+    }
+  }
+
+  /**
+   * Append a record to this log. It is written out and forced to disk shortly
+   * after, along with the records appended around it; {@link #sync()} waits
+   * for that to happen.
+   *
+   * @param record how to write the contents of the record.
+   * @throws UncheckedIOException if writing out earlier records failed.
+   */
+  synchronized void append(Record record) {
+    while (pending.size() > MAX_PENDING_BYTES && failure == null && !isClosed) {
+      awaitWriter();
+    }
+    if (failure != null) {
+      throw new UncheckedIOException(failure);
+    }
+    if (isClosed) {
+      throw new IllegalStateException("The command log is closed!");
+    }
+    int start = pending.size();
+    try {
+      pending.data.writeLong(0);
+      record.writeTo(pending.data);
+    } catch (IOException e) {
+      pending.truncate(start);
+      throw new UncheckedIOException(e);
+    }
+    pending.sealRecord(start);
+    appended += pending.size() - start;
+    // only an idle writer needs waking; a busy one picks the record up in its next round
+    if (isWriterIdle) {
+      isWriterIdle = false;
+      notifyAll();
+    }
+  }
+
+  /**
+   * Continue this log in another file: records appended from now on go to it,
+   * while those appended before still go to the current file, which is closed
+   * once they are on disk. An earlier roll the writer hasn't got to yet is
+   * waited for.
+   *
+   * @param next the file to continue in, as made by {@link #create(Path)}.
+   * @throws IllegalStateException if this log is closed.
+   * @throws UncheckedIOException  if writing out earlier records failed.
+   */
+  synchronized void roll(FileChannel next) {
+    while (nextChannel != null && failure == null && !isClosed) {
+      awaitWriter();
+    }
+    if (failure != null) {
+      throw new UncheckedIOException(failure);
+    }
+    if (isClosed) {
+      throw new IllegalStateException("The command log is closed!");
+    }
+    nextChannel = next;
+    rollAt = pending.size();
+    isWriterIdle = false;
+    notifyAll();
+  }
+
+  /**
+   * Wait until every record appended so far is on disk.
+   *
+   * @throws IOException if writing out the records failed.
+   */
+  synchronized void sync() throws IOException {
+    long target = appended;
+    while (durable < target && failure == null) {
+      try {
+        wait();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException(e.getMessage());
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  /**
+   * Write out every record appended so far and close the file of this log.
+   *
+   * @throws IOException if writing out the records or closing the file failed.
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      sync();
+    } finally {
+      synchronized (this) {
+        isClosed = true;
+        notifyAll();
+      }
+      try {
+        writer.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      channel.close();
+      // a roll the writer never got to, as writing out the records failed
+      if (nextChannel != null) {
+        nextChannel.close();
+      }
+    }
+  }
+
+  private static void closeQuietly(FileChannel channel) {
+    try {
+      channel.close();
+    } catch (IOException e) {
+      // the failure that led here is the one worth reporting
+    }
+  }
+
+  private void awaitWriter() {
+    try {
+      wait();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new UncheckedIOException(new InterruptedIOException(e.getMessage()));
+    }
+  }
+
+  private void writeRecords() {
+    while (true) {
+      Buffer records;
+      long upTo;
+      FileChannel next;
+      int split;
+      synchronized (this) {
+        while (pending.size() == 0 && nextChannel == null && !isClosed) {
+          isWriterIdle = true;
+          try {
+            wait();
+          } catch (InterruptedException e) {
+            return;
+          }
+        }
+        if (pending.size() == 0 && nextChannel == null) {
+          return;
+        }
+        // records appended while these are written out make up the next round
+        records = pending;
+        pending = writing;
+        writing = records;
+        upTo = appended;
+        next = nextChannel;
+        split = (next != null) ? rollAt : records.size();
+        nextChannel = null;
+      }
+      try {
+        write(records, 0, split);
+        if (next != null) {
+          channel.close();
+          channel = next;
+          write(records, split, records.size());
+        }
+      } catch (IOException e) {
+        if (next != null && next != channel) {
+          closeQuietly(next);
+        }
+        synchronized (this) {
+          failure = e;
+          notifyAll();
+        }
+        return;
+      }
+      records.reset();
+      synchronized (this) {
+        durable = upTo;
+        notifyAll();
+      }
+    }
+  }
+
+  private void write(Buffer records, int from, int to) throws IOException {
+    ByteBuffer bytes = ByteBuffer.wrap(records.array(), from, to - from);
+    while (bytes.hasRemaining()) {
+      channel.write(bytes);
+    }
+    channel.force(false);
+  }
+
+  /**
+   * The contents of a record, written when it is appended.
+   */
+  @FunctionalInterface
+  interface Record {
+    /**
+     * Write the contents of this record.
+     *
+     * @param out where to write the contents to.
+     * @throws IOException if the contents can't be written, such as a String too
+     *                     long to encode.
+     */
+    void writeTo(DataOutput out) throws IOException;
+  }
+
+  /**
+   * Records waiting to be written out, in the form they are written in.
+   */
+  private static final class Buffer extends ByteArrayOutputStream {
+    private final DataOutputStream data = new DataOutputStream(this);
+    private final CRC32 checksum = new CRC32();
+
+    private Buffer() {
+      super(1 << 16);
+    }
+
+    private byte[] array() {
+      return buf;
+    }
+
+    private void truncate(int size) {
+      count = size;
+    }
+
+    private void sealRecord(int start) {
+      // fill in the length and checksum left blank at the start of the record
+      int length = count - start - RECORD_HEADER_BYTES;
+      checksum.reset();
+      checksum.update(buf, start + RECORD_HEADER_BYTES, length);
+      ByteBuffer.wrap(buf, start, RECORD_HEADER_BYTES)
+              .putInt(length)
+              .putInt((int) checksum.getValue());
+    }
+  }
+}
@@ -0,0 +1,128 @@
+package model.calendars;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+import model.calendar.ConcurrentCalendar;
+import model.calendar.RobustCalendar;
+
+/**
+ * A collection of calendars that can be shared between threads, such as the
+ * GUI, a reporting thread, and a headless ingest thread. One
+ * {@link StampedLock} guards the collection and every calendar in it, so
+ * copies between calendars are as atomic as edits within one, and every
+ * calendar handed out is a {@link ConcurrentCalendar} sharing that lock.
+ */
+public class ConcurrentCalendars implements RobustCalendars {
+  private final RobustCalendars delegate;
+  private final StampedLock lock;
+
+  /**
+   * Construct a new thread-safe collection guarding the given collection of
+   * calendars.
+   *
+   * @param delegate the collection to guard, which must not be used directly.
+   */
+  public ConcurrentCalendars(RobustCalendars delegate) {
+    this.delegate = delegate;
+    this.lock = new StampedLock();
+  }
+
+  @Override
+  public Set<RobustCalendar> getAllCalendars() {
+    return read(() -> {
+      Set<RobustCalendar> calendars = new HashSet<>();
+      delegate.getAllCalendars().forEach((it) -> calendars.add(guarded(it)));
+      return calendars;
+    });
+  }
+
+  @Override
+  public RobustCalendar getActiveCal() throws NoSuchElementException {
+    // the active calendar is a single field, so it is safe to read optimistically
+    long stamp = lock.tryOptimisticRead();
+    try {
+      RobustCalendar activeCal = delegate.getActiveCal();
+      if (lock.validate(stamp)) {
+        return guarded(activeCal);
+      }
+    } catch (NoSuchElementException e) {
+      if (lock.validate(stamp)) {
+        throw e;
+      }
+    }
+    return read(() -> guarded(delegate.getActiveCal()));
+  }
+
+  @Override
+  public void createCalendar(String name, String timeZone) {
+    write(() -> delegate.createCalendar(name, timeZone));
+  }
+
+  @Override
+  public void useCalendar(String name) throws NoSuchElementException {
+    write(() -> delegate.useCalendar(name));
+  }
+
+  @Override
+  public void editCalendar(String name, String property, String newPropertyVal)
+          throws NoSuchElementException {
+    write(() -> delegate.editCalendar(name, property, newPropertyVal));
+  }
+
+  @Override
+  public void copySingleEvent(
+          String name,
+          LocalDateTime startDateTime,
+          String calName,
+          LocalDateTime newStartDateTime
+  ) throws NoSuchElementException {
+    write(() -> delegate.copySingleEvent(name, startDateTime, calName, newStartDateTime));
+  }
+
+  @Override
+  public void copyAllEventsOnDay(
+          LocalDate onDate,
+          String calName,
+          LocalDate toDate
+  ) throws NoSuchElementException {
+    write(() -> delegate.copyAllEventsOnDay(onDate, calName, toDate));
+  }
+
+  @Override
+  public void copyAllEventsInBetweenDates(
+          LocalDate fromDate,
+          LocalDate toDate,
+          String calName,
+          LocalDate newDate
+  ) throws NoSuchElementException {
+    write(() -> delegate.copyAllEventsInBetweenDates(fromDate, toDate, calName, newDate));
+  }
+
+  private RobustCalendar guarded(RobustCalendar calendar) {
+    return new ConcurrentCalendar(calendar, lock);
+  }
+
+  private <T> T read(Supplier<T> query) {
+    long stamp = lock.readLock();
+    try {
+      return query.get();
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  private void write(Runnable mutation) {
+    long stamp = lock.writeLock();
+    try {
+      mutation.run();
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+}
@@ -1,10 +1,15 @@
 package model.calendars;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.NoSuchElementException;
 
+import model.events.DateTimes;
+
 /**
  * An interface representing a multi-calendar object who can copy events
- * in between its member calendars.
+ * in between its member calendars. Every method taking dates as Strings
+ * parses them and hands them to its typed counterpart.
  */
 public interface CopiableCalendars {
   /**
@@ -18,11 +23,35 @@ public interface CopiableCalendars {
    *                                     target calendar's time zone.
    * @throws NoSuchElementException if no active calendar is set.
    */
-  void copySingleEvent(
+  default void copySingleEvent(
           String name,
           String fromDateStringTtimeString,
           String calName,
           String newFromDateStringTtimeString
+  ) throws NoSuchElementException {
+    copySingleEvent(
+            name,
+            DateTimes.parseDateTime(fromDateStringTtimeString),
+            calName,
+            DateTimes.parseDateTime(newFromDateStringTtimeString)
+    );
+  }
+
+  /**
+   * Copy a single event from the active calendar to another, as in
+   * {@link #copySingleEvent(String, String, String, String)}.
+   *
+   * @param name             the name of the event.
+   * @param startDateTime    when this event starts.
+   * @param calName          the name of the calendar to copy over to.
+   * @param newStartDateTime when this event should start in the new calendar.
+   * @throws NoSuchElementException if no active calendar is set.
+   */
+  void copySingleEvent(
+          String name,
+          LocalDateTime startDateTime,
+          String calName,
+          LocalDateTime newStartDateTime
   ) throws NoSuchElementException;
 
   /**
@@ -35,10 +64,31 @@ public interface CopiableCalendars {
    *                     of the target calendar.
    * @throws NoSuchElementException if no active calendar is set.
    */
-  void copyAllEventsOnDay(
+  default void copyAllEventsOnDay(
           String onDateString,
           String calName,
           String toDateString
+  ) throws NoSuchElementException {
+    copyAllEventsOnDay(
+            DateTimes.parseDate(onDateString),
+            calName,
+            DateTimes.parseDate(toDateString)
+    );
+  }
+
+  /**
+   * Copy events on a certain day to another calendar, as in
+   * {@link #copyAllEventsOnDay(String, String, String)}.
+   *
+   * @param onDate  the date on which the target events start or end.
+   * @param calName the calendar to copy these events over to.
+   * @param toDate  the date to copy these events over to.
+   * @throws NoSuchElementException if no active calendar is set.
+   */
+  void copyAllEventsOnDay(
+          LocalDate onDate,
+          String calName,
+          LocalDate toDate
   ) throws NoSuchElementException;
 
   /**
@@ -51,10 +101,34 @@ public interface CopiableCalendars {
    *                       in the time zone of the target calendar.
    * @throws NoSuchElementException if no active calendar is set.
    */
-  void copyAllEventsInBetweenDates(
+  default void copyAllEventsInBetweenDates(
           String fromDateString,
           String toDateString,
           String calName,
           String newDateString
+  ) throws NoSuchElementException {
+    copyAllEventsInBetweenDates(
+            DateTimes.parseDate(fromDateString),
+            DateTimes.parseDate(toDateString),
+            calName,
+            DateTimes.parseDate(newDateString)
+    );
+  }
+
+  /**
+   * Copy all the events in a select interval, as in
+   * {@link #copyAllEventsInBetweenDates(String, String, String, String)}.
+   *
+   * @param fromDate the beginning of the interval.
+   * @param toDate   the end of the interval.
+   * @param calName  the calendar to copy events over to.
+   * @param newDate  the new date on which these events should be scheduled.
+   * @throws NoSuchElementException if no active calendar is set.
+   */
+  void copyAllEventsInBetweenDates(
+          LocalDate fromDate,
+          LocalDate toDate,
+          String calName,
+          LocalDate newDate
   ) throws NoSuchElementException;
 }
@@ -0,0 +1,298 @@
+package model.calendars;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import model.calendar.RobustCalendar;
+import model.events.EventProperty;
+import model.events.RobustCalEvent;
+
+/**
+ * A calendar of a {@link JournaledCalendars}, journaling every change to it by
+ * the name of the calendar before making it. Queries go straight to the
+ * calendar.
+ */
+final class JournaledCalendar implements RobustCalendar {
+  private final RobustCalendar delegate;
+  private final JournaledCalendars owner;
+
+  /**
+   * Construct a new journaled calendar.
+   *
+   * @param delegate the calendar to journal the changes to.
+   * @param owner    the collection the calendar is in, which journals the changes.
+   */
+  JournaledCalendar(RobustCalendar delegate, JournaledCalendars owner) {
+    this.delegate = delegate;
+    this.owner = owner;
+  }
+
+  @Override
+  public Set<RobustCalEvent> getEvents() {
+    return delegate.getEvents();
+  }
+
+  @Override
+  public RobustCalEvent getEvent(String eventSubject, String fromDateStringTtimeString) {
+    return delegate.getEvent(eventSubject, fromDateStringTtimeString);
+  }
+
+  @Override
+  public String getName() {
+    return delegate.getName();
+  }
+
+  @Override
+  public String getZone() {
+    return delegate.getZone();
+  }
+
+  @Override
+  public void setName(String name) {
+    journal(JournaledCalendars.SET_NAME, (out) -> out.writeUTF(name), () -> delegate.setName(name));
+  }
+
+  @Override
+  public void setZone(String zone) {
+    journal(JournaledCalendars.SET_ZONE, (out) -> out.writeUTF(zone), () -> delegate.setZone(zone));
+  }
+
+  @Override
+  public void createSingleNormalEvent(
+          String eventSubject,
+          LocalDateTime startDateTime,
+          LocalDateTime endDateTime
+  ) {
+    journal(JournaledCalendars.CREATE_SINGLE_NORMAL_EVENT, (out) -> {
+      out.writeUTF(eventSubject);
+      JournaledCalendars.writeDateTime(out, startDateTime);
+      JournaledCalendars.writeDateTime(out, endDateTime);
+    }, () -> delegate.createSingleNormalEvent(eventSubject, startDateTime, endDateTime));
+  }
+
+  @Override
+  public void createRecurringNormalEventsNTimes(
+          String eventSubject,
+          LocalDateTime startDateTime,
+          LocalDateTime endDateTime,
+          Set<DayOfWeek> repeatWeekdays,
+          int N
+  ) {
+    journal(JournaledCalendars.CREATE_RECURRING_NORMAL_EVENTS_N_TIMES, (out) -> {
+      out.writeUTF(eventSubject);
+      JournaledCalendars.writeDateTime(out, startDateTime);
+      JournaledCalendars.writeDateTime(out, endDateTime);
+      JournaledCalendars.writeWeekdays(out, repeatWeekdays);
+      out.writeInt(N);
+    }, () -> delegate.createRecurringNormalEventsNTimes(
+            eventSubject, startDateTime, endDateTime, repeatWeekdays, N
+    ));
+  }
+
+  @Override
+  public void createRecurringNormalEventsUntilDate(
+          String eventSubject,
+          LocalDateTime startDateTime,
+          LocalDateTime endDateTime,
+          Set<DayOfWeek> repeatWeekdays,
+          LocalDate untilDate
+  ) {
+    journal(JournaledCalendars.CREATE_RECURRING_NORMAL_EVENTS_UNTIL_DATE, (out) -> {
+      out.writeUTF(eventSubject);
+      JournaledCalendars.writeDateTime(out, startDateTime);
+      JournaledCalendars.writeDateTime(out, endDateTime);
+      JournaledCalendars.writeWeekdays(out, repeatWeekdays);
+      JournaledCalendars.writeDate(out, untilDate);
+    }, () -> delegate.createRecurringNormalEventsUntilDate(
+            eventSubject, startDateTime, endDateTime, repeatWeekdays, untilDate
+    ));
+  }
+
+  @Override
+  public void createSingleAllDayEvent(String eventSubject, LocalDate date) {
+    journal(JournaledCalendars.CREATE_SINGLE_ALL_DAY_EVENT, (out) -> {
+      out.writeUTF(eventSubject);
+      JournaledCalendars.writeDate(out, date);
+    }, () -> delegate.createSingleAllDayEvent(eventSubject, date));
+  }
+
+  @Override
+  public void createRecurringAllDayEventsNTimes(
+          String eventSubject,
+          LocalDate date,
+          Set<DayOfWeek> repeatWeekdays,
+          int N
+  ) {
+    journal(JournaledCalendars.CREATE_RECURRING_ALL_DAY_EVENTS_N_TIMES, (out) -> {
+      out.writeUTF(eventSubject);
+      JournaledCalendars.writeDate(out, date);
+      JournaledCalendars.writeWeekdays(out, repeatWeekdays);
+      out.writeInt(N);
+    }, () -> delegate.createRecurringAllDayEventsNTimes(eventSubject, date, repeatWeekdays, N));
+  }
+
+  @Override
+  public void createRecurringAllDayEventsUntilDate(
+          String eventSubject,
+          LocalDate date,
+          Set<DayOfWeek> repeatWeekdays,
+          LocalDate untilDate
+  ) {
+    journal(JournaledCalendars.CREATE_RECURRING_ALL_DAY_EVENTS_UNTIL_DATE, (out) -> {
+      out.writeUTF(eventSubject);
+      JournaledCalendars.writeDate(out, date);
+      JournaledCalendars.writeWeekdays(out, repeatWeekdays);
+      JournaledCalendars.writeDate(out, untilDate);
+    }, () -> delegate.createRecurringAllDayEventsUntilDate(
+            eventSubject, date, repeatWeekdays, untilDate
+    ));
+  }
+
+  @Override
+  public void createCopiesOfEvents(
+          Iterable<? extends RobustCalEvent> events,
+          ZoneId sourceZone,
+          Duration shift
+  ) {
+    // the record holds every event, so they are collected before being journaled
+    List<RobustCalEvent> copied = new ArrayList<>();
+    events.forEach(copied::add);
+    journal(JournaledCalendars.CREATE_COPIES_OF_EVENTS, (out) -> {
+      JournaledCalendars.writeNullable(out, (sourceZone != null) ? sourceZone.getId() : null);
+      out.writeLong(shift.getSeconds());
+      out.writeInt(shift.getNano());
+      out.writeInt(copied.size());
+      for (RobustCalEvent event : copied) {
+        writeEvent(out, event);
+      }
+    }, () -> delegate.createCopiesOfEvents(copied, sourceZone, shift));
+  }
+
+  @Override
+  public void editSingleEvent(
+          EventProperty property,
+          String eventSubject,
+          LocalDateTime startDateTime,
+          LocalDateTime endDateTime,
+          String newPropertyVal
+  ) {
+    journal(JournaledCalendars.EDIT_SINGLE_EVENT, (out) -> {
+      out.writeByte(property.ordinal());
+      out.writeUTF(eventSubject);
+      JournaledCalendars.writeDateTime(out, startDateTime);
+      JournaledCalendars.writeDateTime(out, endDateTime);
+      out.writeUTF(newPropertyVal);
+    }, () -> delegate.editSingleEvent(
+            property, eventSubject, startDateTime, endDateTime, newPropertyVal
+    ));
+  }
+
+  @Override
+  public void editEventAndMaybeOnward(
+          EventProperty property,
+          String eventSubject,
+          LocalDateTime startDateTime,
+          String newPropertyVal
+  ) {
+    journal(JournaledCalendars.EDIT_EVENT_AND_MAYBE_ONWARD, (out) -> {
+      out.writeByte(property.ordinal());
+      out.writeUTF(eventSubject);
+      JournaledCalendars.writeDateTime(out, startDateTime);
+      out.writeUTF(newPropertyVal);
+    }, () -> delegate.editEventAndMaybeOnward(
+            property, eventSubject, startDateTime, newPropertyVal
+    ));
+  }
+
+  @Override
+  public void editEventAndMaybeAll(
+          EventProperty property,
+          String eventSubject,
+          LocalDateTime startDateTime,
+          String newPropertyVal
+  ) {
+    journal(JournaledCalendars.EDIT_EVENT_AND_MAYBE_ALL, (out) -> {
+      out.writeByte(property.ordinal());
+      out.writeUTF(eventSubject);
+      JournaledCalendars.writeDateTime(out, startDateTime);
+      out.writeUTF(newPropertyVal);
+    }, () -> delegate.editEventAndMaybeAll(property, eventSubject, startDateTime, newPropertyVal));
+  }
+
+  @Override
+  public List<RobustCalEvent> printAllEventsOnDate(String dateString) {
+    return delegate.printAllEventsOnDate(dateString);
+  }
+
+  @Override
+  public List<RobustCalEvent> printAllEventsBetweenDates(
+          String fromDateStringTtimeString,
+          String toDateStringTtimeString
+  ) {
+    return delegate.printAllEventsBetweenDates(
+            fromDateStringTtimeString, toDateStringTtimeString
+    );
+  }
+
+  @Override
+  public void writeEventsOnDate(String dateString, Appendable out) throws IOException {
+    delegate.writeEventsOnDate(dateString, out);
+  }
+
+  @Override
+  public void writeEventsBetweenDates(
+          String fromDateStringTtimeString,
+          String toDateStringTtimeString,
+          Appendable out
+  ) throws IOException {
+    delegate.writeEventsBetweenDates(fromDateStringTtimeString, toDateStringTtimeString, out);
+  }
+
+  @Override
+  public String showStatusOnDateAtTime(String dateStringTtimeString) {
+    return delegate.showStatusOnDateAtTime(dateStringTtimeString);
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    return this == other
+            || other instanceof RobustCalendar r
+            && getName().equals(r.getName());
+  }
+
+  @Override
+  public int hashCode() {
+    // calendars are equal by name, so they must hash by name as well
+    return Objects.hashCode(getName());
+  }
+
+  private void journal(byte type, CommandLog.Record change, Runnable apply) {
+    String name = delegate.getName();
+    owner.change((out) -> {
+      out.writeByte(type);
+      out.writeUTF(name);
+      change.writeTo(out);
+    }, apply);
+  }
+
+  private static void writeEvent(DataOutput out, RobustCalEvent event) throws IOException {
+    out.writeUTF(event.getSubject());
+    JournaledCalendars.writeDateTime(out, event.getStartDateTime());
+    JournaledCalendars.writeDateTime(out, event.getEndDateTime());
+    out.writeBoolean(event.isAllDay());
+    JournaledCalendars.writeNullable(out, event.getDescription());
+    JournaledCalendars.writeNullable(out, (event.getLocation() != null)
+            ? event.getLocation().getStringRepresentation() : null);
+    JournaledCalendars.writeNullable(out, (event.getStatus() != null)
+            ? event.getStatus().getStringRepresentation() : null);
+  }
+}
@@ -0,0 +1,518 @@
+package model.calendars;
+
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.StampedLock;
+
+import model.calendar.RobustCalendar;
+import model.events.CalEventImpl;
+import model.events.EventProperty;
+import model.events.RobustCalEvent;
+
+/**
+ * A collection of calendars that survives restarts, journaling every change to
+ * it and to the calendars in it to a {@link CommandLog} before making it.
+ * Opening one replays the log into a fresh collection through the same typed
+ * methods, so it ends up as it was when the last change was journaled; a change
+ * that failed then fails again on replay and is skipped. Calendars are
+ * journaled by name, so records don't depend on which calendar was in use. To
+ * share one between threads, guard it with a {@link ConcurrentCalendars}, which
+ * also keeps the order of the log the order the changes were made in.
+ *
+ * <p>Recovered from a directory instead, the collection can also take
+ * checkpoints, in the background or on demand: each saves what changed in the
+ * calendars since the last one to a {@link model.calendar.SegmentStore} and
+ * deletes the journal it covers, so recovering only loads the store and
+ * replays the changes made after the last checkpoint.
+ */
+public class JournaledCalendars implements RobustCalendars, Closeable {
+  static final byte CREATE_CALENDAR = 1;
+  static final byte USE_CALENDAR = 2;
+  static final byte EDIT_CALENDAR = 3;
+  static final byte COPY_SINGLE_EVENT = 4;
+  static final byte COPY_ALL_EVENTS_ON_DAY = 5;
+  static final byte COPY_ALL_EVENTS_IN_BETWEEN_DATES = 6;
+  static final byte SET_NAME = 7;
+  static final byte SET_ZONE = 8;
+  static final byte CREATE_SINGLE_NORMAL_EVENT = 9;
+  static final byte CREATE_RECURRING_NORMAL_EVENTS_N_TIMES = 10;
+  static final byte CREATE_RECURRING_NORMAL_EVENTS_UNTIL_DATE = 11;
+  static final byte CREATE_SINGLE_ALL_DAY_EVENT = 12;
+  static final byte CREATE_RECURRING_ALL_DAY_EVENTS_N_TIMES = 13;
+  static final byte CREATE_RECURRING_ALL_DAY_EVENTS_UNTIL_DATE = 14;
+  static final byte CREATE_COPIES_OF_EVENTS = 15;
+  static final byte EDIT_SINGLE_EVENT = 16;
+  static final byte EDIT_EVENT_AND_MAYBE_ONWARD = 17;
+  static final byte EDIT_EVENT_AND_MAYBE_ALL = 18;
+
+  private final RobustCalendars delegate;
+  private final CommandLog log;
+  // held shared by each change, and exclusively while a checkpoint rolls the log over
+  private final StampedLock lock;
+  private final Checkpoints checkpoints;
+  private ScheduledExecutorService scheduler;
+  private ScheduledFuture<?> scheduled;
+
+  private JournaledCalendars(RobustCalendars delegate, CommandLog log, Checkpoints checkpoints) {
+    this.delegate = delegate;
+    this.log = log;
+    this.lock = new StampedLock();
+    this.checkpoints = checkpoints;
+  }
+
+  /**
+   * Open the journal in the given file, replaying it into the given collection,
+   * and journal every change to the collection from then on.
+   *
+   * @param logFile  the file of the journal, which is created if missing.
+   * @param delegate the collection to replay into and journal changes to, which
+   *                 should be empty and must not be changed directly.
+   * @return the journaled collection.
+   * @throws IOException if the journal can't be read or written.
+   */
+  public static JournaledCalendars open(Path logFile, RobustCalendars delegate)
+          throws IOException {
+    Replay replay = new Replay(delegate);
+    return new JournaledCalendars(delegate, CommandLog.open(logFile, replay::apply), null);
+  }
+
+  /**
+   * Recover the calendars kept in the given directory, loading them as of the
+   * newest checkpoint and replaying only the journal of the changes made since,
+   * and journal every change to them from then on. Unlike {@link #open}, a
+   * collection recovered this way can take checkpoints, which keep the journal
+   * from growing without bound.
+   *
+   * @param directory the directory of the store and journals, which is
+   *                  created if missing.
+   * @return the journaled collection.
+   * @throws IOException if the store or journals can't be read or written.
+   */
+  public static JournaledCalendars recover(Path directory) throws IOException {
+    Checkpoints checkpoints = Checkpoints.in(directory);
+    checkpoints.deleteCovered();
+    CalendarsImpl calendars = checkpoints.load();
+    Replay replay = new Replay(calendars);
+    List<Path> journals = checkpoints.journals();
+    for (Path journal : journals.subList(0, journals.size() - 1)) {
+      CommandLog.replay(journal, replay::apply);
+    }
+    CommandLog log = CommandLog.open(journals.get(journals.size() - 1), replay::apply);
+    return new JournaledCalendars(calendars, log, checkpoints);
+  }
+
+  /**
+   * Take a checkpoint: save what changed in the calendars since the last one
+   * to the store and delete the journal of the changes it covers. Changes are
+   * held back only while what changed is captured, which costs next to nothing;
+   * the months that changed are written out while they go on.
+   *
+   * @return how checkpoints have gone so far, including this one.
+   * @throws IOException           if the store can't be written or the
+   *                               journal deleted.
+   * @throws IllegalStateException if this collection wasn't recovered from a
+   *                               directory, or is closed.
+   */
+  public CheckpointStats checkpoint() throws IOException {
+    if (checkpoints == null) {
+      throw new IllegalStateException("Only calendars recovered from a directory checkpoint!");
+    }
+    return checkpoints.take((journal, store, checkpoint) -> {
+      long stamp = lock.writeLock();
+      try {
+        log.roll(journal);
+        // what changed is read from the calendars, so it is only read while none change
+        return ((CalendarsImpl) delegate).capture(store, checkpoint);
+      } finally {
+        lock.unlockWrite(stamp);
+      }
+    });
+  }
+
+  /**
+   * Take a checkpoint in the background every given period from now on, in
+   * place of any earlier period. A checkpoint that fails is counted in
+   * {@link #getCheckpointStats()}, and the next one tries again.
+   *
+   * @param period the time between the end of a checkpoint and the next.
+   * @throws IllegalStateException if this collection wasn't recovered from a
+   *                               directory.
+   */
+  public synchronized void checkpointEvery(Duration period) {
+    if (checkpoints == null) {
+      throw new IllegalStateException("Only calendars recovered from a directory checkpoint!");
+    }
+    if (scheduler == null) {
+      scheduler = Executors.newSingleThreadScheduledExecutor((it) -> {
+        Thread thread = new Thread(it, "calendar-checkpointer");
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+    if (scheduled != null) {
+      scheduled.cancel(false);
+    }
+    scheduled = scheduler.scheduleWithFixedDelay(() -> {
+      try {
+        checkpoint();
+      } catch (IOException | RuntimeException e) {
+        // counted in the stats, and a failure must not stop later checkpoints
+      }
+    }, period.toNanos(), period.toNanos(), TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Get how checkpoints have gone so far: how many were taken, how long they
+   * took and how many bytes they wrote.
+   *
+   * @return the stats of the checkpoints, all zero for a collection that
+   *         wasn't recovered from a directory.
+   */
+  public CheckpointStats getCheckpointStats() {
+    return (checkpoints != null) ? checkpoints.stats() : CheckpointStats.NONE;
+  }
+
+  /**
+   * Wait until every change made so far is journaled on disk.
+   *
+   * @throws IOException if the journal can't be written.
+   */
+  public void sync() throws IOException {
+    log.sync();
+  }
+
+  /**
+   * Stop taking checkpoints in the background, letting one already running
+   * finish, then journal every change made so far on disk and close the
+   * journal. Changes made afterwards fail.
+   *
+   * @throws IOException if the journal can't be written or closed.
+   */
+  @Override
+  public void close() throws IOException {
+    ScheduledExecutorService stopping;
+    synchronized (this) {
+      stopping = scheduler;
+      scheduler = null;
+    }
+    if (stopping != null) {
+      stopping.shutdown();
+      try {
+        stopping.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    log.close();
+  }
+
+  /**
+   * Journal a change, then make it. Both happen while no checkpoint is rolling
+   * the log over, so a checkpoint captures exactly the changes
+   * journaled before it.
+   *
+   * @param change how to write the record of the change.
+   * @param apply  how to make the change.
+   */
+  void change(CommandLog.Record change, Runnable apply) {
+    long stamp = lock.readLock();
+    try {
+      log.append(change);
+      apply.run();
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  @Override
+  public Set<RobustCalendar> getAllCalendars() {
+    Set<RobustCalendar> calendars = new HashSet<>();
+    delegate.getAllCalendars().forEach((it) -> calendars.add(new JournaledCalendar(it, this)));
+    return calendars;
+  }
+
+  @Override
+  public RobustCalendar getActiveCal() throws NoSuchElementException {
+    return new JournaledCalendar(delegate.getActiveCal(), this);
+  }
+
+  @Override
+  public void createCalendar(String name, String timeZone) {
+    change((out) -> {
+      out.writeByte(CREATE_CALENDAR);
+      out.writeUTF(name);
+      writeNullable(out, timeZone);
+    }, () -> delegate.createCalendar(name, timeZone));
+  }
+
+  @Override
+  public void useCalendar(String name) throws NoSuchElementException {
+    change((out) -> {
+      out.writeByte(USE_CALENDAR);
+      out.writeUTF(name);
+    }, () -> delegate.useCalendar(name));
+  }
+
+  @Override
+  public void editCalendar(String name, String property, String newPropertyVal)
+          throws NoSuchElementException {
+    change((out) -> {
+      out.writeByte(EDIT_CALENDAR);
+      out.writeUTF(name);
+      out.writeUTF(property);
+      out.writeUTF(newPropertyVal);
+    }, () -> delegate.editCalendar(name, property, newPropertyVal));
+  }
+
+  @Override
+  public void copySingleEvent(
+          String name,
+          LocalDateTime startDateTime,
+          String calName,
+          LocalDateTime newStartDateTime
+  ) throws NoSuchElementException {
+    change((out) -> {
+      out.writeByte(COPY_SINGLE_EVENT);
+      out.writeUTF(name);
+      writeDateTime(out, startDateTime);
+      out.writeUTF(calName);
+      writeDateTime(out, newStartDateTime);
+    }, () -> delegate.copySingleEvent(name, startDateTime, calName, newStartDateTime));
+  }
+
+  @Override
+  public void copyAllEventsOnDay(
+          LocalDate onDate,
+          String calName,
+          LocalDate toDate
+  ) throws NoSuchElementException {
+    change((out) -> {
+      out.writeByte(COPY_ALL_EVENTS_ON_DAY);
+      writeDate(out, onDate);
+      out.writeUTF(calName);
+      writeDate(out, toDate);
+    }, () -> delegate.copyAllEventsOnDay(onDate, calName, toDate));
+  }
+
+  @Override
+  public void copyAllEventsInBetweenDates(
+          LocalDate fromDate,
+          LocalDate toDate,
+          String calName,
+          LocalDate newDate
+  ) throws NoSuchElementException {
+    change((out) -> {
+      out.writeByte(COPY_ALL_EVENTS_IN_BETWEEN_DATES);
+      writeDate(out, fromDate);
+      writeDate(out, toDate);
+      out.writeUTF(calName);
+      writeDate(out, newDate);
+    }, () -> delegate.copyAllEventsInBetweenDates(fromDate, toDate, calName, newDate));
+  }
+
+  static void writeNullable(DataOutput out, String value) throws IOException {
+    out.writeBoolean(value != null);
+    if (value != null) {
+      out.writeUTF(value);
+    }
+  }
+
+  static String readNullable(DataInput in) throws IOException {
+    return in.readBoolean() ? in.readUTF() : null;
+  }
+
+  static void writeDateTime(DataOutput out, LocalDateTime dateTime) throws IOException {
+    out.writeLong(dateTime.toEpochSecond(ZoneOffset.UTC));
+    out.writeInt(dateTime.getNano());
+  }
+
+  static LocalDateTime readDateTime(DataInput in) throws IOException {
+    return LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+  }
+
+  static void writeDate(DataOutput out, LocalDate date) throws IOException {
+    out.writeLong(date.toEpochDay());
+  }
+
+  static LocalDate readDate(DataInput in) throws IOException {
+    return LocalDate.ofEpochDay(in.readLong());
+  }
+
+  static void writeWeekdays(DataOutput out, Set<DayOfWeek> weekdays) throws IOException {
+    int mask = 0;
+    for (DayOfWeek weekday : weekdays) {
+      mask |= 1 << weekday.ordinal();
+    }
+    out.writeByte(mask);
+  }
+
+  static Set<DayOfWeek> readWeekdays(DataInput in) throws IOException {
+    int mask = in.readByte();
+    Set<DayOfWeek> weekdays = EnumSet.noneOf(DayOfWeek.class);
+    for (DayOfWeek weekday : DayOfWeek.values()) {
+      if ((mask & 1 << weekday.ordinal()) != 0) {
+        weekdays.add(weekday);
+      }
+    }
+    return weekdays;
+  }
+
+  /**
+   * Replaying a journal into a collection of calendars, one record at a time.
+   */
+  private static final class Replay {
+    private final RobustCalendars m;
+    // calendars by name, forgotten whenever a calendar may have been renamed
+    private final Map<String, RobustCalendar> calendars;
+
+    private Replay(RobustCalendars m) {
+      this.m = m;
+      this.calendars = new HashMap<>();
+    }
+
+    private void apply(DataInput in) {
+      try {
+        applyRecord(in);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      } catch (IllegalArgumentException | IllegalStateException | NoSuchElementException
+               | DateTimeException e) {
+        // the model rejected the change when it was journaled too, so it changed nothing then
+      }
+    }
+
+    private void applyRecord(DataInput in) throws IOException {
+      byte type = in.readByte();
+      switch (type) {
+        case CREATE_CALENDAR -> {
+          calendars.clear();
+          m.createCalendar(in.readUTF(), readNullable(in));
+        }
+        case USE_CALENDAR -> m.useCalendar(in.readUTF());
+        case EDIT_CALENDAR -> {
+          calendars.clear();
+          m.editCalendar(in.readUTF(), in.readUTF(), in.readUTF());
+        }
+        case COPY_SINGLE_EVENT -> m.copySingleEvent(
+                in.readUTF(), readDateTime(in), in.readUTF(), readDateTime(in)
+        );
+        case COPY_ALL_EVENTS_ON_DAY -> m.copyAllEventsOnDay(
+                readDate(in), in.readUTF(), readDate(in)
+        );
+        case COPY_ALL_EVENTS_IN_BETWEEN_DATES -> m.copyAllEventsInBetweenDates(
+                readDate(in), readDate(in), in.readUTF(), readDate(in)
+        );
+        default -> applyToCalendar(type, calendarNamed(in.readUTF()), in);
+      }
+    }
+
+    private void applyToCalendar(byte type, RobustCalendar calendar, DataInput in)
+            throws IOException {
+      switch (type) {
+        case SET_NAME -> {
+          calendars.clear();
+          calendar.setName(in.readUTF());
+        }
+        case SET_ZONE -> calendar.setZone(in.readUTF());
+        case CREATE_SINGLE_NORMAL_EVENT -> calendar.createSingleNormalEvent(
+                in.readUTF(), readDateTime(in), readDateTime(in)
+        );
+        case CREATE_RECURRING_NORMAL_EVENTS_N_TIMES -> calendar.createRecurringNormalEventsNTimes(
+                in.readUTF(), readDateTime(in), readDateTime(in), readWeekdays(in), in.readInt()
+        );
+        case CREATE_RECURRING_NORMAL_EVENTS_UNTIL_DATE ->
+                calendar.createRecurringNormalEventsUntilDate(
+                        in.readUTF(), readDateTime(in), readDateTime(in), readWeekdays(in),
+                        readDate(in)
+                );
+        case CREATE_SINGLE_ALL_DAY_EVENT -> calendar.createSingleAllDayEvent(
+                in.readUTF(), readDate(in)
+        );
+        case CREATE_RECURRING_ALL_DAY_EVENTS_N_TIMES -> calendar.createRecurringAllDayEventsNTimes(
+                in.readUTF(), readDate(in), readWeekdays(in), in.readInt()
+        );
+        case CREATE_RECURRING_ALL_DAY_EVENTS_UNTIL_DATE ->
+                calendar.createRecurringAllDayEventsUntilDate(
+                        in.readUTF(), readDate(in), readWeekdays(in), readDate(in)
+                );
+        case CREATE_COPIES_OF_EVENTS -> {
+          String zone = readNullable(in);
+          Duration shift = Duration.ofSeconds(in.readLong(), in.readInt());
+          int count = in.readInt();
+          List<RobustCalEvent> events = new ArrayList<>(count);
+          for (int i = 0; i < count; i++) {
+            events.add(readEvent(in));
+          }
+          calendar.createCopiesOfEvents(events, (zone != null) ? ZoneId.of(zone) : null, shift);
+        }
+        case EDIT_SINGLE_EVENT -> calendar.editSingleEvent(
+                EventProperty.values()[in.readByte()], in.readUTF(), readDateTime(in),
+                readDateTime(in), in.readUTF()
+        );
+        case EDIT_EVENT_AND_MAYBE_ONWARD -> calendar.editEventAndMaybeOnward(
+                EventProperty.values()[in.readByte()], in.readUTF(), readDateTime(in),
+                in.readUTF()
+        );
+        case EDIT_EVENT_AND_MAYBE_ALL -> calendar.editEventAndMaybeAll(
+                EventProperty.values()[in.readByte()], in.readUTF(), readDateTime(in),
+                in.readUTF()
+        );
+        default -> throw new IOException("Unknown command log record " + type + "!");
+      }
+    }
+
+    private RobustCalendar calendarNamed(String name) {
+      if (calendars.isEmpty()) {
+        m.getAllCalendars().forEach((it) -> calendars.put(it.getName(), it));
+      }
+      RobustCalendar calendar = calendars.get(name);
+      if (calendar == null) {
+        throw new NoSuchElementException("No calendar with the given name!");
+      }
+      return calendar;
+    }
+
+    private static RobustCalEvent readEvent(DataInput in) throws IOException {
+      RobustCalEvent event = new CalEventImpl(in.readUTF(), readDateTime(in), readDateTime(in));
+      if (in.readBoolean()) {
+        event.setAllDay();
+      }
+      String description = readNullable(in);
+      if (description != null) {
+        event.setDescription(description);
+      }
+      String location = readNullable(in);
+      if (location != null) {
+        event.setLocation(location);
+      }
+      String status = readNullable(in);
+      if (status != null) {
+        event.setStatus(status);
+      }
+      return event;
+    }
+  }
+}
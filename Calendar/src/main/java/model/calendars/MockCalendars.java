@@ -1,5 +1,7 @@
 package model.calendars;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.NoSuchElementException;
 import java.util.Set;
 
@@ -83,6 +85,24 @@ public class MockCalendars implements RobustCalendars {
             fromDateString, toDateString, calName, newDateString));
   }
 
+  @Override
+  public void copySingleEvent(String name, LocalDateTime startDateTime, String calName, LocalDateTime newStartDateTime)
+          throws NoSuchElementException {
+    copySingleEvent(name, startDateTime.toString(), calName, newStartDateTime.toString());
+  }
+
+  @Override
+  public void copyAllEventsOnDay(LocalDate onDate, String calName, LocalDate toDate)
+          throws NoSuchElementException {
+    copyAllEventsOnDay(onDate.toString(), calName, toDate.toString());
+  }
+
+  @Override
+  public void copyAllEventsInBetweenDates(LocalDate fromDate, LocalDate toDate, String calName, LocalDate newDate)
+          throws NoSuchElementException {
+    copyAllEventsInBetweenDates(fromDate.toString(), toDate.toString(), calName, newDate.toString());
+  }
+
   @Override
   public Set<RobustCalendar> getAllCalendars() {
     return Set.of();
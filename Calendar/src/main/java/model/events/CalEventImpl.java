@@ -1,5 +1,6 @@
 package model.events;
 
+import java.io.IOException;
 import java.time.DateTimeException;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
@@ -9,6 +10,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.function.UnaryOperator;
 
 import model.calendar.CalendarImpl;
 
@@ -87,6 +89,52 @@ public class CalEventImpl implements RobustCalEvent {
     this.status = Status.PRIVATE;
   }
 
+  /**
+   * Create a detached copy of another calendar event, with all of its
+   * properties. The copy belongs to the same series as the original.
+   *
+   * @param other the event to copy.
+   */
+  public CalEventImpl(RobustCalEvent other) {
+    this.subject = other.getSubject();
+    this.startDateTime = other.getStartDateTime();
+    this.endDateTime = other.getEndDateTime();
+    this.isAllDay = other.isAllDay();
+    this.series = other.getSeries();
+    this.description = (other instanceof CalEventImpl c)
+            ? c.getDescriptionOrNull() : other.getDescription();
+    this.location = other.getLocation();
+    this.status = other.getStatus();
+  }
+
+  /**
+   * Create a standalone copy of another calendar event with its start and end
+   * moved, keeping its description, location, and status but not its series.
+   * An all-day copy lasts all day on the date its moved start falls on. The
+   * subject and description are shared with the original rather than copied.
+   *
+   * @param other the event to copy.
+   * @param move  where to move each of the start and end of the original to.
+   * @throws DateTimeException if the moved start is after the moved end.
+   */
+  public CalEventImpl(RobustCalEvent other, UnaryOperator<LocalDateTime> move)
+          throws DateTimeException {
+    this(other);
+    this.series = null;
+    LocalDateTime start = move.apply(startDateTime);
+    if (isAllDay) {
+      this.startDateTime = LocalDateTime.of(start.toLocalDate(), LocalTime.of(8, 0));
+      this.endDateTime = LocalDateTime.of(start.toLocalDate(), LocalTime.of(17, 0));
+    } else {
+      LocalDateTime end = move.apply(endDateTime);
+      if (start.isAfter(end)) {
+        throw new DateTimeException("Invalid date or time entered in creating event!");
+      }
+      this.startDateTime = start;
+      this.endDateTime = end;
+    }
+  }
+
   /**
    * A no-arg constructor for the purpose of this class's only subclass.
    */
@@ -133,6 +181,16 @@ public class CalEventImpl implements RobustCalEvent {
     return (description != null) ? description : "Description not found";
   }
 
+  /**
+   * Retrieve the description of this event as it was set, which is null if it
+   * never was.
+   *
+   * @return the description of this event, if any.
+   */
+  protected String getDescriptionOrNull() {
+    return description;
+  }
+
   @Override
   public Location getLocation() {
     return location;
@@ -170,7 +228,7 @@ public class CalEventImpl implements RobustCalEvent {
 
   @Override
   public void setStartDateTime(String startDateStringTtimeString) {
-    LocalDateTime startDateTime = LocalDateTime.parse(startDateStringTtimeString);
+    LocalDateTime startDateTime = DateTimes.parseDateTime(startDateStringTtimeString);
     if (startDateTime.isAfter(endDateTime)) {
       throw new DateTimeException("Start date/time after end date/time!" +
               " Edit end date/time first.");
@@ -188,7 +246,7 @@ public class CalEventImpl implements RobustCalEvent {
 
   @Override
   public void setEndDateTime(String endDateStringTtimeString) {
-    LocalDateTime endDateTime = LocalDateTime.parse(endDateStringTtimeString);
+    LocalDateTime endDateTime = DateTimes.parseDateTime(endDateStringTtimeString);
     if (endDateTime.isBefore(startDateTime)) {
       throw new DateTimeException("End date/time before start date/time!" +
               " Edit start date/time first.");
@@ -233,24 +291,71 @@ public class CalEventImpl implements RobustCalEvent {
 
   @Override
   public String toString() {
-    String locationFormat = (location != null)
-            ? String.format("; %s", location.getStringRepresentation()) : "";
-    return (!isAllDay)
-            ? String.format(
-            "\"%s\", from %s %s to %s %s%s",
-            subject,
-            startDateTime.getDayOfWeek(),
-            startDateTime,
-            endDateTime.getDayOfWeek(),
-            endDateTime,
-            locationFormat
-    ) : String.format(
-            "\"%s\", on %s %s%s",
-            subject,
-            startDateTime.getDayOfWeek(),
-            startDateTime.toLocalDate(),
-            locationFormat
-    );
+    StringBuilder line = new StringBuilder(64);
+    try {
+      appendTo(line);
+    } catch (IOException e) {
+      // a StringBuilder never throws
+      throw new IllegalStateException(e);
+    }
+    return line.toString();
+  }
+
+  @Override
+  public void appendTo(Appendable out) throws IOException {
+    // written piece by piece, as String.format would parse its pattern every time
+    LocalDateTime start = getStartDateTime();
+    out.append('"').append(getSubject()).append("\", ");
+    if (!isAllDay()) {
+      LocalDateTime end = getEndDateTime();
+      out.append("from ").append(start.getDayOfWeek().name()).append(' ');
+      appendDateTime(out, start);
+      out.append(" to ").append(end.getDayOfWeek().name()).append(' ');
+      appendDateTime(out, end);
+    } else {
+      out.append("on ").append(start.getDayOfWeek().name()).append(' ');
+      appendDate(out, start.toLocalDate());
+    }
+    if (getLocation() != null) {
+      out.append("; ").append(getLocation().getStringRepresentation());
+    }
+  }
+
+  private static void appendDateTime(Appendable out, LocalDateTime dateTime)
+          throws IOException {
+    // only whole minutes are written by hand, the same way LocalDateTime does
+    if (dateTime.getSecond() != 0 || dateTime.getNano() != 0) {
+      out.append(dateTime.toString());
+      return;
+    }
+    appendDate(out, dateTime.toLocalDate());
+    out.append('T');
+    appendDigits(out, dateTime.getHour(), 2);
+    out.append(':');
+    appendDigits(out, dateTime.getMinute(), 2);
+  }
+
+  private static void appendDate(Appendable out, LocalDate date) throws IOException {
+    // years outside of four digits get a sign or extra digits from LocalDate
+    if (date.getYear() < 0 || date.getYear() > 9999) {
+      out.append(date.toString());
+      return;
+    }
+    appendDigits(out, date.getYear(), 4);
+    out.append('-');
+    appendDigits(out, date.getMonthValue(), 2);
+    out.append('-');
+    appendDigits(out, date.getDayOfMonth(), 2);
+  }
+
+  private static void appendDigits(Appendable out, int value, int width) throws IOException {
+    int divisor = 1;
+    for (int digit = 1; digit < width; digit++) {
+      divisor *= 10;
+    }
+    for (; divisor > 0; divisor /= 10) {
+      out.append((char) ('0' + value / divisor % 10));
+    }
   }
 
   @Override
@@ -258,11 +363,12 @@ public class CalEventImpl implements RobustCalEvent {
     if (this == other) {
       return true;
     } else {
+      // through the getters, as printed events are views that don't copy the fields
       if (other instanceof CalEventImpl c) {
-        return subject.equals(c.subject)
-                && isAllDay == c.isAllDay
-                && startDateTime.equals(c.startDateTime)
-                && endDateTime.equals(c.endDateTime);
+        return getSubject().equals(c.getSubject())
+                && isAllDay() == c.isAllDay()
+                && getStartDateTime().equals(c.getStartDateTime())
+                && getEndDateTime().equals(c.getEndDateTime());
       } else {
         return false;
       }
@@ -271,21 +377,21 @@ public class CalEventImpl implements RobustCalEvent {
 
   @Override
   public int hashCode() {
-    return Objects.hash(subject, isAllDay, startDateTime, endDateTime);
+    return Objects.hash(getSubject(), isAllDay(), getStartDateTime(), getEndDateTime());
   }
 
   @Override
   public int compareTo(CalEvent o) {
     if (o instanceof CalEventImpl c) {
-      if (!startDateTime.isEqual(c.startDateTime)) {
-        return startDateTime.compareTo(c.startDateTime);
-      } else if (!endDateTime.isEqual(c.endDateTime)) {
-        return endDateTime.compareTo(c.endDateTime);
-      } else if (!subject.equals(c.subject)) {
-        return subject.compareTo(c.subject);
-      } else if (isAllDay && !c.isAllDay) {
+      if (!getStartDateTime().isEqual(c.getStartDateTime())) {
+        return getStartDateTime().compareTo(c.getStartDateTime());
+      } else if (!getEndDateTime().isEqual(c.getEndDateTime())) {
+        return getEndDateTime().compareTo(c.getEndDateTime());
+      } else if (!getSubject().equals(c.getSubject())) {
+        return getSubject().compareTo(c.getSubject());
+      } else if (isAllDay() && !c.isAllDay()) {
         return -1;
-      } else if (!isAllDay && c.isAllDay) {
+      } else if (!isAllDay() && c.isAllDay()) {
         return 1;
       } else {
         return 0;
@@ -0,0 +1,91 @@
+package model.events;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Parsers for the ISO-formatted dates ({@code YYYY-MM-DD}) and dates and times
+ * ({@code YYYY-MM-DDThh:mm}) that commands and calendars pass around as Strings.
+ * These fixed forms are read digit by digit, with no formatter or intermediate
+ * objects involved; anything else, including every invalid input, is handed to
+ * {@link LocalDate#parse(CharSequence)} or {@link LocalDateTime#parse(CharSequence)},
+ * so what is accepted and the exceptions thrown stay exactly the same as theirs.
+ */
+public final class DateTimes {
+  private DateTimes() {
+  }
+
+  /**
+   * Parse an ISO-formatted date, as {@link LocalDate#parse(CharSequence)} does.
+   *
+   * @param text the date, such as {@code 2024-07-01}.
+   * @return the parsed date.
+   * @throws java.time.format.DateTimeParseException if the text isn't a valid date.
+   */
+  public static LocalDate parseDate(String text) {
+    if (text != null && text.length() == 10) {
+      LocalDate date = dateOf(text);
+      if (date != null) {
+        return date;
+      }
+    }
+    return LocalDate.parse(text);
+  }
+
+  /**
+   * Parse an ISO-formatted date and time, as {@link LocalDateTime#parse(CharSequence)}
+   * does.
+   *
+   * @param text the date and time, such as {@code 2024-07-01T09:30}.
+   * @return the parsed date and time.
+   * @throws java.time.format.DateTimeParseException if the text isn't a valid date
+   *                                                 and time.
+   */
+  public static LocalDateTime parseDateTime(String text) {
+    if (text != null && text.length() == 16 && text.charAt(10) == 'T'
+            && text.charAt(13) == ':') {
+      LocalDate date = dateOf(text);
+      int hour = twoDigits(text, 11);
+      int minute = twoDigits(text, 14);
+      if (date != null && 0 <= hour && hour < 24 && 0 <= minute && minute < 60) {
+        return LocalDateTime.of(date, LocalTime.of(hour, minute));
+      }
+    }
+    return LocalDateTime.parse(text);
+  }
+
+  private static LocalDate dateOf(String text) {
+    // null unless the first ten characters are a valid YYYY-MM-DD date
+    if (text.charAt(4) != '-' || text.charAt(7) != '-') {
+      return null;
+    }
+    int century = twoDigits(text, 0);
+    int yearOfCentury = twoDigits(text, 2);
+    int month = twoDigits(text, 5);
+    int day = twoDigits(text, 8);
+    if (century < 0 || yearOfCentury < 0 || month < 1 || month > 12 || day < 1) {
+      return null;
+    }
+    int year = 100 * century + yearOfCentury;
+    if (day > 28 && day > lengthOfMonth(year, month)) {
+      return null;
+    }
+    return LocalDate.of(year, month, day);
+  }
+
+  private static int lengthOfMonth(int year, int month) {
+    return switch (month) {
+      case 2 -> ((year % 4 == 0 && year % 100 != 0) || year % 400 == 0) ? 29 : 28;
+      case 4, 6, 9, 11 -> 30;
+      default -> 31;
+    };
+  }
+
+  private static int twoDigits(String text, int index) {
+    int tens = text.charAt(index) - '0';
+    int ones = text.charAt(index + 1) - '0';
+    // negative when either character isn't an ASCII digit
+    return (tens < 0 || tens > 9 || ones < 0 || ones > 9) ? -1 : 10 * tens + ones;
+  }
+}
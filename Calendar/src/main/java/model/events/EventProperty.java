@@ -0,0 +1,60 @@
+package model.events;
+
+/**
+ * The properties of a calendar event that can be edited through a calendar,
+ * each along with the name commands refer to it by.
+ */
+public enum EventProperty {
+  SUBJECT("subject"),
+  START("start"),
+  END("end"),
+  DESCRIPTION("description"),
+  LOCATION("location"),
+  STATUS("status");
+
+  private final String stringRepresentation;
+
+  EventProperty(String stringRepresentation) {
+    this.stringRepresentation = stringRepresentation;
+  }
+
+  public String getStringRepresentation() {
+    return stringRepresentation;
+  }
+
+  /**
+   * Find the property commands refer to by the given name.
+   *
+   * @param property the name of the property.
+   * @return the property with that name.
+   * @throws IllegalArgumentException if no property has that name.
+   */
+  public static EventProperty of(String property) throws IllegalArgumentException {
+    for (EventProperty eventProperty : values()) {
+      if (eventProperty.stringRepresentation.equals(property)) {
+        return eventProperty;
+      }
+    }
+    throw new IllegalArgumentException("No properties match the one passed!");
+  }
+
+  /**
+   * Find out whether editing this property changes when an event happens,
+   * which takes the event out of its series.
+   *
+   * @return whether this property is the start or the end.
+   */
+  public boolean isTime() {
+    return this == START || this == END;
+  }
+
+  /**
+   * Find out whether editing this property changes the subject, start, or end
+   * that events are told apart and ordered by.
+   *
+   * @return whether this property is the subject, the start, or the end.
+   */
+  public boolean isKey() {
+    return this == SUBJECT || isTime();
+  }
+}
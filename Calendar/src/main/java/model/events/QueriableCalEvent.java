@@ -1,6 +1,8 @@
 package model.events;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 
 /**
  * An interface representing a calendar event that can be queried about
@@ -62,4 +64,39 @@ public interface QueriableCalEvent extends CalEvent {
    * @return the status (defaulted to private) of this event as a String.
    */
   CalEventImpl.Status getStatus();
+
+  /**
+   * Write this event to the given output the same way {@code toString()} shows
+   * it, which implementations may do without building the String first.
+   *
+   * @param out where to write this event.
+   * @throws IOException if writing to the output fails.
+   */
+  default void appendTo(Appendable out) throws IOException {
+    out.append(toString());
+  }
+
+  /**
+   * Write this event to the given output as it shows in a calendar in the given
+   * time zone, which is how printed events are shown.
+   *
+   * @param out  where to write this event.
+   * @param zone the time zone of the calendar this event is in.
+   * @throws IOException if writing to the output fails.
+   */
+  default void appendTo(Appendable out, ZoneId zone) throws IOException {
+    appendTo(out);
+    appendZone(out, zone);
+  }
+
+  /**
+   * Write the time zone printed events are shown in after them.
+   *
+   * @param out  where to write the time zone.
+   * @param zone the time zone of the calendar the event is in.
+   * @throws IOException if writing to the output fails.
+   */
+  static void appendZone(Appendable out, ZoneId zone) throws IOException {
+    out.append(" in time zone ").append(String.valueOf(zone));
+  }
 }
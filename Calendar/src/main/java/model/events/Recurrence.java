@@ -0,0 +1,540 @@
+package model.events;
+
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * A class representing the rule a recurring series of calendar events follows,
+ * from which any of its occurrences can be worked out without storing them. A
+ * series always occurs on the date of its first event, and then on every later
+ * date whose day of the week it repeats on, either a set number of times in
+ * total or until (not including) a given date. Every occurrence keeps the times
+ * of day, length, and all-day status of the first event. A series may also skip
+ * some of the dates it would occur on, such as those of occurrences stored apart
+ * from the rule once they were edited; skipped dates still count towards the
+ * number of times a series occurs.
+ */
+public final class Recurrence {
+  private final String subject;
+  private final LocalDateTime firstStartDateTime;
+  private final LocalDateTime firstEndDateTime;
+  private final boolean isAllDay;
+  private final int weekdayMask;
+  private final int count;
+  private final LocalDate untilDate;
+  // the days skipped, as epoch days in order
+  private final long[] exceptDays;
+
+  private Recurrence(
+          String subject,
+          LocalDateTime firstStartDateTime,
+          LocalDateTime firstEndDateTime,
+          boolean isAllDay,
+          int weekdayMask,
+          int count,
+          LocalDate untilDate,
+          long[] exceptDays
+  ) {
+    this.subject = subject;
+    this.firstStartDateTime = firstStartDateTime;
+    this.firstEndDateTime = firstEndDateTime;
+    this.isAllDay = isAllDay;
+    this.weekdayMask = weekdayMask;
+    this.count = count;
+    this.untilDate = untilDate;
+    this.exceptDays = exceptDays;
+  }
+
+  /**
+   * Retrieve the days of the week given as letters, such as "MWF" for Monday,
+   * Wednesday, and Friday.
+   *
+   * @param repeatWeekdays the days of the week as letters.
+   * @param invalidMessage the message to fail with if a letter isn't a day.
+   * @return the days of the week the letters stand for.
+   * @throws DateTimeException if a letter doesn't stand for a day of the week.
+   */
+  public static Set<DayOfWeek> parseWeekdays(String repeatWeekdays, String invalidMessage)
+          throws DateTimeException {
+    Set<DayOfWeek> repeatDaysOfWeek = EnumSet.noneOf(DayOfWeek.class);
+    for (char weekday : repeatWeekdays.toCharArray()) {
+      if (!CalEventImpl.getDaysOfTheWeek().containsKey(weekday)) {
+        throw new DateTimeException(invalidMessage);
+      }
+      repeatDaysOfWeek.add(CalEventImpl.getDaysOfTheWeek().get(weekday));
+    }
+    return repeatDaysOfWeek;
+  }
+
+  /**
+   * Create a rule for a series that occurs a set number of times in total.
+   *
+   * @param firstEvent the first event of the series, whose subject, times, and
+   *                   all-day status every occurrence shares.
+   * @param weekdays   the days of the week the series repeats on.
+   * @param count      how many times the series occurs in total.
+   * @return the rule for the series.
+   */
+  public static Recurrence nTimes(
+          QueriableCalEvent firstEvent,
+          Set<DayOfWeek> weekdays,
+          int count
+  ) {
+    return new Recurrence(
+            firstEvent.getSubject(),
+            firstEvent.getStartDateTime(),
+            firstEvent.getEndDateTime(),
+            firstEvent.isAllDay(),
+            maskOf(weekdays),
+            Math.max(count, 1),
+            null,
+            new long[0]
+    );
+  }
+
+  /**
+   * Create a rule for a series that occurs until a given date.
+   *
+   * @param firstEvent the first event of the series, whose subject, times, and
+   *                   all-day status every occurrence shares.
+   * @param weekdays   the days of the week the series repeats on.
+   * @param untilDate  the date before which the last occurrence must be.
+   * @return the rule for the series.
+   */
+  public static Recurrence untilDate(
+          QueriableCalEvent firstEvent,
+          Set<DayOfWeek> weekdays,
+          LocalDate untilDate
+  ) {
+    return new Recurrence(
+            firstEvent.getSubject(),
+            firstEvent.getStartDateTime(),
+            firstEvent.getEndDateTime(),
+            firstEvent.isAllDay(),
+            maskOf(weekdays),
+            -1,
+            untilDate,
+            new long[0]
+    );
+  }
+
+  /**
+   * Create a copy of this rule whose occurrences have a different subject.
+   *
+   * @param subject the subject to give every occurrence.
+   * @return the new rule.
+   */
+  public Recurrence withSubject(String subject) {
+    return new Recurrence(
+            subject,
+            firstStartDateTime,
+            firstEndDateTime,
+            isAllDay,
+            weekdayMask,
+            count,
+            untilDate,
+            exceptDays
+    );
+  }
+
+  /**
+   * Create a copy of this rule that skips the given date, if it occurs on it.
+   *
+   * @param date the date to skip.
+   * @return the new rule, or this rule if it doesn't occur on the given date.
+   */
+  public Recurrence except(LocalDate date) {
+    long day = date.toEpochDay();
+    if (!occursOn(day)) {
+      return this;
+    }
+    int position = -Arrays.binarySearch(exceptDays, day) - 1;
+    long[] days = new long[exceptDays.length + 1];
+    System.arraycopy(exceptDays, 0, days, 0, position);
+    days[position] = day;
+    System.arraycopy(exceptDays, position, days, position + 1, exceptDays.length - position);
+    return new Recurrence(
+            subject,
+            firstStartDateTime,
+            firstEndDateTime,
+            isAllDay,
+            weekdayMask,
+            count,
+            untilDate,
+            days
+    );
+  }
+
+  /**
+   * Retrieve the dates this series skips.
+   *
+   * @return the skipped dates, in order.
+   */
+  public List<LocalDate> getExceptions() {
+    List<LocalDate> dates = new ArrayList<>(exceptDays.length);
+    for (long day : exceptDays) {
+      dates.add(LocalDate.ofEpochDay(day));
+    }
+    return dates;
+  }
+
+  /**
+   * Retrieve the subject every occurrence shares.
+   *
+   * @return the subject every occurrence shares.
+   */
+  public String getSubject() {
+    return subject;
+  }
+
+  /**
+   * Retrieve the start date and time of the first occurrence.
+   *
+   * @return the start date and time of the first occurrence.
+   */
+  public LocalDateTime getFirstStartDateTime() {
+    return firstStartDateTime;
+  }
+
+  /**
+   * Retrieve the end date and time of the first occurrence.
+   *
+   * @return the end date and time of the first occurrence.
+   */
+  public LocalDateTime getFirstEndDateTime() {
+    return firstEndDateTime;
+  }
+
+  /**
+   * Find out whether every occurrence is all day or not.
+   *
+   * @return the all-day status of every occurrence.
+   */
+  public boolean isAllDay() {
+    return isAllDay;
+  }
+
+  /**
+   * Retrieve the days of the week this series repeats on.
+   *
+   * @return the days of the week this series repeats on.
+   */
+  public Set<DayOfWeek> getWeekdays() {
+    Set<DayOfWeek> weekdays = EnumSet.noneOf(DayOfWeek.class);
+    for (DayOfWeek day : DayOfWeek.values()) {
+      if (repeatsOn(day.ordinal())) {
+        weekdays.add(day);
+      }
+    }
+    return weekdays;
+  }
+
+  /**
+   * Retrieve how many times this series occurs in total, if it is bounded by a
+   * number of occurrences.
+   *
+   * @return the total number of occurrences, or -1 if bounded by a date instead.
+   */
+  public int getCount() {
+    return count;
+  }
+
+  /**
+   * Retrieve the date before which every occurrence is, if this series is
+   * bounded by a date.
+   *
+   * @return the bounding date, or null if bounded by a number of occurrences.
+   */
+  public LocalDate getUntilDate() {
+    return untilDate;
+  }
+
+  /**
+   * Work out how many occurrences this series has.
+   *
+   * @return the number of occurrences of this series.
+   */
+  public int size() {
+    if (untilDate == null) {
+      return ((weekdayMask != 0) ? count : 1) - exceptDays.length;
+    }
+    long lastCandidate = untilDate.toEpochDay() - 1;
+    return 1 + (int) repeatsBetween(firstDay(), Math.max(firstDay(), lastCandidate))
+            - exceptDays.length;
+  }
+
+  /**
+   * Retrieve the end date and time of the last occurrence.
+   *
+   * @return the end date and time of the last occurrence.
+   */
+  public LocalDateTime getLastEndDateTime() {
+    return firstEndDateTime.plusDays(lastDay() - firstDay());
+  }
+
+  /**
+   * Find out whether this series has an occurrence on the given date.
+   *
+   * @param date the date in question.
+   * @return whether this series occurs on the given date.
+   */
+  public boolean occursOn(LocalDate date) {
+    return occursOn(date.toEpochDay());
+  }
+
+  /**
+   * Find out whether this series has an occurrence with the given start date
+   * and time.
+   *
+   * @param startDateTime the start date and time in question.
+   * @return whether an occurrence starts at the given date and time.
+   */
+  public boolean hasOccurrenceStartingAt(LocalDateTime startDateTime) {
+    return startDateTime.toLocalTime().equals(firstStartDateTime.toLocalTime())
+            && occursOn(startDateTime.toLocalDate());
+  }
+
+  /**
+   * Find out whether an occurrence of this series starts strictly before and
+   * ends strictly after the given instant.
+   *
+   * @param instant the instant in question.
+   * @return whether an occurrence contains the given instant.
+   */
+  public boolean hasOccurrenceContaining(LocalDateTime instant) {
+    // only occurrences starting less than one length before the instant qualify
+    long lastDay = instant.toLocalDate().toEpochDay();
+    long firstCandidate = lastDay - lengthInDays() - 1;
+    for (long day = Math.max(firstCandidate, firstDay()); day <= lastDay; day++) {
+      long shift = day - firstDay();
+      if (occursOn(day)
+              && firstStartDateTime.plusDays(shift).isBefore(instant)
+              && firstEndDateTime.plusDays(shift).isAfter(instant)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Create the occurrence of this series on the given date, which must be a date
+   * this series occurs on.
+   *
+   * @param date   the date of the occurrence.
+   * @param series the series the occurrence should belong to.
+   * @return a new event for the occurrence on the given date.
+   */
+  public RobustCalEvent occurrenceOn(LocalDate date, RobustCalEvent.Series series) {
+    RobustCalEvent occurrence = isAllDay
+            ? new CalEventImpl(subject, date)
+            : new CalEventImpl(
+                    subject,
+                    firstStartDateTime.plusDays(date.toEpochDay() - firstDay()),
+                    firstEndDateTime.plusDays(date.toEpochDay() - firstDay())
+            );
+    occurrence.setSeries(series);
+    return occurrence;
+  }
+
+  /**
+   * Create every occurrence of this series that starts before the end of the
+   * given interval and ends after its start, in order.
+   *
+   * @param from   the start of the interval.
+   * @param to     the end of the interval.
+   * @param series the series the occurrences should belong to.
+   * @param action what to do with each occurrence.
+   */
+  public void forEachOccurrence(
+          LocalDateTime from,
+          LocalDateTime to,
+          RobustCalEvent.Series series,
+          Consumer<? super RobustCalEvent> action
+  ) {
+    long firstCandidate = Math.max(
+            firstDay(), from.toLocalDate().toEpochDay() - lengthInDays() - 1
+    );
+    long lastCandidate = Math.min(lastDay(), to.toLocalDate().toEpochDay());
+    for (long day = firstCandidate; day <= lastCandidate; day++) {
+      long shift = day - firstDay();
+      if (occursOn(day)
+              && firstStartDateTime.plusDays(shift).isBefore(to)
+              && firstEndDateTime.plusDays(shift).isAfter(from)) {
+        action.accept(occurrenceOn(LocalDate.ofEpochDay(day), series));
+      }
+    }
+  }
+
+  /**
+   * Walk the occurrences of this series that start before the end of the given
+   * interval and end after its start, in order, creating each one only when it
+   * is asked for.
+   *
+   * @param from   the start of the interval.
+   * @param to     the end of the interval.
+   * @param series the series the occurrences should belong to.
+   * @return an iterator over every overlapping occurrence.
+   */
+  public Iterator<RobustCalEvent> occurrences(
+          LocalDateTime from,
+          LocalDateTime to,
+          RobustCalEvent.Series series
+  ) {
+    long firstCandidate = Math.max(
+            firstDay(), from.toLocalDate().toEpochDay() - lengthInDays() - 1
+    );
+    long lastCandidate = Math.min(lastDay(), to.toLocalDate().toEpochDay());
+    return new Iterator<>() {
+      private long day = nextDay(firstCandidate);
+
+      @Override
+      public boolean hasNext() {
+        return day <= lastCandidate;
+      }
+
+      @Override
+      public RobustCalEvent next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException("No more occurrences!");
+        }
+        RobustCalEvent occurrence = occurrenceOn(LocalDate.ofEpochDay(day), series);
+        day = nextDay(day + 1);
+        return occurrence;
+      }
+
+      private long nextDay(long candidate) {
+        // skip to the next day with an occurrence overlapping the interval
+        for (; candidate <= lastCandidate; candidate++) {
+          long shift = candidate - firstDay();
+          if (occursOn(candidate)
+                  && firstStartDateTime.plusDays(shift).isBefore(to)
+                  && firstEndDateTime.plusDays(shift).isAfter(from)) {
+            return candidate;
+          }
+        }
+        return candidate;
+      }
+    };
+  }
+
+  /**
+   * Create every occurrence of this series, in order.
+   *
+   * @param series the series the occurrences should belong to.
+   * @param action what to do with each occurrence.
+   */
+  public void forEachOccurrence(
+          RobustCalEvent.Series series,
+          Consumer<? super RobustCalEvent> action
+  ) {
+    long lastDay = lastDay();
+    for (long day = firstDay(); day <= lastDay; day++) {
+      if (occursOn(day)) {
+        action.accept(occurrenceOn(LocalDate.ofEpochDay(day), series));
+      }
+    }
+  }
+
+  private boolean occursOn(long day) {
+    return isInPattern(day) && Arrays.binarySearch(exceptDays, day) < 0;
+  }
+
+  private boolean isInPattern(long day) {
+    if (day == firstDay()) {
+      return true;
+    } else if (day < firstDay() || !repeatsOn(dayOfWeek(day))) {
+      return false;
+    } else if (untilDate == null) {
+      // the first occurrence is not counted among the repeats
+      return repeatsBetween(firstDay(), day) < count;
+    } else {
+      return day < untilDate.toEpochDay();
+    }
+  }
+
+  private long firstDay() {
+    return firstStartDateTime.toLocalDate().toEpochDay();
+  }
+
+  private long lastDay() {
+    long day = lastPatternDay();
+    // skipped days at the end don't count, though the first day stays the anchor
+    while (day > firstDay() && !occursOn(day)) {
+      day--;
+    }
+    return day;
+  }
+
+  private long lastPatternDay() {
+    if (untilDate == null) {
+      if (weekdayMask == 0 || count <= 1) {
+        return firstDay();
+      }
+      // skip whole weeks of repeats, then walk the final week day by day
+      int perWeek = Integer.bitCount(weekdayMask);
+      int repeatsLeft = count - 1;
+      long day = firstDay() + 7L * ((repeatsLeft - 1) / perWeek);
+      int repeatsInLastWeek = (repeatsLeft - 1) % perWeek + 1;
+      while (repeatsInLastWeek > 0) {
+        day++;
+        if (repeatsOn(dayOfWeek(day))) {
+          repeatsInLastWeek--;
+        }
+      }
+      return day;
+    }
+    for (long day = untilDate.toEpochDay() - 1; day > firstDay(); day--) {
+      if (repeatsOn(dayOfWeek(day))) {
+        return day;
+      }
+    }
+    return firstDay();
+  }
+
+  private long lengthInDays() {
+    return ChronoUnit.DAYS.between(firstStartDateTime, firstEndDateTime);
+  }
+
+  /**
+   * Count the days after one day, up to and including another, that this series
+   * repeats on.
+   */
+  private long repeatsBetween(long afterDay, long upToDay) {
+    long days = upToDay - afterDay;
+    long repeats = days / 7 * Integer.bitCount(weekdayMask);
+    for (long day = afterDay + days / 7 * 7 + 1; day <= upToDay; day++) {
+      if (repeatsOn(dayOfWeek(day))) {
+        repeats++;
+      }
+    }
+    return repeats;
+  }
+
+  private boolean repeatsOn(int dayOfWeek) {
+    return (weekdayMask & (1 << dayOfWeek)) != 0;
+  }
+
+  private static int dayOfWeek(long epochDay) {
+    // the epoch, 1970-01-01, was a Thursday
+    return (int) Math.floorMod(epochDay + 3, 7L);
+  }
+
+  private static int maskOf(Set<DayOfWeek> weekdays) {
+    int mask = 0;
+    for (DayOfWeek day : weekdays) {
+      mask |= 1 << day.ordinal();
+    }
+    return mask;
+  }
+}
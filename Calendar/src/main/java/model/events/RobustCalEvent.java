@@ -11,10 +11,14 @@ import java.util.TreeSet;
 public interface RobustCalEvent extends EditableCalEvent, QueriableCalEvent {
   /**
    * A class representing a series of calendar events, useful for keeping track
-   * of a series of recurring events.
+   * of a series of recurring events. A series either stores its events, or
+   * the {@link Recurrence} rule they follow, in which case its events are worked
+   * out from the rule whenever they are needed. A series with a rule may also
+   * store some of its events, which the rule then skips the dates of.
    */
   class Series {
     private final TreeSet<RobustCalEvent> events;
+    private Recurrence rule;
 
     /**
      * Construct a new, empty series of calendar events.
@@ -24,11 +28,59 @@ public interface RobustCalEvent extends EditableCalEvent, QueriableCalEvent {
     }
 
     /**
-     * Retrieve all the events in this series.
+     * Construct a new series of calendar events whose events are only stored
+     * as the rule they follow.
+     *
+     * @param rule the rule the events of this series follow.
+     */
+    public Series(Recurrence rule) {
+      this();
+      this.rule = rule;
+    }
+
+    /**
+     * Retrieve the rule the events of this series follow, if they are not all
+     * stored.
+     *
+     * @return the rule of this series, or null if its events are stored.
+     */
+    public Recurrence getRule() {
+      return rule;
+    }
+
+    /**
+     * Set the rule the events of this series follow, or stop working out its
+     * events from a rule by passing null.
+     *
+     * @param rule the new rule of this series, or null.
+     */
+    public void setRule(Recurrence rule) {
+      this.rule = rule;
+    }
+
+    /**
+     * Retrieve all the events in this series. If this series has a rule, the
+     * events are newly created from it, along with the ones stored, so changing
+     * the set has no effect on this series.
      *
      * @return the set of all events contained in this series.
      */
     public TreeSet<RobustCalEvent> getEvents() {
+      if (rule != null) {
+        TreeSet<RobustCalEvent> occurrences = new TreeSet<>(events);
+        rule.forEachOccurrence(this, occurrences::add);
+        return occurrences;
+      }
+      return events;
+    }
+
+    /**
+     * Retrieve the events this series stores, leaving out the occurrences of
+     * its rule, if any.
+     *
+     * @return the set of the stored events of this series.
+     */
+    public TreeSet<RobustCalEvent> getStoredEvents() {
       return events;
     }
 
@@ -1,27 +1,123 @@
 package model.events;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.time.ZoneId;
 
 /**
- * An auxiliary class that stores the zone of a calendar in an event
- * for printing purposes, never used other than the case of methods
- * that print events.
+ * An auxiliary class that shows an event along with the zone of its calendar
+ * for printing purposes, never used other than the case of methods that print
+ * events. It is a read-only view of the event rather than a copy of it, so it
+ * keeps all of the event's properties without copying any of them, and it must
+ * only be handed events that won't be changed while it is in use.
  */
 public class ZonedCalEventImpl extends CalEventImpl {
+  private final RobustCalEvent event;
   private final ZoneId zone;
 
+  /**
+   * Create a view of the given event in the given time zone.
+   *
+   * @param c    the event to show.
+   * @param zone the time zone of the calendar the event is in.
+   */
   public ZonedCalEventImpl(RobustCalEvent c, ZoneId zone) {
-    this.subject = c.getSubject();
-    this.startDateTime = c.getStartDateTime();
-    this.endDateTime = c.getEndDateTime();
-    this.isAllDay = c.isAllDay();
-    this.series = c.getSeries();
-    this.location = c.getLocation();
+    this.event = c;
     this.zone = zone;
   }
 
   @Override
-  public String toString() {
-    return String.format("%s in time zone %s", super.toString(), zone);
+  public String getSubject() {
+    return event.getSubject();
+  }
+
+  @Override
+  public LocalDateTime getStartDateTime() {
+    return event.getStartDateTime();
+  }
+
+  @Override
+  public LocalDateTime getEndDateTime() {
+    return event.getEndDateTime();
+  }
+
+  @Override
+  public boolean isAllDay() {
+    return event.isAllDay();
+  }
+
+  @Override
+  public Series getSeries() {
+    return event.getSeries();
+  }
+
+  @Override
+  public String getDescription() {
+    return event.getDescription();
+  }
+
+  @Override
+  protected String getDescriptionOrNull() {
+    return (event instanceof CalEventImpl c) ? c.getDescriptionOrNull() : event.getDescription();
+  }
+
+  @Override
+  public Location getLocation() {
+    return event.getLocation();
+  }
+
+  @Override
+  public Status getStatus() {
+    return event.getStatus();
+  }
+
+  @Override
+  public void setSubject(String subject) {
+    throw readOnly();
+  }
+
+  @Override
+  public void setSeries(Series series) {
+    throw readOnly();
+  }
+
+  @Override
+  public void setAllDay() {
+    throw readOnly();
+  }
+
+  @Override
+  public void setStartDateTime(String startDateStringTtimeString) {
+    throw readOnly();
+  }
+
+  @Override
+  public void setDescription(String description) {
+    throw readOnly();
+  }
+
+  @Override
+  public void setEndDateTime(String endDateStringTtimeString) {
+    throw readOnly();
+  }
+
+  @Override
+  public void setLocation(String location) {
+    throw readOnly();
+  }
+
+  @Override
+  public void setStatus(String status) {
+    throw readOnly();
+  }
+
+  @Override
+  public void appendTo(Appendable out) throws IOException {
+    event.appendTo(out, zone);
+  }
+
+  private static UnsupportedOperationException readOnly() {
+    return new UnsupportedOperationException("Printed events can't be edited; " +
+            "edit them through their calendar instead.");
   }
 }
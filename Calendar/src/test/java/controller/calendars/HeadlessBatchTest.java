@@ -0,0 +1,90 @@
+package controller.calendars;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import model.calendars.CalendarsImpl;
+
+/**
+ * A JUnit 5 test class for the {@link HeadlessBatch} class.
+ */
+public class HeadlessBatchTest {
+  @TempDir
+  Path directory;
+
+  private String runBatch(String commands, int bufferSize, long expectedLines) throws IOException {
+    return runBatch(commands, 1, bufferSize, expectedLines);
+  }
+
+  private String runBatch(String commands, int threads, int bufferSize, long expectedLines) throws IOException {
+    Path commandFile = directory.resolve("commands.txt");
+    Files.writeString(commandFile, commands, StandardCharsets.UTF_8);
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    assertEquals(expectedLines, HeadlessBatch.run(commandFile, output, new CalendarsImpl(), threads, bufferSize));
+    return output.toString(StandardCharsets.UTF_8);
+  }
+
+  @Test
+  public void testRunsEveryLineWithoutPrompts() throws IOException {
+    // a tiny buffer splits lines across reads and has to grow for the longest ones
+    String output = runBatch("create calendar --name Work --timezone UTC\r\n"
+            + "use calendar --name Work\n"
+            + "create event Standup from 2024-07-01T09:00 to 2024-07-01T09:30\n"
+            + "create event Backwards from 2024-07-01T10:00 to 2024-07-01T09:00\n"
+            + "\n"
+            + "create event Café Meeting on 2024-07-02", 16, 6);
+
+    assertTrue(output.contains("Created \"Standup\" from 2024-07-01T09:00 to 2024-07-01T09:30"));
+    assertTrue(output.contains("ACTION FAILED: "));
+    assertTrue(output.contains("Unfortunately, no actions matched. Please try again."));
+    assertTrue(output.contains("Café Meeting"));
+    assertFalse(output.contains("Welcome"));
+    assertFalse(output.contains("Please enter"));
+  }
+
+  @Test
+  public void testStopsAtExit() throws IOException {
+    // checks that nothing after an exit command is run
+    String output = runBatch("create calendar --name Work --timezone UTC\n"
+            + "use calendar --name Work\n"
+            + "exit\n"
+            + "create event Standup from 2024-07-01T09:00 to 2024-07-01T09:30\n", 1 << 10, 3);
+
+    assertFalse(output.contains("Standup"));
+  }
+
+  @Test
+  public void testThreadsKeepTheOutputInOrder() throws IOException {
+    // checks that commands spread over threads print the same as when run one by one
+    StringBuilder commands = new StringBuilder("create event Early on 2024-07-01\n");
+    for (String name : new String[] {"Home", "Work", "Gym"}) {
+      commands.append("create calendar --name ").append(name).append(" --timezone UTC\n");
+    }
+    for (int round = 0; round < 20; round++) {
+      for (String name : new String[] {"Home", "Work", "Gym"}) {
+        commands.append("use calendar --name ").append(name).append("\n");
+        for (int day = 1; day <= 9; day++) {
+          commands.append("create event ").append(name).append(" ").append(round)
+                  .append(" from 2024-07-0").append(day).append("T09:00 to 2024-07-0").append(day).append("T10:00\n");
+          commands.append("print events on 2024-07-0").append(day).append("\n");
+        }
+        commands.append("create event Backwards from 2024-07-01T10:00 to 2024-07-01T09:00\n");
+        commands.append("use calendar --name Nowhere\n");
+        commands.append("not a command\n");
+      }
+      commands.append("copy events on 2024-07-0").append(round % 9 + 1).append(" --target Gym to 2024-08-01\n");
+    }
+    commands.append("use calendar --name Gym\nprint events on 2024-08-01\n");
+
+    String oneByOne = runBatch(commands.toString(), 1, 1 << 10, 1346);
+    assertEquals(oneByOne, runBatch(commands.toString(), 4, 1 << 10, 1346));
+    assertTrue(oneByOne.contains("ACTION FAILED: "));
+  }
+}
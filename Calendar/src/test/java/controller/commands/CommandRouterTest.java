@@ -0,0 +1,38 @@
+package controller.commands;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommandRouterTest {
+  private final List<String> tried = new ArrayList<>();
+
+  private CommandRouter<StringBuilder> router() {
+    return new CommandRouter<StringBuilder>()
+            .put("print menu", "print menu"::equals, p -> r -> o -> { r.append("menu"); return null; })
+            .put("create event", p -> { tried.add("single"); return p.endsWith("to b"); }, p -> r -> o -> { r.append("single"); return null; })
+            .put("create event", p -> { tried.add("all day"); return p.contains(" on "); }, p -> r -> o -> { r.append("all day"); return null; })
+            .put("print events", p -> { tried.add("print"); return true; }, p -> r -> o -> { r.append("print"); return null; });
+  }
+
+  @Test
+  void find_onlyTriesCommandsStartingWithTheSameWords() {
+    StringBuilder model = new StringBuilder();
+    router().find("create event x on 2024-07-01").apply("").apply(model).apply(model);
+    assertEquals("all day", model.toString());
+    assertEquals(List.of("single", "all day"), tried);
+  }
+
+  @Test
+  void find_returnsNullForUnknownCommands() {
+    CommandRouter<StringBuilder> router = router();
+    assertNull(router.find("create calendar --name x --timezone UTC"));
+    assertNull(router.find("print"));
+    assertNull(router.find("create event x from a to c"));
+    assertNotNull(router.find("print menu"));
+    assertEquals(List.of("single", "all day"), tried);
+  }
+}
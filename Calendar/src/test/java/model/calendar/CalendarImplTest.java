@@ -3,11 +3,18 @@ package model.calendar;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
 import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeParseException;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Set;
 
+import model.events.EventProperty;
 import model.events.RobustCalEvent;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -114,6 +121,63 @@ class CalendarImplTest {
             cal.createRecurringNormalEventsUntilDate("until bad date", "2024-07-01T09:00", "2024-07-01T10:00", "M", "2024/07/08"));
   }
 
+  @Test
+  void createRecurringNormalEventsUntilDate_includesEveryDateBeforeUntilDate() {
+    cal.createRecurringNormalEventsUntilDate("Sync", "2024-07-01T09:00", "2024-07-01T10:00", "M", "2024-07-10");
+    List<LocalDateTime> starts = cal.getEvents().stream().map(RobustCalEvent::getStartDateTime).toList();
+    assertEquals(List.of(LocalDateTime.parse("2024-07-01T09:00"), LocalDateTime.parse("2024-07-08T09:00")), starts);
+  }
+
+  @Test
+  void createRecurringNormalEventsNTimes_repeatsOnEachWeekdayInOrder() {
+    cal.createRecurringNormalEventsNTimes("Class", "2024-07-03T09:00", "2024-07-03T10:00", "MWF", 5);
+    List<String> starts = cal.getEvents().stream().map(e -> e.getStartDateTime().toString()).toList();
+    assertEquals(List.of("2024-07-03T09:00", "2024-07-05T09:00", "2024-07-08T09:00",
+            "2024-07-10T09:00", "2024-07-12T09:00"), starts);
+  }
+
+  @Test
+  void createRecurringAllDayEventsUntilDate_longSeriesIsQueriedWithoutStoringEvents() {
+    cal.createRecurringAllDayEventsUntilDate("Standup", "2024-07-01", "MTWRF", "2035-01-01");
+    List<RobustCalEvent> onDate = cal.printAllEventsOnDate("2034-06-14");
+    assertEquals(1, onDate.size());
+    assertTrue(onDate.getFirst().isAllDay());
+    assertNotNull(onDate.getFirst().getSeries());
+    assertTrue(cal.printAllEventsOnDate("2034-06-17").isEmpty()); // a Saturday
+    assertEquals("busy", cal.showStatusOnDateAtTime("2034-06-14T12:00"));
+    assertEquals("available", cal.showStatusOnDateAtTime("2034-06-17T12:00"));
+    assertEquals(5, cal.printAllEventsBetweenDates("2030-03-03T12:00", "2030-03-10T12:00").size());
+  }
+
+  @Test
+  void printAllEventsOnDate_mergesSeriesOccurrencesInOrderWithoutDuplicates() {
+    cal.createRecurringNormalEventsNTimes("Gym", "2024-07-01T18:00", "2024-07-01T19:00", "M", 3);
+    cal.createSingleNormalEvent("Gym", "2024-07-08T18:00", "2024-07-08T19:00");
+    cal.createSingleNormalEvent("Breakfast", "2024-07-08T08:00", "2024-07-08T09:00");
+    List<String> subjects = cal.printAllEventsOnDate("2024-07-08").stream()
+            .map(RobustCalEvent::getSubject).toList();
+    assertEquals(List.of("Breakfast", "Gym"), subjects);
+    assertEquals(4, cal.getEvents().size());
+  }
+
+  @Test
+  void editSingleEvent_onSeriesOccurrenceOnlyChangesThatOccurrence() {
+    cal.createRecurringNormalEventsNTimes("Series X", "2024-07-01T09:00", "2024-07-01T10:00", "M", 3);
+    cal.editSingleEvent("subject", "Series X", "2024-07-08T09:00", "2024-07-08T10:00", "Moved");
+    List<String> subjects = cal.getEvents().stream().map(RobustCalEvent::getSubject).toList();
+    assertEquals(List.of("Series X", "Moved", "Series X"), subjects);
+    cal.getEvents().forEach(event -> assertNotNull(event.getSeries()));
+  }
+
+  @Test
+  void editEventAndMaybeAll_renamedSeriesNoLongerFoundByOldSubject() {
+    cal.createRecurringAllDayEventsNTimes("Old", "2024-07-01", "MW", 4);
+    cal.editEventAndMaybeAll("subject", "Old", "2024-07-03T08:00", "New");
+    assertNull(cal.getEvent("Old", "2024-07-08T08:00"));
+    assertEquals("New", cal.getEvent("New", "2024-07-08T08:00").getSubject());
+    assertEquals(4, cal.getEvents().size());
+  }
+
   // edit single event tests
   @Test
   void editSingleEvent_changeSubject() {
@@ -129,6 +193,90 @@ class CalendarImplTest {
             cal.editSingleEvent("invalidproperty", "Valid Event", "2024-07-01T09:00", "2024-07-01T10:00", "value"));
   }
 
+  @Test
+  void editSingleEvent_picksEventWithMatchingEnd() {
+    cal.createSingleNormalEvent("Call", "2024-07-01T09:00", "2024-07-01T09:30");
+    cal.createSingleNormalEvent("Call", "2024-07-01T09:00", "2024-07-01T10:00");
+    cal.editSingleEvent("subject", "Call", "2024-07-01T09:00", "2024-07-01T10:00", "Long Call");
+    assertEquals("Call", cal.getEvent("Call", "2024-07-01T09:00").getSubject());
+    assertEquals(LocalDateTime.parse("2024-07-01T09:30"),
+            cal.getEvent("Call", "2024-07-01T09:00").getEndDateTime());
+    assertEquals(LocalDateTime.parse("2024-07-01T10:00"),
+            cal.getEvent("Long Call", "2024-07-01T09:00").getEndDateTime());
+  }
+
+  @Test
+  void editSingleEvent_renamedEventNoLongerFoundByOldSubject() {
+    cal.createSingleNormalEvent("Old", "2024-07-01T09:00", "2024-07-01T10:00");
+    cal.editSingleEvent("subject", "Old", "2024-07-01T09:00", "2024-07-01T10:00", "New");
+    assertNull(cal.getEvent("Old", "2024-07-01T09:00"));
+    assertThrows(IllegalArgumentException.class, () ->
+            cal.editSingleEvent("subject", "Old", "2024-07-01T09:00", "2024-07-01T10:00", "Again"));
+  }
+
+  @Test
+  void editSingleEvent_clashingWithExistingEventThrowsAndChangesNothing() {
+    cal.createSingleNormalEvent("A", "2024-07-01T09:00", "2024-07-01T10:00");
+    cal.createSingleNormalEvent("B", "2024-07-01T09:00", "2024-07-01T10:00");
+    assertThrows(IllegalArgumentException.class, () ->
+            cal.editSingleEvent("subject", "B", "2024-07-01T09:00", "2024-07-01T10:00", "A"));
+    assertEquals(2, cal.getEvents().size());
+    assertNotNull(cal.getEvent("B", "2024-07-01T09:00"));
+  }
+
+  @Test
+  void editSingleEvent_clashingWithAnOccurrenceOfARuleThrowsAndChangesNothing() {
+    cal.createRecurringNormalEventsNTimes("A", "2024-07-01T09:00", "2024-07-01T10:00", "M", 2);
+    cal.createSingleNormalEvent("B", "2024-07-08T09:00", "2024-07-08T10:00");
+    assertThrows(IllegalArgumentException.class, () ->
+            cal.editSingleEvent("subject", "B", "2024-07-08T09:00", "2024-07-08T10:00", "A"));
+    assertEquals(3, cal.getEvents().size());
+    assertNotNull(cal.getEvent("B", "2024-07-08T09:00"));
+  }
+
+  @Test
+  void editSingleEvent_onALongSeriesOnlyStoresTheEditedOccurrence() {
+    CalendarImpl calendar = new CalendarImpl();
+    calendar.createRecurringNormalEventsUntilDate("Standup", "2024-07-01T09:00", "2024-07-01T09:15", "MTWRF", "2035-01-01");
+    int occurrences = calendar.getEvents().size();
+    calendar.editSingleEvent("location", "Standup", "2024-07-03T09:00", "2024-07-03T09:15", "online");
+    calendar.editSingleEvent("end", "Standup", "2024-07-04T09:00", "2024-07-04T09:15", "2024-07-04T09:30");
+    assertEquals(2, calendar.getSnapshot().storedEvents().size());
+    assertEquals(occurrences, calendar.getEvents().size());
+    assertEquals(occurrences - 1, calendar.getEvent("Standup", "2024-07-01T09:00").getSeries().getEvents().size());
+    assertEquals("online", calendar.getEvent("Standup", "2024-07-03T09:00").getLocation().getStringRepresentation());
+    assertNull(calendar.getEvent("Standup", "2024-07-04T09:00").getSeries());
+    assertTrue(calendar.getEvents().contains(calendar.getEvent("Standup", "2024-07-05T09:00")));
+
+    // the stored occurrence is still part of the series
+    calendar.editEventAndMaybeAll("location", "Standup", "2024-07-01T09:00", "physical");
+    assertEquals("physical", calendar.getEvent("Standup", "2024-07-03T09:00").getLocation().getStringRepresentation());
+    assertEquals("physical", calendar.getEvent("Standup", "2034-12-29T09:00").getLocation().getStringRepresentation());
+    assertNull(calendar.getEvent("Standup", "2024-07-04T09:00").getLocation());
+  }
+
+  @Test
+  void editEventAndMaybeAll_keepsSeriesOrderedAfterChangingStart() {
+    cal.createRecurringNormalEventsNTimes("Series X", "2024-07-01T09:00", "2024-07-01T10:00", "M", 3);
+    cal.editEventAndMaybeAll("start", "Series X", "2024-07-08T09:00", "2024-07-01T08:00");
+    RobustCalEvent.Series series = cal.getEvent("Series X", "2024-07-01T08:00").getSeries();
+    assertEquals(3, series.getEvents().size());
+    for (RobustCalEvent event : cal.getEvents()) {
+      assertEquals(LocalDateTime.parse("2024-07-01T08:00"), event.getStartDateTime());
+      assertTrue(series.getEvents().contains(event));
+    }
+  }
+
+  @Test
+  void getEvent_returnsFirstEventWithSubjectAndStart() {
+    cal.createSingleNormalEvent("Review", "2024-07-01T09:00", "2024-07-01T11:00");
+    cal.createSingleNormalEvent("Review", "2024-07-01T09:00", "2024-07-01T10:00");
+    assertEquals(LocalDateTime.parse("2024-07-01T10:00"),
+            cal.getEvent("Review", "2024-07-01T09:00").getEndDateTime());
+    assertNull(cal.getEvent("Review", "2024-07-01T09:30"));
+    assertNull(cal.getEvent("Other", "2024-07-01T09:00"));
+  }
+
   // edit events and maybe onward tests
   @Test
   void editEventAndMaybeOnward_singleEventBecomesSingleEvent() {
@@ -138,6 +286,57 @@ class CalendarImplTest {
   }
 
 
+  @Test
+  void editEventAndMaybeOnward_movesFollowingEventsIntoTheirOwnSeries() {
+    cal.createRecurringNormalEventsNTimes("Sync", "2024-07-01T09:00", "2024-07-01T10:00", "M", 4);
+    cal.editEventAndMaybeOnward("end", "Sync", "2024-07-15T09:00", "2024-07-29T10:30");
+    assertEquals(LocalDateTime.parse("2024-07-08T10:00"), cal.getEvent("Sync", "2024-07-08T09:00").getEndDateTime());
+    // each following event takes the same new end, as when editing the whole series
+    assertEquals(LocalDateTime.parse("2024-07-29T10:30"), cal.getEvent("Sync", "2024-07-15T09:00").getEndDateTime());
+    assertEquals(LocalDateTime.parse("2024-07-29T10:30"), cal.getEvent("Sync", "2024-07-22T09:00").getEndDateTime());
+    // the earlier events stay in the old series, the moved ones make up a new one
+    cal.editEventAndMaybeAll("location", "Sync", "2024-07-15T09:00", "online");
+    assertEquals("online", cal.getEvent("Sync", "2024-07-22T09:00").getLocation()
+            .getStringRepresentation());
+    assertNull(cal.getEvent("Sync", "2024-07-08T09:00").getLocation());
+  }
+
+  @Test
+  void editEventAndMaybeOnward_fromTheFirstEventMatchesEditingAll() {
+    cal.createRecurringNormalEventsNTimes("T", "2024-07-01T09:00", "2024-07-01T10:00", "MW", 4);
+    cal.editEventAndMaybeOnward("start", "T", "2024-07-01T09:00", "2024-07-01T08:00");
+    RobustCalendar other = new CalendarImpl();
+    other.createRecurringNormalEventsNTimes("T", "2024-07-01T09:00", "2024-07-01T10:00", "MW", 4);
+    other.editEventAndMaybeAll("start", "T", "2024-07-03T09:00", "2024-07-01T08:00");
+    assertEquals(other.getEvents().toString(), cal.getEvents().toString());
+    assertEquals(4, cal.getEvents().size());
+  }
+
+  @Test
+  void editEventAndMaybeOnward_clashingTimeEditThrowsAndChangesNothing() {
+    cal.createRecurringNormalEventsNTimes("T", "2024-07-01T09:00", "2024-07-01T10:00", "MW", 4);
+    // the event on 07/08 would take the key of this one
+    cal.createSingleNormalEvent("T", "2024-07-01T08:00", "2024-07-08T10:00");
+    String before = cal.getEvents().toString();
+    assertThrows(IllegalArgumentException.class, () ->
+            cal.editEventAndMaybeOnward("start", "T", "2024-07-01T09:00", "2024-07-01T08:00"));
+    assertEquals(before, cal.getEvents().toString());
+    // the events that come before the clashing one are still one series
+    cal.editEventAndMaybeAll("location", "T", "2024-07-10T09:00", "online");
+    assertEquals("online", cal.getEvent("T", "2024-07-01T09:00").getLocation().getStringRepresentation());
+    assertEquals("online", cal.getEvent("T", "2024-07-03T09:00").getLocation().getStringRepresentation());
+  }
+
+  @Test
+  void editEventAndMaybeOnward_renamesTheRestOfALongSeries() {
+    cal.createRecurringNormalEventsNTimes("Standup", "2024-01-01T09:00", "2024-01-01T09:15", "MTWRF", 5000);
+    cal.editEventAndMaybeOnward("subject", "Standup", "2025-01-01T09:00", "Daily");
+    assertNotNull(cal.getEvent("Standup", "2024-12-31T09:00"));
+    assertNull(cal.getEvent("Standup", "2025-01-01T09:00"));
+    assertEquals(5000, cal.getEvents().size());
+    assertEquals("Daily", cal.printAllEventsOnDate("2043-02-27").get(0).getSubject());
+  }
+
   // edit series all tests
   @Test
   void editEventAndMaybeAll_singleEventBehavesAsEditSingle() {
@@ -156,6 +355,50 @@ class CalendarImplTest {
     cal.getEvents().forEach(event -> assertEquals("Series Y", event.getSubject()));
   }
 
+  @Test
+  void editEventAndMaybeAll_clashingWithARuleThrowsAndChangesNothing() {
+    cal.createRecurringNormalEventsNTimes("A", "2024-07-01T09:00", "2024-07-01T10:00", "M", 2);
+    cal.createRecurringNormalEventsNTimes("B", "2024-07-01T09:00", "2024-07-01T10:00", "M", 3);
+    cal.editSingleEvent("description", "B", "2024-07-15T09:00", "2024-07-15T10:00", "edited");
+    assertThrows(IllegalArgumentException.class, () ->
+            cal.editEventAndMaybeAll("subject", "B", "2024-07-01T09:00", "A"));
+    assertEquals(5, cal.getEvents().size());
+    assertNotNull(cal.getEvent("A", "2024-07-08T09:00"));
+    assertNotNull(cal.getEvent("B", "2024-07-08T09:00"));
+  }
+
+  @Test
+  void editEventAndMaybeAll_renamingARuleOntoAnotherEventThrowsAndChangesNothing() {
+    cal.createRecurringNormalEventsNTimes("A", "2024-07-01T09:00", "2024-07-01T10:00", "M", 2);
+    cal.createRecurringNormalEventsNTimes("B", "2024-07-01T09:00", "2024-07-01T10:00", "M", 3);
+    cal.createSingleNormalEvent("C", "2024-07-15T09:00", "2024-07-15T10:00");
+    assertThrows(IllegalArgumentException.class, () ->
+            cal.editEventAndMaybeAll("subject", "B", "2024-07-01T09:00", "A"));
+    assertThrows(IllegalArgumentException.class, () ->
+            cal.editEventAndMaybeAll("subject", "B", "2024-07-01T09:00", "C"));
+    assertEquals(6, cal.getEvents().size());
+    assertNotNull(cal.getEvent("B", "2024-07-15T09:00"));
+    cal.editEventAndMaybeAll("subject", "B", "2024-07-01T09:00", "D");
+    assertEquals(6, cal.getEvents().size());
+    assertNotNull(cal.getEvent("D", "2024-07-15T09:00"));
+  }
+
+  @Test
+  void editEventAndMaybeAll_failingEditLeavesTheWholeSeriesAlone() {
+    cal.createRecurringNormalEventsNTimes("Series X", "2024-07-01T09:00", "2024-07-01T10:00", "M", 3); // 07/01 07/08 07/15
+    // the last event would end before it starts
+    assertThrows(DateTimeException.class, () -> cal.editEventAndMaybeAll("end", "Series X", "2024-07-01T09:00", "2024-07-08T09:30"));
+    // the last event would clash with one outside the series
+    cal.createSingleNormalEvent("Series X", "2024-07-15T09:00", "2024-07-15T11:00");
+    assertThrows(IllegalArgumentException.class, () -> cal.editEventAndMaybeAll("end", "Series X", "2024-07-01T09:00", "2024-07-15T11:00"));
+
+    assertEquals(4, cal.getEvents().size());
+    assertEquals(LocalDateTime.parse("2024-07-01T10:00"), cal.getEvent("Series X", "2024-07-01T09:00").getEndDateTime());
+    assertEquals(LocalDateTime.parse("2024-07-08T10:00"), cal.printAllEventsOnDate("2024-07-08").get(0).getEndDateTime());
+    cal.editEventAndMaybeAll("subject", "Series X", "2024-07-08T09:00", "Series Y");
+    assertEquals(3, cal.getEvents().stream().filter((it) -> it.getSubject().equals("Series Y")).count());
+  }
+
   // printing/querying tests
   @Test
   void printAllEventsOnDate_findsEventsOnSpecificDay() {
@@ -173,6 +416,34 @@ class CalendarImplTest {
     assertDoesNotThrow(() -> cal.printAllEventsOnDate("2024-07-03")); // no events
   }
 
+  @Test
+  void printAllEventsOnDate_returnsOnlyThatDaysEvents() {
+    cal.createSingleNormalEvent("Morning", "2024-07-01T08:00", "2024-07-01T09:00");
+    cal.createSingleAllDayEvent("Offsite", "2024-07-01");
+    cal.createSingleNormalEvent("Next Day", "2024-07-02T10:00", "2024-07-02T11:00");
+    assertEquals(List.of("Morning", "Offsite"), cal.printAllEventsOnDate("2024-07-01")
+            .stream().map(RobustCalEvent::getSubject).toList());
+    assertEquals(1, cal.printAllEventsOnDate("2024-07-02").size());
+    assertTrue(cal.printAllEventsOnDate("2024-07-03").isEmpty());
+  }
+
+  @Test
+  void printAllEventsOnDate_findsMultiDayEventOnDaysItStartsAndEnds() {
+    cal.createSingleNormalEvent("Trip", "2024-07-01T20:00", "2024-07-03T02:00");
+    assertEquals(1, cal.printAllEventsOnDate("2024-07-01").size());
+    assertEquals(1, cal.printAllEventsOnDate("2024-07-03").size());
+    assertTrue(cal.printAllEventsOnDate("2024-07-04").isEmpty());
+  }
+
+  @Test
+  void printAllEventsOnDate_followsEditedEventTimes() {
+    cal.createSingleNormalEvent("Moved", "2024-07-01T09:00", "2024-07-01T10:00");
+    cal.editEventAndMaybeOnward("end", "Moved", "2024-07-01T09:00", "2024-07-02T10:00");
+    cal.editEventAndMaybeAll("start", "Moved", "2024-07-01T09:00", "2024-07-02T09:00");
+    assertTrue(cal.printAllEventsOnDate("2024-07-01").isEmpty());
+    assertEquals(1, cal.printAllEventsOnDate("2024-07-02").size());
+  }
+
   @Test
   void printAllEventsBetweenDates_findsEventsInInterval() {
     cal.createSingleNormalEvent("E1", "2024-07-01T09:00", "2024-07-01T10:00");
@@ -186,6 +457,51 @@ class CalendarImplTest {
     assertDoesNotThrow(() -> cal.printAllEventsBetweenDates("2024-07-01T00:00", "2024-07-02T23:59"));
   }
 
+  @Test
+  void printAllEventsBetweenDates_returnsOverlappingEventsInOrder() {
+    cal.createSingleNormalEvent("E4", "2024-07-03T08:00", "2024-07-03T09:00");
+    cal.createSingleNormalEvent("E2", "2024-07-01T11:00", "2024-07-02T01:00");
+    cal.createSingleNormalEvent("E1", "2024-07-01T09:00", "2024-07-01T10:00");
+    cal.createSingleNormalEvent("E3", "2024-07-02T10:00", "2024-07-02T11:00");
+    List<String> subjects = cal.printAllEventsBetweenDates("2024-07-01T00:00", "2024-07-02T23:59")
+            .stream().map(RobustCalEvent::getSubject).toList();
+    assertEquals(List.of("E1", "E2", "E3"), subjects);
+  }
+
+  @Test
+  void printAllEventsBetweenDates_excludesEventsCoveringWholeInterval() {
+    // neither endpoint of this event falls strictly inside the interval
+    cal.createSingleNormalEvent("Retreat", "2024-07-01T00:00", "2024-07-05T00:00");
+    assertTrue(cal.printAllEventsBetweenDates("2024-07-02T00:00", "2024-07-03T00:00").isEmpty());
+    assertEquals(1, cal.printAllEventsBetweenDates("2024-06-30T00:00", "2024-07-03T00:00").size());
+  }
+
+  @Test
+  void printAllEventsBetweenDates_followsEditedEventTimes() {
+    cal.createSingleNormalEvent("Moved", "2024-07-01T09:00", "2024-07-01T10:00");
+    cal.editSingleEvent("end", "Moved", "2024-07-01T09:00", "2024-07-01T10:00", "2024-07-02T10:00");
+    cal.editSingleEvent("start", "Moved", "2024-07-01T09:00", "2024-07-02T10:00", "2024-07-02T09:00");
+    assertTrue(cal.printAllEventsBetweenDates("2024-07-01T00:00", "2024-07-01T23:59").isEmpty());
+    assertEquals(1, cal.printAllEventsBetweenDates("2024-07-02T00:00", "2024-07-02T23:59").size());
+  }
+
+  @Test
+  void printAllEventsBetweenDates_matchesFullScanOnManyEvents() {
+    LocalDateTime base = LocalDateTime.parse("2024-01-01T00:00");
+    for (int i = 0; i < 2000; i++) {
+      LocalDateTime start = base.plusMinutes(i * 97L % 50000);
+      cal.createSingleNormalEvent("E" + i, start.toString(), start.plusMinutes(i % 600).toString());
+    }
+    LocalDateTime from = base.plusDays(10);
+    LocalDateTime to = base.plusDays(13).plusHours(5);
+    long expected = cal.getEvents().stream()
+            .filter(e -> e.getStartDateTime().isAfter(from) && e.getStartDateTime().isBefore(to)
+                    || e.getEndDateTime().isAfter(from) && e.getEndDateTime().isBefore(to))
+            .count();
+    assertTrue(expected > 0);
+    assertEquals(expected, cal.printAllEventsBetweenDates(from.toString(), to.toString()).size());
+  }
+
   @Test
   void showStatusOnDateAtTime_available() {
     cal.createSingleNormalEvent("Meeting", "2024-07-01T09:00", "2024-07-01T10:00");
@@ -204,6 +520,173 @@ class CalendarImplTest {
     assertDoesNotThrow(() -> cal.showStatusOnDateAtTime("2024-07-01T09:00")); // check your logic isafter is exclusive if you want inclusive it's >=
   }
 
+  @Test
+  void showStatusOnDateAtTime_onlyBusyStrictlyInsideEvents() {
+    cal.createSingleNormalEvent("First", "2024-07-01T09:00", "2024-07-01T10:00");
+    cal.createSingleNormalEvent("Second", "2024-07-01T10:00", "2024-07-01T11:00");
+    assertEquals("busy", cal.showStatusOnDateAtTime("2024-07-01T09:30"));
+    assertEquals("busy", cal.showStatusOnDateAtTime("2024-07-01T10:30"));
+    assertEquals("available", cal.showStatusOnDateAtTime("2024-07-01T09:00"));
+    assertEquals("available", cal.showStatusOnDateAtTime("2024-07-01T10:00"));
+    assertEquals("available", cal.showStatusOnDateAtTime("2024-07-01T11:00"));
+  }
+
+  @Test
+  void showStatusOnDateAtTime_findsLongEventBehindShorterOnes() {
+    cal.createSingleNormalEvent("Conference", "2024-07-01T08:00", "2024-07-05T18:00");
+    for (int day = 1; day <= 9; day++) {
+      cal.createSingleNormalEvent("Standup", "2024-07-0" + day + "T09:00", "2024-07-0" + day + "T09:15");
+    }
+    assertEquals("busy", cal.showStatusOnDateAtTime("2024-07-04T13:00"));
+    assertEquals("available", cal.showStatusOnDateAtTime("2024-07-06T13:00"));
+    assertEquals("busy", cal.showStatusOnDateAtTime("2024-07-08T09:10"));
+  }
+
+  @Test
+  void showStatusOnDateAtTime_checksEveryRuleSpanningTheTime() {
+    // long-running rules span the time without having an occurrence there
+    for (int hour = 10; hour < 14; hour++) {
+      cal.createRecurringNormalEventsUntilDate("Block " + hour, "2024-07-01T" + hour + ":00",
+              "2024-07-01T" + hour + ":30", "MTWRF", "2035-12-31");
+    }
+    assertEquals("available", cal.showStatusOnDateAtTime("2030-06-04T10:45"));
+    assertEquals("busy", cal.showStatusOnDateAtTime("2030-06-04T13:15"));
+    assertEquals("available", cal.showStatusOnDateAtTime("2030-06-08T13:15"));
+  }
+
+  // streaming range query tests
+  @Test
+  void streamEventsBetweenDates_matchesPrintedEvents() {
+    cal.createRecurringNormalEventsNTimes("Standup", "2024-07-01T09:00", "2024-07-01T09:15", "MWF", 9);
+    cal.createRecurringNormalEventsNTimes("Standup", "2024-07-03T09:00", "2024-07-03T09:15", "W", 3);
+    cal.createSingleNormalEvent("Standup", "2024-07-05T09:00", "2024-07-05T09:15");
+    cal.createSingleNormalEvent("Review", "2024-07-02T23:00", "2024-07-03T01:00");
+    cal.createSingleAllDayEvent("Offsite", "2024-07-10");
+    assertEquals(
+            cal.printAllEventsBetweenDates("2024-07-02T00:00", "2024-07-12T00:00").toString(),
+            cal.streamEventsBetweenDates("2024-07-02T00:00", "2024-07-12T00:00").toList().toString()
+    );
+    assertEquals(cal.printAllEventsOnDate("2024-07-03").toString(),
+            cal.streamEventsOnDate("2024-07-03").toList().toString());
+    assertEquals(0, cal.streamEventsOnDate("2024-08-01").count());
+  }
+
+  private static String lines(List<RobustCalEvent> events) {
+    StringBuilder lines = new StringBuilder();
+    events.forEach((it) -> lines.append(it).append(System.lineSeparator()));
+    return lines.toString();
+  }
+
+  @Test
+  void writeEventsBetweenDates_writesThePrintedEventsLineByLine() throws IOException {
+    cal.createRecurringNormalEventsNTimes("Standup", "2024-02-26T09:00", "2024-02-26T09:15", "MWF", 6);
+    cal.editSingleEvent("location", "Standup", "2024-02-28T09:00", "2024-02-28T09:15", "online");
+    cal.createSingleNormalEvent("Review", "2024-02-28T23:30", "2024-02-29T00:45");
+    cal.createSingleAllDayEvent("Offsite", "2024-02-29");
+    cal.editSingleEvent("location", "Offsite", "2024-02-29T08:00", "2024-02-29T17:00", "physical");
+    cal.createSingleNormalEvent("Archive", "1969-12-31T23:00", "1970-01-01T01:00");
+    cal.createSingleAllDayEvent("Centenary", "1900-03-01");
+
+    StringBuilder between = new StringBuilder();
+    cal.writeEventsBetweenDates("2024-02-27T00:00", "2024-03-05T00:00", between);
+    assertEquals(lines(cal.printAllEventsBetweenDates("2024-02-27T00:00", "2024-03-05T00:00")),
+            between.toString());
+    StringBuilder onDate = new StringBuilder();
+    cal.writeEventsOnDate("2024-02-29", onDate);
+    assertEquals(lines(cal.printAllEventsOnDate("2024-02-29")), onDate.toString());
+    assertEquals(2, onDate.toString().lines().count());
+
+    StringBuilder longAgo = new StringBuilder();
+    cal.writeEventsBetweenDates("1900-01-01T00:00", "1970-01-02T00:00", longAgo);
+    assertEquals(lines(cal.printAllEventsBetweenDates("1900-01-01T00:00", "1970-01-02T00:00")),
+            longAgo.toString());
+    assertTrue(longAgo.toString().contains("on THURSDAY 1900-03-01"), longAgo.toString());
+  }
+
+  @Test
+  void streamEventsBetweenDates_pagesWithSkipAndLimit() {
+    cal.createRecurringNormalEventsNTimes("Standup", "2024-01-01T09:00", "2024-01-01T09:15", "MTWRF", 2000);
+    List<RobustCalEvent> page = cal.streamEventsBetweenDates("2024-01-01T00:00", "2032-01-01T00:00")
+            .skip(5).limit(3).toList();
+    assertEquals(List.of(LocalDateTime.parse("2024-01-08T09:00"),
+                    LocalDateTime.parse("2024-01-09T09:00"),
+                    LocalDateTime.parse("2024-01-10T09:00")),
+            page.stream().map(RobustCalEvent::getStartDateTime).toList());
+  }
+
+  @Test
+  void printAllEventsOnDate_keepsAllPropertiesAndIgnoresLaterEdits() {
+    cal.createSingleNormalEvent("Talk", "2024-07-01T09:00", "2024-07-01T10:00");
+    cal.editSingleEvent("description", "Talk", "2024-07-01T09:00", "2024-07-01T10:00", "Keynote");
+    cal.editSingleEvent("status", "Talk", "2024-07-01T09:00", "2024-07-01T10:00", "public");
+    cal.editSingleEvent("location", "Talk", "2024-07-01T09:00", "2024-07-01T10:00", "online");
+    RobustCalEvent printed = cal.printAllEventsOnDate("2024-07-01").get(0);
+    cal.editSingleEvent("location", "Talk", "2024-07-01T09:00", "2024-07-01T10:00", "physical");
+    assertEquals("Keynote", printed.getDescription());
+    assertEquals("public", printed.getStatus().getStringRepresentation());
+    assertEquals("\"Talk\", from MONDAY 2024-07-01T09:00 to MONDAY 2024-07-01T10:00; online"
+            + " in time zone null", printed.toString());
+    assertThrows(UnsupportedOperationException.class, () -> printed.setSubject("Other"));
+    assertEquals("physical", cal.printAllEventsBetweenDates("2024-07-01T00:00", "2024-07-02T00:00")
+            .get(0).getLocation().getStringRepresentation());
+  }
+
+  @Test
+  void typedOverloads_matchTheStringApi() {
+    cal.createRecurringNormalEventsNTimes("Standup", LocalDateTime.parse("2024-07-01T09:00"),
+            LocalDateTime.parse("2024-07-01T09:15"), EnumSet.of(DayOfWeek.MONDAY), 3);
+    cal.editEventAndMaybeOnward(EventProperty.LOCATION, "Standup",
+            LocalDateTime.parse("2024-07-08T09:00"), "online");
+    RobustCalendar other = new CalendarImpl();
+    other.createRecurringNormalEventsNTimes("Standup", "2024-07-01T09:00", "2024-07-01T09:15", "M", 3);
+    other.editEventAndMaybeOnward("location", "Standup", "2024-07-08T09:00", "online");
+    assertEquals(other.printAllEventsBetweenDates("2024-07-01T00:00", "2024-07-31T00:00").toString(),
+            cal.printAllEventsBetweenDates("2024-07-01T00:00", "2024-07-31T00:00").toString());
+  }
+
+  @Test
+  void editSingleEvent_unknownPropertyThrowsException() {
+    cal.createSingleAllDayEvent("Holiday", LocalDate.parse("2024-07-04"));
+    assertThrows(IllegalArgumentException.class, () -> cal.editSingleEvent("colour", "Holiday",
+            "2024-07-04T08:00", "2024-07-04T17:00", "red"));
+  }
+
+  @Test
+  void createCopiesOfEvents_shiftsAndKeepsPropertiesButNotSeries() {
+    cal.createRecurringNormalEventsNTimes("Standup", "2024-07-01T09:00", "2024-07-01T09:15", "MTWRF", 500);
+    cal.editEventAndMaybeAll("location", "Standup", "2024-07-01T09:00", "online");
+    cal.createSingleAllDayEvent("Holiday", "2024-07-04");
+    List<RobustCalEvent> july = cal.printAllEventsBetweenDates("2024-07-01T00:00", "2024-08-01T00:00");
+    RobustCalendar other = new CalendarImpl();
+    other.createSingleNormalEvent("Standup", "2024-07-15T09:00", "2024-07-15T09:15");
+    other.createCopiesOfEvents(july, null, Duration.ofDays(14));
+    // the copy landing on the existing event is skipped
+    assertEquals(july.size(), other.getEvents().size());
+    RobustCalEvent copy = other.getEvent("Standup", "2024-07-16T09:00");
+    assertEquals("online", copy.getLocation().getStringRepresentation());
+    assertNull(copy.getSeries());
+    assertEquals(2, other.printAllEventsOnDate("2024-07-18").size());
+    assertTrue(other.getEvent("Holiday", "2024-07-18T08:00").isAllDay());
+  }
+
+  @Test
+  void setZone_keepsTheInstantOfTimedEventsAndTheDateOfAllDayOnes() {
+    cal.setZone("America/New_York");
+    cal.createRecurringNormalEventsNTimes("Sync", "2024-03-04T09:00", "2024-03-04T09:30", "M", 4);
+    cal.createSingleAllDayEvent("Holiday", "2024-03-11");
+    cal.setZone("Europe/London");
+    // New York moves its clocks a few weeks before London does
+    assertNotNull(cal.getEvent("Sync", "2024-03-04T14:00"));
+    assertNotNull(cal.getEvent("Sync", "2024-03-11T13:00"));
+    assertNotNull(cal.getEvent("Sync", "2024-03-25T13:00"));
+    assertTrue(cal.getEvent("Holiday", "2024-03-11T08:00").isAllDay());
+    assertEquals("busy", cal.showStatusOnDateAtTime("2024-03-18T13:15"));
+    // the events still form one series
+    cal.editEventAndMaybeAll("location", "Sync", "2024-03-04T14:00", "online");
+    assertEquals("online", cal.getEvent("Sync", "2024-03-25T13:00").getLocation()
+            .getStringRepresentation());
+  }
+
   // overlap edge cases for printalleventsbetweendates based on your helper logic
   @Test
   void eventPrintingHelper_condition1_endDuringInterval() {
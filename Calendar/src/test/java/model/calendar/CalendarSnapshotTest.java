@@ -0,0 +1,93 @@
+package model.calendar;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import model.events.RobustCalEvent;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CalendarSnapshotTest {
+  CalendarImpl cal;
+
+  @BeforeEach
+  void setUp() {
+    cal = new CalendarImpl("Work", "America/New_York");
+    cal.createSingleNormalEvent("Review", "2024-07-01T13:00", "2024-07-01T14:00");
+    cal.createRecurringNormalEventsNTimes(
+            "Standup", "2024-07-01T09:00", "2024-07-01T09:15", "MWF", 12
+    );
+  }
+
+  @Test
+  void getSnapshot_isUnchangedByLaterEdits() {
+    CalendarSnapshot before = cal.getSnapshot();
+    cal.editSingleEvent("start", "Review", "2024-07-01T13:00", "2024-07-01T14:00",
+            "2024-07-01T13:30");
+    cal.editEventAndMaybeAll("location", "Standup", "2024-07-03T09:00", "online");
+    cal.createSingleAllDayEvent("Offsite", "2024-07-02");
+    assertEquals(13, before.getEvents().size());
+    assertEquals("busy", before.showStatusOnDateAtTime("2024-07-01T13:15"));
+    assertEquals("available", before.showStatusOnDateAtTime("2024-07-02T12:00"));
+    assertTrue(before.printAllEventsOnDate("2024-07-03").stream()
+            .allMatch((it) -> it.getLocation() == null));
+    CalendarSnapshot after = cal.getSnapshot();
+    assertEquals(14, after.getEvents().size());
+    assertEquals("available", after.showStatusOnDateAtTime("2024-07-01T13:15"));
+    assertEquals("busy", after.showStatusOnDateAtTime("2024-07-02T12:00"));
+    assertTrue(after.printAllEventsOnDate("2024-07-03").stream()
+            .allMatch((it) -> it.getLocation() != null));
+  }
+
+  @Test
+  void getSnapshot_printsTheSameAsTheCalendar() throws IOException {
+    cal.editSingleEvent("subject", "Standup", "2024-07-05T09:00", "2024-07-05T09:15", "Demo");
+    CalendarSnapshot snapshot = cal.getSnapshot();
+    assertEquals(
+            cal.printAllEventsBetweenDates("2024-06-30T00:00", "2024-08-01T00:00").toString(),
+            snapshot.printAllEventsBetweenDates("2024-06-30T00:00", "2024-08-01T00:00")
+                    .toString()
+    );
+    assertEquals(cal.printAllEventsOnDate("2024-07-05").toString(),
+            snapshot.printAllEventsOnDate("2024-07-05").toString());
+    assertEquals(cal.getEvents(), snapshot.getEvents());
+    StringBuilder fromCalendar = new StringBuilder();
+    cal.writeEventsBetweenDates("2024-06-30T00:00", "2024-08-01T00:00", fromCalendar);
+    StringBuilder fromSnapshot = new StringBuilder();
+    snapshot.writeEventsBetweenDates("2024-06-30T00:00", "2024-08-01T00:00", fromSnapshot);
+    assertEquals(fromCalendar.toString(), fromSnapshot.toString());
+  }
+
+  @Test
+  void getSnapshot_readersNeverSeeHalfEditedSeries() throws Exception {
+    ExecutorService pool = Executors.newFixedThreadPool(2);
+    // only the writer touches the calendar itself; the reader only sees snapshots
+    Future<?> writer = pool.submit(() -> {
+      for (int i = 0; i < 200; i++) {
+        cal.editEventAndMaybeAll("location", "Standup", "2024-07-01T09:00",
+                (i % 2 == 0) ? "online" : "physical");
+      }
+    });
+    Future<?> reader = pool.submit(() -> {
+      while (!writer.isDone()) {
+        List<RobustCalEvent> series = cal.getSnapshot()
+                .printAllEventsBetweenDates("2024-06-30T00:00", "2024-08-01T00:00")
+                .stream().filter((it) -> it.getSubject().equals("Standup")).toList();
+        assertEquals(12, series.size());
+        assertTrue(series.stream().map(RobustCalEvent::getLocation)
+                .collect(Collectors.toSet()).size() <= 1);
+      }
+    });
+    writer.get(60, TimeUnit.SECONDS);
+    reader.get(60, TimeUnit.SECONDS);
+    pool.shutdown();
+  }
+}
@@ -0,0 +1,63 @@
+package model.calendar;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import model.events.RobustCalEvent;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarCalendarTest extends CalendarImplTest {
+  @BeforeEach
+  @Override
+  void setUp() {
+    cal = new ColumnarCalendar();
+  }
+
+  @Test
+  void getEvents_sortsEventsAddedOutOfOrderAndIgnoresDuplicates() {
+    cal.createSingleNormalEvent("Late", "2024-07-03T09:00", "2024-07-03T10:00");
+    cal.createSingleNormalEvent("Early", "2024-07-01T09:00", "2024-07-01T10:00");
+    cal.createSingleAllDayEvent("Middle", "2024-07-02");
+    cal.createSingleNormalEvent("Early", "2024-07-01T09:00", "2024-07-01T10:00");
+    assertEquals(List.of("Early", "Middle", "Late"),
+            cal.getEvents().stream().map(RobustCalEvent::getSubject).toList());
+    assertTrue(cal.getEvents().contains(cal.getEvent("Middle", "2024-07-02T08:00")));
+  }
+
+  @Test
+  void editSingleEvent_keepsDescriptionLocationAndStatusOfRow() {
+    cal.createSingleNormalEvent("Talk", "2024-07-01T09:00", "2024-07-01T10:00");
+    cal.editSingleEvent("description", "Talk", "2024-07-01T09:00", "2024-07-01T10:00", "Keynote");
+    cal.editSingleEvent("location", "Talk", "2024-07-01T09:00", "2024-07-01T10:00", "online");
+    cal.editSingleEvent("status", "Talk", "2024-07-01T09:00", "2024-07-01T10:00", "public");
+    cal.editSingleEvent("start", "Talk", "2024-07-01T09:00", "2024-07-01T10:00", "2024-07-01T08:30");
+    RobustCalEvent event = cal.getEvent("Talk", "2024-07-01T08:30");
+    assertEquals("Keynote", event.getDescription());
+    assertEquals("online", event.getLocation().getStringRepresentation());
+    assertEquals("public", event.getStatus().getStringRepresentation());
+  }
+
+  @Test
+  void showStatusOnDateAtTime_matchesFullScanOnManyEditedEvents() {
+    LocalDateTime base = LocalDateTime.parse("2024-01-01T00:00");
+    for (int i = 0; i < 3000; i++) {
+      LocalDateTime start = base.plusMinutes(i * 7919L % 40000);
+      cal.createSingleNormalEvent("E" + i, start.toString(), start.plusMinutes(i % 300).toString());
+    }
+    for (int i = 0; i < 3000; i += 3) {
+      LocalDateTime start = base.plusMinutes(i * 7919L % 40000);
+      cal.editSingleEvent("end", "E" + i, start.toString(), start.plusMinutes(i % 300).toString(),
+              start.plusMinutes(i % 300 + 45).toString());
+    }
+    for (int minute = 0; minute < 40000; minute += 37) {
+      LocalDateTime time = base.plusMinutes(minute);
+      boolean busy = cal.getEvents().stream()
+              .anyMatch(e -> e.getStartDateTime().isBefore(time) && e.getEndDateTime().isAfter(time));
+      assertEquals(busy ? "busy" : "available", cal.showStatusOnDateAtTime(time.toString()));
+    }
+  }
+}
@@ -0,0 +1,161 @@
+package model.calendar;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import model.calendars.CalendarsImpl;
+import model.calendars.SampleCalendars;
+
+import static model.calendars.CalendarsContents.contentsOf;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentStoreTest {
+  @TempDir
+  Path dir;
+  CalendarsImpl calendars;
+
+  @BeforeEach
+  void setUp() {
+    // the stored series spreads over two months
+    calendars = SampleCalendars.withSyncFrom("2024-07-23T10:00");
+    RobustCalendar work = calendars.getActiveCal();
+    LocalDateTime start = LocalDateTime.parse("2024-01-01T08:00");
+    for (int i = 0; i < 500; i++) {
+      work.createSingleNormalEvent("Task " + i, start.plusHours(17 * i), start.plusHours(17 * i + 1));
+    }
+  }
+
+  private Map<String, String> reopened(Path directory) throws IOException {
+    CalendarsImpl loaded = CalendarsImpl.load(SegmentStore.open(directory));
+    assertEquals(calendars.getActiveCal().getName(), loaded.getActiveCal().getName());
+    return contentsOf(loaded);
+  }
+
+  private static List<String> segmentsIn(Path directory) throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.map((it) -> it.getFileName().toString())
+              .filter((it) -> it.startsWith("segment-"))
+              .sorted()
+              .toList();
+    }
+  }
+
+  @Test
+  void load_givesBackWhatWasSaved() throws IOException {
+    Path store = dir.resolve("store");
+    calendars.save(SegmentStore.open(store));
+    assertEquals(contentsOf(calendars), reopened(store));
+    assertEquals(List.of("segment-0"), segmentsIn(store));
+  }
+
+  @Test
+  void save_onlyWritesTheMonthsThatChanged() throws IOException {
+    Path store = dir.resolve("store");
+    SegmentStore segments = SegmentStore.open(store);
+    long full = calendars.save(segments);
+
+    RobustCalendar work = calendars.getActiveCal();
+    work.editSingleEvent("location", "Task 3", "2024-01-03T11:00", "2024-01-03T12:00", "online");
+    long oneMonth = calendars.save(segments);
+    assertTrue(oneMonth < full / 5, oneMonth + " of " + full);
+    assertEquals(contentsOf(calendars), reopened(store));
+
+    // nothing changed, so only the manifest is written
+    long unchanged = calendars.save(segments);
+    assertTrue(unchanged < oneMonth);
+    assertEquals(List.of("segment-0", "segment-1"), segmentsIn(store));
+  }
+
+  @Test
+  void save_followsEveryKindOfChange() throws IOException {
+    Path store = dir.resolve("store");
+    SegmentStore segments = SegmentStore.open(store);
+    calendars.save(segments);
+    RobustCalendar work = calendars.getActiveCal();
+
+    // an event moving to another month leaves its old month as well
+    work.editSingleEvent("start", "Task 0", "2024-01-01T08:00", "2024-01-01T09:00", "2023-12-31T23:00");
+    work.editEventAndMaybeOnward("subject", "Sync", "2024-07-30T10:00", "Sync 2");
+    calendars.save(segments);
+    assertEquals(contentsOf(calendars), reopened(store));
+
+    // editing one occurrence stores it apart from the rule, which then skips its date
+    work.editSingleEvent("status", "Standup", "2024-07-03T09:00", "2024-07-03T09:15", "public");
+    work.editEventAndMaybeAll("subject", "Retro", "2024-07-12T08:00", "Demo");
+    work.createRecurringAllDayEventsNTimes("Offsite", "2025-02-03", "M", 3);
+    calendars.save(segments);
+    assertEquals(contentsOf(calendars), reopened(store));
+
+    // a new zone moves every timed event, and a new name keeps the calendar
+    calendars.editCalendar("Work", "timezone", "Asia/Tokyo");
+    calendars.editCalendar("Work", "name", "Office");
+    calendars.save(segments);
+    assertEquals(contentsOf(calendars), reopened(store));
+  }
+
+  @Test
+  void save_afterLoadOnlyWritesLaterChanges() throws IOException {
+    Path store = dir.resolve("store");
+    long full = calendars.save(SegmentStore.open(store));
+    SegmentStore segments = SegmentStore.open(store);
+    calendars = CalendarsImpl.load(segments);
+    RobustCalendar work = calendars.getActiveCal();
+    work.editSingleEvent("status", "Task 360", "2024-09-12T08:00", "2024-09-12T09:00", "public");
+    work.createSingleNormalEvent("Late", "2024-09-02T18:00", "2024-09-02T19:00");
+    long oneMonth = calendars.save(segments);
+    assertTrue(oneMonth < full / 5, oneMonth + " of " + full);
+    assertEquals(contentsOf(calendars), reopened(store));
+  }
+
+  @Test
+  void save_compactsSegmentsMostlyReplaced() throws IOException {
+    Path store = dir.resolve("store");
+    SegmentStore segments = SegmentStore.open(store);
+    long full = calendars.save(segments);
+    RobustCalendar work = calendars.getActiveCal();
+    LocalDateTime start = LocalDateTime.parse("2024-01-01T08:00");
+    // rewrite every month one after another, leaving older segments mostly garbage
+    for (int i = 0; i < 500; i += 25) {
+      String from = start.plusHours(17 * i).toString();
+      String to = start.plusHours(17 * i + 1).toString();
+      work.editSingleEvent("description", "Task " + i, from, to, "round " + i);
+      calendars.save(segments);
+    }
+    List<String> left = segmentsIn(store);
+    assertFalse(left.contains("segment-0"), left.toString());
+    assertTrue(left.size() <= 16, left.toString());
+    long size = 0;
+    for (String segment : left) {
+      size += Files.size(store.resolve(segment));
+    }
+    assertTrue(size < 2 * full, size + " against " + full);
+    assertEquals(contentsOf(calendars), reopened(store));
+  }
+
+  @Test
+  void load_rejectsDamagedSegmentsAndForgetsUnfinishedSaves() throws IOException {
+    Path store = dir.resolve("store");
+    calendars.save(SegmentStore.open(store));
+    // a save cut short before its manifest was written
+    Files.write(store.resolve("segment-1"), new byte[]{1, 2, 3});
+    assertEquals(contentsOf(calendars), reopened(store));
+    assertEquals(List.of("segment-0"), segmentsIn(store));
+
+    try (FileChannel channel = FileChannel.open(store.resolve("segment-0"), StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.wrap(new byte[]{0x55}), 40);
+    }
+    assertThrows(IOException.class, () -> CalendarsImpl.load(SegmentStore.open(store)));
+  }
+}
@@ -0,0 +1,75 @@
+package model.calendar;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import model.calendars.CalendarsImpl;
+import model.calendars.RobustCalendars;
+import model.calendars.SampleCalendars;
+
+import static model.calendars.CalendarsContents.contentsOf;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotFileTest {
+  @TempDir
+  Path dir;
+  CalendarsImpl calendars;
+
+  @BeforeEach
+  void setUp() {
+    calendars = SampleCalendars.withSyncFrom("2024-07-02T10:00");
+  }
+
+  @Test
+  void load_givesBackWhatWasSaved() throws IOException {
+    Path file = dir.resolve("calendars.snapshot");
+    long size = calendars.save(file);
+    assertEquals(size, Files.size(file));
+    CalendarsImpl loaded = CalendarsImpl.load(file);
+    assertEquals(contentsOf(calendars), contentsOf(loaded));
+    assertEquals("Work", loaded.getActiveCal().getName());
+    assertFalse(Files.exists(dir.resolve("calendars.snapshot.tmp")));
+  }
+
+  @Test
+  void load_keepsSeriesEditableAsBefore() throws IOException {
+    Path file = dir.resolve("calendars.snapshot");
+    calendars.save(file);
+    CalendarsImpl loaded = CalendarsImpl.load(file);
+    for (RobustCalendars model : new RobustCalendars[]{calendars, loaded}) {
+      RobustCalendar work = model.getActiveCal();
+      work.editEventAndMaybeAll("subject", "Standup", "2024-07-03T09:00", "Daily");
+      work.editEventAndMaybeOnward("location", "Sync", "2024-07-09T10:00", "physical");
+      work.editSingleEvent("location", "Retro", "2024-07-12T08:00", "2024-07-12T17:00", "online");
+    }
+    assertEquals(contentsOf(calendars), contentsOf(loaded));
+    assertEquals(
+            calendars.getActiveCal().printAllEventsBetweenDates("2024-07-01T00:00", "2024-09-01T00:00").toString(),
+            loaded.getActiveCal().printAllEventsBetweenDates("2024-07-01T00:00", "2024-09-01T00:00").toString()
+    );
+  }
+
+  @Test
+  void load_rejectsDamagedAndCutShortFiles() throws IOException {
+    Path file = dir.resolve("calendars.snapshot");
+    long size = calendars.save(file);
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.wrap(new byte[]{0x55}), 20);
+    }
+    assertThrows(IOException.class, () -> CalendarsImpl.load(file));
+
+    calendars.save(file);
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+      channel.truncate(size - 10);
+    }
+    assertThrows(IOException.class, () -> CalendarsImpl.load(file));
+  }
+}
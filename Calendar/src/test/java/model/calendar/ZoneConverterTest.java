@@ -0,0 +1,41 @@
+package model.calendar;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ZoneConverterTest {
+  @Test
+  void convert_matchesZonedDateTimeAcrossTransitions() {
+    String[][] pairs = {
+        {"America/New_York", "Europe/London"},
+        {"Australia/Sydney", "America/Los_Angeles"},
+        {"Europe/Paris", "Asia/Tokyo"},
+        {"Asia/Tokyo", "America/New_York"}
+    };
+    for (String[] pair : pairs) {
+      ZoneId from = ZoneId.of(pair[0]);
+      ZoneId to = ZoneId.of(pair[1]);
+      ZoneConverter converter = ZoneConverter.of(from, to);
+      // every 15 minutes for two years walks through each zone's gaps and overlaps
+      for (LocalDateTime dateTime = LocalDateTime.parse("2024-01-01T00:00");
+           dateTime.isBefore(LocalDateTime.parse("2026-01-01T00:00"));
+           dateTime = dateTime.plusMinutes(15)) {
+        assertEquals(dateTime.atZone(from).withZoneSameInstant(to).toLocalDateTime(),
+                converter.convert(dateTime), pair[0] + " to " + pair[1] + " at " + dateTime);
+      }
+    }
+  }
+
+  @Test
+  void of_withoutAZoneConvertsNothing() {
+    LocalDateTime dateTime = LocalDateTime.parse("2024-03-10T02:30");
+    assertTrue(ZoneConverter.of(null, ZoneId.of("UTC")).isIdentity());
+    assertEquals(dateTime, ZoneConverter.of(ZoneId.of("UTC"), null).convert(dateTime));
+    assertSame(ZoneConverter.of(ZoneId.of("UTC"), ZoneId.of("Asia/Tokyo")),
+            ZoneConverter.of(ZoneId.of("UTC"), ZoneId.of("Asia/Tokyo")));
+  }
+}
@@ -0,0 +1,36 @@
+package model.calendars;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import model.calendar.RobustCalendar;
+
+/**
+ * What tests of saving, journaling and recovering calendars compare: every
+ * calendar by name, along with its zone and every event in it, written out
+ * with every property and whether the event is part of a series.
+ */
+public final class CalendarsContents {
+  private CalendarsContents() {
+  }
+
+  /**
+   * Write out the contents of every calendar in the given collection.
+   *
+   * @param calendars the calendars to write out.
+   * @return the contents of each calendar by its name.
+   */
+  public static Map<String, String> contentsOf(RobustCalendars calendars) {
+    Map<String, String> contents = new TreeMap<>();
+    for (RobustCalendar calendar : calendars.getAllCalendars()) {
+      StringBuilder events = new StringBuilder(calendar.getZone()).append('\n');
+      calendar.getEvents().forEach((it) -> events.append(it)
+              .append(' ').append(it.getDescription())
+              .append(' ').append(it.getLocation())
+              .append(' ').append(it.getStatus())
+              .append(' ').append(it.getSeries() != null).append('\n'));
+      contents.put(calendar.getName(), events.toString());
+    }
+    return contents;
+  }
+}
@@ -6,9 +6,15 @@ import org.junit.jupiter.api.Test;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import model.events.RobustCalEvent;
 
@@ -221,6 +227,77 @@ public class CalendarsImplTest {
             e.getEndDateTime().equals(LocalDateTime.parse("2025-07-17T18:00"))));
   }
 
+  @Test
+  void testCopyAllEventsOnDayWithTypedDates() {
+    // checks that the typed overload shifts events the same way the string one does.
+    calendarsModel.createCalendar("SourceCal", "UTC");
+    calendarsModel.createCalendar("TargetCal", "UTC");
+    calendarsModel.useCalendar("SourceCal");
+    calendarsModel.getActiveCal().createSingleNormalEvent("Review",
+            LocalDateTime.parse("2025-07-15T09:00"), LocalDateTime.parse("2025-07-15T10:00"));
+    calendarsModel.getActiveCal().createSingleAllDayEvent("Offsite", LocalDate.parse("2025-07-15"));
+
+    calendarsModel.copyAllEventsOnDay(LocalDate.parse("2025-07-15"), "TargetCal",
+            LocalDate.parse("2025-07-20"));
+
+    calendarsModel.useCalendar("TargetCal");
+    assertNotNull(calendarsModel.getActiveCal().getEvent("Review", "2025-07-20T09:00"));
+    assertTrue(calendarsModel.getActiveCal().getEvent("Offsite", "2025-07-20T08:00").isAllDay());
+  }
+
+  @Test
+  void testCopyAllEventsOnDayKeepsDescriptionLocationAndStatus() {
+    // checks that copies keep the properties set on the events they copy.
+    calendarsModel.createCalendar("SourceCal", "UTC");
+    calendarsModel.createCalendar("TargetCal", "UTC");
+    calendarsModel.useCalendar("SourceCal");
+    calendarsModel.getActiveCal().createSingleNormalEvent("Review", "2025-07-15T09:00", "2025-07-15T10:00");
+    calendarsModel.getActiveCal().editSingleEvent("description", "Review", "2025-07-15T09:00", "2025-07-15T10:00", "Q3 numbers");
+    calendarsModel.getActiveCal().editSingleEvent("location", "Review", "2025-07-15T09:00", "2025-07-15T10:00", "online");
+    calendarsModel.getActiveCal().editSingleEvent("status", "Review", "2025-07-15T09:00", "2025-07-15T10:00", "public");
+
+    calendarsModel.copyAllEventsOnDay("2025-07-15", "TargetCal", "2025-07-16");
+
+    calendarsModel.useCalendar("TargetCal");
+    RobustCalEvent copy = calendarsModel.getActiveCal().getEvent("Review", "2025-07-16T09:00");
+    assertEquals("Q3 numbers", copy.getDescription());
+    assertEquals("online", copy.getLocation().getStringRepresentation());
+    assertEquals("public", copy.getStatus().getStringRepresentation());
+  }
+
+  @Test
+  void testCopyAllEventsOnDayConvertsToTargetZone() {
+    // ensures copies happen at the same instant in the target calendar's zone.
+    calendarsModel.createCalendar("NewYork", "America/New_York");
+    calendarsModel.createCalendar("Tokyo", "Asia/Tokyo");
+    calendarsModel.useCalendar("NewYork");
+    calendarsModel.getActiveCal().createSingleNormalEvent("Call", "2025-07-15T20:00", "2025-07-15T21:00");
+    calendarsModel.getActiveCal().createSingleAllDayEvent("Offsite", "2025-07-15");
+
+    calendarsModel.copyAllEventsOnDay("2025-07-15", "Tokyo", "2025-07-20");
+
+    calendarsModel.useCalendar("Tokyo");
+    assertNotNull(calendarsModel.getActiveCal().getEvent("Call", "2025-07-21T09:00"));
+    assertTrue(calendarsModel.getActiveCal().getEvent("Offsite", "2025-07-20T08:00").isAllDay());
+  }
+
+  @Test
+  void testCopyAllEventsOnDayIntoTheSameCalendar() {
+    // checks that copying a day within one calendar copies each event exactly once.
+    calendarsModel.createCalendar("SourceCal", "UTC");
+    calendarsModel.useCalendar("SourceCal");
+    calendarsModel.getActiveCal().createSingleNormalEvent("Review", "2025-07-15T09:00", "2025-07-15T10:00");
+    calendarsModel.getActiveCal().createRecurringNormalEventsNTimes("Standup", "2025-07-15T11:00", "2025-07-15T11:15", "TR", 4);
+
+    // the copies land on the very day being copied, one hour later
+    calendarsModel.copySingleEvent("Review", "2025-07-15T09:00", "SourceCal", "2025-07-15T12:00");
+    calendarsModel.copyAllEventsOnDay("2025-07-15", "SourceCal", "2025-07-15");
+    assertEquals(6, calendarsModel.getActiveCal().getEvents().size());
+
+    calendarsModel.copyAllEventsOnDay("2025-07-15", "SourceCal", "2025-07-16");
+    assertEquals(3, calendarsModel.getActiveCal().printAllEventsOnDate("2025-07-16").size());
+  }
+
   @Test
   void testCopyAllEventsOnDayNoEvents() {
     // verifies that copying events on a day with no events does nothing but doesn't throw.
@@ -311,4 +388,57 @@ public class CalendarsImplTest {
     assertThrows(NoSuchElementException.class,
             () -> calendarsModel.copyAllEventsInBetweenDates("2025-07-01", "2025-07-01", "NonExistentCal", "2025-07-01"));
   }
-}
\ No newline at end of file
+
+  @Test
+  void testCreateCalendarDuplicateNameRejected() {
+    // ensures that a second calendar with a name already in use is not created.
+    calendarsModel.createCalendar("Work", "America/New_York");
+    assertThrows(IllegalArgumentException.class,
+            () -> calendarsModel.createCalendar("Work", "Europe/London"));
+    calendarsModel.useCalendar("Work");
+    assertEquals("America/New_York", calendarsModel.getActiveCal().getZone());
+    assertEquals(1, calendarsModel.getAllCalendars().size());
+  }
+
+  @Test
+  void testEditCalendarNameToTakenNameRejected() {
+    // verifies that renaming onto another calendar's name leaves both calendars alone.
+    calendarsModel.createCalendar("Work", "UTC");
+    calendarsModel.createCalendar("Home", "Asia/Tokyo");
+    assertThrows(IllegalArgumentException.class,
+            () -> calendarsModel.editCalendar("Work", "name", "Home"));
+    calendarsModel.useCalendar("Work");
+    assertEquals("UTC", calendarsModel.getActiveCal().getZone());
+    calendarsModel.useCalendar("Home");
+    assertEquals("Asia/Tokyo", calendarsModel.getActiveCal().getZone());
+    assertDoesNotThrow(() -> calendarsModel.editCalendar("Home", "name", "Home"));
+  }
+
+  @Test
+  void testCreateCalendarConcurrentlyKeepsNamesUnique() throws Exception {
+    // checks that sessions racing to create the same calendars each get one of them.
+    ExecutorService pool = Executors.newFixedThreadPool(8);
+    List<Future<Integer>> sessions = new ArrayList<>();
+    for (int session = 0; session < 8; session++) {
+      sessions.add(pool.submit(() -> {
+        int created = 0;
+        for (int i = 0; i < 500; i++) {
+          try {
+            calendarsModel.createCalendar("Cal" + i, "UTC");
+            created++;
+          } catch (IllegalArgumentException e) {
+            // another session created it first
+          }
+        }
+        return created;
+      }));
+    }
+    int created = 0;
+    for (Future<Integer> session : sessions) {
+      created += session.get(60, TimeUnit.SECONDS);
+    }
+    pool.shutdown();
+    assertEquals(500, created);
+    assertEquals(500, calendarsModel.getAllCalendars().size());
+  }
+}
@@ -0,0 +1,105 @@
+package model.calendars;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import model.calendar.RobustCalendar;
+import model.events.RobustCalEvent;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A JUnit 5 stress test for the {@link ConcurrentCalendars} class, running
+ * readers and writers against the model interfaces at the same time.
+ */
+public class ConcurrentCalendarsTest {
+  private static final int ROUNDS = 300;
+  private RobustCalendars calendarsModel;
+
+  @BeforeEach
+  void setUp() {
+    calendarsModel = new ConcurrentCalendars(new CalendarsImpl());
+    calendarsModel.createCalendar("Shared", "America/New_York");
+    calendarsModel.createCalendar("Reports", "Europe/London");
+    calendarsModel.useCalendar("Shared");
+    // 20 weekly events, then edited as a whole series by the writer below
+    calendarsModel.getActiveCal().createRecurringNormalEventsNTimes(
+            "Standup", "2024-01-01T09:00", "2024-01-01T09:15", "M", 20
+    );
+  }
+
+  @Test
+  void readersNeverSeeHalfEditedSeries() throws Exception {
+    ExecutorService pool = Executors.newFixedThreadPool(6);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<?>> tasks = new ArrayList<>();
+    // a writer flipping the location of the whole series back and forth
+    tasks.add(pool.submit(() -> {
+      start.await();
+      RobustCalendar cal = calendarsModel.getActiveCal();
+      for (int i = 0; i < ROUNDS; i++) {
+        cal.editEventAndMaybeAll("location", "Standup", "2024-01-08T09:00",
+                (i % 2 == 0) ? "online" : "physical");
+      }
+      return null;
+    }));
+    // an ingest thread adding events and copying them to another calendar
+    tasks.add(pool.submit(() -> {
+      start.await();
+      for (int i = 0; i < ROUNDS; i++) {
+        String day = String.format("2024-03-%02d", i % 28 + 1);
+        calendarsModel.getActiveCal().createSingleNormalEvent(
+                "Ingest " + i, day + "T1" + (i % 10) + ":00", day + "T1" + (i % 10) + ":30"
+        );
+        calendarsModel.copyAllEventsOnDay(day, "Reports", day);
+      }
+      return null;
+    }));
+    // readers querying the series, statuses, and all events
+    for (int reader = 0; reader < 4; reader++) {
+      tasks.add(pool.submit(() -> {
+        start.await();
+        RobustCalendar cal = calendarsModel.getActiveCal();
+        for (int i = 0; i < ROUNDS; i++) {
+          List<RobustCalEvent> series = cal.printAllEventsBetweenDates(
+                  "2024-01-01T00:00", "2024-06-01T00:00"
+          ).stream().filter((it) -> it.getSubject().equals("Standup")).toList();
+          assertEquals(20, series.size());
+          assertEquals(1, series.stream().map(RobustCalEvent::getLocation)
+                  .collect(Collectors.toSet()).size());
+          assertEquals("busy", cal.showStatusOnDateAtTime("2024-01-15T09:10"));
+          assertTrue(cal.getEvents().size() >= 20);
+          assertEquals("Shared", cal.getName());
+        }
+        return null;
+      }));
+    }
+    start.countDown();
+    for (Future<?> task : tasks) {
+      task.get(60, TimeUnit.SECONDS);
+    }
+    pool.shutdown();
+    assertEquals(20 + ROUNDS, calendarsModel.getActiveCal().getEvents().size());
+    calendarsModel.useCalendar("Reports");
+    assertEquals(ROUNDS, calendarsModel.getActiveCal().getEvents().stream()
+            .filter((it) -> it.getSubject().startsWith("Ingest")).count());
+  }
+
+  @Test
+  void eventsHandedOutAreDetachedFromLaterEdits() {
+    RobustCalendar cal = calendarsModel.getActiveCal();
+    RobustCalEvent before = cal.getEvent("Standup", "2024-01-08T09:00");
+    cal.editEventAndMaybeAll("subject", "Standup", "2024-01-08T09:00", "Sync");
+    assertEquals("Standup", before.getSubject());
+    assertEquals("Sync", cal.getEvent("Sync", "2024-01-08T09:00").getSubject());
+  }
+}
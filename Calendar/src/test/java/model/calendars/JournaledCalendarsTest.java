@@ -0,0 +1,253 @@
+package model.calendars;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import model.calendar.RobustCalendar;
+
+import static model.calendars.CalendarsContents.contentsOf;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A JUnit 5 test class for the {@link JournaledCalendars} class, checking that
+ * replaying a journal rebuilds the calendars journaled in it, and that
+ * checkpoints keep the journal short without losing changes.
+ */
+public class JournaledCalendarsTest {
+  @TempDir
+  Path dir;
+
+  @Test
+  void replayRebuildsCalendarsEventsAndEdits() throws IOException {
+    Path log = dir.resolve("calendars.log");
+    Map<String, String> expected;
+    try (JournaledCalendars calendarsModel = JournaledCalendars.open(log, new CalendarsImpl())) {
+      calendarsModel.createCalendar("Work", "America/New_York");
+      calendarsModel.createCalendar("Home", "Europe/London");
+      calendarsModel.useCalendar("Work");
+      RobustCalendar work = calendarsModel.getActiveCal();
+      work.createSingleNormalEvent("Review", "2025-03-03T10:00", "2025-03-03T11:00");
+      work.createRecurringNormalEventsNTimes("Standup", "2025-03-03T09:00", "2025-03-03T09:15", "MWF", 6);
+      work.createRecurringAllDayEventsUntilDate("Retro", "2025-03-07", "F", "2025-03-28");
+      work.editEventAndMaybeAll("location", "Standup", "2025-03-05T09:00", "online");
+      work.editEventAndMaybeOnward("subject", "Retro", "2025-03-14T08:00", "Demo");
+      work.editSingleEvent("description", "Review", "2025-03-03T10:00", "2025-03-03T11:00", "Q1");
+      // a change that fails is journaled, and fails again on replay
+      assertThrows(DateTimeException.class, () -> work.createSingleNormalEvent("Backwards", "2025-03-03T11:00", "2025-03-03T10:00"));
+      calendarsModel.copyAllEventsInBetweenDates("2025-03-03", "2025-03-10", "Home", "2025-04-07");
+      calendarsModel.editCalendar("Work", "name", "Office");
+      calendarsModel.useCalendar("Office");
+      calendarsModel.getActiveCal().createSingleAllDayEvent("Offsite", "2025-05-01");
+      expected = contentsOf(calendarsModel);
+    }
+
+    try (JournaledCalendars calendarsModel = JournaledCalendars.open(log, new CalendarsImpl())) {
+      assertEquals(expected, contentsOf(calendarsModel));
+      assertEquals("Office", calendarsModel.getActiveCal().getName());
+    }
+  }
+
+  @Test
+  void tornTailIsDroppedAndLaterChangesFollowTheRest() throws IOException {
+    Path log = dir.resolve("calendars.log");
+    Map<String, String> expected;
+    try (JournaledCalendars calendarsModel = JournaledCalendars.open(log, new CalendarsImpl())) {
+      calendarsModel.createCalendar("Work", "UTC");
+      calendarsModel.useCalendar("Work");
+      calendarsModel.getActiveCal().createSingleNormalEvent("Kept", "2025-03-03T10:00", "2025-03-03T11:00");
+      expected = contentsOf(calendarsModel);
+      calendarsModel.getActiveCal().createSingleNormalEvent("Torn", "2025-03-04T10:00", "2025-03-04T11:00");
+    }
+    // a crash halfway through writing the last record
+    try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+      channel.truncate(channel.size() - 5);
+    }
+
+    try (JournaledCalendars calendarsModel = JournaledCalendars.open(log, new CalendarsImpl())) {
+      assertEquals(expected, contentsOf(calendarsModel));
+      calendarsModel.getActiveCal().createSingleNormalEvent("After", "2025-03-05T10:00", "2025-03-05T11:00");
+      expected = contentsOf(calendarsModel);
+    }
+    // garbage after the last record, such as blocks allocated but never written
+    Files.write(log, new byte[]{0, 0, 0, 12, 1, 2, 3, 4, 5}, StandardOpenOption.APPEND);
+
+    try (JournaledCalendars calendarsModel = JournaledCalendars.open(log, new CalendarsImpl())) {
+      assertEquals(expected, contentsOf(calendarsModel));
+      assertNotNull(calendarsModel.getActiveCal().getEvent("After", "2025-03-05T10:00"));
+    }
+  }
+
+  @Test
+  void changesAfterCloseFailAndForeignFilesAreRejected() throws IOException {
+    Path log = dir.resolve("calendars.log");
+    JournaledCalendars calendarsModel = JournaledCalendars.open(log, new CalendarsImpl());
+    calendarsModel.close();
+    assertThrows(IllegalStateException.class, () -> calendarsModel.createCalendar("Work", "UTC"));
+
+    Path other = dir.resolve("other.txt");
+    Files.writeString(other, "create calendar --name Work --timezone UTC\n");
+    assertThrows(IOException.class, () -> JournaledCalendars.open(other, new CalendarsImpl()));
+  }
+
+  @Test
+  void replayOnlyPassesOverChangesTheModelRejected() throws IOException {
+    Path log = dir.resolve("calendars.log");
+    try (JournaledCalendars calendarsModel = JournaledCalendars.open(log, new CalendarsImpl())) {
+      calendarsModel.createCalendar("Work", "UTC");
+      assertThrows(IllegalArgumentException.class, () -> calendarsModel.createCalendar("Work", "UTC"));
+    }
+
+    // a failure the model doesn't reject commands with means the calendars can't be trusted
+    CalendarsImpl broken = new CalendarsImpl() {
+      @Override
+      public void createCalendar(String name, String timeZone) {
+        throw new UnsupportedOperationException("broken");
+      }
+    };
+    assertThrows(UnsupportedOperationException.class, () -> JournaledCalendars.open(log, broken));
+  }
+
+  // the names of the files in the given directory, sorted
+  private static List<String> filesIn(Path directory) throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.map((it) -> it.getFileName().toString()).sorted().toList();
+    }
+  }
+
+  // the size of every file in the given directory together
+  private static long sizeOf(Path directory) throws IOException {
+    long size = 0;
+    for (String file : filesIn(directory)) {
+      size += Files.size(directory.resolve(file));
+    }
+    return size;
+  }
+
+  @Test
+  void recoverLoadsTheCheckpointAndReplaysOnlyLaterChanges() throws IOException {
+    Path store = dir.resolve("store");
+    Map<String, String> expected;
+    try (JournaledCalendars calendarsModel = JournaledCalendars.recover(store)) {
+      calendarsModel.createCalendar("Work", "America/New_York");
+      calendarsModel.useCalendar("Work");
+      RobustCalendar work = calendarsModel.getActiveCal();
+      work.createRecurringNormalEventsNTimes("Standup", "2025-03-03T09:00", "2025-03-03T09:15", "MWF", 6);
+      work.createSingleNormalEvent("Review", "2025-03-03T10:00", "2025-03-03T11:00");
+      assertEquals(List.of("journal-0", "store"), filesIn(store));
+
+      CheckpointStats stats = calendarsModel.checkpoint();
+      assertEquals(List.of("journal-1", "store"), filesIn(store));
+      assertEquals(1, stats.checkpoints());
+      assertEquals(0, stats.failures());
+      assertEquals(sizeOf(store.resolve("store")), stats.lastBytesWritten());
+      assertTrue(stats.lastDurationNanos() >= stats.lastPauseNanos());
+      assertEquals(stats, calendarsModel.getCheckpointStats());
+
+      // changes after the checkpoint, replayed on top of the store
+      work.editEventAndMaybeAll("location", "Standup", "2025-03-05T09:00", "online");
+      calendarsModel.createCalendar("Home", "Europe/London");
+      calendarsModel.copyAllEventsInBetweenDates("2025-03-03", "2025-03-05", "Home", "2025-04-07");
+      expected = contentsOf(calendarsModel);
+    }
+
+    try (JournaledCalendars calendarsModel = JournaledCalendars.recover(store)) {
+      assertEquals(expected, contentsOf(calendarsModel));
+      assertEquals("Work", calendarsModel.getActiveCal().getName());
+      calendarsModel.getActiveCal().createSingleAllDayEvent("Offsite", "2025-05-01");
+      calendarsModel.checkpoint();
+      expected = contentsOf(calendarsModel);
+      assertEquals(List.of("journal-2", "store"), filesIn(store));
+    }
+
+    try (JournaledCalendars calendarsModel = JournaledCalendars.recover(store)) {
+      assertEquals(expected, contentsOf(calendarsModel));
+    }
+  }
+
+  @Test
+  void checkpointOnlyWritesTheMonthsChangedSinceTheLastOne() throws IOException {
+    Path store = dir.resolve("store");
+    Map<String, String> expected;
+    long full;
+    try (JournaledCalendars calendarsModel = JournaledCalendars.recover(store)) {
+      calendarsModel.createCalendar("Work", "UTC");
+      calendarsModel.useCalendar("Work");
+      RobustCalendar work = calendarsModel.getActiveCal();
+      LocalDateTime start = LocalDateTime.parse("2024-01-01T08:00");
+      for (int i = 0; i < 500; i++) {
+        work.createSingleNormalEvent("Task " + i, start.plusHours(17 * i), start.plusHours(17 * i + 1));
+      }
+      full = calendarsModel.checkpoint().lastBytesWritten();
+
+      work.editSingleEvent("location", "Task 3", "2024-01-03T11:00", "2024-01-03T12:00", "online");
+      long oneMonth = calendarsModel.checkpoint().lastBytesWritten();
+      assertTrue(oneMonth < full / 5, oneMonth + " of " + full);
+      expected = contentsOf(calendarsModel);
+    }
+
+    // recovered from the store, later checkpoints stay incremental
+    try (JournaledCalendars calendarsModel = JournaledCalendars.recover(store)) {
+      assertEquals(expected, contentsOf(calendarsModel));
+      calendarsModel.getActiveCal().createSingleNormalEvent("Late", "2024-09-02T18:00", "2024-09-02T19:00");
+      long oneMonth = calendarsModel.checkpoint().lastBytesWritten();
+      assertTrue(oneMonth < full / 5, oneMonth + " of " + full);
+      expected = contentsOf(calendarsModel);
+    }
+
+    try (JournaledCalendars calendarsModel = JournaledCalendars.recover(store)) {
+      assertEquals(expected, contentsOf(calendarsModel));
+    }
+  }
+
+  @Test
+  void backgroundCheckpointsKeepUpWithChanges() throws IOException, InterruptedException {
+    Path store = dir.resolve("store");
+    Map<String, String> expected;
+    try (JournaledCalendars calendarsModel = JournaledCalendars.recover(store)) {
+      calendarsModel.createCalendar("Work", "UTC");
+      calendarsModel.useCalendar("Work");
+      RobustCalendar work = calendarsModel.getActiveCal();
+      calendarsModel.checkpointEvery(Duration.ofMillis(5));
+      LocalDateTime start = LocalDateTime.parse("2025-01-01T09:00");
+      for (int i = 0; i < 2000; i++) {
+        work.createSingleNormalEvent("Event " + i, start.plusHours(i), start.plusHours(i).plusMinutes(30));
+      }
+      long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+      while (calendarsModel.getCheckpointStats().checkpoints() < 2 && System.nanoTime() < deadline) {
+        Thread.sleep(5);
+      }
+      expected = contentsOf(calendarsModel);
+      CheckpointStats stats = calendarsModel.getCheckpointStats();
+      assertTrue(stats.checkpoints() >= 2);
+      assertTrue(stats.totalBytesWritten() >= stats.lastBytesWritten());
+      assertTrue(stats.totalDurationNanos() >= stats.lastDurationNanos());
+    }
+
+    try (JournaledCalendars calendarsModel = JournaledCalendars.recover(store)) {
+      assertEquals(expected, contentsOf(calendarsModel));
+    }
+    // only the newest checkpoint and the journal after it are kept
+    assertEquals(2, filesIn(store).size());
+  }
+
+  @Test
+  void onlyCalendarsRecoveredFromADirectoryCheckpoint() throws IOException {
+    try (JournaledCalendars calendarsModel = JournaledCalendars.open(dir.resolve("calendars.log"), new CalendarsImpl())) {
+      assertThrows(IllegalStateException.class, calendarsModel::checkpoint);
+      assertThrows(IllegalStateException.class, () -> calendarsModel.checkpointEvery(Duration.ofSeconds(1)));
+      assertEquals(0, calendarsModel.getCheckpointStats().checkpoints());
+    }
+  }
+}
@@ -0,0 +1,53 @@
+package model.calendars;
+
+import java.time.LocalDateTime;
+
+import model.calendar.RobustCalendar;
+
+/**
+ * The calendars tests of saving and loading calendars start from: two
+ * calendars in different zones, holding single events, series only stored as
+ * rules, occurrences edited apart from their rules, a series storing its
+ * events, and copies of events from one calendar into the other.
+ */
+public final class SampleCalendars {
+  private SampleCalendars() {
+  }
+
+  /**
+   * Build the sample calendars, using the "Work" calendar.
+   *
+   * @param syncStart the start of the first event of the "Sync" series, which
+   *                  stores its events; it must be on a Tuesday.
+   * @return the calendars.
+   */
+  public static CalendarsImpl withSyncFrom(String syncStart) {
+    CalendarsImpl calendars = new CalendarsImpl();
+    calendars.createCalendar("Work", "America/New_York");
+    calendars.createCalendar("Home", "Europe/London");
+    calendars.useCalendar("Work");
+    RobustCalendar work = calendars.getActiveCal();
+    work.createSingleNormalEvent("Review", "2024-07-01T13:00", "2024-07-01T14:00");
+    work.createRecurringNormalEventsNTimes(
+            "Standup", "2024-07-01T09:00", "2024-07-01T09:15", "MWF", 12
+    );
+    work.createRecurringAllDayEventsUntilDate("Retro", "2024-07-05", "F", "2024-08-30");
+    // a series storing its events, one of which is edited apart from the rest
+    LocalDateTime sync = LocalDateTime.parse(syncStart);
+    work.createRecurringNormalEventsNTimes(
+            "Sync", syncStart, sync.plusMinutes(30).toString(), "TR", 6
+    );
+    work.editEventAndMaybeAll("location", "Sync", sync.plusDays(2).toString(), "online");
+    work.editSingleEvent("status", "Sync", sync.plusDays(7).toString(),
+            sync.plusDays(7).plusMinutes(30).toString(), "private");
+    work.editSingleEvent("description", "Review", "2024-07-01T13:00", "2024-07-01T14:00",
+            "Q3 plans");
+    // occurrences stored apart from the rules they were edited out of
+    work.editSingleEvent("description", "Standup", "2024-07-03T09:00", "2024-07-03T09:15", "demo");
+    work.editSingleEvent("end", "Retro", "2024-07-19T08:00", "2024-07-19T17:00",
+            "2024-07-19T18:00");
+    work.createSingleAllDayEvent("Offsite", "2024-07-12");
+    calendars.copyAllEventsInBetweenDates("2024-07-01", "2024-07-05", "Home", "2024-07-15");
+    return calendars;
+  }
+}
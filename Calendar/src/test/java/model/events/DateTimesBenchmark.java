@@ -0,0 +1,60 @@
+package model.events;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+/**
+ * A rough benchmark of {@link DateTimes} against the {@code DateTimeFormatter}-backed
+ * {@code parse} methods of {@link LocalDate} and {@link LocalDateTime}, run with
+ * {@code gradle benchmark}. Each parser gets a few warm-up rounds before being timed.
+ */
+public final class DateTimesBenchmark {
+  private static final int TEXTS = 100_000;
+  private static final int ROUNDS = 10;
+
+  public static void main(String[] args) {
+    String[] dateTimes = new String[TEXTS];
+    String[] dates = new String[TEXTS];
+    LocalDateTime dateTime = LocalDateTime.parse("2024-01-01T00:00");
+    for (int i = 0; i < TEXTS; i++) {
+      dateTimes[i] = dateTime.toString();
+      dates[i] = dateTime.toLocalDate().toString();
+      dateTime = dateTime.plusMinutes(7919);
+    }
+    report("date and time", dateTimes, LocalDateTime::parse, DateTimes::parseDateTime);
+    report("date", dates, LocalDate::parse, DateTimes::parseDate);
+  }
+
+  private static <T> void report(
+          String form,
+          String[] texts,
+          Function<String, T> formatter,
+          Function<String, T> handRolled
+  ) {
+    double formatterNanos = time(texts, formatter);
+    double handRolledNanos = time(texts, handRolled);
+    System.out.printf("%s: formatter %.1f ns/parse, hand-rolled %.1f ns/parse, %.1fx faster%n",
+            form, formatterNanos, handRolledNanos, formatterNanos / handRolledNanos);
+  }
+
+  private static <T> double time(String[] texts, Function<String, T> parser) {
+    long best = Long.MAX_VALUE;
+    int checksum = 0;
+    for (int round = 0; round < 2 * ROUNDS; round++) {
+      long start = System.nanoTime();
+      for (String text : texts) {
+        checksum += parser.apply(text).hashCode();
+      }
+      long elapsed = System.nanoTime() - start;
+      // the first half of the rounds only warm up the JIT
+      if (round >= ROUNDS) {
+        best = Math.min(best, elapsed);
+      }
+    }
+    if (checksum == 42) {
+      System.out.print("");
+    }
+    return (double) best / texts.length;
+  }
+}
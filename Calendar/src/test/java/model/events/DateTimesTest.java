@@ -0,0 +1,56 @@
+package model.events;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DateTimesTest {
+  @Test
+  void parseDateTime_matchesLocalDateTimeParse() {
+    String[] texts = {
+        "2024-07-01T09:30", "2024-02-29T00:00", "2000-02-29T23:59", "0000-01-01T00:00",
+        "2024-12-31T12:05", "2024-07-01T09:30:15", "2024-07-01T09:30:15.5", "+12024-07-01T09:30",
+        "2023-02-29T10:00", "1900-02-29T10:00", "2024-04-31T10:00", "2024-13-01T10:00",
+        "2024-00-10T10:00", "2024-07-00T10:00", "2024-07-01T24:00", "2024-07-01T09:60",
+        "2024-07-01 09:30", "2024-7-01T09:30", "2024-07-01T9:30", "2024/07/01T09:30",
+        "2024-07-01T09-30", "2024-07-01t09:30", "２０２４-07-01T09:30", "2024-07-01", "", "garbage"
+    };
+    for (String text : texts) {
+      assertSameOutcome(text, LocalDateTime::parse, DateTimes::parseDateTime);
+    }
+    assertThrows(NullPointerException.class, () -> DateTimes.parseDateTime(null));
+  }
+
+  @Test
+  void parseDate_matchesLocalDateParse() {
+    String[] texts = {
+        "2024-07-01", "2024-02-29", "2000-02-29", "0000-01-01", "9999-12-31",
+        "2023-02-29", "1900-02-29", "2024-06-31", "2024-13-01", "2024-00-10", "2024-07-00",
+        "2024-07-32", "2024-7-01", "2024/07/01", "2024-07-0a", "+12024-07-01", "2024-07-01T09:30", ""
+    };
+    for (String text : texts) {
+      assertSameOutcome(text, LocalDate::parse, DateTimes::parseDate);
+    }
+    assertThrows(NullPointerException.class, () -> DateTimes.parseDate(null));
+  }
+
+  private static <T> void assertSameOutcome(String text, Function<String, T> expected, Function<String, T> actual) {
+    Object expectedOutcome;
+    Object actualOutcome;
+    try {
+      expectedOutcome = expected.apply(text);
+    } catch (RuntimeException e) {
+      expectedOutcome = e.getClass() + ": " + e.getMessage();
+    }
+    try {
+      actualOutcome = actual.apply(text);
+    } catch (RuntimeException e) {
+      actualOutcome = e.getClass() + ": " + e.getMessage();
+    }
+    assertEquals(expectedOutcome, actualOutcome, text);
+  }
+}